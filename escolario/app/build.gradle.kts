@@ -14,6 +14,21 @@ android {
         versionName = "1.0"
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        javaCompileOptions {
+            annotationProcessorOptions {
+                // Esquema exportado pelo Room a cada versão (app/schemas), usado pelo MigrationTest
+                arguments += mapOf("room.schemaLocation" to "$projectDir/schemas")
+            }
+        }
+    }
+
+    sourceSets {
+        // O Robolectric lê os assets da variante testada: os esquemas entram só no debug
+        getByName("debug").assets.srcDir("$projectDir/schemas")
+        // Gerador de dados sintéticos (e senha padrão): só nos testes, fora do APK
+        getByName("test").java.srcDir("src/sharedTest/java")
+        getByName("androidTest").java.srcDir("src/sharedTest/java")
     }
 
     buildTypes {
@@ -32,6 +47,26 @@ android {
     viewBinding{
         enable = true;
     }
+    buildFeatures {
+        // BuildConfig.DEBUG restringe a exportação de métricas de jank às builds de debug
+        buildConfig = true
+    }
+    testOptions {
+        unitTests {
+            // Robolectric: testes JVM com Room sobre SQLite real
+            isIncludeAndroidResources = true
+            all {
+                // Escalas do benchmark de carga: ./gradlew testDebugUnitTest -Pbenchmark.scales=1000,10000
+                it.systemProperty("benchmark.scales", project.findProperty("benchmark.scales") ?: "")
+                // Estresse/soak: ./gradlew testDebugUnitTest -Pstress.threads=1,2,4,8 -Pstress.seconds=60
+                it.systemProperty("stress.threads", project.findProperty("stress.threads") ?: "")
+                it.systemProperty("stress.seconds", project.findProperty("stress.seconds") ?: "")
+                // Regrava os planos esperados do QueryPlanTest: -PqueryPlans.update=true
+                it.systemProperty("queryPlans.update", project.findProperty("queryPlans.update") ?: "")
+                it.maxHeapSize = "2g"
+            }
+        }
+    }
 }
 
 dependencies {
@@ -69,7 +104,12 @@ dependencies {
     implementation(libs.material)
     implementation(libs.activity)
     implementation(libs.constraintlayout)
+    implementation(libs.lifecycle.viewmodel)
+    implementation(libs.lifecycle.livedata)
     testImplementation(libs.junit)
+    testImplementation(libs.robolectric)
+    testImplementation(libs.test.core)
+    testImplementation(libs.core.testing)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
     implementation ("org.mindrot:jbcrypt:0.4")
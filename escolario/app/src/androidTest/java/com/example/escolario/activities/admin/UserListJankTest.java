@@ -0,0 +1,92 @@
+package com.example.escolario.activities.admin;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.escolario.R;
+import com.example.escolario.data.AppDatabase;
+import com.example.escolario.data.SyntheticDataGenerator;
+import com.example.escolario.ui.JankMonitor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static androidx.test.espresso.Espresso.onView;
+import static androidx.test.espresso.action.ViewActions.click;
+import static androidx.test.espresso.action.ViewActions.swipeDown;
+import static androidx.test.espresso.action.ViewActions.swipeUp;
+import static androidx.test.espresso.action.ViewActions.typeText;
+import static androidx.test.espresso.matcher.ViewMatchers.withId;
+import static org.junit.Assert.*;
+
+/**
+ * Orçamento de jank da tela de administração: rolagem de rvUsers e
+ * digitação na busca, com uma lista de tamanho realista.
+ *
+ * Os resumos são registrados no Logcat com a tag "UserListJankTest".
+ */
+@RunWith(AndroidJUnit4.class)
+public class UserListJankTest {
+    private static final String TAG = "UserListJankTest";
+    private static final int USERS = 1_000;
+
+    // Até 10% de quadros lentos, p90 dentro de 2 quadros de 60 Hz, nenhum congelado
+    private static final JankMonitor.Budget BUDGET = new JankMonitor.Budget(0.10, 33, 0);
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        AppDatabase db = AppDatabase.getDatabase(context);
+        db.clearAllTables();
+        db.dictionary().reset();
+        new SyntheticDataGenerator(7L, 2025).populate(db, USERS, 0, 0);
+    }
+
+    @After
+    public void tearDown() {
+        AppDatabase.getDatabase(context).clearAllTables();
+    }
+
+    @Test
+    public void scrollingUserList_staysWithinJankBudget() {
+        try (ActivityScenario<UserListActivity> scenario = ActivityScenario.launch(UserListActivity.class)) {
+            for (int i = 0; i < 8; i++) {
+                onView(withId(R.id.rvUsers)).perform(swipeUp());
+            }
+            for (int i = 0; i < 8; i++) {
+                onView(withId(R.id.rvUsers)).perform(swipeDown());
+            }
+
+            assertWithinBudget(scenario, JankMonitor.SECTION_SCROLL);
+        }
+    }
+
+    @Test
+    public void typingInSearch_staysWithinJankBudget() {
+        try (ActivityScenario<UserListActivity> scenario = ActivityScenario.launch(UserListActivity.class)) {
+            onView(withId(R.id.searchView)).perform(click());
+            onView(withId(androidx.appcompat.R.id.search_src_text)).perform(typeText("ana silva"));
+
+            assertWithinBudget(scenario, JankMonitor.SECTION_SEARCH);
+        }
+    }
+
+    private static void assertWithinBudget(ActivityScenario<UserListActivity> scenario, String section) {
+        JankMonitor.Summary[] summary = new JankMonitor.Summary[1];
+        scenario.onActivity(activity -> summary[0] = activity.getJankMonitor().summary(section));
+
+        Log.i(TAG, summary[0].toString());
+        List<String> violations = BUDGET.violations(summary[0]);
+        assertTrue(violations.toString(), violations.isEmpty());
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.escolario.data;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.escolario.model.Note;
+import com.example.escolario.model.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes instrumentados do backup/restauração online.
+ *
+ * Além da ida e volta dos dados, mede a vazão do backup e a latência de
+ * consultas de primeiro plano (findByEmail) com e sem backup em andamento.
+ * As métricas são registradas no Logcat com a tag "DatabaseBackupTest".
+ */
+@RunWith(AndroidJUnit4.class)
+public class DatabaseBackupTest {
+    private static final String TAG = "DatabaseBackupTest";
+    private static final int USERS = 2_000;
+    private static final int NOTES_PER_USER = 10;
+
+    private Context context;
+    private AppDatabase db;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        db = AppDatabase.getDatabase(context);
+        db.clearAllTables();
+        db.dictionary().reset();
+
+        db.runInTransaction(() -> {
+            for (int i = 0; i < USERS; i++) {
+                db.userDao().insert(new User("Aluno " + i, "aluno" + i + "@escola.com",
+                        "hash", SyntheticDataGenerator.cpfFor(i), false));
+            }
+        });
+        int subjectId = db.dictionary().subjectId("Matemática");
+        int typeId = db.dictionary().typeId("Prova");
+        db.runInTransaction(() -> {
+            for (int i = 0; i < USERS; i++) {
+                int userId = db.userDao().findByEmail("aluno" + i + "@escola.com").id;
+                for (int n = 0; n < NOTES_PER_USER; n++) {
+                    db.noteDao().insert(new Note(userId, subjectId, typeId,
+                            "Conteúdo da avaliação " + n, "10/03/2025"));
+                }
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        AppDatabase.getDatabase(context).clearAllTables();
+        for (File f : DatabaseBackup.listBackups(context)) {
+            f.delete();
+        }
+    }
+
+    @Test
+    public void backupAndRestore_roundTripsData() throws Exception {
+        File archive = DatabaseBackup.backup(context).archive;
+
+        // Alteração posterior ao backup deve desaparecer após a restauração
+        db.userDao().insert(new User("Depois", "depois@escola.com", "hash", 99_999_999_999L, false));
+
+        DatabaseBackup.restore(context, archive);
+        db = AppDatabase.getDatabase(context);
+
+        assertNotNull(db.userDao().findByEmail("aluno0@escola.com"));
+        assertNotNull(db.userDao().findByEmail("aluno" + (USERS - 1) + "@escola.com"));
+        assertNull(db.userDao().findByEmail("depois@escola.com"));
+    }
+
+    @Test
+    public void restore_waitsForDatabaseUsers() throws Exception {
+        File archive = DatabaseBackup.backup(context).archive;
+        String tenant = AppDatabase.currentTenant(context);
+        AppDatabase held = AppDatabase.acquireDatabase(context, tenant);
+
+        Thread restore = new Thread(() -> {
+            try {
+                DatabaseBackup.restore(context, archive);
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        });
+        restore.start();
+
+        // Enquanto a reserva existe o banco continua aberto e utilizável
+        restore.join(500);
+        assertTrue(restore.isAlive());
+        assertNotNull(held.userDao().findByEmail("aluno0@escola.com"));
+
+        AppDatabase.releaseDatabase(context, tenant);
+        restore.join(DatabaseBackup.RESTORE_WAIT_MS);
+        assertFalse(restore.isAlive());
+        assertFalse(held.isOpen());
+        assertNotNull(AppDatabase.getDatabase(context).userDao()
+                .findByEmail("aluno0@escola.com"));
+    }
+
+    @Test
+    public void restore_rejectsCorruptedArchive() throws Exception {
+        File archive = DatabaseBackup.backup(context).archive;
+
+        // Corrompe um byte no meio do arquivo comprimido
+        try (RandomAccessFile raf = new RandomAccessFile(archive, "rw")) {
+            raf.seek(raf.length() / 2);
+            int b = raf.read();
+            raf.seek(raf.length() / 2);
+            raf.write(b ^ 0xFF);
+        }
+
+        try {
+            DatabaseBackup.restore(context, archive);
+            fail("Backup corrompido não deveria ser restaurado");
+        } catch (Exception expected) {
+            // O banco em uso deve permanecer intacto
+            assertNotNull(AppDatabase.getDatabase(context).userDao()
+                    .findByEmail("aluno0@escola.com"));
+        }
+    }
+
+    @Test
+    public void restore_rejectsInvalidManifestVersion() throws Exception {
+        File archive = new File(context.getCacheDir(), "versao-invalida.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(archive))) {
+            zip.putNextEntry(new ZipEntry("manifest.properties"));
+            zip.write("schemaVersion=dezenove\n".getBytes(StandardCharsets.ISO_8859_1));
+            zip.closeEntry();
+        }
+
+        try {
+            DatabaseBackup.restore(context, archive);
+            fail("Manifesto com versão inválida não deveria ser restaurado");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("dezenove"));
+            assertNotNull(AppDatabase.getDatabase(context).userDao()
+                    .findByEmail("aluno0@escola.com"));
+        } finally {
+            archive.delete();
+        }
+    }
+
+    @Test
+    public void restore_rejectsVersionsWithoutMigration() throws Exception {
+        File archive = new File(context.getCacheDir(), "versao-antiga.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(archive))) {
+            zip.putNextEntry(new ZipEntry("manifest.properties"));
+            zip.write("schemaVersion=4\n".getBytes(StandardCharsets.ISO_8859_1));
+            zip.closeEntry();
+        }
+
+        try {
+            DatabaseBackup.restore(context, archive);
+            fail("Backup anterior às migrações explícitas não deveria ser restaurado");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("v4"));
+            assertNotNull(AppDatabase.getDatabase(context).userDao()
+                    .findByEmail("aluno0@escola.com"));
+        } finally {
+            archive.delete();
+        }
+    }
+
+    @Test
+    public void backup_measuresThroughputAndForegroundLatency() throws Exception {
+        List<Long> baseline = sampleLookups(null);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        DatabaseBackup.BackupResult[] result = new DatabaseBackup.BackupResult[1];
+        Thread backupThread = new Thread(() -> {
+            try {
+                while (running.get()) {
+                    result[0] = DatabaseBackup.backup(context);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Backup falhou", e);
+            }
+        });
+        backupThread.start();
+        List<Long> duringBackup = sampleLookups(running);
+        backupThread.join();
+
+        assertNotNull(result[0]);
+        Log.i(TAG, "Vazão: " + result[0]);
+        Log.i(TAG, String.format(Locale.US,
+                "findByEmail p50/p95 (µs) sem backup: %d/%d, durante backup: %d/%d",
+                percentile(baseline, 50), percentile(baseline, 95),
+                percentile(duringBackup, 50), percentile(duringBackup, 95)));
+    }
+
+    /**
+     * Executa consultas de primeiro plano e retorna as latências em µs.
+     * Se stopFlag for informado, é zerado ao final para encerrar o backup.
+     */
+    private List<Long> sampleLookups(AtomicBoolean stopFlag) {
+        List<Long> samples = new ArrayList<>();
+        UserDao dao = AppDatabase.getDatabase(context).userDao();
+        for (int i = 0; i < 500; i++) {
+            long start = SystemClock.elapsedRealtimeNanos();
+            dao.findByEmail("aluno" + (i * 7 % USERS) + "@escola.com");
+            samples.add((SystemClock.elapsedRealtimeNanos() - start) / 1_000);
+        }
+        if (stopFlag != null) {
+            stopFlag.set(false);
+        }
+        return samples;
+    }
+
+    private static long percentile(List<Long> samples, int p) {
+        List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        return sorted.get(Math.min(sorted.size() - 1, sorted.size() * p / 100));
+    }
+}
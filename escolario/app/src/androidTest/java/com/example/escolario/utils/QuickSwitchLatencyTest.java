@@ -0,0 +1,68 @@
+package com.example.escolario.utils;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Latência da troca de aluno por PIN com a chave real do Android Keystore
+ * (o Robolectric não tem Keystore, ver QuickSwitchTest).
+ *
+ * As medidas são registradas no Logcat com a tag "QuickSwitchLatencyTest".
+ */
+@RunWith(AndroidJUnit4.class)
+public class QuickSwitchLatencyTest {
+    private static final String TAG = "QuickSwitchLatencyTest";
+    private static final String TENANT = "latencia";
+    private static final int SAMPLES = 200;
+
+    // Uma troca deve parecer instantânea: bem abaixo de um toque (~100 ms)
+    private static final long MAX_P95_MICROS = 50_000;
+
+    private QuickSwitch quickSwitch;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        quickSwitch = new QuickSwitch(context, TENANT);
+        quickSwitch.setEnabled(true);
+        quickSwitch.remember(1, "Ana", "ana@escola.br");
+        quickSwitch.setPin(1, "1234");
+    }
+
+    @After
+    public void tearDown() {
+        quickSwitch.setEnabled(false);
+    }
+
+    @Test
+    public void verifyPin_isCheapEnoughForInstantSwitch() {
+        List<Long> samples = new ArrayList<>(SAMPLES);
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = SystemClock.elapsedRealtimeNanos();
+            assertEquals(QuickSwitch.Result.OK, quickSwitch.verifyPin(1, "1234"));
+            samples.add((SystemClock.elapsedRealtimeNanos() - start) / 1_000);
+        }
+        Collections.sort(samples);
+        long p50 = samples.get(SAMPLES / 2);
+        long p95 = samples.get(SAMPLES * 95 / 100);
+
+        Log.i(TAG, String.format(Locale.US, "verifyPin p50/p95 (µs): %d/%d", p50, p95));
+        assertTrue("verifyPin p95 de " + p95 + " µs", p95 <= MAX_P95_MICROS);
+    }
+}
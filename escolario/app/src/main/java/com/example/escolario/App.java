@@ -1,59 +1,86 @@
-package com.example.escolario;
-
-import android.app.Application;
-import com.example.escolario.data.AppDatabase;
-import com.example.escolario.model.User;
-import com.example.escolario.utils.PasswordUtils;
-
-/**
- * Classe principal da aplicação que estende Application.
- *
- * Responsável por inicializar componentes globais e garantir
- * a existência de um usuário administrador padrão.
- */
-public class App extends Application {
-
-    // Credenciais padrão do administrador
-    private static final String ADMIN_EMAIL = "admin@escolario.com";
-    private static final String ADMIN_PASSWORD = "Admin123";
-    private static final String ADMIN_CPF = "00000000000";
-
-    @Override
-    public void onCreate() {
-        super.onCreate();
-        initializeAdminUser();
-    }
-
-    /**
-     * Inicializa o usuário administrador padrão em uma thread separada.
-     *
-     * Verifica se o admin já existe no banco de dados antes de criar.
-     * Executa em background para não bloquear a thread principal.
-     */
-    private void initializeAdminUser() {
-        new Thread(() -> {
-            AppDatabase database = AppDatabase.getDatabase(this);
-
-            // Verifica se o admin já está cadastrado
-            if (database.userDao().findByEmail(ADMIN_EMAIL) == null) {
-                createAdminUser(database);
-            }
-        }).start();
-    }
-
-    /**
-     * Cria um novo usuário administrador no banco de dados.
-     *
-     * param database Instância do banco de dados Room
-     */
-    private void createAdminUser(AppDatabase database) {
-        User admin = new User(
-                "Administrador",
-                ADMIN_EMAIL,
-                PasswordUtils.hash(ADMIN_PASSWORD), // Senha hasheada
-                ADMIN_CPF,
-                true // Flag de administrador
-        );
-        database.userDao().insert(admin);
-    }
+package com.example.escolario;
+
+import android.app.Application;
+import android.util.Log;
+import com.example.escolario.data.AppDatabase;
+import com.example.escolario.data.ReminderScheduler;
+import com.example.escolario.model.User;
+import com.example.escolario.utils.Cpf;
+import com.example.escolario.utils.KdfCalibrator;
+import com.example.escolario.utils.PasswordUtils;
+import com.example.escolario.utils.RestartActivity;
+
+/**
+ * Classe principal da aplicação que estende Application.
+ *
+ * Responsável por inicializar componentes globais e garantir
+ * a existência de um usuário administrador padrão em cada escola.
+ */
+public class App extends Application {
+    private static final String TAG = "App";
+
+    // Credenciais padrão do administrador
+    private static final String ADMIN_EMAIL = "admin@escolario.com";
+    private static final String ADMIN_PASSWORD = "Admin123";
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        if (RestartActivity.isRestartProcess(this)) {
+            return; // Processo de reinício: só encerra o anterior e abre o login
+        }
+        // Custo do hash de senhas adequado ao aparelho
+        KdfCalibrator.init(this);
+        initializeAdminUser();
+    }
+
+    /**
+     * Inicializa o usuário administrador padrão em uma thread separada.
+     *
+     * Verifica se o admin já existe no banco de dados antes de criar.
+     * Executa em background para não bloquear a thread principal.
+     * Cada banco de escola é verificado ao ser aberto, inclusive o de uma
+     * escola nova.
+     */
+    private void initializeAdminUser() {
+        AppDatabase.setOpenListener(this, (tenant, database) -> {
+            new Thread(() -> {
+                // Segura o banco: o de outra escola pode ser fechado pela fila LRU
+                AppDatabase db = AppDatabase.acquireDatabase(this, tenant);
+                try {
+                    // Verifica se o admin já está cadastrado
+                    if (db.userDao().findByEmail(ADMIN_EMAIL) == null) {
+                        createAdminUser(db);
+                    }
+                } catch (RuntimeException e) {
+                    // Banco fechado nesse meio tempo (restauração); verificado na próxima abertura
+                    Log.w(TAG, "Falha ao verificar o administrador de " + tenant, e);
+                } finally {
+                    AppDatabase.releaseDatabase(this, tenant);
+                }
+            }).start();
+            // Lembretes só da escola atual (a varredura usa o banco dela)
+            if (tenant.equals(AppDatabase.currentTenant(this))) {
+                ReminderScheduler.getInstance(this).start();
+            }
+        });
+        // Abre o banco da escola atual
+        new Thread(() -> AppDatabase.getDatabase(this)).start();
+    }
+
+    /**
+     * Cria um novo usuário administrador no banco de dados.
+     *
+     * param database Instância do banco de dados Room
+     */
+    private void createAdminUser(AppDatabase database) {
+        User admin = new User(
+                "Administrador",
+                ADMIN_EMAIL,
+                PasswordUtils.hash(ADMIN_PASSWORD), // Senha hasheada
+                Cpf.ADMIN, // Chave reservada, nunca um CPF digitado
+                true // Flag de administrador
+        );
+        database.userDao().insert(admin);
+    }
 }
\ No newline at end of file
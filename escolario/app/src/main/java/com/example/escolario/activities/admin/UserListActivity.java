@@ -1,144 +1,507 @@
-package com.example.escolario.activities.admin;
-
-import android.app.AlertDialog;
-import android.os.Bundle;
-import android.widget.Toast;
-import androidx.appcompat.app.AppCompatActivity;
-import androidx.appcompat.widget.SearchView;
-import androidx.recyclerview.widget.LinearLayoutManager;
-import com.example.escolario.data.AppDatabase;
-import com.example.escolario.databinding.ActivityUserListBinding;
-import com.example.escolario.model.User;
-import com.example.escolario.ui.UserAdapter;
-
-/**
- * Tela de administração para gerenciamento de usuários.
- * Funcionalidades principais:
- * - Listagem de usuários com RecyclerView
- * - Busca/filtro em tempo real
- * - Exclusão de usuários com confirmação
- */
-public class UserListActivity extends AppCompatActivity {
-    // Binding para acesso seguro às views (ViewBinding)
-    private ActivityUserListBinding binding;
-
-    // Adapter para a lista de usuários
-    private UserAdapter adapter;
-
-    @Override
-    protected void onCreate(Bundle savedInstanceState) {
-        super.onCreate(savedInstanceState);
-
-        // Configuração inicial do ViewBinding
-        binding = ActivityUserListBinding.inflate(getLayoutInflater());
-        setContentView(binding.getRoot());
-
-        // Configura a lista de usuários
-        setupRecyclerView();
-
-        // Botão de voltar - finaliza a activity atual
-        binding.btnBack.setOnClickListener(v -> finish());
-
-        // Configura a barra de pesquisa
-        setupSearchView();
-    }
-
-    /**
-     * Configura o RecyclerView e seus componentes:
-     * - LayoutManager (linear vertical)
-     * - Adapter com os dados
-     * - Observador para atualizações do banco
-     */
-    private void setupRecyclerView() {
-        // Cria o adapter com callback para exclusão
-        adapter = new UserAdapter(this::showDeleteDialog);
-
-        // Define o layout como lista linear vertical
-        binding.rvUsers.setLayoutManager(new LinearLayoutManager(this));
-        binding.rvUsers.setAdapter(adapter);
-
-        // Observa mudanças na lista de usuários não-administradores
-        AppDatabase.getDatabase(this).userDao()
-                .getAllRegularUsers()
-                .observe(this, users -> {
-                    if (users != null && !users.isEmpty()) {
-                        adapter.submitList(users); // Atualiza a lista
-                    } else {
-                        showEmptyState(); // Mostra estado vazio
-                    }
-                });
-    }
-
-    /**
-     * Mostra feedback quando não há usuários cadastrados
-     */
-    private void showEmptyState() {
-        Toast.makeText(this, "Nenhum usuário cadastrado", Toast.LENGTH_SHORT).show();
-    }
-
-    /**
-     * Configura a funcionalidade de busca/filtro
-     */
-    private void setupSearchView() {
-        binding.searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
-            @Override
-            public boolean onQueryTextSubmit(String query) {
-                return false; // Não necessário para busca em tempo real
-            }
-
-            @Override
-            public boolean onQueryTextChange(String newText) {
-                filterUsers(newText);
-                return true;
-            }
-        });
-    }
-
-    /**
-     * Filtra usuários conforme texto digitado
-     * @param searchText Texto para filtro (pode ser vazio)
-     */
-    private void filterUsers(String searchText) {
-        if (searchText.isEmpty()) {
-            // Mostra lista completa se vazio
-            AppDatabase.getDatabase(this)
-                    .userDao()
-                    .getAllRegularUsers()
-                    .observe(this, adapter::submitList);
-        } else {
-            // Aplica filtro com wildcard (%)
-            AppDatabase.getDatabase(this)
-                    .userDao()
-                    .searchUsers("%" + searchText + "%")
-                    .observe(this, adapter::submitList);
-        }
-    }
-
-    /**
-     * Mostra diálogo de confirmação para exclusão
-     * @param user Usuário a ser excluído
-     */
-    private void showDeleteDialog(User user) {
-        new AlertDialog.Builder(this)
-                .setTitle("Confirmar exclusão")
-                .setMessage("Excluir usuário " + user.name + "?")
-                .setPositiveButton("Excluir", (dialog, which) -> deleteUser(user))
-                .setNegativeButton("Cancelar", null)
-                .show();
-    }
-
-    /**
-     * Exclui usuário do banco de dados em thread secundária
-     * @param user Usuário a ser removido
-     */
-    private void deleteUser(User user) {
-        new Thread(() -> {
-            AppDatabase.getDatabase(this).userDao().delete(user);
-
-            // Feedback na thread principal
-            runOnUiThread(() ->
-                    Toast.makeText(this, "Usuário excluído", Toast.LENGTH_SHORT).show()
-            );
-        }).start();
-    }
-}
\ No newline at end of file
+package com.example.escolario.activities.admin;
+
+import android.app.AlertDialog;
+import android.content.Intent;
+import android.os.Bundle;
+import android.view.View;
+import android.widget.AdapterView;
+import android.widget.ArrayAdapter;
+import android.widget.EditText;
+import android.widget.Toast;
+import androidx.annotation.VisibleForTesting;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.SearchView;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import com.example.escolario.BuildConfig;
+import com.example.escolario.activities.auth.LoginActivity;
+import com.example.escolario.data.AppDatabase;
+import com.example.escolario.data.BulkUserDeleter;
+import com.example.escolario.data.DatabaseBackup;
+import com.example.escolario.databinding.ActivityUserListBinding;
+import com.example.escolario.model.SchoolClass;
+import com.example.escolario.model.SubjectCount;
+import com.example.escolario.model.User;
+import com.example.escolario.ui.JankMonitor;
+import com.example.escolario.ui.UserAdapter;
+import com.example.escolario.utils.LoginLatency;
+import com.example.escolario.utils.QuickSwitch;
+import com.example.escolario.utils.RestartActivity;
+import com.example.escolario.utils.SessionManager;
+import com.example.escolario.viewmodel.UserListViewModel;
+import com.google.android.material.snackbar.Snackbar;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Tela de administração para gerenciamento de usuários.
+ * Funcionalidades principais:
+ * - Resumo com totais (alunos, notas por matéria, notas da semana)
+ * - Listagem de usuários com RecyclerView, com as estatísticas de notas
+ *   de cada aluno (lidas por página)
+ * - Busca/filtro em tempo real, em toda a escola ou em uma turma
+ * - Turmas: cadastro e matrícula dos alunos selecionados
+ * - Exclusão de usuários com confirmação (individual ou em lote, com desfazer)
+ * - Backup e restauração do banco de dados
+ * - Modo de aparelho compartilhado (lista de alunos recentes e PIN)
+ *
+ * Os dados e as operações em andamento ficam no UserListViewModel; a
+ * Activity apenas observa e renderiza, então uma rotação não repete consultas.
+ */
+public class UserListActivity extends AppCompatActivity {
+    // Binding para acesso seguro às views (ViewBinding)
+    private ActivityUserListBinding binding;
+
+    // Adapter para a lista de usuários
+    private UserAdapter adapter;
+
+    // Estado da tela (preservado entre mudanças de configuração)
+    private UserListViewModel viewModel;
+
+    // Quantidade de matérias exibidas no resumo
+    private static final int SUMMARY_MAX_SUBJECTS = 3;
+
+    // Tempo sem digitação que encerra a seção de busca nas métricas de quadros
+    private static final long SEARCH_IDLE_MS = 500;
+
+    // Métricas de quadros da rolagem da lista e da busca
+    private JankMonitor jankMonitor;
+
+    // Turmas do filtro, na ordem do spinner (após "Todas as turmas")
+    private List<SchoolClass> classes = Collections.emptyList();
+
+    // Últimos totais recebidos (compõem a linha de resumo)
+    private int studentCount;
+    private int noteCount;
+    private int weekNoteCount;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+
+        // Configuração inicial do ViewBinding
+        binding = ActivityUserListBinding.inflate(getLayoutInflater());
+        setContentView(binding.getRoot());
+        // Fim da medição de latência do login (se aberta pelo login)
+        LoginLatency.reportFirstFrame(this);
+
+        viewModel = new ViewModelProvider(this).get(UserListViewModel.class);
+        jankMonitor = new JankMonitor(this, "UserListActivity");
+
+        // Configura o resumo e a lista de usuários
+        setupSummary();
+        setupRecyclerView();
+
+        // Botão de voltar - finaliza a activity atual
+        binding.btnBack.setOnClickListener(v -> finish());
+
+        // Backup/restauração do banco de dados
+        binding.btnBackup.setOnClickListener(v -> viewModel.createBackup());
+        binding.btnRestore.setOnClickListener(v -> showRestoreDialog());
+
+        // Modo compartilhado: desligar apaga a lista de recentes e os PINs
+        QuickSwitch quickSwitch = new QuickSwitch(this, AppDatabase.currentTenant(this));
+        binding.switchSharedDevice.setChecked(quickSwitch.isEnabled());
+        binding.switchSharedDevice.setOnCheckedChangeListener(
+                (button, checked) -> quickSwitch.setEnabled(checked));
+
+        // Configura a barra de pesquisa e o filtro por turma
+        setupSearchView();
+        setupClassFilter();
+
+        // Resultados das operações em andamento
+        observeOperations();
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        jankMonitor.start();
+        // A semana pode ter virado com a tela em segundo plano
+        viewModel.refreshWeek();
+    }
+
+    @Override
+    protected void onPause() {
+        jankMonitor.stop();
+        // Só em debug: resumo no Logcat e em JSON (files/perf), um arquivo por visita à tela
+        if (BuildConfig.DEBUG) {
+            jankMonitor.exportAsync(new File(getFilesDir(), "perf"));
+        }
+        super.onPause();
+    }
+
+    /**
+     * Métricas de quadros da tela (para testes de orçamento de jank).
+     */
+    @VisibleForTesting
+    public JankMonitor getJankMonitor() {
+        return jankMonitor;
+    }
+
+    /**
+     * Configura o RecyclerView e seus componentes:
+     * - LayoutManager (linear vertical)
+     * - Adapter com os dados
+     * - Observador para atualizações do banco
+     */
+    private void setupRecyclerView() {
+        // Cria o adapter com callback para exclusão
+        adapter = new UserAdapter(this::showDeleteDialog);
+
+        // Define o layout como lista linear vertical
+        binding.rvUsers.setLayoutManager(new LinearLayoutManager(this));
+        binding.rvUsers.setAdapter(adapter);
+        jankMonitor.trackScrolling(binding.rvUsers);
+
+        // Seleção múltipla (clique longo) para exclusão em lote
+        adapter.setOnSelectionChangedListener(this::onSelectionChanged);
+        binding.btnCancelSelection.setOnClickListener(v -> adapter.clearSelection());
+        binding.btnDeleteSelected.setOnClickListener(v -> showBulkDeleteDialog());
+        binding.btnEnrollSelected.setOnClickListener(v -> showEnrollDialog());
+        binding.btnUnenrollSelected.setOnClickListener(v -> unenrollSelected());
+
+        // Observa a lista (completa ou filtrada) mantida pelo ViewModel
+        viewModel.getUsers().observe(this, adapter::submitList);
+
+        // Estatísticas de notas: uma consulta por página exibida
+        adapter.setOnStatsPageNeededListener(viewModel::requestNoteStats);
+        viewModel.getNoteStats().observe(this, adapter::setNoteStats);
+    }
+
+    /**
+     * Configura o cabeçalho de resumo.
+     * Todos os valores vêm de contadores agregados (uma linha por total),
+     * atualizados pelo banco a cada inserção/exclusão - nenhuma lista
+     * completa é carregada para calculá-los.
+     */
+    private void setupSummary() {
+        // O contador de alunos também define o estado vazio
+        viewModel.getStudentCount().observe(this, count -> {
+            studentCount = count != null ? count : 0;
+            updateSummary();
+            if (studentCount == 0) {
+                showEmptyState();
+            }
+        });
+
+        viewModel.getNoteCount().observe(this, count -> {
+            noteCount = count != null ? count : 0;
+            updateSummary();
+        });
+
+        viewModel.getWeekNoteCount().observe(this, count -> {
+            weekNoteCount = count != null ? count : 0;
+            updateSummary();
+        });
+
+        viewModel.getSubjectCounts().observe(this, this::showSubjectCounts);
+    }
+
+    /**
+     * Observa progresso e resultados das operações executadas pelo ViewModel.
+     * Após uma rotação, a nova Activity recebe o estado atual de cada uma.
+     */
+    private void observeOperations() {
+        viewModel.getDeleteProgress().observe(this, progress -> {
+            if (progress == null) {
+                binding.pbBulkDelete.setVisibility(View.GONE);
+            } else {
+                binding.pbBulkDelete.setVisibility(View.VISIBLE);
+                binding.pbBulkDelete.setMax(progress[1]);
+                binding.pbBulkDelete.setProgress(progress[0]);
+            }
+        });
+
+        // Feedback da exclusão, com opção de desfazer
+        viewModel.getDeleted().observe(this, event -> {
+            BulkUserDeleter.Snapshot snapshot = event.getContentIfNotHandled();
+            if (snapshot == null) {
+                return;
+            }
+            String message = snapshot.size() == 1
+                    ? "Usuário excluído"
+                    : snapshot.size() + " usuários excluídos";
+            Snackbar.make(binding.getRoot(), message, Snackbar.LENGTH_LONG)
+                    .setAction("Desfazer", v -> viewModel.undoDelete(snapshot))
+                    .show();
+        });
+
+        viewModel.getBackupRunning().observe(this, running ->
+                binding.btnBackup.setEnabled(!Boolean.TRUE.equals(running)));
+
+        viewModel.getRestored().observe(this, event -> {
+            if (event.getContentIfNotHandled() != null) {
+                onBackupRestored();
+            }
+        });
+
+        viewModel.getMessages().observe(this, event -> {
+            String message = event.getContentIfNotHandled();
+            if (message != null) {
+                Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    /**
+     * Atualiza a linha de totais do resumo
+     */
+    private void updateSummary() {
+        binding.tvSummary.setText(String.format(Locale.getDefault(),
+                "Alunos: %d · Notas: %d · Esta semana: %d",
+                studentCount, noteCount, weekNoteCount));
+    }
+
+    /**
+     * Mostra as matérias com mais notas no resumo
+     * @param counts Contagem por matéria (ordenada da maior para a menor)
+     */
+    private void showSubjectCounts(List<SubjectCount> counts) {
+        if (counts == null || counts.isEmpty()) {
+            binding.tvSubjects.setText("Nenhuma nota registrada");
+            return;
+        }
+
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < counts.size() && i < SUMMARY_MAX_SUBJECTS; i++) {
+            if (i > 0) text.append(" · ");
+            text.append(counts.get(i).subject).append(": ").append(counts.get(i).count);
+        }
+        if (counts.size() > SUMMARY_MAX_SUBJECTS) {
+            text.append(" · +").append(counts.size() - SUMMARY_MAX_SUBJECTS);
+        }
+        binding.tvSubjects.setText(text);
+    }
+
+    /**
+     * Mostra feedback quando não há usuários cadastrados
+     */
+    private void showEmptyState() {
+        Toast.makeText(this, "Nenhum usuário cadastrado", Toast.LENGTH_SHORT).show();
+    }
+
+    /**
+     * Configura a funcionalidade de busca/filtro
+     */
+    private void setupSearchView() {
+        binding.searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+            @Override
+            public boolean onQueryTextSubmit(String query) {
+                return false; // Não necessário para busca em tempo real
+            }
+
+            @Override
+            public boolean onQueryTextChange(String newText) {
+                jankMonitor.pulse(JankMonitor.SECTION_SEARCH, SEARCH_IDLE_MS);
+                filterUsers(newText);
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Configura o filtro por turma ("Todas as turmas" + turmas cadastradas)
+     * e o cadastro de turmas
+     */
+    private void setupClassFilter() {
+        viewModel.getClasses().observe(this, loaded -> {
+            classes = loaded != null ? loaded : Collections.emptyList();
+            List<String> names = new ArrayList<>();
+            names.add("Todas as turmas");
+            int selected = 0;
+            for (int i = 0; i < classes.size(); i++) {
+                names.add(classes.get(i).toString());
+                if (classes.get(i).id == viewModel.getClassFilter()) {
+                    selected = i + 1;
+                }
+            }
+            ArrayAdapter<String> classAdapter = new ArrayAdapter<>(this,
+                    android.R.layout.simple_spinner_item, names);
+            classAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+            binding.spClassFilter.setAdapter(classAdapter);
+            // Mantém a turma escolhida após rotação ou nova turma
+            binding.spClassFilter.setSelection(selected);
+        });
+
+        binding.spClassFilter.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                int classId = position > 0 ? classes.get(position - 1).id : 0;
+                viewModel.setClassFilter(classId);
+                binding.btnUnenrollSelected.setVisibility(classId != 0 ? View.VISIBLE : View.GONE);
+            }
+
+            @Override
+            public void onNothingSelected(AdapterView<?> parent) {
+                viewModel.setClassFilter(0);
+            }
+        });
+
+        binding.btnNewClass.setOnClickListener(v -> showNewClassDialog());
+    }
+
+    /**
+     * Pede o nome de uma nova turma (no ano letivo atual)
+     */
+    private void showNewClassDialog() {
+        EditText input = new EditText(this);
+        input.setHint("Ex.: 7º A");
+        new AlertDialog.Builder(this)
+                .setTitle("Nova turma")
+                .setView(input)
+                .setPositiveButton("Cadastrar", (dialog, which) ->
+                        viewModel.createClass(input.getText().toString()))
+                .setNegativeButton("Cancelar", null)
+                .show();
+    }
+
+    /**
+     * Mostra as turmas para matricular os usuários selecionados
+     */
+    private void showEnrollDialog() {
+        List<Integer> ids = adapter.getSelectedIds();
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (classes.isEmpty()) {
+            Toast.makeText(this, "Cadastre uma turma primeiro", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        String[] names = new String[classes.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = classes.get(i).toString();
+        }
+        List<SchoolClass> choices = classes;
+        new AlertDialog.Builder(this)
+                .setTitle("Matricular " + ids.size() + " aluno(s) em")
+                .setItems(names, (dialog, which) -> {
+                    adapter.clearSelection();
+                    viewModel.enrollUsers(ids, choices.get(which));
+                })
+                .setNegativeButton("Cancelar", null)
+                .show();
+    }
+
+    /**
+     * Remove os usuários selecionados da turma do filtro (sem excluí-los)
+     */
+    private void unenrollSelected() {
+        List<Integer> ids = adapter.getSelectedIds();
+        if (!ids.isEmpty()) {
+            adapter.clearSelection();
+            viewModel.unenrollUsers(ids);
+        }
+    }
+
+    /**
+     * Filtra usuários conforme texto digitado
+     * @param searchText Texto para filtro (pode ser vazio)
+     */
+    private void filterUsers(String searchText) {
+        // O ViewModel troca a consulta observada; nenhum observador novo é criado
+        viewModel.setSearchQuery(searchText);
+    }
+
+    /**
+     * Mostra diálogo de confirmação para exclusão
+     * @param user Usuário a ser excluído
+     */
+    private void showDeleteDialog(User user) {
+        new AlertDialog.Builder(this)
+                .setTitle("Confirmar exclusão")
+                .setMessage("Excluir usuário " + user.name + "?")
+                .setPositiveButton("Excluir", (dialog, which) -> deleteUser(user))
+                .setNegativeButton("Cancelar", null)
+                .show();
+    }
+
+    /**
+     * Exclui usuário do banco de dados em thread secundária
+     * @param user Usuário a ser removido
+     */
+    private void deleteUser(User user) {
+        deleteUsers(Collections.singletonList(user.id));
+    }
+
+    /**
+     * Atualiza a barra de ações conforme a seleção múltipla
+     * @param selectedCount Quantidade de usuários selecionados
+     */
+    private void onSelectionChanged(int selectedCount) {
+        binding.layoutSelection.setVisibility(selectedCount > 0 ? View.VISIBLE : View.GONE);
+        binding.btnDeleteSelected.setText("Excluir selecionados (" + selectedCount + ")");
+    }
+
+    /**
+     * Mostra diálogo único de confirmação para todos os usuários selecionados
+     */
+    private void showBulkDeleteDialog() {
+        List<Integer> ids = adapter.getSelectedIds();
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        new AlertDialog.Builder(this)
+                .setTitle("Confirmar exclusão")
+                .setMessage("Excluir " + ids.size() + " usuário(s) e todas as suas notas?")
+                .setPositiveButton("Excluir", (dialog, which) -> {
+                    adapter.clearSelection();
+                    deleteUsers(ids);
+                })
+                .setNegativeButton("Cancelar", null)
+                .show();
+    }
+
+    /**
+     * Exclui os usuários (e suas notas) em uma única transação, em segundo
+     * plano; o progresso e a opção de desfazer chegam via observeOperations.
+     * @param ids IDs dos usuários a serem removidos
+     */
+    private void deleteUsers(List<Integer> ids) {
+        viewModel.deleteUsers(ids);
+    }
+
+    /**
+     * Mostra diálogo de confirmação para restaurar o backup mais recente
+     */
+    private void showRestoreDialog() {
+        File latest = DatabaseBackup.latestBackup(this);
+        if (latest == null) {
+            Toast.makeText(this, "Nenhum backup disponível", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        new AlertDialog.Builder(this)
+                .setTitle("Restaurar backup")
+                .setMessage("Substituir os dados atuais pelo backup " + latest.getName() + "?")
+                .setPositiveButton("Restaurar", (dialog, which) -> restoreBackup(latest))
+                .setNegativeButton("Cancelar", null)
+                .show();
+    }
+
+    /**
+     * Restaura o backup em segundo plano; ao concluir, onBackupRestored
+     * reinicia o fluxo de login.
+     * @param archive Arquivo de backup a restaurar
+     */
+    private void restoreBackup(File archive) {
+        viewModel.restoreBackup(archive);
+    }
+
+    /**
+     * Reinicia o aplicativo no login: repositórios, ViewModels e listeners
+     * ainda guardam a instância do banco substituída, então o processo é
+     * recriado em vez de apenas reabrir a tela.
+     */
+    private void onBackupRestored() {
+        // O usuário da sessão pode não existir no banco restaurado
+        new SessionManager(this).logout();
+        Toast.makeText(this, "Backup restaurado", Toast.LENGTH_SHORT).show();
+        RestartActivity.restart(this, new Intent(this, LoginActivity.class));
+    }
+}
@@ -1,132 +1,327 @@
-package com.example.escolario.activities.auth;
-
-import android.content.Intent;
-import android.os.Bundle;
-import android.widget.Toast;
-import androidx.appcompat.app.AppCompatActivity;
-import com.example.escolario.data.AppDatabase;
-import com.example.escolario.activities.admin.UserListActivity;
-import com.example.escolario.activities.user.NoteActivity;
-import com.example.escolario.databinding.ActivityLoginBinding;
-import com.example.escolario.model.User;
-import com.example.escolario.utils.PasswordUtils;
-import com.example.escolario.utils.SessionManager;
-
-/**
- * Tela de login do aplicativo Escolario.
- * Responsável por:
- * - Autenticar usuários com credenciais válidas
- * - Redirecionar para telas específicas (admin/aluno)
- * - Gerenciar erros de autenticação
- *
- * Fluxo principal:
- * 1. Valida campos de entrada
- * 2. Consulta banco de dados em background
- * 3. Verifica credenciais com BCrypt
- * 4. Inicia sessão e redireciona
- */
-public class LoginActivity extends AppCompatActivity {
-    private ActivityLoginBinding binding; // ViewBinding para acesso seguro às views
-
-    @Override
-    protected void onCreate(Bundle savedInstanceState) {
-        super.onCreate(savedInstanceState);
-
-        // Configuração inicial da view usando ViewBinding
-        binding = ActivityLoginBinding.inflate(getLayoutInflater());
-        setContentView(binding.getRoot());
-
-        // Configuração dos listeners
-        setupButtonListeners();
-    }
-
-    /**
-     * Configura os listeners para os botões da interface.
-     * Padrão: lambda expressions para código conciso.
-     */
-    private void setupButtonListeners() {
-        binding.btnLogin.setOnClickListener(v -> attemptLogin());
-        binding.btnRegister.setOnClickListener(v -> openRegisterScreen());
-    }
-
-    /**
-     * Processa a tentativa de login com validações.
-     * Fluxo:
-     * 1. Obtém valores dos campos
-     * 2. Validações básicas
-     * 3. Consulta assíncrona ao banco
-     * 4. Verificação de senha com BCrypt
-     */
-    private void attemptLogin() {
-        // Normaliza email (remove espaços e converte para minúsculas)
-        String email = binding.etEmail.getText().toString().trim().toLowerCase();
-        String password = binding.etPassword.getText().toString();
-
-        if (!validateInputs(email, password)) {
-            return;
-        }
-
-        // Thread secundária para operações de I/O
-        new Thread(() -> {
-            try {
-                AppDatabase db = AppDatabase.getDatabase(this);
-                User user = db.userDao().findByEmail(email);
-
-                runOnUiThread(() -> handleLoginResult(user, password));
-            } catch (Exception e) {
-                runOnUiThread(() ->
-                        Toast.makeText(this, "Erro: " + e.getMessage(), Toast.LENGTH_SHORT).show()
-                );
-            }
-        }).start();
-    }
-
-    /**
-     * Valida os campos de entrada antes da consulta ao banco.
-     * @return true se os campos são válidos
-     */
-    private boolean validateInputs(String email, String password) {
-        if (email.isEmpty() || password.isEmpty()) {
-            Toast.makeText(this, "Preencha todos os campos", Toast.LENGTH_SHORT).show();
-            return false;
-        }
-        return true;
-    }
-
-    /**
-     * Processa o resultado da consulta ao banco de dados.
-     * @param user Usuário encontrado (ou null)
-     * @param password Senha em texto puro para verificação
-     */
-    private void handleLoginResult(User user, String password) {
-        if (user != null && PasswordUtils.verify(password, user.password)) {
-            redirectUser(user);
-        } else {
-            // Mensagem genérica por segurança (não revela se email existe)
-            Toast.makeText(this, "Credenciais inválidas", Toast.LENGTH_SHORT).show();
-        }
-    }
-
-    /**
-     * Redireciona o usuário para a tela apropriada e inicia sessão.
-     * @param user Usuário autenticado
-     */
-    private void redirectUser(User user) {
-        // Cria/atualiza a sessão
-        new SessionManager(this).createSession(user.id, user.isAdmin, user.name);
-
-        Intent intent = user.isAdmin
-                ? new Intent(this, UserListActivity.class)
-                : new Intent(this, NoteActivity.class);
-
-        startActivity(intent);
-        finish(); // Impede retorno à tela de login com back button
-    }
-
-    /**
-     * Navega para a tela de cadastro.
-     */
-    private void openRegisterScreen() {
-        startActivity(new Intent(this, RegisterActivity.class));
-    }
-}
\ No newline at end of file
+package com.example.escolario.activities.auth;
+
+import android.app.AlertDialog;
+import android.content.Intent;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Editable;
+import android.text.InputFilter;
+import android.text.InputType;
+import android.text.TextWatcher;
+import android.view.View;
+import android.widget.EditText;
+import android.widget.Toast;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import com.example.escolario.activities.admin.UserListActivity;
+import com.example.escolario.activities.user.NoteActivity;
+import com.example.escolario.databinding.ActivityLoginBinding;
+import com.example.escolario.model.User;
+import com.example.escolario.ui.RecentUserAdapter;
+import com.example.escolario.utils.LoginLatency;
+import com.example.escolario.utils.QuickSwitch;
+import com.example.escolario.utils.SessionManager;
+import com.example.escolario.utils.Validator;
+import com.example.escolario.viewmodel.LoginViewModel;
+
+/**
+ * Tela de login do aplicativo Escolario.
+ * Responsável por:
+ * - Autenticar usuários com credenciais válidas
+ * - Redirecionar para telas específicas (admin/aluno)
+ * - Gerenciar erros de autenticação
+ * - No modo de aparelho compartilhado, listar os alunos recentes e
+ *   permitir a entrada por PIN (QuickSwitch)
+ *
+ * Fluxo principal:
+ * 1. Pré-carrega o usuário quando o email é concluído (perda de foco ou pausa na digitação)
+ * 2. Valida campos de entrada
+ * 3. Verifica credenciais com BCrypt em background (LoginViewModel)
+ * 4. Inicia sessão e redireciona
+ *
+ * Fluxo do modo compartilhado: o aluno toca no próprio nome e digita o
+ * PIN; sem PIN, o email é preenchido e a senha é pedida. Após um login
+ * por senha, o aluno é convidado a cadastrar um PIN.
+ */
+public class LoginActivity extends AppCompatActivity {
+    // Pausa na digitação do email que dispara a pré-carga
+    private static final long TYPING_PAUSE_MS = 400;
+
+    private ActivityLoginBinding binding; // ViewBinding para acesso seguro às views
+    private LoginViewModel viewModel;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable prefetchRunnable = this::prefetchUser;
+
+    // Convite de PIN exibido (recriado a partir do ViewModel após rotação)
+    private AlertDialog pinOfferDialog;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+
+        // Configuração inicial da view usando ViewBinding
+        binding = ActivityLoginBinding.inflate(getLayoutInflater());
+        setContentView(binding.getRoot());
+
+        viewModel = new ViewModelProvider(this).get(LoginViewModel.class);
+
+        // Configuração dos listeners
+        setupButtonListeners();
+        setupPrefetch();
+        setupRecentUsers();
+        observeLogin();
+    }
+
+    /**
+     * Configura os listeners para os botões da interface.
+     * Padrão: lambda expressions para código conciso.
+     */
+    private void setupButtonListeners() {
+        binding.btnLogin.setOnClickListener(v -> attemptLogin());
+        binding.btnRegister.setOnClickListener(v -> openRegisterScreen());
+    }
+
+    /**
+     * Dispara a pré-carga do usuário quando o campo de email perde o foco
+     * ou após uma pausa na digitação.
+     */
+    private void setupPrefetch() {
+        binding.etEmail.setOnFocusChangeListener((v, hasFocus) -> {
+            if (!hasFocus) {
+                handler.removeCallbacks(prefetchRunnable);
+                prefetchUser();
+            }
+        });
+
+        binding.etEmail.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                handler.removeCallbacks(prefetchRunnable);
+                handler.postDelayed(prefetchRunnable, TYPING_PAUSE_MS);
+            }
+        });
+    }
+
+    /**
+     * Configura a lista de alunos recentes (visível só no modo
+     * compartilhado e com alunos na lista).
+     */
+    private void setupRecentUsers() {
+        RecentUserAdapter adapter = new RecentUserAdapter(new RecentUserAdapter.OnRecentUserListener() {
+            @Override
+            public void onRecentUserClick(QuickSwitch.RecentUser user) {
+                if (user.hasPin) {
+                    showPinDialog(user);
+                } else {
+                    binding.etEmail.setText(user.email);
+                    binding.etPassword.requestFocus();
+                }
+            }
+
+            @Override
+            public void onRecentUserLongClick(QuickSwitch.RecentUser user) {
+                showForgetDialog(user);
+            }
+        });
+        binding.rvRecentUsers.setLayoutManager(new LinearLayoutManager(this));
+        binding.rvRecentUsers.setAdapter(adapter);
+
+        viewModel.getRecentUsers().observe(this, users -> {
+            adapter.submitList(users);
+            binding.layoutRecentUsers.setVisibility(users.isEmpty() ? View.GONE : View.VISIBLE);
+        });
+        // Relê a lista e aquece o cache dos alunos exibidos
+        viewModel.loadRecentUsers();
+    }
+
+    /**
+     * Pede o PIN de um aluno recente e inicia a entrada rápida.
+     */
+    private void showPinDialog(QuickSwitch.RecentUser user) {
+        EditText input = pinInput();
+        new AlertDialog.Builder(this)
+                .setTitle(user.name)
+                .setMessage("Digite seu PIN")
+                .setView(input)
+                .setPositiveButton("Entrar", (dialog, which) -> {
+                    LoginLatency.markPinTap();
+                    viewModel.quickLogin(user.id, input.getText().toString());
+                })
+                .setNegativeButton("Cancelar", null)
+                .show();
+    }
+
+    /**
+     * Confirma a remoção de um aluno da lista de recentes.
+     */
+    private void showForgetDialog(QuickSwitch.RecentUser user) {
+        new AlertDialog.Builder(this)
+                .setTitle("Remover da lista")
+                .setMessage("Remover " + user.name + " da lista deste aparelho? O PIN será apagado.")
+                .setPositiveButton("Remover", (dialog, which) -> viewModel.forgetRecentUser(user.id))
+                .setNegativeButton("Cancelar", null)
+                .show();
+    }
+
+    /**
+     * Convida o aluno recém-autenticado a cadastrar um PIN; em seguida
+     * (cadastrando ou não) o ViewModel conclui o login. O convite pendente
+     * fica no ViewModel, então a tela recriada o mostra de novo.
+     */
+    private void offerPin(User user) {
+        EditText input = pinInput();
+        pinOfferDialog = new AlertDialog.Builder(this)
+                .setTitle("Entrada rápida")
+                .setMessage("Cadastre um PIN de " + QuickSwitch.MIN_PIN_LENGTH + " a "
+                        + QuickSwitch.MAX_PIN_LENGTH + " dígitos para entrar com um toque neste aparelho.")
+                .setView(input)
+                .setCancelable(false)
+                .setPositiveButton("Salvar", (dialog, which) -> {
+                    pinOfferDialog = null;
+                    String pin = input.getText().toString();
+                    if (!QuickSwitch.isValidPin(pin)) {
+                        Toast.makeText(this, "PIN inválido; cadastre no próximo login",
+                                Toast.LENGTH_SHORT).show();
+                        pin = null;
+                    }
+                    viewModel.answerPinOffer(pin);
+                })
+                .setNegativeButton("Agora não", (dialog, which) -> {
+                    pinOfferDialog = null;
+                    viewModel.answerPinOffer(null);
+                })
+                .show();
+    }
+
+    /**
+     * Campo numérico mascarado para o PIN.
+     */
+    private EditText pinInput() {
+        EditText input = new EditText(this);
+        input.setInputType(InputType.TYPE_CLASS_NUMBER | InputType.TYPE_NUMBER_VARIATION_PASSWORD);
+        input.setFilters(new InputFilter[]{new InputFilter.LengthFilter(QuickSwitch.MAX_PIN_LENGTH)});
+        return input;
+    }
+
+    /**
+     * Pré-carrega o usuário se o email digitado tiver formato válido.
+     */
+    private void prefetchUser() {
+        String email = normalizedEmail();
+        if (Validator.isValidEmail(email)) {
+            viewModel.prefetch(email);
+        }
+    }
+
+    /**
+     * Observa o resultado do login mantido pelo ViewModel.
+     */
+    private void observeLogin() {
+        viewModel.getLoading().observe(this, loading ->
+                binding.btnLogin.setEnabled(!Boolean.TRUE.equals(loading)));
+
+        viewModel.getLoggedIn().observe(this, event -> {
+            User user = event.getContentIfNotHandled();
+            if (user != null) {
+                redirectUser(user);
+            }
+        });
+
+        viewModel.getPinOffer().observe(this, user -> {
+            if (user != null && pinOfferDialog == null) {
+                offerPin(user);
+            }
+        });
+
+        viewModel.getErrors().observe(this, event -> {
+            String message = event.getContentIfNotHandled();
+            if (message != null) {
+                Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    /**
+     * Processa a tentativa de login com validações.
+     * Fluxo:
+     * 1. Obtém valores dos campos
+     * 2. Validações básicas
+     * 3. Verificação assíncrona (usa o usuário pré-carregado, se houver)
+     */
+    private void attemptLogin() {
+        String email = normalizedEmail();
+        String password = binding.etPassword.getText().toString();
+
+        if (!validateInputs(email, password)) {
+            return;
+        }
+
+        LoginLatency.markTap();
+        handler.removeCallbacks(prefetchRunnable);
+        viewModel.login(email, password);
+    }
+
+    /**
+     * Normaliza email (remove espaços e converte para minúsculas)
+     */
+    private String normalizedEmail() {
+        return binding.etEmail.getText().toString().trim().toLowerCase();
+    }
+
+    /**
+     * Valida os campos de entrada antes da consulta ao banco.
+     * @return true se os campos são válidos
+     */
+    private boolean validateInputs(String email, String password) {
+        if (email.isEmpty() || password.isEmpty()) {
+            Toast.makeText(this, "Preencha todos os campos", Toast.LENGTH_SHORT).show();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Redireciona o usuário para a tela apropriada e inicia sessão.
+     * @param user Usuário autenticado
+     */
+    private void redirectUser(User user) {
+        // Cria/atualiza a sessão
+        new SessionManager(this).createSession(user.id, user.isAdmin, user.name);
+
+        Intent intent = user.isAdmin
+                ? new Intent(this, UserListActivity.class)
+                : new Intent(this, NoteActivity.class);
+
+        startActivity(intent);
+        finish(); // Impede retorno à tela de login com back button
+    }
+
+    /**
+     * Navega para a tela de cadastro.
+     */
+    private void openRegisterScreen() {
+        startActivity(new Intent(this, RegisterActivity.class));
+    }
+
+    @Override
+    protected void onDestroy() {
+        handler.removeCallbacks(prefetchRunnable);
+        // O convite continua pendente no ViewModel e volta na tela recriada
+        if (pinOfferDialog != null) {
+            pinOfferDialog.dismiss();
+            pinOfferDialog = null;
+        }
+        super.onDestroy();
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.escolario.activities.user;
+
+import android.annotation.SuppressLint;
+import android.app.AlertDialog;
+import android.content.Intent;
+import android.os.Bundle;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.widget.EditText;
+import android.widget.LinearLayout;
+import android.widget.Toast;
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import com.example.escolario.activities.auth.LoginActivity;
+import com.example.escolario.databinding.ActivityCalendarBinding;
+import com.example.escolario.model.CalendarMonth;
+import com.example.escolario.model.NoteSearchResult;
+import com.example.escolario.model.NoteVersion;
+import com.example.escolario.ui.CalendarAdapter;
+import com.example.escolario.ui.NoteSearchAdapter;
+import com.example.escolario.utils.DateUtils;
+import com.example.escolario.utils.SessionManager;
+import com.example.escolario.utils.Validator;
+import com.example.escolario.viewmodel.CalendarViewModel;
+import java.text.DateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Tela de calendário mensal das notas do aluno logado.
+ * Funcionalidades principais:
+ * - Grade do mês com os tipos de atividade de cada dia
+ * - Navegação entre meses pelos botões ou deslizando na grade
+ * - Lista das notas do dia tocado
+ * - Edição das notas do dia e consulta do histórico de edições
+ */
+public class CalendarActivity extends AppCompatActivity {
+    private static final String[] MONTHS = {
+            "Janeiro", "Fevereiro", "Março", "Abril", "Maio", "Junho",
+            "Julho", "Agosto", "Setembro", "Outubro", "Novembro", "Dezembro"
+    };
+
+    private ActivityCalendarBinding binding;
+    private CalendarViewModel viewModel;
+    private CalendarAdapter calendarAdapter;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        binding = ActivityCalendarBinding.inflate(getLayoutInflater());
+        setContentView(binding.getRoot());
+
+        // Verifica sessão
+        SessionManager session = new SessionManager(this);
+        if (!session.isLoggedIn()) {
+            startActivity(new Intent(this, LoginActivity.class));
+            finish();
+            return;
+        }
+
+        viewModel = new ViewModelProvider(this).get(CalendarViewModel.class);
+
+        setupGrid();
+        setupDayNotes();
+        binding.btnPrevious.setOnClickListener(v -> viewModel.moveMonth(-1));
+        binding.btnNext.setOnClickListener(v -> viewModel.moveMonth(1));
+        binding.btnBack.setOnClickListener(v -> finish());
+
+        viewModel.start(session.getUserId());
+    }
+
+    /**
+     * Configura a grade do mês e o deslize horizontal entre meses
+     */
+    private void setupGrid() {
+        calendarAdapter = new CalendarAdapter(this::selectDay);
+        binding.rvDays.setLayoutManager(new GridLayoutManager(this, 7));
+        binding.rvDays.setAdapter(calendarAdapter);
+        calendarAdapter.setSelectedDay(viewModel.getSelectedDay());
+
+        viewModel.getMonth().observe(this, this::showMonth);
+        addSwipeNavigation(binding.rvDays);
+    }
+
+    /**
+     * Configura a lista das notas do dia selecionado
+     */
+    private void setupDayNotes() {
+        NoteSearchAdapter notesAdapter = new NoteSearchAdapter();
+        binding.rvDayNotes.setLayoutManager(new LinearLayoutManager(this));
+        binding.rvDayNotes.setAdapter(notesAdapter);
+
+        notesAdapter.setOnResultClickListener(this::showNoteOptions);
+
+        viewModel.getDayNotes().observe(this, notesAdapter::submitList);
+        viewModel.getMessage().observe(this, event -> {
+            String text = event.getContentIfNotHandled();
+            if (text != null) {
+                Toast.makeText(this, text, Toast.LENGTH_SHORT).show();
+            }
+        });
+        viewModel.getHistory().observe(this, event -> {
+            List<NoteVersion> versions = event.getContentIfNotHandled();
+            if (versions != null) {
+                showHistory(versions);
+            }
+        });
+        showSelectedDay(viewModel.getSelectedDay());
+    }
+
+    /**
+     * Oferece editar a nota tocada ou ver suas versões anteriores
+     */
+    private void showNoteOptions(NoteSearchResult note) {
+        new AlertDialog.Builder(this)
+                .setTitle(note.subject + " · " + note.type)
+                .setItems(new String[]{"Editar", "Histórico"}, (dialog, which) -> {
+                    if (which == 0) {
+                        showEditDialog(note);
+                    } else {
+                        viewModel.loadHistory(note.id);
+                    }
+                })
+                .setNegativeButton("Cancelar", null)
+                .show();
+    }
+
+    /**
+     * Edita data e descrição da nota (matéria e tipo são mantidos)
+     */
+    private void showEditDialog(NoteSearchResult note) {
+        EditText date = new EditText(this);
+        date.setHint("dd/mm/aaaa");
+        date.setText(note.date);
+        EditText content = new EditText(this);
+        content.setHint("Descrição");
+        content.setText(note.snippet);
+        LinearLayout form = new LinearLayout(this);
+        form.setOrientation(LinearLayout.VERTICAL);
+        form.addView(date);
+        form.addView(content);
+
+        new AlertDialog.Builder(this)
+                .setTitle("Editar nota")
+                .setView(form)
+                .setPositiveButton("Salvar", (dialog, which) -> {
+                    String newDate = date.getText().toString().trim();
+                    String newContent = content.getText().toString().trim();
+                    if (!Validator.isValidDate(newDate)) {
+                        Toast.makeText(this, "Data inválida! Use o formato dd/mm/aaaa",
+                                Toast.LENGTH_SHORT).show();
+                    } else if (newContent.isEmpty()) {
+                        Toast.makeText(this, "Escreva uma descrição", Toast.LENGTH_SHORT).show();
+                    } else {
+                        viewModel.editNote(note, newContent, newDate);
+                    }
+                })
+                .setNegativeButton("Cancelar", null)
+                .show();
+    }
+
+    /**
+     * Lista as versões da nota, da mais recente à original
+     */
+    private void showHistory(List<NoteVersion> versions) {
+        if (versions.isEmpty()) {
+            Toast.makeText(this, "Esta nota nunca foi editada", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        DateFormat format = DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT);
+        StringBuilder text = new StringBuilder();
+        for (NoteVersion version : versions) {
+            if (text.length() > 0) {
+                text.append("\n\n");
+            }
+            text.append("Versão ").append(version.revision).append(" · ")
+                    .append(version.editedAt > 0 ? format.format(new Date(version.editedAt)) : "original")
+                    .append('\n').append(version.type).append(" · ").append(version.date)
+                    .append('\n').append(version.content);
+        }
+        new AlertDialog.Builder(this)
+                .setTitle("Histórico")
+                .setMessage(text)
+                .setPositiveButton("OK", null)
+                .show();
+    }
+
+    private void showMonth(CalendarMonth month) {
+        binding.tvMonth.setText(MONTHS[month.month - 1] + " " + month.year);
+        calendarAdapter.submitMonth(month, today());
+        calendarAdapter.setSelectedDay(viewModel.getSelectedDay());
+        showSelectedDay(viewModel.getSelectedDay());
+    }
+
+    private void selectDay(int epochDay) {
+        viewModel.selectDay(epochDay);
+        calendarAdapter.setSelectedDay(epochDay);
+        showSelectedDay(epochDay);
+    }
+
+    private void showSelectedDay(int epochDay) {
+        binding.tvSelectedDay.setText(epochDay > 0
+                ? "Notas de " + DateUtils.fromEpochDay(epochDay)
+                : "Toque em um dia para ver as notas");
+    }
+
+    /**
+     * Desliza para a esquerda: mês seguinte; para a direita: anterior.
+     * Os toques comuns continuam chegando aos dias.
+     */
+    @SuppressLint("ClickableViewAccessibility")
+    private void addSwipeNavigation(RecyclerView grid) {
+        GestureDetector detector = new GestureDetector(this, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onFling(MotionEvent e1, @NonNull MotionEvent e2, float velocityX, float velocityY) {
+                if (e1 == null) {
+                    return false;
+                }
+                float dx = e2.getX() - e1.getX();
+                if (Math.abs(dx) < grid.getWidth() / 5f || Math.abs(velocityX) < Math.abs(velocityY)) {
+                    return false;
+                }
+                viewModel.moveMonth(dx < 0 ? 1 : -1);
+                return true;
+            }
+        });
+        grid.addOnItemTouchListener(new RecyclerView.SimpleOnItemTouchListener() {
+            @Override
+            public boolean onInterceptTouchEvent(@NonNull RecyclerView rv, @NonNull MotionEvent e) {
+                return detector.onTouchEvent(e);
+            }
+        });
+    }
+
+    private static int today() {
+        Calendar today = Calendar.getInstance();
+        return DateUtils.epochDay(today.get(Calendar.YEAR), today.get(Calendar.MONTH) + 1,
+                today.get(Calendar.DAY_OF_MONTH));
+    }
+}
@@ -1,152 +1,327 @@
-package com.example.escolario.activities.user;
-
-import android.content.Intent;
-import android.os.Bundle;
-import android.widget.Toast;
-import androidx.appcompat.app.AppCompatActivity;
-import com.example.escolario.activities.auth.LoginActivity;
-import com.example.escolario.data.AppDatabase;
-import com.example.escolario.databinding.ActivityNoteBinding;
-import com.example.escolario.model.Note;
-import com.example.escolario.utils.SessionManager;
-import com.example.escolario.utils.Validator;
-
-/**
- * Activity responsável pelo gerenciamento de notas acadêmicas.
- *
- * Permite aos usuários autenticados:
- *
- *   Criar novas notas com matéria, tipo, data e conteúdo
- *   Validar campos antes do armazenamento
- *   Salvar notas no banco de dados local
- *
- *
- * Utiliza ViewBinding para interação com as views e Room Database para persistência.
- */
-public class NoteActivity extends AppCompatActivity {
-    private ActivityNoteBinding binding;
-    private int userId;  // Armazena o ID do usuário logado
-
-    @Override
-    protected void onCreate(Bundle savedInstanceState) {
-        super.onCreate(savedInstanceState);
-        binding = ActivityNoteBinding.inflate(getLayoutInflater());
-        setContentView(binding.getRoot());
-
-        // Verifica sessão
-        SessionManager session = new SessionManager(this);
-        if (!session.isLoggedIn()) {
-            startActivity(new Intent(this, LoginActivity.class));
-            finish();
-            return;
-        }
-
-        setupUI(); // ← Chamada sem argumentos
-    }
-
-    /**
-     * Configura os elementos da interface do usuário.
-     * param userName Nome do usuário para exibição personalizada
-     */
-    // 1. Deixe o método sem parâmetros
-    private void setupUI() {
-        SessionManager session = new SessionManager(this);
-        String userName = session.getUserName();
-
-        binding.tvWelcome.setText(String.format("Olá, %s!", userName));
-        binding.btnSave.setOnClickListener(v -> saveNote());
-        binding.btnLogout.setOnClickListener(v -> {
-            new SessionManager(this).logout();
-            startActivity(new Intent(this, LoginActivity.class));
-            finish();
-        });
-    }
-
-    /**
-     * Valida e salva uma nova nota no banco de dados.
-     *   Fluxo principal:
-     *
-     *   Valida campos obrigatórios
-     *   Cria objeto Note
-     *   Armazena em thread secundária
-     *   Fornece feedback ao usuário
-     *
-     */
-    private void saveNote() {
-        // Obtém valores dos campos
-        String subject = binding.etSubject.getText().toString().trim();
-        String type = binding.spType.getSelectedItem().toString();
-        String date = binding.etDate.getText().toString().trim();
-        String content = binding.etContent.getText().toString().trim();
-
-        // Validações
-        if (!validateInputs(subject, date, type, content)) {
-            return;
-        }
-
-        saveNoteToDatabase(subject, type, date, content);
-    }
-
-    /**
-     * Valida os campos de entrada.
-     * return true se todos os campos são válidos, false caso contrário
-     */
-    private boolean validateInputs(String subject, String date, String content, String s) {
-        if (subject.isEmpty()) {
-            showToast("Informe a matéria");
-            return false;
-        }
-
-        if (!Validator.isValidDate(date)) {
-            showToast("Data inválida! Use o formato dd/mm/aaaa");
-            return false;
-        }
-
-        if (content.isEmpty()) {
-            showToast("Escreva uma descrição");
-            return false;
-        }
-
-        return true;
-    }
-
-    /**
-     * Armazena a nota no banco de dados em background.
-     */
-    private void saveNoteToDatabase(String subject, String type, String date, String content) {
-        new Thread(() -> {
-            Note newNote = new Note(
-                    userId,    // Vincula a nota ao usuário
-                    subject,  // Matéria/Disciplina
-                    type,     // Tipo (prova, trabalho, etc)
-                    content,  // Conteúdo descritivo
-                    date      // Data formatada
-            );
-
-            AppDatabase.getDatabase(this).noteDao().insert(newNote);
-
-            runOnUiThread(() -> {
-                showToast("Nota salva com sucesso!");
-                resetForm();
-            });
-        }).start();
-    }
-
-    /**
-     * Reinicia o formulário para nova entrada.
-     */
-    private void resetForm() {
-        binding.etSubject.setText("");
-        binding.etDate.setText("");
-        binding.etContent.setText("");
-        binding.spType.setSelection(0);
-    }
-
-    /**
-     * Exibe mensagem toast formatada.
-     * param message Mensagem a ser exibida
-     */
-    private void showToast(String message) {
-        Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
-    }
+package com.example.escolario.activities.user;
+
+import android.Manifest;
+import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.os.Build;
+import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.View;
+import android.widget.AdapterView;
+import android.widget.ArrayAdapter;
+import android.widget.Toast;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
+import androidx.lifecycle.ViewModelProvider;
+import com.example.escolario.activities.auth.LoginActivity;
+import com.example.escolario.databinding.ActivityNoteBinding;
+import com.example.escolario.model.NoteDraft;
+import com.example.escolario.utils.LoginLatency;
+import com.example.escolario.utils.SessionManager;
+import com.example.escolario.utils.Validator;
+import com.example.escolario.viewmodel.NoteViewModel;
+
+/**
+ * Activity responsável pelo gerenciamento de notas acadêmicas.
+ *
+ * Permite aos usuários autenticados:
+ *
+ *   Criar novas notas com matéria, tipo, data e conteúdo
+ *   Validar campos antes do armazenamento
+ *   Salvar notas no banco de dados local
+ *   Retomar o rascunho salvo automaticamente durante a digitação
+ *   Abrir a busca nas notas já salvas (NoteSearchActivity)
+ *   Abrir o calendário das notas (CalendarActivity)
+ *
+ *
+ * Utiliza ViewBinding para interação com as views e Room Database para persistência
+ * (via NoteViewModel, que preserva o salvamento em andamento entre rotações).
+ */
+public class NoteActivity extends AppCompatActivity {
+    private ActivityNoteBinding binding;
+    private int userId;  // Armazena o ID do usuário logado
+    private NoteViewModel viewModel;
+
+    // Campos preenchidos pelo código (rascunho, limpeza): não geram rascunho
+    private boolean fillingForm;
+
+    // Tipo do rascunho restaurado antes de os tipos carregarem
+    private String pendingType;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        binding = ActivityNoteBinding.inflate(getLayoutInflater());
+        setContentView(binding.getRoot());
+        // Fim da medição de latência do login (se aberta pelo login)
+        LoginLatency.reportFirstFrame(this);
+
+        // Verifica sessão
+        SessionManager session = new SessionManager(this);
+        if (!session.isLoggedIn()) {
+            startActivity(new Intent(this, LoginActivity.class));
+            finish();
+            return;
+        }
+        userId = session.getUserId();
+
+        viewModel = new ViewModelProvider(this).get(NoteViewModel.class);
+        setupUI(); // ← Chamada sem argumentos
+        observeSave();
+        observeOptions();
+        observeDraft();
+        viewModel.loadDraft(userId);
+        requestNotificationPermission();
+    }
+
+    /**
+     * Pede a permissão de notificações (Android 13+), usada pelos lembretes
+     * de provas e trabalhos. Sem ela os lembretes não são exibidos.
+     */
+    private void requestNotificationPermission() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU
+                && ContextCompat.checkSelfPermission(this, Manifest.permission.POST_NOTIFICATIONS)
+                != PackageManager.PERMISSION_GRANTED) {
+            requestPermissions(new String[]{Manifest.permission.POST_NOTIFICATIONS}, 0);
+        }
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        // Fora de vista o processo pode ser encerrado: grava o rascunho já
+        if (viewModel != null) {
+            viewModel.flushDraft();
+        }
+    }
+
+    /**
+     * Restaura o rascunho salvo e passa a salvar o formulário a cada
+     * alteração (as gravações são agrupadas pelo ViewModel).
+     */
+    private void observeDraft() {
+        viewModel.getDraft().observe(this, event -> {
+            NoteDraft draft = event.getContentIfNotHandled();
+            if (draft != null) {
+                fillingForm = true;
+                binding.etSubject.setText(draft.subject);
+                binding.etDate.setText(draft.date);
+                binding.etContent.setText(draft.content);
+                selectType(draft.type);
+                fillingForm = false;
+            }
+        });
+
+        TextWatcher watcher = new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                onFormChanged();
+            }
+        };
+        binding.etSubject.addTextChangedListener(watcher);
+        binding.etDate.addTextChangedListener(watcher);
+        binding.etContent.addTextChangedListener(watcher);
+        binding.spType.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                onFormChanged();
+            }
+
+            @Override
+            public void onNothingSelected(AdapterView<?> parent) {
+            }
+        });
+    }
+
+    /**
+     * Envia o estado atual do formulário para o salvamento automático.
+     */
+    private void onFormChanged() {
+        if (fillingForm) {
+            return;
+        }
+        Object selectedType = binding.spType.getSelectedItem();
+        viewModel.updateDraft(userId,
+                binding.etSubject.getText().toString(),
+                selectedType != null ? selectedType.toString() : "",
+                binding.etDate.getText().toString(),
+                binding.etContent.getText().toString());
+    }
+
+    /**
+     * Seleciona o tipo do rascunho (ou o guarda até os tipos carregarem).
+     */
+    private void selectType(String type) {
+        ArrayAdapter<?> adapter = (ArrayAdapter<?>) binding.spType.getAdapter();
+        if (adapter == null) {
+            pendingType = type;
+            return;
+        }
+        for (int i = 0; i < adapter.getCount(); i++) {
+            if (type.equals(adapter.getItem(i))) {
+                binding.spType.setSelection(i);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Observa o estado do salvamento mantido pelo ViewModel.
+     */
+    private void observeSave() {
+        viewModel.getSaving().observe(this, saving ->
+                binding.btnSave.setEnabled(!Boolean.TRUE.equals(saving)));
+
+        viewModel.getSaved().observe(this, event -> {
+            if (event.getContentIfNotHandled() != null) {
+                showToast("Nota salva com sucesso!");
+                resetForm();
+            }
+        });
+
+        viewModel.getSaveError().observe(this, event -> {
+            String message = event.getContentIfNotHandled();
+            if (message != null) {
+                showToast(message);
+            }
+        });
+    }
+
+    /**
+     * Preenche o tipo e as sugestões de matéria com o dicionário do banco.
+     */
+    private void observeOptions() {
+        viewModel.getTypes().observe(this, types -> {
+            ArrayAdapter<String> adapter = new ArrayAdapter<>(this,
+                    android.R.layout.simple_spinner_item, types);
+            adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+            binding.spType.setAdapter(adapter);
+            if (pendingType != null) {
+                fillingForm = true;
+                selectType(pendingType);
+                fillingForm = false;
+                pendingType = null;
+            }
+        });
+
+        viewModel.getSubjects().observe(this, subjects ->
+                binding.etSubject.setAdapter(new ArrayAdapter<>(this,
+                        android.R.layout.simple_dropdown_item_1line, subjects)));
+    }
+
+    /**
+     * Configura os elementos da interface do usuário.
+     * param userName Nome do usuário para exibição personalizada
+     */
+    // 1. Deixe o método sem parâmetros
+    private void setupUI() {
+        SessionManager session = new SessionManager(this);
+        String userName = session.getUserName();
+
+        binding.tvWelcome.setText(String.format("Olá, %s!", userName));
+        binding.btnSave.setOnClickListener(v -> saveNote());
+        binding.btnSearch.setOnClickListener(v ->
+                startActivity(new Intent(this, NoteSearchActivity.class)));
+        binding.btnCalendar.setOnClickListener(v ->
+                startActivity(new Intent(this, CalendarActivity.class)));
+        binding.btnLogout.setOnClickListener(v -> {
+            new SessionManager(this).logout();
+            startActivity(new Intent(this, LoginActivity.class));
+            finish();
+        });
+    }
+
+    /**
+     * Valida e salva uma nova nota no banco de dados.
+     *   Fluxo principal:
+     *
+     *   Valida campos obrigatórios
+     *   Cria objeto Note
+     *   Armazena em thread secundária
+     *   Fornece feedback ao usuário
+     *
+     */
+    private void saveNote() {
+        // Obtém valores dos campos
+        Object selectedType = binding.spType.getSelectedItem();
+        if (selectedType == null) {
+            return; // Tipos ainda carregando
+        }
+        String subject = binding.etSubject.getText().toString().trim();
+        String type = selectedType.toString();
+        String date = binding.etDate.getText().toString().trim();
+        String content = binding.etContent.getText().toString().trim();
+
+        // Validações
+        if (!validateInputs(subject, date, type, content)) {
+            return;
+        }
+
+        saveNoteToDatabase(subject, type, date, content);
+    }
+
+    /**
+     * Valida os campos de entrada.
+     * return true se todos os campos são válidos, false caso contrário
+     */
+    private boolean validateInputs(String subject, String date, String content, String s) {
+        if (subject.isEmpty()) {
+            showToast("Informe a matéria");
+            return false;
+        }
+
+        if (!Validator.isValidDate(date)) {
+            showToast("Data inválida! Use o formato dd/mm/aaaa");
+            return false;
+        }
+
+        if (content.isEmpty()) {
+            showToast("Escreva uma descrição");
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Armazena a nota no banco de dados em background.
+     */
+    private void saveNoteToDatabase(String subject, String type, String date, String content) {
+        viewModel.saveNote(
+                userId,    // Vincula a nota ao usuário
+                subject,  // Matéria/Disciplina
+                type,     // Tipo (prova, trabalho, etc)
+                content,  // Conteúdo descritivo
+                date      // Data formatada
+        );
+    }
+
+    /**
+     * Reinicia o formulário para nova entrada.
+     */
+    private void resetForm() {
+        fillingForm = true;
+        binding.etSubject.setText("");
+        binding.etDate.setText("");
+        binding.etContent.setText("");
+        binding.spType.setSelection(0);
+        fillingForm = false;
+    }
+
+    /**
+     * Exibe mensagem toast formatada.
+     * param message Mensagem a ser exibida
+     */
+    private void showToast(String message) {
+        Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,143 @@
+package com.example.escolario.activities.user;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.View;
+import android.widget.AdapterView;
+import android.widget.ArrayAdapter;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.SearchView;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import com.example.escolario.activities.auth.LoginActivity;
+import com.example.escolario.databinding.ActivityNoteSearchBinding;
+import com.example.escolario.ui.NoteSearchAdapter;
+import com.example.escolario.utils.DateUtils;
+import com.example.escolario.utils.SessionManager;
+import com.example.escolario.viewmodel.NoteSearchViewModel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tela de busca nas notas do aluno logado.
+ * Funcionalidades principais:
+ * - Busca textual em matéria e conteúdo (índice FTS, ignora acentos)
+ * - Resultados ordenados por relevância, com trechos destacados
+ * - Filtros por tipo de atividade e período
+ */
+public class NoteSearchActivity extends AppCompatActivity {
+    private ActivityNoteSearchBinding binding;
+    private NoteSearchViewModel viewModel;
+    private NoteSearchAdapter adapter;
+    private int userId;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        binding = ActivityNoteSearchBinding.inflate(getLayoutInflater());
+        setContentView(binding.getRoot());
+
+        // Verifica sessão
+        SessionManager session = new SessionManager(this);
+        if (!session.isLoggedIn()) {
+            startActivity(new Intent(this, LoginActivity.class));
+            finish();
+            return;
+        }
+        userId = session.getUserId();
+
+        viewModel = new ViewModelProvider(this).get(NoteSearchViewModel.class);
+
+        setupResults();
+        setupFilters();
+        binding.btnBack.setOnClickListener(v -> finish());
+    }
+
+    /**
+     * Configura a lista de resultados
+     */
+    private void setupResults() {
+        adapter = new NoteSearchAdapter();
+        binding.rvResults.setLayoutManager(new LinearLayoutManager(this));
+        binding.rvResults.setAdapter(adapter);
+
+        viewModel.getResults().observe(this, adapter::submitList);
+    }
+
+    /**
+     * Configura o campo de busca e os filtros; qualquer alteração
+     * dispara uma nova busca (com debounce no ViewModel).
+     */
+    private void setupFilters() {
+        // "Todos" + tipos do dicionário
+        viewModel.getTypes().observe(this, typeNames -> {
+            List<String> types = new ArrayList<>();
+            types.add("Todos os tipos");
+            types.addAll(typeNames);
+            ArrayAdapter<String> typeAdapter = new ArrayAdapter<>(this,
+                    android.R.layout.simple_spinner_item, types);
+            typeAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+            binding.spTypeFilter.setAdapter(typeAdapter);
+        });
+
+        binding.searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+            @Override
+            public boolean onQueryTextSubmit(String query) {
+                search();
+                return true;
+            }
+
+            @Override
+            public boolean onQueryTextChange(String newText) {
+                search();
+                return true;
+            }
+        });
+
+        binding.spTypeFilter.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                search();
+            }
+
+            @Override
+            public void onNothingSelected(AdapterView<?> parent) {
+                search();
+            }
+        });
+
+        TextWatcher dateWatcher = new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                search();
+            }
+        };
+        binding.etFromDate.addTextChangedListener(dateWatcher);
+        binding.etToDate.addTextChangedListener(dateWatcher);
+    }
+
+    /**
+     * Coleta os critérios atuais e solicita a busca ao ViewModel.
+     * Datas incompletas ou inválidas são ignoradas (sem filtro).
+     */
+    private void search() {
+        String text = binding.searchView.getQuery().toString();
+        String type = binding.spTypeFilter.getSelectedItemPosition() > 0
+                ? binding.spTypeFilter.getSelectedItem().toString()
+                : null;
+        Integer fromDay = DateUtils.toEpochDay(binding.etFromDate.getText().toString().trim());
+        Integer toDay = DateUtils.toEpochDay(binding.etToDate.getText().toString().trim());
+
+        viewModel.search(new NoteSearchViewModel.Criteria(userId, text, type, fromDay, toDay));
+    }
+}
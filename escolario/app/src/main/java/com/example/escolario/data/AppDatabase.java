@@ -1,52 +1,342 @@
-package com.example.escolario.data;
-
-import androidx.room.Database;
-import androidx.room.Room;
-import androidx.room.RoomDatabase;
-
-import android.content.Context;
-
-import com.example.escolario.model.Note;
-import com.example.escolario.model.User;
-
-/**
- * Classe principal do banco de dados Room para a aplicação Escolario.
- * <p>
- * Define a configuração do banco de dados e fornece acesso aos DAOs.
- * Implementa o padrão Singleton para garantir uma única instância do banco de dados.
- */
-@Database(entities = {User.class, Note.class}, version = 5)
-public abstract class AppDatabase extends RoomDatabase {
-
-    // DAOs disponíveis
-    public abstract UserDao userDao();
-
-    public abstract NoteDao noteDao();
-
-    // Instância Singleton
-    private static volatile AppDatabase INSTANCE;
-
-    /**
-     * Obtém a instância única do banco de dados.
-     * <p>
-     * param context Contexto da aplicação
-     * return Instância do AppDatabase
-     */
-    public static AppDatabase getDatabase(final Context context) {
-        if (INSTANCE == null) {
-            synchronized (AppDatabase.class) {
-                if (INSTANCE == null) {
-                    INSTANCE = Room.databaseBuilder(
-                                    context.getApplicationContext(),
-                                    AppDatabase.class,
-                                    "escolario_db"  // Nome do arquivo de banco de dados
-                            )
-                            // Migração destrutiva - recria o banco se a versão mudar
-                            .fallbackToDestructiveMigration()
-                            .build();
-                }
-            }
-        }
-        return INSTANCE;
-    }
-}
\ No newline at end of file
+package com.example.escolario.data;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Transformations;
+import androidx.room.Database;
+import androidx.room.RoomDatabase;
+
+import android.content.Context;
+
+import com.example.escolario.model.ActivityType;
+import com.example.escolario.model.AuditEntry;
+import com.example.escolario.model.Enrollment;
+import com.example.escolario.model.Note;
+import com.example.escolario.model.NoteDay;
+import com.example.escolario.model.NoteDraft;
+import com.example.escolario.model.NoteRevision;
+import com.example.escolario.model.RowChange;
+import com.example.escolario.model.SchoolClass;
+import com.example.escolario.model.StatCounter;
+import com.example.escolario.model.Subject;
+import com.example.escolario.model.User;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Classe principal do banco de dados Room para a aplicação Escolario.
+ * <p>
+ * Define a configuração do banco de dados e fornece acesso aos DAOs.
+ * <p>
+ * Cada escola (tenant) tem seu próprio arquivo; getDatabase devolve o
+ * banco da escola atual, aberto sob demanda. Os bancos abertos são
+ * limitados por uma fila LRU (ver TenantDatabases) e consultas sobre
+ * várias escolas usam CrossTenantQuery. O perfil de armazenamento
+ * (StorageProfile) define journal, cache e mmap de cada banco aberto.
+ */
+// Note antes dos dicionários: clearAllTables apaga as notas (e o índice de
+// texto, que lê o nome da matéria) antes das matérias
+@Database(entities = {User.class, Note.class, Subject.class, ActivityType.class,
+        StatCounter.class, RowChange.class, NoteDraft.class, AuditEntry.class, NoteDay.class,
+        SchoolClass.class, Enrollment.class, NoteRevision.class},
+        version = AppDatabase.VERSION)
+public abstract class AppDatabase extends RoomDatabase {
+
+    // Versão atual do esquema (usada também para validar backups)
+    public static final int VERSION = 20;
+
+    // Nome do arquivo de banco de dados (escola padrão)
+    public static final String DATABASE_NAME = "escolario_db";
+
+    // Escola padrão: o arquivo DATABASE_NAME, anterior aos bancos por escola
+    public static final String DEFAULT_TENANT = "";
+
+    // Máximo de bancos abertos ao mesmo tempo
+    public static final int MAX_OPEN_DATABASES = 3;
+
+    /**
+     * Aviso de abertura de um banco (ex.: criar o administrador em uma
+     * escola nova). Chamado fora do bloqueio do pool, na thread que abriu
+     * o banco; o banco só fica seguro contra a fila LRU até o retorno.
+     */
+    public interface OpenListener {
+        void onOpen(String tenant, AppDatabase db);
+    }
+
+    // DAOs disponíveis
+    public abstract UserDao userDao();
+
+    public abstract NoteDao noteDao();
+
+    public abstract ClassDao classDao();
+
+    abstract ChangeLogDao changeLogDao();
+
+    abstract DictionaryDao dictionaryDao();
+
+    abstract NoteDraftDao noteDraftDao();
+
+    abstract AuditDao auditDao();
+
+    abstract NoteHistoryDao noteHistoryDao();
+
+    // Feed de alterações por linha (criado sob demanda)
+    private ChangeFeed changeFeed;
+
+    // Cache de matérias e tipos de atividade (criado sob demanda)
+    private NoteDictionary dictionary;
+
+    // Usuários recentes em memória, para a troca rápida (criado sob demanda)
+    private WarmUserCache warmUsers;
+
+    // Estatísticas de notas por aluno da lista de administração (criado sob demanda)
+    private NoteStatsCache noteStats;
+
+    // Meses do calendário de notas (criado sob demanda)
+    private NoteCalendar calendar;
+
+    // Histórico de edições das notas (criado sob demanda)
+    private NoteHistory noteHistory;
+
+    // Bancos por escola (criado sob demanda)
+    private static volatile TenantDatabases TENANTS;
+
+    /**
+     * Obtém o banco da escola atual, abrindo-o se preciso (bloqueia até a
+     * abertura: não chamar na thread principal, ver observeDatabase).
+     * <p>
+     * param context Contexto da aplicação
+     * return Instância do AppDatabase
+     */
+    public static AppDatabase getDatabase(final Context context) {
+        return tenants(context).currentDatabase();
+    }
+
+    /**
+     * Observa o banco da escola atual sem abri-lo na thread que chama: a
+     * abertura (cópia de segurança e migração, se pendentes) roda em
+     * segundo plano e o banco é publicado quando fica pronto. Para as
+     * telas e consultas observáveis; getDatabase bloqueia até a abertura.
+     * <p>
+     * param context Contexto da aplicação
+     * return LiveData com o banco atual (null enquanto abre)
+     */
+    public static LiveData<AppDatabase> observeDatabase(final Context context) {
+        return tenants(context).observeCurrent();
+    }
+
+    /**
+     * Consulta observável montada sobre o banco atual assim que ele abre
+     * (e remontada se ele for trocado). Usada pelos repositórios.
+     */
+    static <T> LiveData<T> whenOpen(Context context, Function<AppDatabase, LiveData<T>> query) {
+        return Transformations.switchMap(observeDatabase(context),
+                db -> db != null ? query.apply(db) : null);
+    }
+
+    /**
+     * Obtém e segura o banco de uma escola, abrindo-o se necessário (fora
+     * do bloqueio do pool, na thread que chama). O banco não é fechado pela
+     * fila LRU até releaseDatabase; para consultas em várias escolas use
+     * CrossTenantQuery, que faz essa reserva.
+     * <p>
+     * param context Contexto da aplicação
+     * param tenant ID da escola (DEFAULT_TENANT para a padrão)
+     * return Instância do AppDatabase
+     * throws IllegalArgumentException Se o ID for inválido
+     */
+    public static AppDatabase acquireDatabase(final Context context, String tenant) {
+        return tenants(context).acquire(tenant);
+    }
+
+    /**
+     * Libera um banco obtido com acquireDatabase.
+     */
+    public static void releaseDatabase(final Context context, String tenant) {
+        tenants(context).release(tenant);
+    }
+
+    /**
+     * return ID da escola atual (DEFAULT_TENANT se nenhuma foi escolhida)
+     */
+    public static String currentTenant(Context context) {
+        return tenants(context).current();
+    }
+
+    /**
+     * Troca a escola atual. Deve ser chamado com a sessão encerrada: os
+     * IDs de usuário de uma escola não valem em outra. As consultas
+     * observáveis passam para o banco novo; os demais dados das telas
+     * abertas continuam os do banco anterior até serem recriadas.
+     * <p>
+     * param tenant ID da escola: letras minúsculas, dígitos e "_"
+     * throws IllegalArgumentException Se o ID for inválido
+     */
+    public static void switchTenant(Context context, String tenant) {
+        tenants(context).switchTo(tenant);
+    }
+
+    /**
+     * return Escolas com banco neste aparelho, em ordem (a padrão primeiro)
+     */
+    public static List<String> listTenants(Context context) {
+        return tenants(context).list();
+    }
+
+    /**
+     * Define o aviso de abertura dos bancos (chamado em Application.onCreate).
+     */
+    public static void setOpenListener(Context context, OpenListener listener) {
+        tenants(context).setOpenListener(listener);
+    }
+
+    /**
+     * return Perfil de armazenamento em uso
+     */
+    public static StorageProfile getStorageProfile(Context context) {
+        return tenants(context).profile();
+    }
+
+    /**
+     * Escolhe o perfil de armazenamento (persistido para as próximas
+     * execuções). Cache, sincronização, mmap e checkpoint valem na hora
+     * para os bancos abertos; o modo de journal do banco atual muda na
+     * próxima abertura. Executa PRAGMAs: chamar fora da thread principal.
+     */
+    public static void setStorageProfile(Context context, StorageProfile profile) {
+        StorageProfile.save(context, profile);
+        tenants(context).setProfile(profile);
+    }
+
+    /**
+     * return Nome do arquivo do banco da escola
+     */
+    public static String databaseName(String tenant) {
+        TenantDatabases.checkTenant(tenant);
+        return tenant.isEmpty() ? DATABASE_NAME : DATABASE_NAME + "_" + tenant;
+    }
+
+    static TenantDatabases tenants(Context context) {
+        if (TENANTS == null) {
+            synchronized (AppDatabase.class) {
+                if (TENANTS == null) {
+                    TENANTS = new TenantDatabases(context, MAX_OPEN_DATABASES);
+                }
+            }
+        }
+        return TENANTS;
+    }
+
+    /**
+     * Aplica a configuração do esquema (migrações e triggers) a um builder.
+     * <p>
+     * Compartilhado pelo Singleton e pelos testes/benchmarks, que abrem
+     * bancos em outros arquivos com a mesma configuração.
+     * <p>
+     * param builder Builder do Room para AppDatabase
+     * return O mesmo builder, configurado
+     */
+    static RoomDatabase.Builder<AppDatabase> configure(RoomDatabase.Builder<AppDatabase> builder) {
+        return builder
+                // Migrações explícitas a partir da versão 5
+                .addMigrations(Migrations.ALL)
+                // Triggers dos contadores agregados e do registro de alterações
+                .addCallback(Migrations.CALLBACK)
+                // Migração destrutiva - apenas para versões sem migração (antes da 5)
+                // e downgrade; uma migração faltando a partir da 5 falha em vez de
+                // apagar os dados
+                .fallbackToDestructiveMigrationFrom(1, 2, 3, 4)
+                .fallbackToDestructiveMigrationOnDowngrade();
+    }
+
+    /**
+     * return Feed de alterações por linha de users e notes deste banco
+     */
+    public synchronized ChangeFeed changeFeed() {
+        if (changeFeed == null) {
+            changeFeed = new ChangeFeed(this);
+        }
+        return changeFeed;
+    }
+
+    /**
+     * return Dicionário de matérias e tipos de atividade deste banco
+     */
+    public synchronized NoteDictionary dictionary() {
+        if (dictionary == null) {
+            dictionary = new NoteDictionary(this);
+        }
+        return dictionary;
+    }
+
+    /**
+     * return Cache dos usuários recentes deste banco (troca rápida de aluno)
+     */
+    public synchronized WarmUserCache warmUsers() {
+        if (warmUsers == null) {
+            warmUsers = new WarmUserCache(this, WarmUserCache.CAPACITY);
+        }
+        return warmUsers;
+    }
+
+    /**
+     * return Estatísticas de notas por aluno deste banco (lista de administração)
+     */
+    public synchronized NoteStatsCache noteStats() {
+        if (noteStats == null) {
+            noteStats = new NoteStatsCache(this);
+        }
+        return noteStats;
+    }
+
+    /**
+     * return Meses do calendário de notas deste banco
+     */
+    public synchronized NoteCalendar calendar() {
+        if (calendar == null) {
+            calendar = new NoteCalendar(this, NoteCalendar.CAPACITY);
+        }
+        return calendar;
+    }
+
+    /**
+     * return Histórico de edições das notas deste banco
+     */
+    public synchronized NoteHistory noteHistory() {
+        if (noteHistory == null) {
+            noteHistory = new NoteHistory(this, NoteHistory.SNAPSHOT_INTERVAL);
+        }
+        return noteHistory;
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (changeFeed != null) {
+                changeFeed.close();
+                changeFeed = null;
+            }
+            warmUsers = null;
+            noteStats = null;
+            calendar = null;
+        }
+        super.close();
+    }
+
+    /**
+     * Fecha o banco da escola atual assim que ele deixar de estar em uso.
+     * <p>
+     * Usado pela restauração de backup antes de substituir o arquivo do
+     * banco, sob o bloqueio de AppDatabase.class: ao retornar, ninguém
+     * segura o banco e nenhuma reserva nova é feita até o bloqueio ser
+     * liberado. A próxima chamada a getDatabase reabre o arquivo restaurado.
+     * <p>
+     * param timeoutMs Espera máxima pelos usuários do banco
+     * return Escola cujo banco foi fechado, ou null se continuou em uso
+     */
+    static String closeDatabase(Context context, long timeoutMs) throws InterruptedException {
+        synchronized (AppDatabase.class) {
+            return tenants(context).closeCurrent(timeoutMs);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.escolario.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+
+import com.example.escolario.model.AuditEntry;
+
+import java.util.List;
+
+/**
+ * DAO da trilha de auditoria, usado apenas por AuditLog.
+ */
+@Dao
+public interface AuditDao {
+
+    /**
+     * Grava um lote de eventos (AuditLog o envolve em uma transação).
+     */
+    @Insert
+    void insertAll(List<AuditEntry> entries);
+
+    /**
+     * Eventos de um usuário no período [from, to], mais recentes primeiro.
+     */
+    @Query("SELECT * FROM audit_log WHERE userId = :userId AND time BETWEEN :from AND :to "
+            + "ORDER BY time DESC, seq DESC LIMIT :limit")
+    List<AuditEntry> findByUser(int userId, long from, long to, int limit);
+
+    /**
+     * Eventos de todos os usuários no período [from, to], mais recentes primeiro.
+     */
+    @Query("SELECT * FROM audit_log WHERE time BETWEEN :from AND :to "
+            + "ORDER BY time DESC, seq DESC LIMIT :limit")
+    List<AuditEntry> findBetween(long from, long to, int limit);
+
+    /**
+     * Mantém apenas as keep entradas mais recentes (rotação por tamanho).
+     * return Quantidade de entradas removidas
+     */
+    @Query("DELETE FROM audit_log WHERE seq <= (SELECT MAX(seq) FROM audit_log) - :keep")
+    int prune(int keep);
+}
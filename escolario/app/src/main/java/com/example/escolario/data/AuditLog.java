@@ -0,0 +1,323 @@
+package com.example.escolario.data;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.escolario.model.AuditEntry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trilha de auditoria com gravação em lote.
+ * <p>
+ * record() apenas coloca o evento em um buffer circular em memória e
+ * retorna: login, cadastro e exclusão não ganham uma escrita síncrona no
+ * banco. Uma thread própria grava o buffer em uma única transação a cada
+ * FLUSH_INTERVAL_MS, ou antes, quando FLUSH_THRESHOLD eventos se acumulam.
+ * Se o buffer encher antes da gravação (banco travado por uma restauração,
+ * por exemplo), os eventos mais antigos são descartados e contados em
+ * Metrics.dropped.
+ * <p>
+ * A tabela guarda no máximo MAX_ENTRIES eventos: a cada lote, as linhas
+ * mais antigas além do limite são removidas (rotação por tamanho).
+ * <p>
+ * Cada evento guarda a escola atual no momento de record() e vai para o
+ * banco dessa escola, mesmo que a escola seja trocada antes da gravação:
+ * o lote é dividido por escola, com uma transação em cada banco. Um
+ * encerramento do processo perde no máximo os eventos ainda no buffer.
+ */
+public final class AuditLog {
+    private static final String TAG = "AuditLog";
+
+    // Eventos mantidos em memória entre gravações
+    static final int BUFFER_CAPACITY = 512;
+
+    // Eventos acumulados que antecipam a gravação
+    static final int FLUSH_THRESHOLD = 64;
+
+    // Atraso máximo de um evento até ser gravado
+    static final long FLUSH_INTERVAL_MS = 2_000;
+
+    // Eventos mantidos na tabela
+    static final int MAX_ENTRIES = 20_000;
+
+    private static volatile AuditLog INSTANCE;
+
+    /**
+     * Bancos onde os lotes são gravados.
+     */
+    interface Target {
+        // Escola atual (guardada com cada evento em record)
+        String currentTenant();
+
+        // Obtém e segura o banco da escola até release
+        AppDatabase acquire(String tenant);
+
+        void release(String tenant);
+    }
+
+    /**
+     * Contadores da trilha desde o início do processo.
+     */
+    public static final class Metrics {
+        public final long recorded;
+        public final long dropped;
+        public final long flushed;
+        public final long flushes;
+        public final long failedFlushes;
+        public final int pending;
+        public final long lastFlushMicros;
+
+        Metrics(long recorded, long dropped, long flushed, long flushes, long failedFlushes,
+                int pending, long lastFlushMicros) {
+            this.recorded = recorded;
+            this.dropped = dropped;
+            this.flushed = flushed;
+            this.flushes = flushes;
+            this.failedFlushes = failedFlushes;
+            this.pending = pending;
+            this.lastFlushMicros = lastFlushMicros;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "registrados=%d descartados=%d gravados=%d lotes=%d falhas=%d pendentes=%d último lote=%d µs",
+                    recorded, dropped, flushed, flushes, failedFlushes, pending, lastFlushMicros);
+        }
+    }
+
+    private final Target target;
+    private final int flushThreshold;
+    private final long flushIntervalMs;
+    private final int maxEntries;
+    private final ScheduledExecutorService executor;
+
+    // Buffer circular: size eventos a partir de head, com a escola de cada um
+    private final AuditEntry[] ring;
+    private final String[] ringTenants;
+    private int head;
+    private int size;
+
+    // Gravação agendada (por tempo) ou imediata (por volume) já na fila
+    private boolean flushScheduled;
+    private boolean flushQueued;
+
+    // Métricas (sob o bloqueio da instância)
+    private long recorded;
+    private long dropped;
+    private long flushed;
+    private long flushes;
+    private long failedFlushes;
+    private long lastFlushMicros;
+
+    // Gravações desde a última poda, por escola (sob writeLock)
+    private final Object writeLock = new Object();
+    private final Map<String, Integer> sincePrune = new HashMap<>();
+
+    AuditLog(Target target, int capacity, int flushThreshold, long flushIntervalMs, int maxEntries) {
+        this.target = target;
+        this.ring = new AuditEntry[capacity];
+        this.ringTenants = new String[capacity];
+        this.flushThreshold = flushThreshold;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxEntries = maxEntries;
+
+        this.executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "audit-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Obtém a instância única.
+     * param context Qualquer contexto (o da aplicação é utilizado)
+     */
+    public static AuditLog getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (AuditLog.class) {
+                if (INSTANCE == null) {
+                    Context app = context.getApplicationContext();
+                    INSTANCE = new AuditLog(new Target() {
+                        @Override
+                        public String currentTenant() {
+                            return AppDatabase.currentTenant(app);
+                        }
+
+                        @Override
+                        public AppDatabase acquire(String tenant) {
+                            return AppDatabase.acquireDatabase(app, tenant);
+                        }
+
+                        @Override
+                        public void release(String tenant) {
+                            AppDatabase.releaseDatabase(app, tenant);
+                        }
+                    }, BUFFER_CAPACITY, FLUSH_THRESHOLD, FLUSH_INTERVAL_MS, MAX_ENTRIES);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Registra um evento (sem acesso ao banco; pode ser chamado de
+     * qualquer thread, inclusive a principal).
+     *
+     * param action Tipo do evento (AuditEntry.LOGIN, ...)
+     * param actorId Quem executou a ação (0 se desconhecido)
+     * param userId Usuário afetado (0 se desconhecido)
+     * param detail Informação adicional, ou null
+     */
+    public void record(String action, int actorId, int userId, String detail) {
+        AuditEntry entry = new AuditEntry(System.currentTimeMillis(), action, actorId, userId, detail);
+        String tenant = target.currentTenant();
+        synchronized (this) {
+            if (size == ring.length) {
+                // Buffer cheio: descarta o mais antigo
+                ring[head] = null;
+                ringTenants[head] = null;
+                head = (head + 1) % ring.length;
+                size--;
+                dropped++;
+            }
+            int tail = (head + size) % ring.length;
+            ring[tail] = entry;
+            ringTenants[tail] = tenant;
+            size++;
+            recorded++;
+
+            if (size >= flushThreshold) {
+                if (!flushQueued) {
+                    flushQueued = true;
+                    executor.execute(this::scheduledFlush);
+                }
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                executor.schedule(this::scheduledFlush, flushIntervalMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Grava os eventos pendentes e espera a gravação (fora da thread
+     * principal). Chamado pelas consultas, para incluir os eventos recentes.
+     * Cada escola do lote recebe seus eventos em uma transação própria.
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            Map<String, List<AuditEntry>> batches = drain();
+            for (Map.Entry<String, List<AuditEntry>> batch : batches.entrySet()) {
+                write(batch.getKey(), batch.getValue());
+            }
+        }
+    }
+
+    /**
+     * Eventos de um usuário no período, mais recentes primeiro (síncrono).
+     *
+     * param userId Usuário afetado
+     * param fromMs Início do período (System.currentTimeMillis, inclusivo)
+     * param toMs Fim do período (inclusivo)
+     * param limit Quantidade máxima de eventos
+     */
+    public List<AuditEntry> findByUser(int userId, long fromMs, long toMs, int limit) {
+        flush();
+        String tenant = target.currentTenant();
+        try {
+            return target.acquire(tenant).auditDao().findByUser(userId, fromMs, toMs, limit);
+        } finally {
+            target.release(tenant);
+        }
+    }
+
+    /**
+     * Eventos de todos os usuários no período, mais recentes primeiro (síncrono).
+     */
+    public List<AuditEntry> find(long fromMs, long toMs, int limit) {
+        flush();
+        String tenant = target.currentTenant();
+        try {
+            return target.acquire(tenant).auditDao().findBetween(fromMs, toMs, limit);
+        } finally {
+            target.release(tenant);
+        }
+    }
+
+    /**
+     * return Contadores atuais (registrados, descartados, gravados, lotes)
+     */
+    public synchronized Metrics metrics() {
+        return new Metrics(recorded, dropped, flushed, flushes, failedFlushes, size, lastFlushMicros);
+    }
+
+    // Gravação disparada por tempo ou volume (na thread da trilha)
+    private void scheduledFlush() {
+        synchronized (this) {
+            flushScheduled = false;
+            flushQueued = false;
+        }
+        flush();
+    }
+
+    // Grava o lote de uma escola em uma transação (sob writeLock)
+    private void write(String tenant, List<AuditEntry> batch) {
+        long start = System.nanoTime();
+        try {
+            AppDatabase db = target.acquire(tenant);
+            try {
+                db.runInTransaction(() -> db.auditDao().insertAll(batch));
+                // Poda a cada décimo do limite gravado, não a cada lote
+                int written = sincePrune.getOrDefault(tenant, 0) + batch.size();
+                if (written >= Math.max(1, maxEntries / 10)) {
+                    int removed = db.auditDao().prune(maxEntries);
+                    written = 0;
+                    if (removed > 0) {
+                        Log.d(TAG, removed + " eventos antigos removidos");
+                    }
+                }
+                sincePrune.put(tenant, written);
+            } finally {
+                target.release(tenant);
+            }
+            synchronized (this) {
+                flushed += batch.size();
+                flushes++;
+                lastFlushMicros = (System.nanoTime() - start) / 1_000;
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                failedFlushes++;
+                dropped += batch.size();
+            }
+            Log.w(TAG, "Falha ao gravar " + batch.size() + " eventos de auditoria", e);
+        }
+    }
+
+    // Retira todos os eventos do buffer, agrupados por escola e na ordem
+    // de registro dentro de cada escola
+    private synchronized Map<String, List<AuditEntry>> drain() {
+        Map<String, List<AuditEntry>> batches = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            int index = (head + i) % ring.length;
+            batches.computeIfAbsent(ringTenants[index], tenant -> new ArrayList<>()).add(ring[index]);
+            ring[index] = null;
+            ringTenants[index] = null;
+        }
+        head = 0;
+        size = 0;
+        return batches;
+    }
+}
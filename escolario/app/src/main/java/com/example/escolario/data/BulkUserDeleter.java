@@ -0,0 +1,141 @@
+package com.example.escolario.data;
+
+import com.example.escolario.model.Enrollment;
+import com.example.escolario.model.Note;
+import com.example.escolario.model.NoteDraft;
+import com.example.escolario.model.NoteRevision;
+import com.example.escolario.model.User;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Exclusão de usuários em lote, em uma única transação.
+ * <p>
+ * Os IDs são processados em blocos (limite de 999 variáveis do SQLite),
+ * com notificação de progresso a cada bloco. Antes de excluir, os usuários,
+ * suas notas (com o histórico de edições), rascunhos e matrículas são copiados para um {@link Snapshot}, permitindo desfazer
+ * a operação com {@link #undo(Snapshot)}.
+ * <p>
+ * Todos os métodos fazem acesso ao banco e devem ser chamados fora da
+ * thread principal.
+ */
+public class BulkUserDeleter {
+    // Tamanho do bloco de IDs por comando (abaixo do limite do SQLite)
+    private static final int CHUNK_SIZE = 500;
+
+    private final AppDatabase db;
+
+    /**
+     * Interface para acompanhar o progresso da exclusão.
+     */
+    public interface ProgressListener {
+        /**
+         * Disparado após cada bloco processado (na thread de trabalho).
+         * @param processed Quantidade de IDs já processados
+         * @param total Quantidade total de IDs
+         */
+        void onProgress(int processed, int total);
+    }
+
+    /**
+     * Dados removidos por uma exclusão em lote, usados para desfazê-la.
+     */
+    public static class Snapshot {
+        public final List<User> users;
+        public final List<Note> notes;
+        public final List<Enrollment> enrollments;
+        public final List<NoteRevision> revisions;
+        public final List<NoteDraft> drafts;
+
+        Snapshot(List<User> users, List<Note> notes, List<Enrollment> enrollments,
+                 List<NoteRevision> revisions, List<NoteDraft> drafts) {
+            this.users = Collections.unmodifiableList(users);
+            this.notes = Collections.unmodifiableList(notes);
+            this.enrollments = Collections.unmodifiableList(enrollments);
+            this.revisions = Collections.unmodifiableList(revisions);
+            this.drafts = Collections.unmodifiableList(drafts);
+        }
+
+        /**
+         * return Quantidade de usuários removidos
+         */
+        public int size() {
+            return users.size();
+        }
+    }
+
+    public BulkUserDeleter(AppDatabase db) {
+        this.db = db;
+    }
+
+    /**
+     * Remove os usuários comuns informados, suas notas e matrículas.
+     * Tudo ocorre em uma transação: ou todos são removidos, ou nenhum.
+     *
+     * param userIds IDs dos usuários a remover
+     * param listener Listener de progresso (pode ser null)
+     * return Snapshot com os dados removidos
+     */
+    public Snapshot delete(List<Integer> userIds, ProgressListener listener) {
+        List<Integer> ids = new ArrayList<>(userIds);
+        UserDao userDao = db.userDao();
+        NoteDao noteDao = db.noteDao();
+        ClassDao classDao = db.classDao();
+        NoteHistoryDao historyDao = db.noteHistoryDao();
+        NoteDraftDao draftDao = db.noteDraftDao();
+
+        return db.runInTransaction(() -> {
+            List<User> users = new ArrayList<>();
+            List<Note> notes = new ArrayList<>();
+            List<Enrollment> enrollments = new ArrayList<>();
+            List<NoteRevision> revisions = new ArrayList<>();
+            List<NoteDraft> drafts = new ArrayList<>();
+
+            for (int start = 0; start < ids.size(); start += CHUNK_SIZE) {
+                List<Integer> chunk = ids.subList(start, Math.min(start + CHUNK_SIZE, ids.size()));
+
+                // Copia os dados antes de excluir (apenas não-administradores)
+                List<Integer> regularIds = new ArrayList<>();
+                for (User user : userDao.getUsersByIds(chunk)) {
+                    if (!user.isAdmin) {
+                        users.add(user);
+                        regularIds.add(user.id);
+                    }
+                }
+
+                if (!regularIds.isEmpty()) {
+                    notes.addAll(noteDao.getNotesByUsers(regularIds));
+                    enrollments.addAll(classDao.loadEnrollmentsByUsers(regularIds));
+                    revisions.addAll(historyDao.loadRevisionsByUsers(regularIds));
+                    drafts.addAll(draftDao.loadDraftsByUsers(regularIds));
+
+                    // Notas, versões, rascunhos e matrículas são removidos em cascata (via índices em userId)
+                    userDao.deleteRegularUsersByIds(regularIds);
+                }
+
+                if (listener != null) {
+                    listener.onProgress(start + chunk.size(), ids.size());
+                }
+            }
+            return new Snapshot(users, notes, enrollments, revisions, drafts);
+        });
+    }
+
+    /**
+     * Desfaz uma exclusão em lote, reinserindo usuários, notas, versões, rascunhos e matrículas com os
+     * IDs originais em uma única transação.
+     *
+     * param snapshot Dados retornados por delete()
+     */
+    public void undo(Snapshot snapshot) {
+        db.runInTransaction(() -> {
+            db.userDao().insertAll(snapshot.users);
+            db.noteDao().insertAll(snapshot.notes);
+            db.noteHistoryDao().insertAll(snapshot.revisions);
+            db.classDao().enroll(snapshot.enrollments);
+            db.noteDraftDao().insertAll(snapshot.drafts);
+        });
+    }
+}
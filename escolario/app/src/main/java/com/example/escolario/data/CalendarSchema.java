@@ -0,0 +1,90 @@
+package com.example.escolario.data;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * Triggers que mantêm a tabela note_days (resumo do calendário) atualizada.
+ * <p>
+ * Seguem o mesmo modelo de StatsSchema: cada escrita em notes ajusta
+ * apenas a linha do aluno, dia e tipo afetados (+1/-1), então exibir um
+ * mês lê umas poucas dezenas de linhas já calculadas em vez de carregar e
+ * converter todas as datas dd/MM/yyyy do aluno. As exclusões em cascata
+ * (remoção do aluno) também disparam os triggers.
+ */
+final class CalendarSchema {
+
+    private CalendarSchema() {
+        // Classe utilitária - não instanciável
+    }
+
+    // DDL idêntica à gerada pelo Room para a entidade NoteDay
+    private static final String CREATE_TABLE =
+            "CREATE TABLE IF NOT EXISTS `note_days` (`userId` INTEGER NOT NULL, "
+                    + "`epochDay` INTEGER NOT NULL, `typeId` INTEGER NOT NULL, `count` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`userId`, `epochDay`, `typeId`))";
+
+    // Condição da linha da nota (prefixo NEW. ou OLD.)
+    private static String matches(String row) {
+        return "userId = " + row + ".userId AND epochDay = " + row + ".epochDay"
+                + " AND typeId = " + row + ".typeId";
+    }
+
+    // Incrementa (ou cria) a linha da nota; datas inválidas (0) ficam de fora
+    private static String increment(String row) {
+        return "INSERT OR IGNORE INTO note_days (userId, epochDay, typeId, count)"
+                + " SELECT " + row + ".userId, " + row + ".epochDay, " + row + ".typeId, 0"
+                + " WHERE " + row + ".epochDay > 0;"
+                + " UPDATE note_days SET count = count + 1 WHERE " + matches(row) + ";";
+    }
+
+    // Decrementa a linha da nota, removendo-a quando zera
+    private static String decrement(String row) {
+        return "UPDATE note_days SET count = count - 1 WHERE " + matches(row) + ";"
+                + " DELETE FROM note_days WHERE " + matches(row) + " AND count <= 0;";
+    }
+
+    private static final String[] TRIGGERS = {
+            "CREATE TRIGGER IF NOT EXISTS calendar_notes_insert AFTER INSERT ON notes BEGIN "
+                    + increment("NEW")
+                    + " END",
+            "CREATE TRIGGER IF NOT EXISTS calendar_notes_delete AFTER DELETE ON notes BEGIN "
+                    + decrement("OLD")
+                    + " END",
+            "CREATE TRIGGER IF NOT EXISTS calendar_notes_update AFTER UPDATE OF userId, epochDay, typeId"
+                    + " ON notes BEGIN "
+                    + decrement("OLD")
+                    + increment("NEW")
+                    + " END"
+    };
+
+    /**
+     * Cria os triggers (tabela já criada pelo Room).
+     * Chamado na criação do banco e após migrações destrutivas.
+     */
+    static void createTriggers(SupportSQLiteDatabase db) {
+        for (String trigger : TRIGGERS) {
+            db.execSQL(trigger);
+        }
+    }
+
+    /**
+     * Cria a tabela e os triggers em um banco existente e calcula o resumo
+     * a partir das notas atuais (usado na migração).
+     */
+    static void install(SupportSQLiteDatabase db) {
+        db.execSQL(CREATE_TABLE);
+        createTriggers(db);
+        rebuild(db);
+    }
+
+    /**
+     * Recalcula o resumo do zero. Operação O(n) - usada apenas na migração
+     * ou para reparo; o uso normal é incremental.
+     */
+    static void rebuild(SupportSQLiteDatabase db) {
+        db.execSQL("DELETE FROM note_days");
+        db.execSQL("INSERT INTO note_days (userId, epochDay, typeId, count)"
+                + " SELECT userId, epochDay, typeId, COUNT(*) FROM notes WHERE epochDay > 0"
+                + " GROUP BY userId, epochDay, typeId");
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.escolario.data;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+
+import com.example.escolario.model.RowChange;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feed de alterações por linha de users e notes.
+ * <p>
+ * O LiveData do Room reexecuta a consulta inteira a cada escrita na
+ * tabela, mesmo que a linha alterada não interesse ao observador. Aqui,
+ * os triggers de ChangeLogSchema registram quais linhas mudaram, e o
+ * feed entrega aos ouvintes apenas esses IDs (inseridos, atualizados,
+ * removidos), que então aplicam o delta à lista que já possuem.
+ * <p>
+ * Invalidações recebidas dentro de COALESCE_WINDOW_MS são agrupadas em
+ * uma única leitura, e alterações repetidas da mesma linha são reduzidas
+ * ao efeito final (ex.: inserida e removida na mesma janela = nada). Uma
+ * importação em massa gera poucas notificações, não milhares.
+ * <p>
+ * Os ouvintes são chamados na thread do feed, em ordem.
+ */
+public class ChangeFeed {
+    private static final String TAG = "ChangeFeed";
+
+    // Janela de agrupamento das notificações
+    static final long COALESCE_WINDOW_MS = 100;
+
+    // Alterações lidas por consulta
+    private static final int PAGE_SIZE = 2_000;
+
+    /**
+     * Alterações de uma tabela, já reduzidas ao efeito final por linha.
+     */
+    public static class ChangeSet {
+        public final String table;
+        public final Set<Long> inserted;
+        public final Set<Long> updated;
+        public final Set<Long> deleted;
+
+        ChangeSet(String table, Set<Long> inserted, Set<Long> updated, Set<Long> deleted) {
+            this.table = table;
+            this.inserted = Collections.unmodifiableSet(inserted);
+            this.updated = Collections.unmodifiableSet(updated);
+            this.deleted = Collections.unmodifiableSet(deleted);
+        }
+
+        /**
+         * return IDs inseridos ou atualizados (linhas a reler)
+         */
+        public Set<Long> upserted() {
+            Set<Long> ids = new LinkedHashSet<>(inserted);
+            ids.addAll(updated);
+            return ids;
+        }
+
+        public boolean isEmpty() {
+            return inserted.isEmpty() && updated.isEmpty() && deleted.isEmpty();
+        }
+
+        public int size() {
+            return inserted.size() + updated.size() + deleted.size();
+        }
+    }
+
+    /**
+     * Ouvinte de alterações de uma tabela.
+     */
+    public interface Listener {
+        /**
+         * Chamado na thread do feed com as alterações agrupadas.
+         */
+        void onChanges(ChangeSet changes);
+    }
+
+    private final AppDatabase db;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private final Map<String, List<Listener>> listeners = new HashMap<>();
+
+    // Última sequência consumida (escrita apenas na thread do feed)
+    private volatile long lastSeq;
+
+    // Leituras executadas (para testes)
+    private volatile int drains;
+
+    // Há uma leitura agendada (agrupa as invalidações da janela)
+    private boolean drainScheduled;
+
+    private final InvalidationTracker.Observer observer = new InvalidationTracker.Observer("row_changes") {
+        @Override
+        public void onInvalidated(@NonNull Set<String> tables) {
+            // O prune do próprio feed também invalida row_changes: só lê
+            // de novo se houver alteração ainda não consumida
+            if (hasUnreadChanges()) {
+                scheduleDrain();
+            }
+        }
+    };
+
+    ChangeFeed(AppDatabase db) {
+        this.db = db;
+        executor.execute(() -> lastSeq = db.changeLogDao().lastSeq());
+        db.getInvalidationTracker().addObserver(observer);
+    }
+
+    /**
+     * Registra um ouvinte das alterações de uma tabela (users ou notes).
+     */
+    public void addListener(String table, Listener listener) {
+        synchronized (listeners) {
+            listeners.computeIfAbsent(table, t -> new CopyOnWriteArrayList<>()).add(listener);
+        }
+    }
+
+    public void removeListener(String table, Listener listener) {
+        synchronized (listeners) {
+            List<Listener> tableListeners = listeners.get(table);
+            if (tableListeners != null) {
+                tableListeners.remove(listener);
+            }
+        }
+    }
+
+    /**
+     * Executa uma tarefa na thread do feed, em ordem com as entregas
+     * (usado para a carga inicial dos observadores).
+     */
+    public void execute(Runnable task) {
+        schedule(task, 0);
+    }
+
+    /**
+     * Agenda uma tarefa na thread do feed após um atraso. Ignorada se o
+     * feed já foi encerrado (banco fechado).
+     */
+    void schedule(Runnable task, long delayMs) {
+        try {
+            executor.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Feed encerrado; tarefa ignorada");
+        }
+    }
+
+    /**
+     * return Número de leituras do registro executadas até agora
+     */
+    int drainCount() {
+        return drains;
+    }
+
+    // Chamado na thread de invalidação do Room
+    private boolean hasUnreadChanges() {
+        try {
+            return db.changeLogDao().lastSeq() > lastSeq;
+        } catch (RuntimeException e) {
+            // Banco fechado: não há o que ler
+            return false;
+        }
+    }
+
+    private synchronized void scheduleDrain() {
+        if (drainScheduled || executor.isShutdown()) {
+            return;
+        }
+        drainScheduled = true;
+        executor.schedule(this::drain, COALESCE_WINDOW_MS, TimeUnit.MILLISECONDS);
+    }
+
+    // Lê as alterações pendentes, entrega aos ouvintes e remove as consumidas
+    private void drain() {
+        synchronized (this) {
+            drainScheduled = false;
+        }
+        drains++;
+        try {
+            long start = System.nanoTime();
+            int read = 0;
+            Map<String, Map<Long, int[]>> pending = new HashMap<>();
+
+            List<RowChange> page;
+            do {
+                page = db.changeLogDao().changesAfter(lastSeq, PAGE_SIZE);
+                for (RowChange change : page) {
+                    record(pending, change);
+                    lastSeq = change.seq;
+                }
+                read += page.size();
+            } while (page.size() == PAGE_SIZE);
+
+            if (read == 0) {
+                return;
+            }
+            db.changeLogDao().prune(lastSeq);
+
+            for (Map.Entry<String, Map<Long, int[]>> entry : pending.entrySet()) {
+                ChangeSet changes = collapse(entry.getKey(), entry.getValue());
+                List<Listener> tableListeners;
+                synchronized (listeners) {
+                    tableListeners = listeners.get(entry.getKey());
+                }
+                if (changes.isEmpty() || tableListeners == null) continue;
+                for (Listener listener : tableListeners) {
+                    listener.onChanges(changes);
+                }
+            }
+            Log.d(TAG, read + " alterações entregues em "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (RuntimeException e) {
+            // Banco fechado durante a leitura (ex.: restauração de backup)
+            Log.w(TAG, "Falha ao ler alterações", e);
+        }
+    }
+
+    // Guarda a primeira e a última operação de cada linha
+    private static void record(Map<String, Map<Long, int[]>> pending, RowChange change) {
+        Map<Long, int[]> rows = pending.computeIfAbsent(change.tableName, t -> new HashMap<>());
+        int[] ops = rows.get(change.rowId);
+        if (ops == null) {
+            rows.put(change.rowId, new int[]{change.op, change.op});
+        } else {
+            ops[1] = change.op;
+        }
+    }
+
+    /**
+     * Reduz a sequência de operações de cada linha ao efeito final:
+     * inserida e depois removida = nada; inserida (e alterada) = inserida;
+     * termina removida = removida; demais casos = atualizada.
+     */
+    static ChangeSet collapse(String table, Map<Long, int[]> rows) {
+        Set<Long> inserted = new LinkedHashSet<>();
+        Set<Long> updated = new LinkedHashSet<>();
+        Set<Long> deleted = new LinkedHashSet<>();
+
+        for (Map.Entry<Long, int[]> row : rows.entrySet()) {
+            int first = row.getValue()[0];
+            int last = row.getValue()[1];
+            if (first == RowChange.OP_INSERT && last == RowChange.OP_DELETE) {
+                continue;
+            } else if (first == RowChange.OP_INSERT) {
+                inserted.add(row.getKey());
+            } else if (last == RowChange.OP_DELETE) {
+                deleted.add(row.getKey());
+            } else {
+                updated.add(row.getKey());
+            }
+        }
+        return new ChangeSet(table, inserted, updated, deleted);
+    }
+
+    /**
+     * Encerra o feed (chamado ao fechar o banco).
+     */
+    void close() {
+        db.getInvalidationTracker().removeObserver(observer);
+        synchronized (this) {
+            executor.shutdown();
+        }
+    }
+}
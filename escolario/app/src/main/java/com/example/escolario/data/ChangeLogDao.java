@@ -0,0 +1,36 @@
+package com.example.escolario.data;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+
+import com.example.escolario.model.RowChange;
+
+import java.util.List;
+
+/**
+ * DAO da tabela row_changes, usado apenas por ChangeFeed.
+ */
+@Dao
+public interface ChangeLogDao {
+
+    /**
+     * Lê as alterações posteriores a uma sequência, em ordem.
+     * param afterSeq Última sequência já consumida
+     * param limit Tamanho máximo da página
+     */
+    @Query("SELECT * FROM row_changes WHERE seq > :afterSeq ORDER BY seq LIMIT :limit")
+    List<RowChange> changesAfter(long afterSeq, int limit);
+
+    /**
+     * return Maior sequência registrada (0 se a tabela estiver vazia)
+     */
+    @Query("SELECT COALESCE(MAX(seq), 0) FROM row_changes")
+    long lastSeq();
+
+    /**
+     * Remove as alterações já consumidas.
+     * param upToSeq Última sequência consumida (inclusive)
+     */
+    @Query("DELETE FROM row_changes WHERE seq <= :upToSeq")
+    int prune(long upToSeq);
+}
@@ -0,0 +1,60 @@
+package com.example.escolario.data;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * Triggers que registram em row_changes cada linha inserida, atualizada
+ * ou removida em users e notes (inclusive exclusões em cascata).
+ * <p>
+ * Seguem o mesmo modelo de StatsSchema: a tabela é gerada pelo Room a
+ * partir da entidade RowChange e os triggers são criados aqui.
+ */
+final class ChangeLogSchema {
+
+    private ChangeLogSchema() {
+        // Classe utilitária - não instanciável
+    }
+
+    // DDL idêntica à gerada pelo Room para a entidade RowChange
+    private static final String CREATE_TABLE =
+            "CREATE TABLE IF NOT EXISTS `row_changes` (`seq` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`tableName` TEXT NOT NULL, `rowId` INTEGER NOT NULL, `op` INTEGER NOT NULL)";
+
+    private static final String[] TABLES = {"users", "notes"};
+
+    // Valores de RowChange.OP_*
+    private static String trigger(String table, String event, String row, int op) {
+        return "CREATE TRIGGER IF NOT EXISTS changes_" + table + "_" + event.toLowerCase()
+                + " AFTER " + event + " ON " + table + " BEGIN"
+                + " INSERT INTO row_changes (tableName, rowId, op) VALUES ('" + table + "', "
+                + row + ".id, " + op + "); END";
+    }
+
+    /**
+     * Cria os triggers (tabela já criada pelo Room).
+     * Chamado na criação do banco e após migrações destrutivas.
+     */
+    static void createTriggers(SupportSQLiteDatabase db) {
+        for (String table : TABLES) {
+            db.execSQL(trigger(table, "INSERT", "NEW", 1));
+            db.execSQL(trigger(table, "UPDATE", "NEW", 2));
+            db.execSQL(trigger(table, "DELETE", "OLD", 3));
+        }
+    }
+
+    /**
+     * Cria a tabela e os triggers em um banco existente (usado na migração).
+     */
+    static void install(SupportSQLiteDatabase db) {
+        db.execSQL(CREATE_TABLE);
+        createTriggers(db);
+    }
+
+    /**
+     * Descarta alterações não consumidas (de uma execução anterior do
+     * aplicativo); chamado ao abrir o banco.
+     */
+    static void clear(SupportSQLiteDatabase db) {
+        db.execSQL("DELETE FROM row_changes");
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.escolario.data;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.example.escolario.model.ClassNote;
+import com.example.escolario.model.Enrollment;
+import com.example.escolario.model.SchoolClass;
+import com.example.escolario.model.User;
+
+import java.util.List;
+
+/**
+ * Data Access Object (DAO) para turmas e matrículas.
+ *
+ * As consultas de uma turma partem do índice (classId, role, userId) de
+ * enrollments: leem apenas as linhas da turma, não as da escola inteira.
+ * Operações disponíveis:
+ * - Cadastro de turmas e matrículas
+ * - Alunos/professores de uma turma, com busca pelo nome
+ * - Notas dos alunos de uma turma em uma matéria
+ * - Turmas de um usuário
+ */
+@Dao
+public interface ClassDao {
+
+    /**
+     * Cadastra uma turma.
+     *
+     * param schoolClass Turma a ser cadastrada
+     * return ID gerado
+     * throws android.database.sqlite.SQLiteConstraintException Se já houver
+     *         turma com o mesmo nome no ano
+     */
+    @Insert
+    long insert(SchoolClass schoolClass);
+
+    /**
+     * Matricula usuários; matrículas já existentes são mantidas (com o
+     * papel original).
+     *
+     * param enrollments Matrículas a criar
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void enroll(List<Enrollment> enrollments);
+
+    /**
+     * Remove matrículas de uma turma.
+     *
+     * param userIds Usuários a desmatricular (máx. 999 - limite do SQLite)
+     * return Quantidade de matrículas removidas
+     */
+    @Query("DELETE FROM enrollments WHERE classId = :classId AND userId IN (:userIds)")
+    int unenroll(int classId, List<Integer> userIds);
+
+    /**
+     * return LiveData com todas as turmas, por ano e nome
+     */
+    @Query("SELECT * FROM classes ORDER BY year, name")
+    LiveData<List<SchoolClass>> getClasses();
+
+    /**
+     * Alunos ou professores de uma turma, em ordem de ID.
+     *
+     * param role Enrollment.ROLE_STUDENT ou Enrollment.ROLE_TEACHER
+     */
+    @Query("SELECT u.* FROM enrollments e JOIN users u ON u.id = e.userId "
+            + "WHERE e.classId = :classId AND e.role = :role ORDER BY e.userId")
+    LiveData<List<User>> getRoster(int classId, int role);
+
+    /**
+     * Busca na turma pelo nome (lê apenas os matriculados).
+     *
+     * param searchQuery Padrão LIKE (ex.: %texto%)
+     */
+    @Query("SELECT u.* FROM enrollments e JOIN users u ON u.id = e.userId "
+            + "WHERE e.classId = :classId AND e.role = :role AND u.name LIKE :searchQuery "
+            + "ORDER BY e.userId")
+    LiveData<List<User>> searchRoster(int classId, int role, String searchQuery);
+
+    /**
+     * Notas dos alunos (role 0 = Enrollment.ROLE_STUDENT) da turma em uma
+     * matéria, por aluno e data.
+     * Cada aluno é lido pelo índice (userId, subjectId, epochDay) de notes.
+     */
+    @Query("SELECT n.id, n.userId, u.name AS student, n.typeId, n.date, n.content "
+            + "FROM enrollments e JOIN notes n ON n.userId = e.userId JOIN users u ON u.id = e.userId "
+            + "WHERE e.classId = :classId AND e.role = 0 AND n.subjectId = :subjectId "
+            + "ORDER BY e.userId, n.epochDay")
+    List<ClassNote> loadClassNotes(int classId, int subjectId);
+
+    /**
+     * Turmas em que o usuário está matriculado, em ordem de ID.
+     */
+    @Query("SELECT c.* FROM enrollments e JOIN classes c ON c.id = e.classId "
+            + "WHERE e.userId = :userId ORDER BY e.classId")
+    List<SchoolClass> loadClassesOfUser(int userId);
+
+    /**
+     * Matrículas dos usuários (cópia antes de uma exclusão em lote).
+     *
+     * param userIds IDs dos usuários (máx. 999 - limite do SQLite)
+     */
+    @Query("SELECT * FROM enrollments WHERE userId IN (:userIds)")
+    List<Enrollment> loadEnrollmentsByUsers(List<Integer> userIds);
+}
@@ -0,0 +1,152 @@
+package com.example.escolario.data;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteConstraintException;
+
+import androidx.lifecycle.LiveData;
+
+import com.example.escolario.model.ClassNote;
+import com.example.escolario.model.Enrollment;
+import com.example.escolario.model.SchoolClass;
+import com.example.escolario.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repositório de turmas e matrículas: ponto único de acesso ao ClassDao
+ * para as telas.
+ * <p>
+ * As consultas de uma turma leem apenas as matrículas e notas dos seus
+ * alunos (ver ClassDao), então o custo acompanha o tamanho da turma e não
+ * o da escola. Os métodos síncronos acessam o banco e devem ser chamados
+ * fora da thread principal.
+ * <p>
+ * O banco é obtido a cada chamada, como em UserRepository.
+ */
+public class ClassRepository {
+    private static volatile ClassRepository INSTANCE;
+
+    // Limite de variáveis por consulta do SQLite (999), com folga
+    private static final int CHUNK_SIZE = 500;
+
+    private final Context context;
+
+    private ClassRepository(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * Obtém a instância única do repositório.
+     * param context Qualquer contexto (o da aplicação é utilizado)
+     */
+    public static ClassRepository getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (ClassRepository.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new ClassRepository(context);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private AppDatabase db() {
+        return AppDatabase.getDatabase(context);
+    }
+
+    /**
+     * return LiveData com todas as turmas, por ano e nome
+     */
+    public LiveData<List<SchoolClass>> getClasses() {
+        return AppDatabase.whenOpen(context, db -> db.classDao().getClasses());
+    }
+
+    /**
+     * return LiveData com os alunos da turma
+     */
+    public LiveData<List<User>> getStudents(int classId) {
+        return AppDatabase.whenOpen(context,
+                db -> db.classDao().getRoster(classId, Enrollment.ROLE_STUDENT));
+    }
+
+    /**
+     * Busca alunos da turma pelo nome (contém o texto).
+     * param text Texto digitado (sem curingas)
+     */
+    public LiveData<List<User>> searchStudents(int classId, String text) {
+        String pattern = "%" + text + "%";
+        return AppDatabase.whenOpen(context,
+                db -> db.classDao().searchRoster(classId, Enrollment.ROLE_STUDENT, pattern));
+    }
+
+    /**
+     * Cadastra uma turma (síncrono).
+     * return Turma cadastrada, com o ID gerado
+     * throws IllegalArgumentException Se já houver turma com o nome no ano
+     */
+    public SchoolClass createClass(String name, int year) {
+        SchoolClass schoolClass = new SchoolClass(name.trim(), year);
+        try {
+            schoolClass.id = (int) db().classDao().insert(schoolClass);
+        } catch (SQLiteConstraintException e) {
+            throw new IllegalArgumentException("Turma " + schoolClass + " já cadastrada", e);
+        }
+        return schoolClass;
+    }
+
+    /**
+     * Matricula usuários na turma (síncrono); os já matriculados mantêm
+     * o papel atual.
+     * param role Enrollment.ROLE_STUDENT ou Enrollment.ROLE_TEACHER
+     */
+    public void enroll(int classId, List<Integer> userIds, int role) {
+        List<Enrollment> enrollments = new ArrayList<>(userIds.size());
+        for (int userId : userIds) {
+            enrollments.add(new Enrollment(classId, userId, role));
+        }
+        db().classDao().enroll(enrollments);
+    }
+
+    /**
+     * Remove usuários da turma (síncrono).
+     * return Quantidade de matrículas removidas
+     */
+    public int unenroll(int classId, List<Integer> userIds) {
+        AppDatabase db = db();
+        return db.runInTransaction(() -> {
+            int removed = 0;
+            for (int start = 0; start < userIds.size(); start += CHUNK_SIZE) {
+                removed += db.classDao().unenroll(classId,
+                        userIds.subList(start, Math.min(start + CHUNK_SIZE, userIds.size())));
+            }
+            return removed;
+        });
+    }
+
+    /**
+     * Notas dos alunos da turma em uma matéria, por aluno e data (síncrono).
+     * param subject Nome da matéria
+     * return Notas, ou lista vazia se a matéria não existir
+     */
+    public List<ClassNote> loadClassNotes(int classId, String subject) {
+        AppDatabase db = db();
+        NoteDictionary dictionary = db.dictionary();
+        Integer subjectId = dictionary.findSubjectId(subject);
+        if (subjectId == null) {
+            return new ArrayList<>();
+        }
+        List<ClassNote> notes = db.classDao().loadClassNotes(classId, subjectId);
+        for (ClassNote note : notes) {
+            note.type = dictionary.typeName(note.typeId);
+        }
+        return notes;
+    }
+
+    /**
+     * return Turmas do usuário (síncrono)
+     */
+    public List<SchoolClass> loadClassesOfUser(int userId) {
+        return db().classDao().loadClassesOfUser(userId);
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.escolario.data;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas sobre várias escolas (ex.: total de alunos da regional).
+ * <p>
+ * A mesma consulta roda em paralelo no banco de cada escola, com tantas
+ * threads quanto o limite de bancos abertos: cada tarefa segura o banco
+ * da sua escola durante a consulta e o libera ao terminar, de modo que a
+ * fila LRU nunca fecha um banco em uso e o número de bancos abertos não
+ * cresce com o número de escolas.
+ * <p>
+ * Os métodos bloqueiam até o fim e devem ser chamados fora da thread
+ * principal.
+ */
+public final class CrossTenantQuery {
+    private static final String TAG = "CrossTenantQuery";
+
+    // Threads ociosas encerradas após este tempo
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static volatile CrossTenantQuery INSTANCE;
+
+    /**
+     * Consulta executada no banco de uma escola (em uma thread do pool).
+     */
+    public interface Query<T> {
+        T run(AppDatabase db);
+    }
+
+    private final TenantDatabases tenants;
+    private final ThreadPoolExecutor executor;
+
+    CrossTenantQuery(TenantDatabases tenants) {
+        this.tenants = tenants;
+        int threads = tenants.maxOpen();
+        executor = new ThreadPoolExecutor(threads, threads,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Obtém a instância única.
+     * param context Qualquer contexto (o da aplicação é utilizado)
+     */
+    public static CrossTenantQuery getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (CrossTenantQuery.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new CrossTenantQuery(AppDatabase.tenants(context));
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Executa a consulta em todas as escolas do aparelho.
+     *
+     * return Resultado por escola, na ordem de AppDatabase.listTenants
+     */
+    public <T> Map<String, T> runAll(Query<T> query) {
+        return run(tenants.list(), query);
+    }
+
+    /**
+     * Executa a consulta nas escolas informadas, em paralelo.
+     *
+     * param tenantIds IDs das escolas
+     * param query Consulta (não deve guardar o banco recebido)
+     * return Resultado por escola, na ordem informada
+     * throws IllegalArgumentException Se algum ID for inválido
+     */
+    public <T> Map<String, T> run(Collection<String> tenantIds, Query<T> query) {
+        for (String tenant : tenantIds) {
+            TenantDatabases.checkTenant(tenant);
+        }
+
+        long start = System.nanoTime();
+        List<Future<T>> futures = new ArrayList<>(tenantIds.size());
+        for (String tenant : tenantIds) {
+            futures.add(executor.submit(() -> {
+                AppDatabase db = tenants.acquire(tenant);
+                try {
+                    return query.run(db);
+                } finally {
+                    tenants.release(tenant);
+                }
+            }));
+        }
+
+        Map<String, T> results = new LinkedHashMap<>();
+        int i = 0;
+        try {
+            for (String tenant : tenantIds) {
+                results.put(tenant, await(futures.get(i++)));
+            }
+        } finally {
+            // Falhou uma escola: as demais não precisam continuar
+            for (Future<T> future : futures) {
+                future.cancel(false);
+            }
+        }
+        Log.d(TAG, tenantIds.size() + " escolas consultadas em "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return results;
+    }
+
+    /**
+     * Soma um valor de todas as escolas (ex.: contagem de alunos).
+     */
+    public long sumAll(Query<? extends Number> query) {
+        long total = 0;
+        for (Number value : runAll(query).values()) {
+            total += value != null ? value.longValue() : 0;
+        }
+        return total;
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException
+                    ? (RuntimeException) cause
+                    : new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Consulta interrompida", e);
+        }
+    }
+}
@@ -0,0 +1,555 @@
+package com.example.escolario.data;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Backup e restauração online do banco de dados Room.
+ * <p>
+ * O backup é feito com o aplicativo em uso:
+ * 1. Executa um checkpoint do WAL para consolidar o arquivo principal
+ * 2. Abre uma transação de escrita (em WAL, leitores continuam liberados)
+ * 3. Copia o arquivo do banco (e o WAL residual, se houver) para um ZIP
+ *    comprimido, registrando tamanho e SHA-256 de cada arquivo no manifesto
+ * <p>
+ * A restauração verifica os checksums e executa PRAGMA integrity_check
+ * em uma cópia temporária antes de substituir o banco em uso.
+ * <p>
+ * Backup, listagem e restauração valem para a escola atual: o nome de
+ * cada arquivo começa com o nome do banco da escola.
+ */
+public final class DatabaseBackup {
+    private static final String TAG = "DatabaseBackup";
+
+    // Diretório (dentro de filesDir) onde os backups são armazenados
+    private static final String BACKUP_DIR = "backups";
+    private static final String BACKUP_EXTENSION = ".zip";
+
+    // Quantidade de backups mantidos (os mais antigos são removidos)
+    private static final int MAX_BACKUPS = 5;
+
+    // Espera máxima da restauração pelos usuários do banco em uso
+    static final long RESTORE_WAIT_MS = 10_000;
+
+    // Entradas do arquivo ZIP
+    private static final String MANIFEST_ENTRY = "manifest.properties";
+    private static final String WAL_SUFFIX = "-wal";
+    private static final String SHM_SUFFIX = "-shm";
+
+    // Chaves do manifesto
+    private static final String KEY_SCHEMA_VERSION = "schemaVersion";
+    private static final String KEY_CREATED_AT = "createdAt";
+    private static final String KEY_SIZE = ".size";
+    private static final String KEY_SHA256 = ".sha256";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private DatabaseBackup() {
+        // Classe utilitária - não instanciável
+    }
+
+    /**
+     * Resultado de um backup, com as métricas de vazão.
+     */
+    public static class BackupResult {
+        public final File archive;
+        public final long rawBytes;         // Bytes lidos do banco
+        public final long compressedBytes;  // Tamanho final do arquivo
+        public final long durationMs;       // Tempo total (checkpoint + cópia)
+        public final long lockedMs;         // Tempo com escritores bloqueados
+
+        BackupResult(File archive, long rawBytes, long durationMs, long lockedMs) {
+            this.archive = archive;
+            this.rawBytes = rawBytes;
+            this.compressedBytes = archive.length();
+            this.durationMs = durationMs;
+            this.lockedMs = lockedMs;
+        }
+
+        /**
+         * return Vazão do backup em MB/s (sobre os bytes não comprimidos)
+         */
+        public double throughputMbPerSec() {
+            if (durationMs == 0) return 0;
+            return (rawBytes / (1024.0 * 1024.0)) / (durationMs / 1000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%s: %d -> %d bytes em %d ms (%.1f MB/s, escrita bloqueada por %d ms)",
+                    archive.getName(), rawBytes, compressedBytes, durationMs,
+                    throughputMbPerSec(), lockedMs);
+        }
+    }
+
+    /**
+     * Cria um backup do banco em uso no diretório padrão de backups.
+     * Deve ser chamado fora da thread principal.
+     *
+     * param context Contexto da aplicação
+     * return Resultado com o arquivo gerado e métricas
+     * throws IOException Se a escrita do arquivo falhar
+     */
+    public static BackupResult backup(Context context) throws IOException {
+        String name = currentDatabaseName(context);
+        BackupResult result = backup(context, newBackupFile(context, name, "manual"));
+        pruneOldBackups(context, name);
+        return result;
+    }
+
+    /**
+     * Cria um backup do banco em uso no arquivo informado.
+     *
+     * param context Contexto da aplicação
+     * param archive Arquivo ZIP de destino (sobrescrito se existir)
+     */
+    public static BackupResult backup(Context context, File archive) throws IOException {
+        long start = SystemClock.elapsedRealtime();
+
+        AppDatabase database = AppDatabase.getDatabase(context);
+        SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+        File dbFile = context.getDatabasePath(database.getOpenHelper().getDatabaseName());
+
+        // Move o conteúdo do WAL para o arquivo principal, reduzindo o que
+        // precisa ser copiado com os escritores bloqueados
+        checkpoint(db);
+
+        // Transação IMMEDIATE: impede escritas (e checkpoints) durante a cópia,
+        // mas em modo WAL as leituras da interface continuam normalmente
+        long lockStart = SystemClock.elapsedRealtime();
+        long rawBytes;
+        db.beginTransactionNonExclusive();
+        try {
+            rawBytes = writeArchive(archive, dbFile, db.getVersion());
+        } finally {
+            db.endTransaction(); // Nada foi escrito - apenas libera o lock
+        }
+        long end = SystemClock.elapsedRealtime();
+
+        BackupResult result = new BackupResult(archive, rawBytes, end - start, end - lockStart);
+        Log.i(TAG, "Backup concluído - " + result);
+        return result;
+    }
+
+    /**
+     * Cria um backup do arquivo em disco caso sua versão seja diferente da
+     * versão atual do esquema, antes que o Room execute a migração.
+     * Chamado por TenantDatabases antes de criar a instância.
+     *
+     * param context Contexto da aplicação
+     * param databaseName Nome do arquivo do banco da escola
+     * return Arquivo de backup criado, ou null se não foi necessário
+     */
+    static File backupBeforeUpgrade(Context context, String databaseName) {
+        File dbFile = context.getDatabasePath(databaseName);
+        if (!dbFile.exists()) {
+            return null; // Primeira execução - nada a preservar
+        }
+
+        try {
+            int version;
+            try (SQLiteDatabase db = SQLiteDatabase.openDatabase(
+                    dbFile.getPath(), null, SQLiteDatabase.OPEN_READWRITE)) {
+                version = db.getVersion();
+                if (version == AppDatabase.VERSION) {
+                    return null;
+                }
+                // Consolida o WAL de sessões anteriores no arquivo principal
+                checkpoint(db);
+            }
+
+            File archive = newBackupFile(context, databaseName, "v" + version);
+            writeArchive(archive, dbFile, version);
+            pruneOldBackups(context, databaseName);
+            Log.i(TAG, "Backup pré-migração criado: " + archive.getName());
+            return archive;
+        } catch (Exception e) {
+            // A falha no backup não deve impedir a abertura do aplicativo
+            Log.e(TAG, "Falha no backup pré-migração", e);
+            return null;
+        }
+    }
+
+    /**
+     * Restaura o banco a partir de um arquivo de backup.
+     * <p>
+     * Os checksums e a integridade do banco são verificados em uma cópia
+     * temporária; o banco em uso só é substituído se tudo estiver correto.
+     * A instância atual do AppDatabase é fechada quando ninguém mais a
+     * segura (a restauração é recusada se ela continuar em uso por
+     * RESTORE_WAIT_MS) e o arquivo é trocado por renomeação. ViewModels e
+     * listeners continuam com a referência antiga:
+     * após a restauração o processo deve ser reiniciado (ver RestartActivity).
+     *
+     * param context Contexto da aplicação
+     * param archive Arquivo ZIP gerado por backup()
+     * throws IOException Se o arquivo estiver corrompido ou for incompatível,
+     *         ou se o banco continuar em uso
+     */
+    public static void restore(Context context, File archive) throws IOException {
+        File staging = new File(context.getCacheDir(), "restore");
+        deleteRecursively(staging);
+        if (!staging.mkdirs()) {
+            throw new IOException("Não foi possível criar diretório temporário");
+        }
+
+        try {
+            File stagedDb = extractAndVerify(archive, staging);
+            verifyIntegrity(stagedDb);
+
+            // Substitui o banco em uso pelo arquivo verificado, depois que
+            // ninguém mais o segura (ver AppDatabase.closeDatabase)
+            synchronized (AppDatabase.class) {
+                String tenant = AppDatabase.closeDatabase(context, RESTORE_WAIT_MS);
+                if (tenant == null) {
+                    throw new IOException("Banco em uso; tente restaurar novamente");
+                }
+                replaceDatabase(stagedDb, context.getDatabasePath(AppDatabase.databaseName(tenant)));
+            }
+            Log.i(TAG, "Banco restaurado de " + archive.getName());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Restauração interrompida");
+        } finally {
+            deleteRecursively(staging);
+        }
+    }
+
+    /**
+     * return Diretório onde os backups são gravados
+     */
+    public static File getBackupDir(Context context) {
+        File dir = new File(context.getFilesDir(), BACKUP_DIR);
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+        return dir;
+    }
+
+    /**
+     * return Backups da escola atual, do mais recente para o mais antigo
+     */
+    public static File[] listBackups(Context context) {
+        return listBackups(context, currentDatabaseName(context));
+    }
+
+    private static File[] listBackups(Context context, String databaseName) {
+        String prefix = databaseName + "-";
+        File[] files = getBackupDir(context).listFiles(
+                (dir, name) -> name.startsWith(prefix) && name.endsWith(BACKUP_EXTENSION));
+        if (files == null) {
+            return new File[0];
+        }
+        Arrays.sort(files, (a, b) -> Long.compare(b.lastModified(), a.lastModified()));
+        return files;
+    }
+
+    /**
+     * return Backup mais recente, ou null se não houver nenhum
+     */
+    public static File latestBackup(Context context) {
+        File[] files = listBackups(context);
+        return files.length > 0 ? files[0] : null;
+    }
+
+    // ---------------------------------------------------------------------
+    // Escrita do arquivo
+    // ---------------------------------------------------------------------
+
+    /**
+     * Grava o banco (e o WAL residual) em um ZIP com manifesto de checksums.
+     * O arquivo é escrito em um temporário e renomeado ao final, de modo que
+     * um backup interrompido nunca substitui um válido.
+     *
+     * return Total de bytes não comprimidos copiados
+     */
+    private static long writeArchive(File archive, File dbFile, int schemaVersion) throws IOException {
+        File tmp = new File(archive.getPath() + ".tmp");
+        Properties manifest = new Properties();
+        manifest.setProperty(KEY_SCHEMA_VERSION, String.valueOf(schemaVersion));
+        manifest.setProperty(KEY_CREATED_AT, String.valueOf(System.currentTimeMillis()));
+
+        long rawBytes = 0;
+        FileOutputStream fos = new FileOutputStream(tmp);
+        try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(fos, BUFFER_SIZE))) {
+            zip.setLevel(Deflater.BEST_SPEED); // Prioriza a duração do lock
+
+            rawBytes += addEntry(zip, manifest, dbFile, AppDatabase.DATABASE_NAME);
+
+            File walFile = new File(dbFile.getPath() + WAL_SUFFIX);
+            if (walFile.exists() && walFile.length() > 0) {
+                rawBytes += addEntry(zip, manifest, walFile, AppDatabase.DATABASE_NAME + WAL_SUFFIX);
+            }
+
+            zip.putNextEntry(new ZipEntry(MANIFEST_ENTRY));
+            manifest.store(zip, "Escolario backup");
+            zip.closeEntry();
+
+            zip.flush();
+            fos.getFD().sync(); // Garante que o backup está em disco
+        } catch (IOException e) {
+            tmp.delete();
+            throw e;
+        }
+
+        if (!tmp.renameTo(archive)) {
+            tmp.delete();
+            throw new IOException("Não foi possível finalizar o backup " + archive.getName());
+        }
+        return rawBytes;
+    }
+
+    /**
+     * Copia um arquivo para uma entrada do ZIP calculando seu SHA-256.
+     */
+    private static long addEntry(ZipOutputStream zip, Properties manifest,
+                                 File source, String entryName) throws IOException {
+        MessageDigest digest = newDigest();
+        long size;
+
+        zip.putNextEntry(new ZipEntry(entryName));
+        try (InputStream in = new DigestInputStream(
+                new BufferedInputStream(new FileInputStream(source), BUFFER_SIZE), digest)) {
+            size = copy(in, zip);
+        }
+        zip.closeEntry();
+
+        manifest.setProperty(entryName + KEY_SIZE, String.valueOf(size));
+        manifest.setProperty(entryName + KEY_SHA256, toHex(digest.digest()));
+        return size;
+    }
+
+    // ---------------------------------------------------------------------
+    // Leitura e verificação
+    // ---------------------------------------------------------------------
+
+    /**
+     * Extrai as entradas do ZIP para o diretório temporário e confere
+     * tamanho, SHA-256 e versão do esquema contra o manifesto.
+     *
+     * return Arquivo do banco extraído
+     */
+    private static File extractAndVerify(File archive, File staging) throws IOException {
+        Properties manifest = new Properties();
+        Properties actual = new Properties();
+
+        try (ZipInputStream zip = new ZipInputStream(
+                new BufferedInputStream(new FileInputStream(archive), BUFFER_SIZE))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String name = entry.getName();
+                if (MANIFEST_ENTRY.equals(name)) {
+                    manifest.load(zip);
+                } else if (isDatabaseEntry(name)) {
+                    MessageDigest digest = newDigest();
+                    long size;
+                    try (OutputStream out = new FileOutputStream(new File(staging, name))) {
+                        size = copy(new DigestInputStream(zip, digest), out);
+                    }
+                    actual.setProperty(name + KEY_SIZE, String.valueOf(size));
+                    actual.setProperty(name + KEY_SHA256, toHex(digest.digest()));
+                } else {
+                    throw new IOException("Entrada inesperada no backup: " + name);
+                }
+                zip.closeEntry();
+            }
+        }
+
+        String version = manifest.getProperty(KEY_SCHEMA_VERSION);
+        if (version == null) {
+            throw new IOException("Backup sem manifesto");
+        }
+        int schemaVersion;
+        try {
+            schemaVersion = Integer.parseInt(version.trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Versão inválida no manifesto do backup: " + version, e);
+        }
+        if (schemaVersion > AppDatabase.VERSION) {
+            throw new IOException("Backup de uma versão mais nova do aplicativo (v" + version + ")");
+        }
+        // Versões sem migração explícita seriam apagadas pela migração destrutiva
+        if (schemaVersion < Migrations.ALL[0].startVersion) {
+            throw new IOException("Backup de uma versão antiga demais do aplicativo (v" + version + ")");
+        }
+
+        // Todo arquivo listado no manifesto deve existir com o mesmo checksum
+        for (String key : manifest.stringPropertyNames()) {
+            if (key.endsWith(KEY_SIZE) || key.endsWith(KEY_SHA256)) {
+                if (!manifest.getProperty(key).equals(actual.getProperty(key))) {
+                    throw new IOException("Checksum inválido no backup (" + key + ")");
+                }
+            }
+        }
+        if (!actual.containsKey(AppDatabase.DATABASE_NAME + KEY_SHA256)) {
+            throw new IOException("Backup não contém o banco de dados");
+        }
+        for (String key : actual.stringPropertyNames()) {
+            if (!manifest.containsKey(key)) {
+                throw new IOException("Arquivo não declarado no manifesto (" + key + ")");
+            }
+        }
+
+        return new File(staging, AppDatabase.DATABASE_NAME);
+    }
+
+    /**
+     * Abre a cópia extraída (aplicando o WAL, se houver) e executa
+     * PRAGMA integrity_check. Ao fechar, o SQLite consolida o WAL no
+     * arquivo principal, que passa a ser autossuficiente.
+     */
+    private static void verifyIntegrity(File stagedDb) throws IOException {
+        try (SQLiteDatabase db = SQLiteDatabase.openDatabase(
+                stagedDb.getPath(), null, SQLiteDatabase.OPEN_READWRITE);
+             Cursor cursor = db.rawQuery("PRAGMA integrity_check", null)) {
+            String result = cursor.moveToFirst() ? cursor.getString(0) : null;
+            if (!"ok".equalsIgnoreCase(result)) {
+                throw new IOException("Falha na verificação de integridade: " + result);
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Backup não pôde ser aberto: " + e.getMessage(), e);
+        }
+        new File(stagedDb.getPath() + WAL_SUFFIX).delete();
+        new File(stagedDb.getPath() + SHM_SUFFIX).delete();
+    }
+
+    private static boolean isDatabaseEntry(String name) {
+        return AppDatabase.DATABASE_NAME.equals(name)
+                || (AppDatabase.DATABASE_NAME + WAL_SUFFIX).equals(name);
+    }
+
+    // ---------------------------------------------------------------------
+    // Auxiliares
+    // ---------------------------------------------------------------------
+
+    private static void checkpoint(SupportSQLiteDatabase db) {
+        try (Cursor cursor = db.query("PRAGMA wal_checkpoint(TRUNCATE)")) {
+            cursor.moveToFirst();
+        }
+    }
+
+    private static void checkpoint(SQLiteDatabase db) {
+        try (Cursor cursor = db.rawQuery("PRAGMA wal_checkpoint(TRUNCATE)", null)) {
+            cursor.moveToFirst();
+        }
+    }
+
+    private static String currentDatabaseName(Context context) {
+        return AppDatabase.databaseName(AppDatabase.currentTenant(context));
+    }
+
+    private static File newBackupFile(Context context, String databaseName, String label) {
+        String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.US).format(new Date());
+        return new File(getBackupDir(context),
+                databaseName + "-" + timestamp + "-" + label + BACKUP_EXTENSION);
+    }
+
+    /**
+     * Remove os backups excedentes da escola, mantendo os MAX_BACKUPS mais recentes.
+     */
+    private static void pruneOldBackups(Context context, String databaseName) {
+        File[] files = listBackups(context, databaseName);
+        for (int i = MAX_BACKUPS; i < files.length; i++) {
+            files[i].delete();
+        }
+    }
+
+    /**
+     * Troca o arquivo do banco (fechado) pela cópia verificada. A cópia é
+     * gravada em um temporário ao lado do banco e renomeada ao final, como
+     * em writeArchive: uma interrupção nunca deixa um banco pela metade.
+     * O WAL e o SHM antigos são removidos antes da troca, para que não
+     * sejam aplicados ao banco restaurado.
+     */
+    private static void replaceDatabase(File stagedDb, File dbFile) throws IOException {
+        File tmp = new File(dbFile.getPath() + ".tmp");
+        try (InputStream in = new FileInputStream(stagedDb);
+             FileOutputStream out = new FileOutputStream(tmp)) {
+            copy(in, out);
+            out.getFD().sync(); // Garante que a cópia está em disco antes da troca
+        } catch (IOException e) {
+            tmp.delete();
+            throw e;
+        }
+
+        for (File f : new File[]{
+                new File(dbFile.getPath() + WAL_SUFFIX),
+                new File(dbFile.getPath() + SHM_SUFFIX)}) {
+            if (f.exists() && !f.delete()) {
+                tmp.delete();
+                throw new IOException("Não foi possível remover " + f.getName());
+            }
+        }
+        if (!tmp.renameTo(dbFile)) {
+            tmp.delete();
+            throw new IOException("Não foi possível substituir " + dbFile.getName());
+        }
+    }
+
+    private static long copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            total += read;
+        }
+        return total;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Sempre disponível no Android
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(String.format(Locale.US, "%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
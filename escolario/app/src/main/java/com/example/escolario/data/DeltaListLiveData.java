@@ -0,0 +1,143 @@
+package com.example.escolario.data;
+
+import androidx.lifecycle.LiveData;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * LiveData de uma lista que se atualiza por deltas do ChangeFeed.
+ * <p>
+ * A consulta completa roda apenas na primeira observação. Depois, a cada
+ * ChangeSet da tabela, somente as linhas inseridas/atualizadas são relidas
+ * (pela mesma condição da consulta, restrita aos IDs alterados) e aplicadas
+ * à lista atual; linhas removidas, ou que deixaram de satisfazer a
+ * condição, saem da lista.
+ * <p>
+ * Sem observadores por mais de STOP_TIMEOUT_MS, o ouvinte é removido e a
+ * lista é recarregada na próxima observação. Uma rotação de tela, portanto,
+ * não repete a consulta.
+ *
+ * param <T> Tipo das linhas
+ */
+public class DeltaListLiveData<T> extends LiveData<List<T>> {
+    // Tempo sem observadores até parar de acompanhar as alterações
+    private static final long STOP_TIMEOUT_MS = 5_000;
+
+    // Limite de variáveis por consulta do SQLite (999), com folga
+    private static final int CHUNK_SIZE = 500;
+
+    /**
+     * Carrega a lista completa.
+     */
+    public interface Loader<T> {
+        List<T> load();
+    }
+
+    /**
+     * Relê as linhas da consulta entre os IDs informados.
+     */
+    public interface Fetcher<T> {
+        List<T> fetch(List<Long> ids);
+    }
+
+    /**
+     * Extrai o ID (rowid) de uma linha.
+     */
+    public interface IdOf<T> {
+        long id(T row);
+    }
+
+    private final ChangeFeed feed;
+    private final String table;
+    private final Loader<T> loader;
+    private final Fetcher<T> fetcher;
+    private final IdOf<T> idOf;
+    private final Comparator<T> order;
+
+    // Estado acessado apenas na thread do feed
+    private List<T> rows;
+    private boolean listening;
+    private int activeGeneration;
+
+    private final ChangeFeed.Listener listener = this::apply;
+
+    /**
+     * param feed Feed do banco
+     * param table Tabela observada (users ou notes)
+     * param loader Consulta completa
+     * param fetcher Mesma consulta, restrita a uma lista de IDs
+     * param idOf ID de cada linha
+     * param order Ordem da lista (a mesma da consulta completa)
+     */
+    public DeltaListLiveData(ChangeFeed feed, String table, Loader<T> loader, Fetcher<T> fetcher,
+                             IdOf<T> idOf, Comparator<T> order) {
+        this.feed = feed;
+        this.table = table;
+        this.loader = loader;
+        this.fetcher = fetcher;
+        this.idOf = idOf;
+        this.order = order;
+    }
+
+    @Override
+    protected void onActive() {
+        feed.execute(() -> {
+            activeGeneration++;
+            if (!listening) {
+                // Ouvinte antes da carga: alterações concorrentes chegam depois
+                // dela e são reaplicadas (inserção/remoção são idempotentes)
+                feed.addListener(table, listener);
+                listening = true;
+                rows = new ArrayList<>(loader.load());
+                postValue(new ArrayList<>(rows));
+            }
+        });
+    }
+
+    @Override
+    protected void onInactive() {
+        feed.execute(() -> {
+            int generation = activeGeneration;
+            feed.schedule(() -> {
+                // Continua inativo desde então: para de acompanhar
+                if (generation == activeGeneration && !hasActiveObservers() && listening) {
+                    feed.removeListener(table, listener);
+                    listening = false;
+                    rows = null;
+                }
+            }, STOP_TIMEOUT_MS);
+        });
+    }
+
+    // Aplica um ChangeSet à lista atual (thread do feed)
+    private void apply(ChangeFeed.ChangeSet changes) {
+        if (rows == null) {
+            return;
+        }
+
+        Set<Long> upserted = changes.upserted();
+        List<T> fetched = new ArrayList<>();
+        List<Long> ids = new ArrayList<>(upserted);
+        for (int start = 0; start < ids.size(); start += CHUNK_SIZE) {
+            fetched.addAll(fetcher.fetch(ids.subList(start, Math.min(start + CHUNK_SIZE, ids.size()))));
+        }
+
+        // Remove as linhas excluídas e as que serão substituídas (ou que
+        // deixaram de satisfazer a consulta)
+        Set<Long> removed = new HashSet<>(changes.deleted);
+        removed.addAll(upserted);
+        int before = rows.size();
+        rows.removeIf(row -> removed.contains(idOf.id(row)));
+        if (fetched.isEmpty() && rows.size() == before) {
+            return; // Nenhuma alteração afeta esta lista
+        }
+
+        rows.addAll(fetched);
+        rows.sort(order);
+        postValue(new ArrayList<>(rows));
+    }
+}
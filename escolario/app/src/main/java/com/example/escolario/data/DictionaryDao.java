@@ -0,0 +1,50 @@
+package com.example.escolario.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.example.escolario.model.ActivityType;
+import com.example.escolario.model.Subject;
+
+import java.util.List;
+
+/**
+ * DAO das tabelas de dicionário, usado apenas por NoteDictionary.
+ */
+@Dao
+public interface DictionaryDao {
+
+    /**
+     * return Todas as matérias, em ordem de cadastro
+     */
+    @Query("SELECT * FROM subjects ORDER BY id")
+    List<Subject> getSubjects();
+
+    /**
+     * return Todos os tipos de atividade, em ordem de cadastro
+     */
+    @Query("SELECT * FROM activity_types ORDER BY id")
+    List<ActivityType> getActivityTypes();
+
+    /**
+     * Insere uma matéria, se ainda não existir (sem diferenciar maiúsculas).
+     * return ID da nova linha, ou -1 se já existia
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    long insertSubject(Subject subject);
+
+    /**
+     * Insere um tipo de atividade, se ainda não existir.
+     * return ID da nova linha, ou -1 se já existia
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    long insertActivityType(ActivityType type);
+
+    @Query("SELECT * FROM subjects WHERE name = :name")
+    Subject findSubject(String name);
+
+    @Query("SELECT * FROM activity_types WHERE name = :name")
+    ActivityType findActivityType(String name);
+}
@@ -0,0 +1,85 @@
+package com.example.escolario.data;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * Tabelas de dicionário (subjects, activity_types) e conversão das notas
+ * que guardavam matéria e tipo como texto livre.
+ * <p>
+ * As tabelas são geradas pelo Room a partir das entidades Subject e
+ * ActivityType; aqui ficam a carga dos tipos padrão e a migração.
+ */
+final class DictionarySchema {
+
+    private DictionarySchema() {
+        // Classe utilitária - não instanciável
+    }
+
+    // DDL idêntica à gerada pelo Room para as entidades Subject, ActivityType e Note
+    private static final String[] CREATE_TABLES = {
+            "CREATE TABLE IF NOT EXISTS `subjects` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`name` TEXT NOT NULL COLLATE NOCASE)",
+            "CREATE UNIQUE INDEX IF NOT EXISTS `index_subjects_name` ON `subjects` (`name`)",
+            "CREATE TABLE IF NOT EXISTS `activity_types` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`name` TEXT NOT NULL COLLATE NOCASE)",
+            "CREATE UNIQUE INDEX IF NOT EXISTS `index_activity_types_name` ON `activity_types` (`name`)"
+    };
+
+    private static final String CREATE_NOTES =
+            "CREATE TABLE IF NOT EXISTS `%s` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`userId` INTEGER NOT NULL, `subjectId` INTEGER NOT NULL, `typeId` INTEGER NOT NULL, "
+                    + "`content` TEXT NOT NULL, `date` TEXT NOT NULL, "
+                    + "FOREIGN KEY(`userId`) REFERENCES `users`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE , "
+                    + "FOREIGN KEY(`subjectId`) REFERENCES `subjects`(`id`) ON UPDATE NO ACTION ON DELETE NO ACTION , "
+                    + "FOREIGN KEY(`typeId`) REFERENCES `activity_types`(`id`) ON UPDATE NO ACTION ON DELETE NO ACTION )";
+
+    private static final String[] NOTE_INDICES = {
+            "CREATE INDEX IF NOT EXISTS `index_notes_userId` ON `notes` (`userId`)",
+            "CREATE INDEX IF NOT EXISTS `index_notes_subjectId` ON `notes` (`subjectId`)",
+            "CREATE INDEX IF NOT EXISTS `index_notes_typeId` ON `notes` (`typeId`)"
+    };
+
+    /**
+     * Insere os tipos de atividade padrão (ver NoteDictionary.DEFAULT_TYPES),
+     * na ordem em que aparecem no formulário.
+     */
+    static void seed(SupportSQLiteDatabase db) {
+        for (String type : NoteDictionary.DEFAULT_TYPES) {
+            db.execSQL("INSERT OR IGNORE INTO activity_types (name) VALUES (?)", new Object[]{type});
+        }
+    }
+
+    /**
+     * Cria os dicionários a partir dos textos existentes e reescreve notes
+     * com os IDs (usado na migração).
+     * <p>
+     * Tudo em SQL, uma passada por tabela: cada grafia distinta vira um
+     * nome do dicionário (variações só de maiúsculas/espaços nas pontas
+     * são unificadas pelo índice NOCASE e pelo trim), e notes é recriada
+     * sem as colunas de texto - o SQLite não remove colunas com ALTER TABLE.
+     * Os triggers de notes são recriados por quem chama.
+     */
+    static void install(SupportSQLiteDatabase db) {
+        for (String sql : CREATE_TABLES) {
+            db.execSQL(sql);
+        }
+        seed(db);
+
+        // Primeira grafia encontrada de cada nome prevalece
+        db.execSQL("INSERT OR IGNORE INTO subjects (name)"
+                + " SELECT trim(subject) FROM notes GROUP BY trim(subject) ORDER BY MIN(id)");
+        db.execSQL("INSERT OR IGNORE INTO activity_types (name)"
+                + " SELECT trim(type) FROM notes GROUP BY trim(type) ORDER BY MIN(id)");
+
+        db.execSQL(String.format(CREATE_NOTES, "notes_new"));
+        db.execSQL("INSERT INTO notes_new (id, userId, subjectId, typeId, content, date)"
+                + " SELECT n.id, n.userId, s.id, t.id, n.content, n.date FROM notes n"
+                + " JOIN subjects s ON s.name = trim(n.subject)"
+                + " JOIN activity_types t ON t.name = trim(n.type)");
+        db.execSQL("DROP TABLE notes");
+        db.execSQL("ALTER TABLE notes_new RENAME TO notes");
+        for (String sql : NOTE_INDICES) {
+            db.execSQL(sql);
+        }
+    }
+}
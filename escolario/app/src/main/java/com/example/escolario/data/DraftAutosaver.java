@@ -0,0 +1,127 @@
+package com.example.escolario.data;
+
+import com.example.escolario.model.NoteDraft;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Salvamento automático do rascunho de nota, com escritas agrupadas.
+ * <p>
+ * Cada alteração do formulário apenas substitui o rascunho pendente em
+ * memória. A gravação acontece quando o usuário para de digitar por
+ * idleMs, ou no máximo maxWaitMs após a primeira alteração não gravada
+ * (digitação contínua não adia a gravação para sempre). Assim a linha do
+ * rascunho é regravada no máximo uma vez a cada poucos segundos, em vez
+ * de uma vez por tecla.
+ * <p>
+ * As gravações rodam no executor recebido; usando o mesmo executor das
+ * demais escritas da tela (como NoteViewModel faz), a ordem entre
+ * rascunho e salvamento da nota é preservada.
+ */
+public class DraftAutosaver {
+    // Pausa na digitação que dispara a gravação
+    public static final long IDLE_MS = 1_000;
+
+    // Atraso máximo de uma alteração até ser gravada
+    public static final long MAX_WAIT_MS = 3_000;
+
+    /**
+     * Grava o rascunho (chamado na thread do executor).
+     */
+    public interface Writer {
+        void write(NoteDraft draft);
+    }
+
+    private final ScheduledExecutorService executor;
+    private final Writer writer;
+    private final long idleNanos;
+    private final long maxWaitNanos;
+
+    // Última versão ainda não gravada (null se não houver)
+    private NoteDraft pending;
+
+    // Momento (nanoTime) da primeira alteração ainda não gravada
+    private long pendingSince;
+
+    private ScheduledFuture<?> scheduled;
+
+    // Gravações realizadas (diagnóstico e testes)
+    private int writes;
+
+    public DraftAutosaver(ScheduledExecutorService executor, Writer writer) {
+        this(executor, writer, IDLE_MS, MAX_WAIT_MS);
+    }
+
+    DraftAutosaver(ScheduledExecutorService executor, Writer writer, long idleMs, long maxWaitMs) {
+        this.executor = executor;
+        this.writer = writer;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMs);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+    }
+
+    /**
+     * Registra a versão atual do formulário; a gravação é reagendada.
+     */
+    public synchronized void update(NoteDraft draft) {
+        long now = System.nanoTime();
+        if (pending == null) {
+            pendingSince = now;
+        }
+        pending = draft;
+
+        long delay = Math.min(idleNanos, pendingSince + maxWaitNanos - now);
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+        scheduled = executor.schedule(this::flush, Math.max(0, delay), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Grava o rascunho pendente sem esperar (ex.: a tela saiu de vista e o
+     * processo pode ser encerrado).
+     */
+    public synchronized void flushNow() {
+        if (pending == null) {
+            return;
+        }
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+        scheduled = executor.schedule(this::flush, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Descarta o rascunho pendente (a nota foi salva ou o formulário limpo).
+     */
+    public synchronized void cancel() {
+        pending = null;
+        if (scheduled != null) {
+            scheduled.cancel(false);
+            scheduled = null;
+        }
+    }
+
+    /**
+     * return Quantidade de gravações feitas até agora
+     */
+    public synchronized int writes() {
+        return writes;
+    }
+
+    // Grava a versão pendente mais recente (na thread do executor)
+    private void flush() {
+        NoteDraft draft;
+        synchronized (this) {
+            draft = pending;
+            pending = null;
+            if (draft != null) {
+                writes++;
+            }
+        }
+        if (draft != null) {
+            writer.write(draft);
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.example.escolario.data;
+
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.example.escolario.utils.Cpf;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Migrações do esquema do banco de dados.
+ * <p>
+ * A partir da versão 5 cada mudança de esquema tem uma migração explícita,
+ * preservando os dados existentes. Versões anteriores continuam usando a
+ * migração destrutiva (com backup prévio - ver DatabaseBackup).
+ */
+final class Migrations {
+    private static final String TAG = "Migrations";
+
+    private Migrations() {
+        // Classe utilitária - não instanciável
+    }
+
+    /**
+     * 5 -> 6: contadores agregados mantidos por triggers (stat_counters).
+     * Só a tabela: os triggers e os valores atuais dependem do esquema de
+     * notes da versão 10 e são criados por MIGRATION_9_10.
+     */
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            StatsSchema.createTable(db);
+        }
+    };
+
+    /**
+     * 6 -> 7: índice em notes.userId (chave estrangeira).
+     */
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_notes_userId` ON `notes` (`userId`)");
+        }
+    };
+
+    /**
+     * 7 -> 8: índice de texto completo notes_fts (conteúdo externo em notes).
+     * O Room só cria os triggers de sincronização em bancos novos; aqui eles
+     * são criados manualmente e o índice é populado com as notas existentes.
+     */
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `notes_fts` USING FTS4("
+                    + "`subject` TEXT, `content` TEXT, "
+                    + "tokenize=unicode61 `remove_diacritics=1`, "
+                    + "content=`notes`, prefix=`2,3`)");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_notes_fts_BEFORE_UPDATE "
+                    + "BEFORE UPDATE ON `notes` BEGIN DELETE FROM `notes_fts` "
+                    + "WHERE `docid`=OLD.`rowid`; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_notes_fts_BEFORE_DELETE "
+                    + "BEFORE DELETE ON `notes` BEGIN DELETE FROM `notes_fts` "
+                    + "WHERE `docid`=OLD.`rowid`; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_notes_fts_AFTER_UPDATE "
+                    + "AFTER UPDATE ON `notes` BEGIN INSERT INTO `notes_fts`(`docid`, `subject`, `content`) "
+                    + "VALUES (NEW.`rowid`, NEW.`subject`, NEW.`content`); END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_notes_fts_AFTER_INSERT "
+                    + "AFTER INSERT ON `notes` BEGIN INSERT INTO `notes_fts`(`docid`, `subject`, `content`) "
+                    + "VALUES (NEW.`rowid`, NEW.`subject`, NEW.`content`); END");
+            db.execSQL("INSERT INTO `notes_fts`(`notes_fts`) VALUES ('rebuild')");
+        }
+    };
+
+    /**
+     * 8 -> 9: registro de alterações por linha (row_changes) para o ChangeFeed.
+     */
+    static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            ChangeLogSchema.install(db);
+        }
+    };
+
+    /**
+     * 9 -> 10: matérias e tipos de atividade em tabelas de dicionário
+     * (subjects, activity_types); notes passa a guardar apenas os IDs.
+     * A recriação de notes remove os triggers da tabela, que são recriados
+     * aqui; o índice de texto passa a ler o nome da matéria de subjects.
+     */
+    static final Migration MIGRATION_9_10 = new Migration(9, 10) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            DictionarySchema.install(db);
+            StatsSchema.createTriggers(db);
+            StatsSchema.rebuild(db);
+            ChangeLogSchema.createTriggers(db);
+            NoteFtsSchema.install(db);
+        }
+    };
+
+    /**
+     * 10 -> 11: CPF guardado como inteiro (users.cpf INTEGER). A tabela é
+     * recriada com a DDL do Room e os CPFs existentes são convertidos por
+     * convertCpfs; os índices e os triggers de users são recriados.
+     */
+    static final Migration MIGRATION_10_11 = new Migration(10, 11) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `users_new` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`name` TEXT NOT NULL, `email` TEXT NOT NULL COLLATE NOCASE, "
+                    + "`password` TEXT NOT NULL, `cpf` INTEGER NOT NULL, `isAdmin` INTEGER NOT NULL)");
+            // CPF provisório (-id, único) até a conversão em Java
+            db.execSQL("INSERT INTO `users_new` (id, name, email, password, cpf, isAdmin)"
+                    + " SELECT id, name, email, password, -id, isAdmin FROM `users`");
+            convertCpfs(db);
+            db.execSQL("DROP TABLE `users`");
+            db.execSQL("ALTER TABLE `users_new` RENAME TO `users`");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_users_name` ON `users` (`name`)");
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_users_email` ON `users` (`email`)");
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_users_cpf` ON `users` (`cpf`)");
+            StatsSchema.createTriggers(db);
+            ChangeLogSchema.createTriggers(db);
+        }
+    };
+
+    /**
+     * Converte os CPFs em texto de users para as chaves numéricas de
+     * users_new. Versões anteriores guardavam o CPF como digitado (único
+     * apenas como texto, com qualquer separador), então "123.456.789-09" e
+     * "12345678909" podem coexistir. O primeiro usuário (menor ID) fica com
+     * a chave; repetidos, valores sem 11 dígitos e o CPF zero de quem não é
+     * administrador (reservado ao administrador padrão) recebem uma chave
+     * provisória única (Cpf.pending) e são registrados no log.
+     */
+    static void convertCpfs(SupportSQLiteDatabase db) {
+        Set<Long> used = new HashSet<>();
+        try (Cursor cursor = db.query("SELECT id, cpf, isAdmin FROM `users` ORDER BY id")) {
+            while (cursor.moveToNext()) {
+                int id = cursor.getInt(0);
+                String text = cursor.getString(1);
+                boolean admin = cursor.getInt(2) != 0;
+                long cpf = Cpf.parseLegacy(text);
+                if (cpf == Cpf.INVALID || (cpf == 0 && !admin) || !used.add(cpf)) {
+                    Log.w(TAG, "CPF inválido ou repetido do usuário " + id + ": '" + text
+                            + "' - chave provisória até a correção do cadastro");
+                    cpf = Cpf.pending(id);
+                }
+                db.execSQL("UPDATE `users_new` SET cpf = ? WHERE id = ?", new Object[]{cpf, id});
+            }
+        }
+    }
+
+    /**
+     * 11 -> 12: rascunhos de nota (note_drafts), um por usuário, gravados
+     * pelo salvamento automático da tela de notas.
+     */
+    static final Migration MIGRATION_11_12 = new Migration(11, 12) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `note_drafts` (`userId` INTEGER NOT NULL, "
+                    + "`subject` TEXT NOT NULL, `type` TEXT NOT NULL, `date` TEXT NOT NULL, "
+                    + "`content` TEXT NOT NULL, `updatedAt` INTEGER NOT NULL, PRIMARY KEY(`userId`), "
+                    + "FOREIGN KEY(`userId`) REFERENCES `users`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+        }
+    };
+
+    /**
+     * 12 -> 13: trilha de auditoria (audit_log), gravada em lote por AuditLog.
+     */
+    static final Migration MIGRATION_12_13 = new Migration(12, 13) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `audit_log` (`seq` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`time` INTEGER NOT NULL, `action` TEXT NOT NULL, `actorId` INTEGER NOT NULL, "
+                    + "`userId` INTEGER NOT NULL, `detail` TEXT)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_audit_log_userId_time` ON `audit_log` (`userId`, `time`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_audit_log_time` ON `audit_log` (`time`)");
+        }
+    };
+
+    /**
+     * 13 -> 14: data das notas em dias desde 1970 (notes.epochDay), com
+     * índice, para as consultas por intervalo (lembretes). As notas
+     * existentes são convertidas de dd/MM/yyyy; datas inválidas ficam 0.
+     */
+    static final Migration MIGRATION_13_14 = new Migration(13, 14) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `notes` ADD COLUMN `epochDay` INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("UPDATE `notes` SET `epochDay` = COALESCE(CAST(julianday("
+                    + "substr(date, 7, 4) || '-' || substr(date, 4, 2) || '-' || substr(date, 1, 2))"
+                    + " - 2440587.5 AS INTEGER), 0)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_notes_epochDay_typeId` ON `notes` (`epochDay`, `typeId`)");
+        }
+    };
+
+    /**
+     * 14 -> 15: índice de cobertura (userId, typeId, epochDay) para as
+     * estatísticas por aluno da lista de administração, agregadas sem ler
+     * as linhas de notes.
+     */
+    static final Migration MIGRATION_14_15 = new Migration(14, 15) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_notes_userId_typeId_epochDay` "
+                    + "ON `notes` (`userId`, `typeId`, `epochDay`)");
+        }
+    };
+
+    /**
+     * 15 -> 16: resumo de notas por aluno e dia (note_days) para o
+     * calendário, mantido por triggers e calculado a partir das notas.
+     */
+    static final Migration MIGRATION_15_16 = new Migration(15, 16) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            CalendarSchema.install(db);
+        }
+    };
+
+    /**
+     * 16 -> 17: turmas e matrículas (N:N entre users e classes), e índice
+     * (userId, subjectId, epochDay) para as notas de uma turma por matéria.
+     */
+    static final Migration MIGRATION_16_17 = new Migration(16, 17) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `classes` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`name` TEXT NOT NULL COLLATE NOCASE, `year` INTEGER NOT NULL)");
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_classes_year_name` ON `classes` (`year`, `name`)");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `enrollments` (`classId` INTEGER NOT NULL, "
+                    + "`userId` INTEGER NOT NULL, `role` INTEGER NOT NULL, PRIMARY KEY(`classId`, `userId`), "
+                    + "FOREIGN KEY(`classId`) REFERENCES `classes`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE , "
+                    + "FOREIGN KEY(`userId`) REFERENCES `users`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_enrollments_classId_role_userId` "
+                    + "ON `enrollments` (`classId`, `role`, `userId`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_enrollments_userId_classId` "
+                    + "ON `enrollments` (`userId`, `classId`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_notes_userId_subjectId_epochDay` "
+                    + "ON `notes` (`userId`, `subjectId`, `epochDay`)");
+        }
+    };
+
+    /**
+     * 17 -> 18: histórico de edições das notas (note_revisions), com o
+     * conteúdo guardado como delta da versão anterior (ver NoteHistory).
+     */
+    static final Migration MIGRATION_17_18 = new Migration(17, 18) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `note_revisions` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`noteId` INTEGER NOT NULL, `revision` INTEGER NOT NULL, `editedAt` INTEGER NOT NULL, "
+                    + "`editorId` INTEGER NOT NULL, `subjectId` INTEGER NOT NULL, `typeId` INTEGER NOT NULL, "
+                    + "`date` TEXT NOT NULL, `kind` INTEGER NOT NULL, `payload` TEXT NOT NULL, "
+                    + "FOREIGN KEY(`noteId`) REFERENCES `notes`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_note_revisions_noteId_revision` "
+                    + "ON `note_revisions` (`noteId`, `revision`)");
+        }
+    };
+
+    /**
+     * 18 -> 19: índice de texto particionado por aluno (languageid =
+     * notes.userId) e com prefixo de uma letra; reconstruído a partir das
+     * notas.
+     */
+    static final Migration MIGRATION_18_19 = new Migration(18, 19) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            NoteFtsSchema.install(db);
+        }
+    };
+
+    /**
+     * 19 -> 20: o administrador padrão deixa o CPF zero pela chave
+     * reservada Cpf.ADMIN, e CPFs de um só dígito repetido (que passam nos
+     * dígitos verificadores, mas não existem) recebem uma chave provisória
+     * (Cpf.pending) até a correção do cadastro.
+     */
+    static final Migration MIGRATION_19_20 = new Migration(19, 20) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("UPDATE `users` SET cpf = ? WHERE cpf = 0 AND isAdmin = 1",
+                    new Object[]{Cpf.ADMIN});
+            StringBuilder repeated = new StringBuilder();
+            for (int digit = 0; digit <= 9; digit++) {
+                repeated.append(digit == 0 ? "" : ", ").append(digit * 11_111_111_111L);
+            }
+            db.execSQL("UPDATE `users` SET cpf = ? + id WHERE cpf IN (" + repeated + ")",
+                    new Object[]{Cpf.pending(0)});
+        }
+    };
+
+    /**
+     * Todas as migrações, na ordem de versão.
+     */
+    static final Migration[] ALL = {
+            MIGRATION_5_6,
+            MIGRATION_6_7,
+            MIGRATION_7_8,
+            MIGRATION_8_9,
+            MIGRATION_9_10,
+            MIGRATION_10_11,
+            MIGRATION_11_12,
+            MIGRATION_12_13,
+            MIGRATION_13_14,
+            MIGRATION_14_15,
+            MIGRATION_15_16,
+            MIGRATION_16_17,
+            MIGRATION_17_18,
+            MIGRATION_18_19,
+            MIGRATION_19_20
+    };
+
+    /**
+     * Callback que cria os objetos que o Room não gera a partir das
+     * entidades (triggers, índice de texto, tipos padrão) quando o banco é
+     * criado ou recriado, e descarta alterações não consumidas de execuções
+     * anteriores ao abrir.
+     */
+    static final RoomDatabase.Callback CALLBACK = new RoomDatabase.Callback() {
+        @Override
+        public void onCreate(@NonNull SupportSQLiteDatabase db) {
+            DictionarySchema.seed(db);
+            StatsSchema.createTriggers(db);
+            CalendarSchema.createTriggers(db);
+            ChangeLogSchema.createTriggers(db);
+            NoteFtsSchema.create(db);
+        }
+
+        @Override
+        public void onDestructiveMigration(@NonNull SupportSQLiteDatabase db) {
+            DictionarySchema.seed(db);
+            StatsSchema.createTriggers(db);
+            CalendarSchema.createTriggers(db);
+            ChangeLogSchema.createTriggers(db);
+            NoteFtsSchema.create(db);
+        }
+
+        @Override
+        public void onOpen(@NonNull SupportSQLiteDatabase db) {
+            ChangeLogSchema.clear(db);
+        }
+    };
+}
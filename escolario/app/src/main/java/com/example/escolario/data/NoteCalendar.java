@@ -0,0 +1,253 @@
+package com.example.escolario.data;
+
+import com.example.escolario.model.CalendarMonth;
+import com.example.escolario.model.NoteDay;
+import com.example.escolario.model.UpcomingNote;
+import com.example.escolario.utils.DateUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Meses do calendário de notas (um por banco).
+ * <p>
+ * Cada mês vem do resumo note_days (uma linha por aluno, dia e tipo,
+ * mantida por triggers - ver CalendarSchema): exibir um mês é uma consulta
+ * pela chave primária que lê cerca de 31 linhas, qualquer que seja o
+ * número de notas do aluno. Os meses lidos ficam em memória (LRU de
+ * CAPACITY meses) e a tela lê os meses vizinhos antecipadamente
+ * (prefetch), então deslizar para o mês seguinte não espera o banco.
+ * <p>
+ * Uma alteração em notes (recebida pelo ChangeFeed) descarta só os meses
+ * afetados: o mês novo das notas inseridas ou alteradas (relidas pelo
+ * ID) e o mês anterior delas. Para isso cada mês em memória guarda os IDs
+ * das suas notas (noteMonths), o que também resolve as exclusões, cujo ID
+ * não indica mais o aluno nem o dia. Em seguida os ouvintes releem o mês
+ * exibido.
+ * <p>
+ * month e prefetch acessam o banco: chamar fora da thread principal.
+ */
+public class NoteCalendar {
+    // Meses mantidos em memória (o exibido, os vizinhos e os recentes)
+    static final int CAPACITY = 12;
+
+    // Notas relidas por consulta (limite de 999 variáveis do SQLite, com folga)
+    private static final int CHUNK_SIZE = 500;
+
+    // Mês em memória e as notas que ele contém
+    private static final class Cached {
+        final CalendarMonth month;
+        final List<Long> noteIds;
+
+        Cached(CalendarMonth month, List<Long> noteIds) {
+            this.month = month;
+            this.noteIds = noteIds;
+        }
+    }
+
+    private final AppDatabase db;
+
+    // Em ordem de acesso: o primeiro é o menos usado recentemente
+    private final LinkedHashMap<Long, Cached> months;
+
+    // Mês em memória de cada nota (só notas dos meses em months)
+    private final Map<Long, Long> noteMonths = new HashMap<>();
+
+    // Avisados (na thread do feed) quando os meses são descartados
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    // Incrementado a cada descarte; uma leitura iniciada antes dele não é guardada
+    private long version;
+
+    // Consultas ao resumo executadas (métrica)
+    private long queries;
+
+    NoteCalendar(AppDatabase db, int capacity) {
+        this.db = db;
+        this.months = new LinkedHashMap<Long, Cached>(capacity + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Cached> eldest) {
+                if (size() <= capacity) {
+                    return false;
+                }
+                forgetNotes(eldest.getValue());
+                return true;
+            }
+        };
+        db.changeFeed().addListener("notes", this::invalidate);
+    }
+
+    /**
+     * return Notas do aluno no mês, por dia
+     * param month Mês, de 1 a 12
+     */
+    public CalendarMonth month(int userId, int year, int month) {
+        long key = key(userId, year, month);
+        long readVersion;
+        synchronized (this) {
+            Cached cached = months.get(key);
+            if (cached != null) {
+                return cached.month;
+            }
+            readVersion = version;
+        }
+
+        int first = DateUtils.epochDay(year, month, 1);
+        int length = month == 12
+                ? DateUtils.epochDay(year + 1, 1, 1) - first
+                : DateUtils.epochDay(year, month + 1, 1) - first;
+        int last = first + length - 1;
+        // Resumo e IDs lidos juntos: os IDs correspondem ao mês guardado
+        Cached loaded = db.runInTransaction(() -> new Cached(
+                build(userId, year, month, first, length,
+                        db.noteDao().loadNoteDays(userId, first, last), db.dictionary()),
+                db.noteDao().loadNoteIdsBetween(userId, first, last)));
+
+        synchronized (this) {
+            queries++;
+            if (readVersion == version) {
+                Cached previous = months.put(key, loaded);
+                if (previous != null) {
+                    forgetNotes(previous);
+                }
+                for (Long id : loaded.noteIds) {
+                    noteMonths.put(id, key);
+                }
+            }
+        }
+        return loaded.month;
+    }
+
+    /**
+     * Lê antecipadamente o mês anterior e o seguinte ao informado.
+     * param month Mês exibido, de 1 a 12
+     */
+    public void prefetch(int userId, int year, int month) {
+        int index = year * 12 + month - 1;
+        for (int neighbor : new int[]{index - 1, index + 1}) {
+            month(userId, neighbor / 12, neighbor % 12 + 1);
+        }
+    }
+
+    /**
+     * Registra um ouvinte do descarte dos meses (notas alteradas).
+     */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * return Consultas ao resumo executadas desde a criação
+     */
+    public synchronized long queries() {
+        return queries;
+    }
+
+    /**
+     * return Meses em memória (testes)
+     */
+    synchronized int cachedMonths() {
+        return months.size();
+    }
+
+    // Na thread do feed: descarta os meses afetados pelas alterações e
+    // avisa os ouvintes
+    private void invalidate(ChangeFeed.ChangeSet changes) {
+        Set<Long> affected = new HashSet<>();
+        List<Long> upserted = new ArrayList<>(changes.upserted());
+        synchronized (this) {
+            // Leituras em andamento podem ser anteriores às alterações
+            version++;
+            // Mês anterior das notas alteradas e mês das notas excluídas
+            for (Long id : upserted) {
+                addMonthOf(id, affected);
+            }
+            for (Long id : changes.deleted) {
+                addMonthOf(id, affected);
+            }
+        }
+
+        // Mês atual das notas inseridas ou alteradas (sem data: fora do calendário)
+        for (int start = 0; start < upserted.size(); start += CHUNK_SIZE) {
+            List<Long> chunk = upserted.subList(start, Math.min(start + CHUNK_SIZE, upserted.size()));
+            for (UpcomingNote note : db.noteDao().loadUpcomingByIds(chunk)) {
+                if (note.epochDay > 0) {
+                    affected.add(key(note.userId, DateUtils.monthIndex(note.epochDay)));
+                }
+            }
+        }
+
+        synchronized (this) {
+            for (Long key : affected) {
+                Cached removed = months.remove(key);
+                if (removed != null) {
+                    forgetNotes(removed);
+                }
+            }
+        }
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    // Adiciona o mês em memória da nota, se houver (sob o bloqueio)
+    private void addMonthOf(Long noteId, Set<Long> affected) {
+        Long key = noteMonths.get(noteId);
+        if (key != null) {
+            affected.add(key);
+        }
+    }
+
+    // Remove as notas de um mês descartado do índice por nota (sob o bloqueio)
+    private void forgetNotes(Cached cached) {
+        for (Long id : cached.noteIds) {
+            noteMonths.remove(id);
+        }
+    }
+
+    private static long key(int userId, int year, int month) {
+        return key(userId, year * 12 + month - 1);
+    }
+
+    private static long key(int userId, int monthIndex) {
+        return ((long) userId << 32) | monthIndex;
+    }
+
+    // Distribui as linhas do resumo pelos dias do mês
+    private static CalendarMonth build(int userId, int year, int month, int first, int length,
+                                       List<NoteDay> rows, NoteDictionary dictionary) {
+        int[] counts = new int[length];
+        Map<Integer, Map<String, Integer>> types = new HashMap<>();
+        for (NoteDay row : rows) {
+            int day = row.epochDay - first;
+            counts[day] += row.count;
+            Map<String, Integer> dayTypes = types.get(day);
+            if (dayTypes == null) {
+                dayTypes = new LinkedHashMap<>();
+                types.put(day, dayTypes);
+            }
+            dayTypes.put(dictionary.typeName(row.typeId), row.count);
+        }
+
+        List<Map<String, Integer>> countsByType = new ArrayList<>(length);
+        for (int day = 0; day < length; day++) {
+            Map<String, Integer> dayTypes = types.get(day);
+            countsByType.add(dayTypes != null
+                    ? Collections.unmodifiableMap(dayTypes)
+                    : Collections.emptyMap());
+        }
+        return new CalendarMonth(userId, year, month, first, counts,
+                Collections.unmodifiableList(countsByType));
+    }
+}
@@ -1,40 +1,202 @@
-package com.example.escolario.data;
-
-import androidx.lifecycle.LiveData;
-import androidx.room.Dao;
-import androidx.room.Insert;
-import androidx.room.Query;
-
-import com.example.escolario.model.Note;
-
-import java.util.List;
-
-/**
- * Interface DAO (Data Access Object) para operações com notas no banco de dados.
- *
- * Define os métodos para:
- *
- *   Inserir novas notas
- *   Recuperar notas por usuário
- *
- *
- * Utiliza anotações do Room para mapeamento SQLite.
- */
-@Dao
-public interface NoteDao {
-
-    /**
-     * Insere uma nova nota no banco de dados.
-     * param note Objeto Note a ser persistido
-     */
-    @Insert
-    void insert(Note note);
-
-    /**
-     * Recupera todas as notas de um usuário específico.
-     * param userId ID do usuário para filtro
-     * return LiveData contendo lista de notas, observável para atualizações
-     */
-    @Query("SELECT * FROM notes WHERE userId = :userId")
-    LiveData<List<Note>> getNotesByUser(int userId);
-}
\ No newline at end of file
+package com.example.escolario.data;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import androidx.room.RawQuery;
+import androidx.room.Update;
+import androidx.sqlite.db.SupportSQLiteQuery;
+
+import com.example.escolario.model.Note;
+import com.example.escolario.model.NoteDay;
+import com.example.escolario.model.NoteSearchResult;
+import com.example.escolario.model.SubjectCount;
+import com.example.escolario.model.UpcomingNote;
+import com.example.escolario.model.UserTypeCount;
+
+import java.util.List;
+
+/**
+ * Interface DAO (Data Access Object) para operações com notas no banco de dados.
+ *
+ * Define os métodos para:
+ *
+ *   Inserir novas notas
+ *   Recuperar notas por usuário
+ *   Consultar totais agregados (mantidos por triggers em stat_counters)
+ *   Buscar notas por texto (índice FTS4 notes_fts)
+ *   Listar atividades de um intervalo de datas (lembretes)
+ *   Estatísticas por aluno da lista de administração
+ *   Calendário: resumo por dia (note_days) e notas de um dia
+ *
+ *
+ * Utiliza anotações do Room para mapeamento SQLite.
+ */
+@Dao
+public interface NoteDao {
+
+    /**
+     * Insere uma nova nota no banco de dados.
+     * param note Objeto Note a ser persistido
+     */
+    @Insert
+    void insert(Note note);
+
+    /**
+     * Insere várias notas preservando seus IDs (usado para desfazer exclusões).
+     * param notes Notas a serem persistidas
+     */
+    @Insert
+    void insertAll(List<Note> notes);
+
+    /**
+     * Grava uma nota editada (usado por NoteHistory, que registra a versão
+     * anterior na mesma transação).
+     * param note Nota com os novos valores e o ID original
+     */
+    @Update
+    void update(Note note);
+
+    /**
+     * return Nota pelo ID, ou null se não existir
+     */
+    @Query("SELECT * FROM notes WHERE id = :id")
+    Note loadNote(int id);
+
+    /**
+     * Recupera todas as notas de um usuário específico.
+     * param userId ID do usuário para filtro
+     * return LiveData contendo lista de notas, observável para atualizações
+     */
+    @Query("SELECT * FROM notes WHERE userId = :userId")
+    LiveData<List<Note>> getNotesByUser(int userId);
+
+    /**
+     * Carrega as notas de um usuário (consulta síncrona, ordem de ID).
+     * Usada pela carga inicial de DeltaListLiveData.
+     */
+    @Query("SELECT * FROM notes WHERE userId = :userId ORDER BY id")
+    List<Note> loadNotesByUser(int userId);
+
+    /**
+     * Relê, entre os IDs alterados, as notas que pertencem ao usuário.
+     * param ids IDs alterados (máx. 999 por chamada)
+     */
+    @Query("SELECT * FROM notes WHERE userId = :userId AND id IN (:ids)")
+    List<Note> loadNotesByUserAndIds(int userId, List<Long> ids);
+
+    /**
+     * Recupera as notas de vários usuários (consulta síncrona).
+     * param userIds IDs dos usuários (máx. 999 por chamada)
+     * return Lista de notas dos usuários informados
+     */
+    @Query("SELECT * FROM notes WHERE userId IN (:userIds)")
+    List<Note> getNotesByUsers(List<Integer> userIds);
+
+    /**
+     * Conta todas as notas cadastradas.
+     * return LiveData com o total, lido do contador agregado
+     */
+    @Query("SELECT COALESCE((SELECT value FROM stat_counters "
+            + "WHERE kind = 'total' AND key = 'notes'), 0)")
+    LiveData<Integer> countNotes();
+
+    /**
+     * Recupera a quantidade de notas por matéria, da maior para a menor.
+     * return LiveData com uma linha por matéria
+     */
+    @Query("SELECT s.name AS subject, c.value AS count FROM stat_counters c "
+            + "JOIN subjects s ON s.id = CAST(c.key AS INTEGER) "
+            + "WHERE c.kind = 'subject' ORDER BY c.value DESC, s.name")
+    LiveData<List<SubjectCount>> getNoteCountsBySubject();
+
+    /**
+     * Conta as notas com data de atividade em um intervalo (inclusivo).
+     * Soma no máximo uma linha por dia do intervalo.
+     * param startDay Data inicial no formato yyyy-MM-dd
+     * param endDay Data final no formato yyyy-MM-dd
+     * return LiveData com o total do período
+     */
+    @Query("SELECT COALESCE(SUM(value), 0) FROM stat_counters "
+            + "WHERE kind = 'day' AND key BETWEEN :startDay AND :endDay")
+    LiveData<Integer> countNotesBetween(String startDay, String endDay);
+
+    /**
+     * Busca textual nas notas de um usuário (matéria e conteúdo).
+     *
+     * O índice notes_fts não é uma entidade do Room (ver NoteFtsSchema),
+     * então a consulta é montada por NoteSearch.searchQuery.
+     *
+     * return Resultados com snippet destacado e estatísticas de ranking
+     */
+    @RawQuery
+    List<NoteSearchResult> searchNotes(SupportSQLiteQuery query);
+
+    /**
+     * Atividades de todos os alunos em um intervalo de dias, pelo índice
+     * em (epochDay, typeId) (uma consulta por janela de lembretes). O "+"
+     * em typeId impede que o planejador troque o intervalo de datas pelo
+     * índice de tipo, que leria todas as provas da escola e ordenaria.
+     *
+     * param fromDay Primeiro dia (epoch day, inclusivo)
+     * param toDay Último dia (inclusivo)
+     * param typeIds Tipos de atividade que geram lembrete
+     * return Notas em ordem de data
+     */
+    @Query("SELECT id, userId, subjectId, typeId, epochDay FROM notes "
+            + "WHERE epochDay BETWEEN :fromDay AND :toDay AND +typeId IN (:typeIds) "
+            + "ORDER BY epochDay")
+    List<UpcomingNote> loadUpcoming(int fromDay, int toDay, List<Integer> typeIds);
+
+    /**
+     * Versão por ID de loadUpcoming, para as notas alteradas (sem filtro).
+     *
+     * param ids IDs das notas (máx. 999 por chamada - limite do SQLite)
+     */
+    @Query("SELECT id, userId, subjectId, typeId, epochDay FROM notes WHERE id IN (:ids)")
+    List<UpcomingNote> loadUpcomingByIds(List<Long> ids);
+
+    /**
+     * Agrega as notas de uma página de alunos em uma única consulta: uma
+     * linha por aluno e tipo, com a quantidade e a data mais recente.
+     * O LEFT JOIN devolve também os alunos sem notas (count 0). Lê apenas
+     * o índice (userId, typeId, epochDay), já na ordem do agrupamento:
+     * o custo depende das notas da página, não do total de alunos.
+     *
+     * param userIds IDs dos alunos da página (máx. 999 por chamada - limite do SQLite)
+     */
+    @Query("SELECT u.id AS userId, n.typeId AS typeId, COUNT(n.userId) AS count, "
+            + "MAX(n.epochDay) AS lastDay FROM users u LEFT JOIN notes n ON n.userId = u.id "
+            + "WHERE u.id IN (:userIds) GROUP BY u.id, n.typeId")
+    List<UserTypeCount> loadUserTypeCounts(List<Integer> userIds);
+
+    /**
+     * Resumo do calendário de um aluno em um intervalo de dias (mantido
+     * por triggers em note_days): no máximo uma linha por dia e tipo.
+     *
+     * param fromDay Primeiro dia (epoch day, inclusive)
+     * param toDay Último dia (epoch day, inclusive)
+     */
+    @Query("SELECT * FROM note_days WHERE userId = :userId AND epochDay BETWEEN :fromDay AND :toDay")
+    List<NoteDay> loadNoteDays(int userId, int fromDay, int toDay);
+
+    /**
+     * IDs das notas de um aluno em um intervalo de dias (notas de um mês
+     * do calendário em memória, para descartá-lo quando uma delas mudar).
+     *
+     * param fromDay Primeiro dia (epoch day, inclusive)
+     * param toDay Último dia (epoch day, inclusive)
+     */
+    @Query("SELECT id FROM notes WHERE userId = :userId AND epochDay BETWEEN :fromDay AND :toDay")
+    List<Long> loadNoteIdsBetween(int userId, int fromDay, int toDay);
+
+    /**
+     * Notas de um aluno em um dia (dia selecionado no calendário), no
+     * formato dos resultados de busca, com o conteúdo como trecho.
+     * Nomes de matéria e tipo são preenchidos pelo repositório.
+     */
+    @Query("SELECT id, subjectId, typeId, date, content AS snippet, NULL AS matchinfo FROM notes "
+            + "WHERE userId = :userId AND epochDay = :epochDay ORDER BY id")
+    List<NoteSearchResult> loadNotesOnDay(int userId, int epochDay);
+}
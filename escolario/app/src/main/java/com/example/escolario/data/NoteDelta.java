@@ -0,0 +1,53 @@
+package com.example.escolario.data;
+
+/**
+ * Delta de texto entre duas versões do conteúdo de uma nota.
+ * <p>
+ * As edições de uma nota costumam alterar um único trecho (a nota de uma
+ * prova, uma observação), então o delta é a substituição de um trecho:
+ * "prefixo:sufixo:texto" - mantém os primeiros caracteres (prefixo) e os
+ * últimos (sufixo) da versão anterior e coloca o texto entre eles. Custo
+ * O(n) para calcular e aplicar; o tamanho é o do trecho alterado.
+ */
+final class NoteDelta {
+
+    private NoteDelta() {
+        // Classe utilitária - não instanciável
+    }
+
+    /**
+     * return Delta que transforma from em to
+     */
+    static String diff(String from, String to) {
+        int max = Math.min(from.length(), to.length());
+        int prefix = 0;
+        while (prefix < max && from.charAt(prefix) == to.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < max - prefix
+                && from.charAt(from.length() - 1 - suffix) == to.charAt(to.length() - 1 - suffix)) {
+            suffix++;
+        }
+        return prefix + ":" + suffix + ":" + to.substring(prefix, to.length() - suffix);
+    }
+
+    /**
+     * return Versão obtida aplicando o delta a base
+     * throws IllegalArgumentException Se o delta não for desta base
+     */
+    static String apply(String base, String delta) {
+        int first = delta.indexOf(':');
+        int second = delta.indexOf(':', first + 1);
+        if (first < 0 || second < 0) {
+            throw new IllegalArgumentException("Delta inválido");
+        }
+        int prefix = Integer.parseInt(delta.substring(0, first));
+        int suffix = Integer.parseInt(delta.substring(first + 1, second));
+        if (prefix + suffix > base.length()) {
+            throw new IllegalArgumentException("Delta não corresponde à versão anterior");
+        }
+        return base.substring(0, prefix) + delta.substring(second + 1)
+                + base.substring(base.length() - suffix);
+    }
+}
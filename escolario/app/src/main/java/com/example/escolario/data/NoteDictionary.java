@@ -0,0 +1,262 @@
+package com.example.escolario.data;
+
+import com.example.escolario.model.ActivityType;
+import com.example.escolario.model.DictionaryEntry;
+import com.example.escolario.model.Subject;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Dicionário em memória de matérias e tipos de atividade (um por banco).
+ * <p>
+ * As notas guardam apenas subjectId/typeId; este cache traduz nomes em
+ * IDs ao salvar (cadastrando nomes novos) e IDs em nomes ao exibir, sem
+ * consultar o banco. Cada nome existe uma única vez na memória: todas as
+ * notas de "Matemática" exibem a mesma instância de String.
+ * <p>
+ * Os nomes são comparados sem diferenciar maiúsculas e com os espaços
+ * normalizados, então " matemática" é gravada como a "Matemática" já
+ * existente em vez de criar uma nova matéria.
+ * <p>
+ * A tabela é carregada inteira no primeiro uso (são poucas dezenas de
+ * linhas); as leituras não bloqueiam. Métodos que podem cadastrar ou
+ * carregar devem ser chamados fora da thread principal.
+ */
+public class NoteDictionary {
+
+    /**
+     * Tipos de atividade cadastrados junto com o banco, na ordem do formulário
+     */
+    public static final String[] DEFAULT_TYPES = {"Prova", "Atividade", "Trabalho", "Seminário"};
+
+    private final Table subjects;
+    private final Table types;
+
+    NoteDictionary(AppDatabase db) {
+        DictionaryDao dao = db.dictionaryDao();
+        subjects = new Table(dao::getSubjects,
+                name -> dao.insertSubject(new Subject(name)), dao::findSubject);
+        types = new Table(dao::getActivityTypes,
+                name -> dao.insertActivityType(new ActivityType(name)), dao::findActivityType);
+    }
+
+    /**
+     * return ID da matéria, cadastrando-a se ainda não existir
+     */
+    public int subjectId(String name) {
+        return subjects.intern(name);
+    }
+
+    /**
+     * return ID do tipo de atividade, cadastrando-o se ainda não existir
+     */
+    public int typeId(String name) {
+        return types.intern(name);
+    }
+
+    /**
+     * return ID da matéria, ou null se não existir (não cadastra)
+     */
+    public Integer findSubjectId(String name) {
+        return subjects.find(name);
+    }
+
+    /**
+     * return ID do tipo de atividade, ou null se não existir (não cadastra)
+     */
+    public Integer findTypeId(String name) {
+        return types.find(name);
+    }
+
+    /**
+     * return Nome da matéria, ou "" se o ID não existir
+     */
+    public String subjectName(int id) {
+        return subjects.name(id);
+    }
+
+    /**
+     * return Nome do tipo de atividade, ou "" se o ID não existir
+     */
+    public String typeName(int id) {
+        return types.name(id);
+    }
+
+    /**
+     * return Matérias em ordem alfabética (sugestões do formulário)
+     */
+    public List<String> subjectNames() {
+        List<String> names = subjects.names();
+        Collections.sort(names, Collator.getInstance(new Locale("pt", "BR")));
+        return names;
+    }
+
+    /**
+     * return Tipos de atividade em ordem de cadastro (padrões primeiro)
+     */
+    public List<String> typeNames() {
+        return types.names();
+    }
+
+    /**
+     * Descarta o cache; a próxima consulta recarrega as tabelas. Necessário
+     * apenas se as tabelas forem apagadas por fora (ex.: clearAllTables).
+     */
+    public void reset() {
+        subjects.reset();
+        types.reset();
+    }
+
+    /**
+     * Remove espaços nas pontas e repetidos (forma gravada no banco).
+     */
+    static String normalize(String name) {
+        String normalized = name == null ? "" : name.trim().replaceAll("\\s+", " ");
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("Nome vazio");
+        }
+        return normalized;
+    }
+
+    // Chave de comparação: sem diferenciar maiúsculas (inclusive acentuadas)
+    private static String key(String normalized) {
+        return normalized.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Uma tabela de dicionário em cache.
+     */
+    private static final class Table {
+        interface Loader {
+            List<? extends DictionaryEntry> load();
+        }
+
+        interface Inserter {
+            long insert(String name);
+        }
+
+        interface Finder {
+            DictionaryEntry find(String name);
+        }
+
+        /**
+         * Estado imutável: substituído (copiado) a cada nome novo, o que é
+         * raro; as leituras apenas leem a referência volátil.
+         */
+        private static final class Snapshot {
+            final Map<String, Integer> ids;
+            final String[] names; // índice = ID (pode ter lacunas)
+
+            Snapshot(Map<String, Integer> ids, String[] names) {
+                this.ids = ids;
+                this.names = names;
+            }
+
+            Snapshot with(String key, int id, String name) {
+                Map<String, Integer> newIds = new HashMap<>(ids);
+                newIds.put(key, id);
+                String[] newNames = new String[Math.max(names.length, id + 1)];
+                System.arraycopy(names, 0, newNames, 0, names.length);
+                newNames[id] = name;
+                return new Snapshot(newIds, newNames);
+            }
+        }
+
+        private final Loader loader;
+        private final Inserter inserter;
+        private final Finder finder;
+        private volatile Snapshot snapshot;
+
+        Table(Loader loader, Inserter inserter, Finder finder) {
+            this.loader = loader;
+            this.inserter = inserter;
+            this.finder = finder;
+        }
+
+        private Snapshot snapshot() {
+            Snapshot current = snapshot;
+            if (current == null) {
+                synchronized (this) {
+                    if (snapshot == null) {
+                        snapshot = load();
+                    }
+                    current = snapshot;
+                }
+            }
+            return current;
+        }
+
+        private Snapshot load() {
+            Snapshot loaded = new Snapshot(new HashMap<>(), new String[0]);
+            for (DictionaryEntry entry : loader.load()) {
+                String key = key(entry.name);
+                // Variações só de acentuação/maiúsculas: vale a mais antiga
+                if (!loaded.ids.containsKey(key)) {
+                    loaded.ids.put(key, entry.id);
+                }
+                if (entry.id >= loaded.names.length) {
+                    String[] names = new String[Math.max(entry.id + 1, loaded.names.length * 2)];
+                    System.arraycopy(loaded.names, 0, names, 0, loaded.names.length);
+                    loaded = new Snapshot(loaded.ids, names);
+                }
+                loaded.names[entry.id] = entry.name;
+            }
+            return loaded;
+        }
+
+        Integer find(String name) {
+            return snapshot().ids.get(key(normalize(name)));
+        }
+
+        String name(int id) {
+            String[] names = snapshot().names;
+            String name = id >= 0 && id < names.length ? names[id] : null;
+            return name != null ? name : "";
+        }
+
+        List<String> names() {
+            List<String> names = new ArrayList<>();
+            for (String name : snapshot().names) {
+                if (name != null) names.add(name);
+            }
+            return names;
+        }
+
+        int intern(String name) {
+            String normalized = normalize(name);
+            String key = key(normalized);
+            Integer id = snapshot().ids.get(key);
+            if (id != null) {
+                return id;
+            }
+
+            synchronized (this) {
+                Snapshot current = snapshot();
+                id = current.ids.get(key);
+                if (id != null) {
+                    return id;
+                }
+
+                long rowId = inserter.insert(normalized);
+                if (rowId > 0) {
+                    snapshot = current.with(key, (int) rowId, normalized);
+                    return (int) rowId;
+                }
+                // Cadastrado por outra instância do cache (ex.: banco reaberto)
+                DictionaryEntry existing = finder.find(normalized);
+                snapshot = current.with(key, existing.id, existing.name);
+                return existing.id;
+            }
+        }
+
+        synchronized void reset() {
+            snapshot = null;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.escolario.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.example.escolario.model.NoteDraft;
+
+import java.util.List;
+
+/**
+ * DAO dos rascunhos de nota (um por usuário), usado por NoteRepository.
+ */
+@Dao
+public interface NoteDraftDao {
+
+    /**
+     * Grava o rascunho do usuário, substituindo o anterior.
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void save(NoteDraft draft);
+
+    /**
+     * Reinsere rascunhos removidos (desfazer exclusão de usuários).
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertAll(List<NoteDraft> drafts);
+
+    /**
+     * return Rascunho do usuário, ou null se não houver
+     */
+    @Query("SELECT * FROM note_drafts WHERE userId = :userId")
+    NoteDraft find(int userId);
+
+    /**
+     * Rascunhos de vários usuários (cópia antes de uma exclusão em lote).
+     * param userIds IDs dos usuários (máx. 999 - limite do SQLite)
+     */
+    @Query("SELECT * FROM note_drafts WHERE userId IN (:userIds)")
+    List<NoteDraft> loadDraftsByUsers(List<Integer> userIds);
+
+    @Query("DELETE FROM note_drafts WHERE userId = :userId")
+    void delete(int userId);
+}
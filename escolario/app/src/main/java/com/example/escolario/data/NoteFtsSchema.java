@@ -0,0 +1,85 @@
+package com.example.escolario.data;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * Índice de texto completo (FTS4) sobre matéria e conteúdo das notas.
+ * <p>
+ * Tabela de conteúdo externo: os textos não são duplicados no índice.
+ * Como notes guarda apenas o ID da matéria, o conteúdo externo é a view
+ * notes_fts_content, que junta o nome vindo de subjects (rowid = notes.id).
+ * O Room só sabe gerar conteúdo externo a partir de uma entidade, então
+ * a tabela, a view e os triggers de sincronização são criados aqui, e a
+ * busca usa consulta bruta (ver NoteSearch.searchQuery).
+ * <p>
+ * O dono da nota é o languageid do índice (coluna userId): o FTS4 guarda
+ * os termos de cada languageid separadamente, então a busca de um aluno
+ * (MATCH com notes_fts.userId = ?) percorre apenas os termos e as listas
+ * de documentos das notas dele, e não as da escola inteira.
+ * <p>
+ * O tokenizador unicode61 remove acentos, então "matematica" encontra
+ * "Matemática"; os índices de prefixo (1, 2 e 3 letras) aceleram a busca
+ * enquanto o aluno digita, desde a primeira letra.
+ */
+final class NoteFtsSchema {
+
+    private NoteFtsSchema() {
+        // Classe utilitária - não instanciável
+    }
+
+    private static final String CREATE_VIEW =
+            "CREATE VIEW IF NOT EXISTS notes_fts_content AS"
+                    + " SELECT n.id AS rowid, n.userId AS userId, s.name AS subject, n.content AS content"
+                    + " FROM notes n LEFT JOIN subjects s ON s.id = n.subjectId";
+
+    private static final String CREATE_TABLE =
+            "CREATE VIRTUAL TABLE IF NOT EXISTS notes_fts USING FTS4("
+                    + "subject, content, tokenize=unicode61 `remove_diacritics=1`, "
+                    + "content=`notes_fts_content`, prefix=`1,2,3`, languageid=`userId`)";
+
+    // Mesma sincronização que o Room gerava: remove antes, reinsere depois
+    private static final String[] TRIGGERS = {
+            "CREATE TRIGGER IF NOT EXISTS fts_notes_before_update BEFORE UPDATE OF userId, subjectId, content ON notes"
+                    + " BEGIN DELETE FROM notes_fts WHERE docid = OLD.id; END",
+            "CREATE TRIGGER IF NOT EXISTS fts_notes_before_delete BEFORE DELETE ON notes"
+                    + " BEGIN DELETE FROM notes_fts WHERE docid = OLD.id; END",
+            "CREATE TRIGGER IF NOT EXISTS fts_notes_after_update AFTER UPDATE OF userId, subjectId, content ON notes"
+                    + " BEGIN INSERT INTO notes_fts (docid, userId, subject, content) VALUES (NEW.id, NEW.userId,"
+                    + " (SELECT name FROM subjects WHERE id = NEW.subjectId), NEW.content); END",
+            "CREATE TRIGGER IF NOT EXISTS fts_notes_after_insert AFTER INSERT ON notes"
+                    + " BEGIN INSERT INTO notes_fts (docid, userId, subject, content) VALUES (NEW.id, NEW.userId,"
+                    + " (SELECT name FROM subjects WHERE id = NEW.subjectId), NEW.content); END"
+    };
+
+    private static final String[] TRIGGER_NAMES = {
+            "fts_notes_before_update", "fts_notes_before_delete",
+            "fts_notes_after_update", "fts_notes_after_insert"
+    };
+
+    /**
+     * Cria a view, o índice e os triggers (tabelas já criadas pelo Room).
+     * Chamado na criação do banco e após migrações destrutivas.
+     */
+    static void create(SupportSQLiteDatabase db) {
+        db.execSQL(CREATE_VIEW);
+        db.execSQL(CREATE_TABLE);
+        for (String trigger : TRIGGERS) {
+            db.execSQL(trigger);
+        }
+    }
+
+    /**
+     * Substitui o índice anterior (o gerado pelo Room sobre notes.subject,
+     * ou uma versão anterior deste) e o reconstrói com as notas existentes
+     * (usado nas migrações).
+     */
+    static void install(SupportSQLiteDatabase db) {
+        for (String trigger : TRIGGER_NAMES) {
+            db.execSQL("DROP TRIGGER IF EXISTS " + trigger);
+        }
+        db.execSQL("DROP TABLE IF EXISTS notes_fts");
+        db.execSQL("DROP VIEW IF EXISTS notes_fts_content");
+        create(db);
+        db.execSQL("INSERT INTO notes_fts (notes_fts) VALUES ('rebuild')");
+    }
+}
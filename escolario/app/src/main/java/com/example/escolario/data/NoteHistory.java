@@ -0,0 +1,138 @@
+package com.example.escolario.data;
+
+import com.example.escolario.model.Note;
+import com.example.escolario.model.NoteRevision;
+import com.example.escolario.model.NoteVersion;
+import com.example.escolario.utils.DateUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Histórico de edições das notas (um por banco).
+ * <p>
+ * Cada edição grava uma versão em note_revisions com o conteúdo como
+ * delta da versão anterior (ver NoteDelta): uma correção de poucos
+ * caracteres ocupa poucos bytes, qualquer que seja o tamanho da nota. A
+ * cada {@code interval} versões o conteúdo completo é guardado
+ * (snapshot), então reconstruir qualquer versão lê um snapshot e aplica no
+ * máximo interval - 1 deltas; o histórico completo é reconstruído em uma
+ * passada. O histórico começa na primeira edição: a versão 1 é a nota
+ * original e notas nunca editadas não ocupam espaço.
+ * <p>
+ * A nota é gravada com a versão na mesma transação; os triggers de notes
+ * (contadores, calendário, busca e ChangeFeed) veem uma alteração comum.
+ * <p>
+ * Todos os métodos acessam o banco: chamar fora da thread principal.
+ */
+public class NoteHistory {
+    // Versões entre dois conteúdos completos (limite de deltas por reconstrução)
+    static final int SNAPSHOT_INTERVAL = 8;
+
+    private final AppDatabase db;
+    private final int interval;
+
+    NoteHistory(AppDatabase db, int interval) {
+        this.db = db;
+        this.interval = interval;
+    }
+
+    /**
+     * Edita uma nota e registra a nova versão, em uma transação.
+     *
+     * param noteId ID da nota
+     * param editorId ID do usuário que edita
+     * param subjectId Matéria (ID em subjects)
+     * param typeId Tipo de atividade (ID em activity_types)
+     * param content Novo conteúdo
+     * param date Nova data (dd/MM/yyyy)
+     * return false se nada mudou (nenhuma versão é gravada)
+     * throws IllegalArgumentException Se a nota não existir
+     */
+    public boolean edit(int noteId, int editorId, int subjectId, int typeId,
+                        String content, String date) {
+        NoteDao noteDao = db.noteDao();
+        NoteHistoryDao historyDao = db.noteHistoryDao();
+        return db.runInTransaction(() -> {
+            Note note = noteDao.loadNote(noteId);
+            if (note == null) {
+                throw new IllegalArgumentException("Nota não encontrada");
+            }
+            if (note.subjectId == subjectId && note.typeId == typeId
+                    && note.content.equals(content) && note.date.equals(date)) {
+                return false;
+            }
+
+            int last = historyDao.lastRevision(noteId);
+            if (last == 0) {
+                // Primeira edição: a original vira a versão 1
+                historyDao.insert(new NoteRevision(noteId, 1, 0, note.userId, note.subjectId,
+                        note.typeId, note.date, NoteRevision.KIND_SNAPSHOT, note.content));
+                last = 1;
+            }
+            int revision = last + 1;
+            String delta = NoteDelta.diff(note.content, content);
+            // Snapshot no início de cada intervalo, ou quando o delta não é menor
+            boolean snapshot = (revision - 1) % interval == 0 || delta.length() >= content.length();
+            historyDao.insert(new NoteRevision(noteId, revision, System.currentTimeMillis(),
+                    editorId, subjectId, typeId, date,
+                    snapshot ? NoteRevision.KIND_SNAPSHOT : NoteRevision.KIND_DELTA,
+                    snapshot ? content : delta));
+
+            note.subjectId = subjectId;
+            note.typeId = typeId;
+            note.content = content;
+            note.date = date;
+            Integer day = DateUtils.toEpochDay(date);
+            note.epochDay = day != null ? day : 0;
+            noteDao.update(note);
+            return true;
+        });
+    }
+
+    /**
+     * Conteúdo de uma versão da nota, reconstruído a partir do último
+     * snapshot anterior a ela.
+     * return Conteúdo, ou null se a versão não existir
+     */
+    public String content(int noteId, int revision) {
+        List<NoteRevision> chain = db.noteHistoryDao().loadChain(noteId, revision);
+        if (chain.isEmpty() || chain.get(chain.size() - 1).revision != revision) {
+            return null;
+        }
+        String content = null;
+        for (NoteRevision row : chain) {
+            content = next(content, row);
+        }
+        return content;
+    }
+
+    /**
+     * return Versões da nota, da mais recente à original (vazio se a nota
+     *         nunca foi editada). Nomes de matéria e tipo não são preenchidos.
+     */
+    public List<NoteVersion> history(int noteId) {
+        List<NoteRevision> rows = db.noteHistoryDao().loadRevisions(noteId);
+        List<NoteVersion> versions = new ArrayList<>(rows.size());
+        String content = null;
+        for (NoteRevision row : rows) {
+            content = next(content, row);
+            versions.add(new NoteVersion(row.revision, row.editedAt, row.editorId,
+                    row.subjectId, row.typeId, row.date, content));
+        }
+        Collections.reverse(versions);
+        return versions;
+    }
+
+    // Conteúdo da versão row, dado o da versão anterior
+    private static String next(String previous, NoteRevision row) {
+        if (row.kind == NoteRevision.KIND_SNAPSHOT) {
+            return row.payload;
+        }
+        if (previous == null) {
+            throw new IllegalStateException("Histórico sem versão completa: nota " + row.noteId);
+        }
+        return NoteDelta.apply(previous, row.payload);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.escolario.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+
+import com.example.escolario.model.NoteRevision;
+
+import java.util.List;
+
+/**
+ * DAO do histórico de edições das notas, usado por NoteHistory.
+ */
+@Dao
+public interface NoteHistoryDao {
+
+    @Insert
+    void insert(NoteRevision revision);
+
+    @Insert
+    void insertAll(List<NoteRevision> revisions);
+
+    /**
+     * return Última versão registrada da nota, ou 0 se nunca foi editada
+     */
+    @Query("SELECT COALESCE(MAX(revision), 0) FROM note_revisions WHERE noteId = :noteId")
+    int lastRevision(int noteId);
+
+    /**
+     * Versões necessárias para reconstruir uma versão: do último conteúdo
+     * completo até ela, em ordem.
+     */
+    @Query("SELECT * FROM note_revisions WHERE noteId = :noteId AND revision BETWEEN "
+            + "(SELECT MAX(revision) FROM note_revisions WHERE noteId = :noteId "
+            + "AND revision <= :revision AND kind = 0) AND :revision ORDER BY revision")
+    List<NoteRevision> loadChain(int noteId, int revision);
+
+    /**
+     * return Todas as versões da nota, em ordem
+     */
+    @Query("SELECT * FROM note_revisions WHERE noteId = :noteId ORDER BY revision")
+    List<NoteRevision> loadRevisions(int noteId);
+
+    /**
+     * Versões das notas dos usuários (cópia antes de uma exclusão em lote).
+     *
+     * param userIds IDs dos usuários (máx. 999 - limite do SQLite)
+     */
+    @Query("SELECT r.* FROM notes n JOIN note_revisions r ON r.noteId = n.id "
+            + "WHERE n.userId IN (:userIds)")
+    List<NoteRevision> loadRevisionsByUsers(List<Integer> userIds);
+}
@@ -0,0 +1,278 @@
+package com.example.escolario.data;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+
+import com.example.escolario.model.CalendarMonth;
+import com.example.escolario.model.Note;
+import com.example.escolario.model.NoteDraft;
+import com.example.escolario.model.NoteSearchResult;
+import com.example.escolario.model.NoteVersion;
+import com.example.escolario.model.SubjectCount;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Repositório de notas: ponto único de acesso ao NoteDao para as telas.
+ * <p>
+ * Segue as mesmas regras de UserRepository: LiveData para consultas
+ * observáveis (guardadas pelos ViewModels) e métodos síncronos para
+ * escrita, chamados fora da thread principal.
+ */
+public class NoteRepository {
+    private static final String TAG = "NoteRepository";
+
+    private static volatile NoteRepository INSTANCE;
+
+    private final Context context;
+
+    private NoteRepository(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * Obtém a instância única do repositório.
+     * param context Qualquer contexto (o da aplicação é utilizado)
+     */
+    public static NoteRepository getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (NoteRepository.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new NoteRepository(context);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private AppDatabase db() {
+        return AppDatabase.getDatabase(context);
+    }
+
+    /**
+     * return LiveData com as notas do usuário, atualizado por deltas (uma
+     *        escrita em outra nota não reexecuta a consulta)
+     */
+    public LiveData<List<Note>> getNotesByUser(int userId) {
+        return AppDatabase.whenOpen(context, db -> {
+            NoteDao dao = db.noteDao();
+            return new DeltaListLiveData<>(db.changeFeed(), "notes",
+                    () -> dao.loadNotesByUser(userId),
+                    ids -> dao.loadNotesByUserAndIds(userId, ids),
+                    note -> note.id, (a, b) -> Integer.compare(a.id, b.id));
+        });
+    }
+
+    /**
+     * return LiveData com o total de notas (contador agregado)
+     */
+    public LiveData<Integer> countNotes() {
+        return AppDatabase.whenOpen(context, db -> db.noteDao().countNotes());
+    }
+
+    /**
+     * return LiveData com a quantidade de notas por matéria
+     */
+    public LiveData<List<SubjectCount>> getNoteCountsBySubject() {
+        return AppDatabase.whenOpen(context, db -> db.noteDao().getNoteCountsBySubject());
+    }
+
+    /**
+     * Conta as notas em um intervalo de datas (yyyy-MM-dd, inclusivo).
+     */
+    public LiveData<Integer> countNotesBetween(String startDay, String endDay) {
+        return AppDatabase.whenOpen(context, db -> db.noteDao().countNotesBetween(startDay, endDay));
+    }
+
+    /**
+     * Insere uma nota (síncrono).
+     */
+    public void insert(Note note) {
+        db().noteDao().insert(note);
+    }
+
+    /**
+     * Insere uma nota a partir dos textos do formulário (síncrono).
+     * Matéria e tipo são convertidos em IDs pelo dicionário, que cadastra
+     * nomes novos. O rascunho do usuário é promovido: a nota e a remoção
+     * do rascunho ocorrem na mesma transação.
+     */
+    public void insert(int userId, String subject, String type, String content, String date) {
+        AppDatabase db = db();
+        NoteDictionary dictionary = db.dictionary();
+        // IDs resolvidos antes da transação: o cache do dicionário não pode
+        // guardar um ID de matéria desfeito por rollback
+        Note note = new Note(userId, dictionary.subjectId(subject), dictionary.typeId(type), content, date);
+        db.runInTransaction(() -> {
+            db.noteDao().insert(note);
+            db.noteDraftDao().delete(userId);
+        });
+        db.warmUsers().putDraft(userId, null);
+    }
+
+    /**
+     * Edita uma nota a partir dos textos do formulário, registrando a
+     * versão anterior no histórico (síncrono).
+     *
+     * param editorId ID do usuário que edita
+     * return false se nada mudou
+     * throws IllegalArgumentException Se a nota não existir
+     */
+    public boolean editNote(int noteId, int editorId, String subject, String type,
+                            String content, String date) {
+        AppDatabase db = db();
+        NoteDictionary dictionary = db.dictionary();
+        // IDs resolvidos antes da transação, como em insert
+        int subjectId = dictionary.subjectId(subject);
+        int typeId = dictionary.typeId(type);
+        return db.noteHistory().edit(noteId, editorId, subjectId, typeId, content, date);
+    }
+
+    /**
+     * return Versões da nota, da mais recente à original, com nomes de
+     *         matéria e tipo (vazio se nunca foi editada; síncrono)
+     */
+    public List<NoteVersion> loadHistory(int noteId) {
+        AppDatabase db = db();
+        NoteDictionary dictionary = db.dictionary();
+        List<NoteVersion> versions = db.noteHistory().history(noteId);
+        for (NoteVersion version : versions) {
+            version.subject = dictionary.subjectName(version.subjectId);
+            version.type = dictionary.typeName(version.typeId);
+        }
+        return versions;
+    }
+
+    /**
+     * return Rascunho salvo do usuário, ou null (síncrono). Lido do cache
+     *        de usuários recentes quando o aluno acabou de usar o aparelho.
+     */
+    public NoteDraft loadDraft(int userId) {
+        return db().warmUsers().draft(userId);
+    }
+
+    /**
+     * Grava o rascunho do usuário; um rascunho vazio é removido (síncrono).
+     */
+    public void saveDraft(NoteDraft draft) {
+        AppDatabase db = db();
+        NoteDraftDao dao = db.noteDraftDao();
+        if (draft.isEmpty()) {
+            dao.delete(draft.userId);
+            db.warmUsers().putDraft(draft.userId, null);
+        } else {
+            draft.updatedAt = System.currentTimeMillis();
+            dao.save(draft);
+            db.warmUsers().putDraft(draft.userId, draft);
+        }
+    }
+
+    /**
+     * return Matérias já cadastradas, em ordem alfabética (síncrono)
+     */
+    public List<String> getSubjectNames() {
+        return db().dictionary().subjectNames();
+    }
+
+    /**
+     * return Tipos de atividade, na ordem do formulário (síncrono)
+     */
+    public List<String> getTypeNames() {
+        return db().dictionary().typeNames();
+    }
+
+    /**
+     * Notas do aluno no mês, por dia (síncrono). Lê o resumo note_days ou
+     * o mês já em memória.
+     * param month Mês, de 1 a 12
+     */
+    public CalendarMonth loadCalendarMonth(int userId, int year, int month) {
+        return db().calendar().month(userId, year, month);
+    }
+
+    /**
+     * Lê antecipadamente os meses vizinhos ao exibido (síncrono).
+     */
+    public void prefetchCalendarMonths(int userId, int year, int month) {
+        db().calendar().prefetch(userId, year, month);
+    }
+
+    /**
+     * Registra um ouvinte chamado quando os meses do calendário deixam de
+     * valer (notas alteradas). Chamado na thread do ChangeFeed. Abre o
+     * banco se preciso: registrar fora da thread principal.
+     */
+    public void addCalendarListener(Runnable listener) {
+        db().calendar().addListener(listener);
+    }
+
+    public void removeCalendarListener(Runnable listener) {
+        db().calendar().removeListener(listener);
+    }
+
+    /**
+     * Notas do aluno em um dia do calendário, em ordem de cadastro (síncrono).
+     * param epochDay Dia em dias desde 01/01/1970
+     */
+    public List<NoteSearchResult> loadNotesOnDay(int userId, int epochDay) {
+        AppDatabase db = db();
+        NoteDictionary dictionary = db.dictionary();
+        List<NoteSearchResult> notes = db.noteDao().loadNotesOnDay(userId, epochDay);
+        for (NoteSearchResult note : notes) {
+            note.subject = dictionary.subjectName(note.subjectId);
+            note.type = dictionary.typeName(note.typeId);
+        }
+        return notes;
+    }
+
+    /**
+     * Busca textual nas notas do usuário, ordenada por relevância (síncrono).
+     *
+     * param userId ID do usuário
+     * param text Texto digitado
+     * param type Tipo de atividade, ou null para todos
+     * param fromDay Primeiro dia (epoch day, inclusivo), ou null
+     * param toDay Último dia (epoch day, inclusivo), ou null
+     * param limit Quantidade máxima de resultados
+     * return Resultados mais relevantes primeiro (vazio se não houver termos)
+     */
+    public List<NoteSearchResult> searchNotes(int userId, String text, String type,
+                                              Integer fromDay, Integer toDay, int limit) {
+        String match = NoteSearch.buildMatchQuery(text);
+        if (match == null) {
+            return Collections.emptyList();
+        }
+        AppDatabase db = db();
+        NoteDictionary dictionary = db.dictionary();
+        Integer typeId = null;
+        if (type != null) {
+            typeId = dictionary.findTypeId(type);
+            if (typeId == null) {
+                return Collections.emptyList(); // Nenhuma nota com esse tipo
+            }
+        }
+
+        long start = SystemClock.elapsedRealtimeNanos();
+        List<NoteSearchResult> results = new ArrayList<>(db.noteDao().searchNotes(
+                NoteSearch.searchQuery(userId, match, typeId, fromDay, toDay)));
+        for (NoteSearchResult result : results) {
+            result.score = NoteSearch.bm25(result.matchinfo, NoteSearch.COLUMN_WEIGHTS);
+            result.matchinfo = null; // Não é mais necessário
+            result.subject = dictionary.subjectName(result.subjectId);
+            result.type = dictionary.typeName(result.typeId);
+        }
+        Collections.sort(results, (a, b) -> Double.compare(b.score, a.score));
+        if (results.size() > limit) {
+            results = new ArrayList<>(results.subList(0, limit));
+        }
+
+        Log.d(TAG, "Busca '" + match + "': " + results.size() + " resultados em "
+                + (SystemClock.elapsedRealtimeNanos() - start) / 1_000 + " µs");
+        return results;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.escolario.data;
+
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteQuery;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Funções auxiliares da busca textual nas notas.
+ * <p>
+ * O FTS4 do Android não oferece ranking embutido (bm25 só existe no FTS5),
+ * então a consulta devolve as estatísticas matchinfo('pcnalx') de cada
+ * resultado e a relevância BM25 é calculada aqui, apenas sobre as notas
+ * do aluno que casaram com a busca.
+ */
+public final class NoteSearch {
+
+    // Parâmetros padrão do BM25
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Peso de cada coluna do índice: matéria vale mais que o conteúdo
+    static final double[] COLUMN_WEIGHTS = {2.0, 1.0};
+
+    private NoteSearch() {
+        // Classe utilitária - não instanciável
+    }
+
+    /**
+     * Monta a consulta da busca textual (NoteDao.searchNotes).
+     * <p>
+     * O MATCH restrito ao languageid do aluno (notes_fts.userId - ver
+     * NoteFtsSchema) lê apenas o índice das notas dele: o custo depende das
+     * notas do aluno, não das da escola. Só as notas que casaram são unidas
+     * a notes (CROSS JOIN: o índice de texto é o laço externo) e filtradas
+     * por tipo e período (epochDay). Os nomes de matéria e tipo são
+     * resolvidos depois, por NoteDictionary, e a ordenação por relevância é
+     * feita a partir do matchinfo.
+     *
+     * param userId ID do usuário dono das notas
+     * param match Expressão MATCH (ver buildMatchQuery)
+     * param typeId ID do tipo de atividade, ou null para todos
+     * param fromDay Primeiro dia (epoch day, inclusivo), ou null
+     * param toDay Último dia (epoch day, inclusivo), ou null
+     */
+    public static SupportSQLiteQuery searchQuery(int userId, String match, Integer typeId,
+                                                 Integer fromDay, Integer toDay) {
+        StringBuilder sql = new StringBuilder("SELECT n.id, n.subjectId, n.typeId, n.date, "
+                + "snippet(notes_fts, char(2), char(3), '…', -1, 12) AS snippet, "
+                + "matchinfo(notes_fts, 'pcnalx') AS matchinfo "
+                + "FROM notes_fts CROSS JOIN notes n ON n.id = notes_fts.docid "
+                + "WHERE notes_fts MATCH ? AND notes_fts.userId = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(match);
+        args.add(userId);
+
+        if (typeId != null) {
+            sql.append(" AND n.typeId = ?");
+            args.add(typeId);
+        }
+        if (fromDay != null) {
+            sql.append(" AND n.epochDay >= ?");
+            args.add(fromDay);
+        }
+        if (toDay != null) {
+            sql.append(" AND n.epochDay <= ?");
+            args.add(toDay);
+        }
+        return new SimpleSQLiteQuery(sql.toString(), args.toArray());
+    }
+
+    /**
+     * Converte o texto digitado em uma expressão MATCH do FTS4.
+     * <p>
+     * Cada palavra vira um termo de prefixo ("mat" -> mat*), combinados
+     * com AND implícito. Operadores e aspas do usuário são descartados,
+     * evitando erros de sintaxe no MATCH.
+     *
+     * param text Texto digitado
+     * return Expressão MATCH, ou null se não houver termos pesquisáveis
+     */
+    public static String buildMatchQuery(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        // Remove acentos (o índice também os remove) e separa as palavras
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+
+        StringBuilder query = new StringBuilder();
+        for (String token : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (token.isEmpty()) continue;
+            if (query.length() > 0) query.append(' ');
+            query.append(token).append('*');
+        }
+        return query.length() > 0 ? query.toString() : null;
+    }
+
+    /**
+     * Calcula a relevância BM25 de um resultado a partir do matchinfo 'pcnalx'.
+     * <p>
+     * Layout (inteiros de 32 bits, ordem nativa):
+     * p, c, n, a[c], l[c], x[3 * p * c] onde, para cada frase/coluna,
+     * x = (ocorrências nesta linha, ocorrências em todas, linhas com ocorrência).
+     *
+     * param matchinfo Blob retornado por matchinfo(notes_fts, 'pcnalx')
+     * param weights Peso de cada coluna
+     * return Relevância (maior é mais relevante); 0 se o blob for inválido
+     */
+    public static double bm25(byte[] matchinfo, double[] weights) {
+        if (matchinfo == null || matchinfo.length < 12) {
+            return 0;
+        }
+        IntBuffer info = ByteBuffer.wrap(matchinfo).order(ByteOrder.nativeOrder()).asIntBuffer();
+
+        int phrases = info.get(0);
+        int columns = info.get(1);
+        long rows = info.get(2) & 0xFFFFFFFFL;
+        int avgOffset = 3;
+        int lenOffset = avgOffset + columns;
+        int hitsOffset = lenOffset + columns;
+        if (info.limit() < hitsOffset + 3 * phrases * columns) {
+            return 0;
+        }
+
+        double score = 0;
+        for (int p = 0; p < phrases; p++) {
+            for (int c = 0; c < columns; c++) {
+                int base = hitsOffset + 3 * (p * columns + c);
+                int hitsInRow = info.get(base);
+                int docsWithHit = info.get(base + 2);
+                if (hitsInRow == 0) continue;
+
+                // IDF com piso positivo (termos muito comuns ainda contam um pouco)
+                double idf = Math.log((rows - docsWithHit + 0.5) / (docsWithHit + 0.5));
+                idf = Math.max(idf, 1e-6);
+
+                double avgLength = Math.max(1, info.get(avgOffset + c));
+                double length = info.get(lenOffset + c);
+                double tf = hitsInRow * (K1 + 1)
+                        / (hitsInRow + K1 * (1 - B + B * length / avgLength));
+
+                double weight = c < weights.length ? weights[c] : 1.0;
+                score += weight * idf * tf;
+            }
+        }
+        return score;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.escolario.data;
+
+import com.example.escolario.model.UserNoteStats;
+import com.example.escolario.model.UserTypeCount;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Estatísticas de notas por aluno da lista de administração (uma por banco).
+ * <p>
+ * A lista não consulta as notas de cada aluno exibido (N+1 consultas):
+ * a tela pede as estatísticas por página de alunos (ver UserAdapter), e cada
+ * página é lida com uma única consulta agregada
+ * (NoteDao.loadUserTypeCounts). O custo de uma página depende apenas das
+ * notas dos seus alunos, não do tamanho da turma; alunos já lidos ficam
+ * em memória e não são consultados de novo.
+ * <p>
+ * Qualquer alteração em notes (recebida pelo ChangeFeed) descarta o cache
+ * e avisa os ouvintes, que voltam a pedir apenas as páginas visíveis.
+ * <p>
+ * load acessa o banco: chamar fora da thread principal.
+ */
+public class NoteStatsCache {
+    // Limite de variáveis por consulta do SQLite (999), com folga
+    private static final int CHUNK_SIZE = 500;
+
+    private final AppDatabase db;
+
+    // Estatísticas já lidas, por aluno
+    private final Map<Integer, UserNoteStats> stats = new HashMap<>();
+
+    // Avisados (na thread do feed) quando o cache é descartado
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    // Incrementado a cada descarte; uma leitura iniciada antes dele não é guardada
+    private long version;
+
+    // Consultas agregadas executadas (métrica de custo por página)
+    private long queries;
+
+    NoteStatsCache(AppDatabase db) {
+        this.db = db;
+        db.changeFeed().addListener("notes", changes -> invalidate());
+    }
+
+    /**
+     * Estatísticas dos alunos, lendo os que faltam em uma consulta.
+     * param userIds Alunos de uma página da lista
+     * return Estatísticas por ID (alunos inexistentes ficam de fora)
+     */
+    public Map<Integer, UserNoteStats> load(List<Integer> userIds) {
+        Map<Integer, UserNoteStats> result = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        long readVersion;
+        synchronized (this) {
+            for (Integer id : userIds) {
+                UserNoteStats cached = stats.get(id);
+                if (cached != null) {
+                    result.put(id, cached);
+                } else {
+                    missing.add(id);
+                }
+            }
+            readVersion = version;
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        List<UserTypeCount> rows = new ArrayList<>();
+        for (int from = 0; from < missing.size(); from += CHUNK_SIZE) {
+            rows.addAll(db.noteDao().loadUserTypeCounts(
+                    missing.subList(from, Math.min(from + CHUNK_SIZE, missing.size()))));
+        }
+        Map<Integer, UserNoteStats> loaded = aggregate(rows, db.dictionary());
+        result.putAll(loaded);
+
+        synchronized (this) {
+            queries += (missing.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            if (readVersion == version) {
+                stats.putAll(loaded);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Registra um ouvinte do descarte do cache (notas alteradas).
+     */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * return Consultas agregadas executadas desde a criação
+     */
+    public synchronized long queries() {
+        return queries;
+    }
+
+    // Na thread do feed: descarta tudo (os IDs de notas removidas não
+    // indicam o aluno) e avisa os ouvintes
+    private void invalidate() {
+        synchronized (this) {
+            version++;
+            stats.clear();
+        }
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    // Junta as linhas por aluno e tipo nas estatísticas de cada aluno
+    private static Map<Integer, UserNoteStats> aggregate(List<UserTypeCount> rows, NoteDictionary dictionary) {
+        Map<Integer, List<UserTypeCount>> byUser = new LinkedHashMap<>();
+        for (UserTypeCount row : rows) {
+            List<UserTypeCount> userRows = byUser.get(row.userId);
+            if (userRows == null) {
+                userRows = new ArrayList<>();
+                byUser.put(row.userId, userRows);
+            }
+            if (row.count > 0) {
+                userRows.add(row);
+            }
+        }
+
+        Map<Integer, UserNoteStats> result = new HashMap<>();
+        for (Map.Entry<Integer, List<UserTypeCount>> entry : byUser.entrySet()) {
+            List<UserTypeCount> userRows = entry.getValue();
+            Collections.sort(userRows, (a, b) -> Integer.compare(b.count, a.count));
+            Map<String, Integer> countsByType = new LinkedHashMap<>();
+            int total = 0;
+            int lastDay = 0;
+            for (UserTypeCount row : userRows) {
+                countsByType.put(dictionary.typeName(row.typeId), row.count);
+                total += row.count;
+                lastDay = Math.max(lastDay, row.lastDay);
+            }
+            result.put(entry.getKey(), new UserNoteStats(entry.getKey(), total, lastDay,
+                    Collections.unmodifiableMap(countsByType)));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.escolario.data;
+
+import com.example.escolario.model.UpcomingNote;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Agrupamento das atividades próximas em poucos despertares.
+ * <p>
+ * O lembrete de uma atividade do dia D é dado às REMINDER_HOUR horas do
+ * dia anterior (LEAD_DAYS). Todas as atividades do mesmo dia, de todos os
+ * alunos, compartilham esse horário e formam um único lote: o número de
+ * despertares depende de quantos dias têm atividades, não de quantas
+ * notas existem. Lotes cujo horário já passou (atividade cadastrada
+ * depois das 18h para o dia seguinte, aparelho desligado) são unidos em
+ * um lote imediato.
+ */
+final class ReminderPlan {
+    // Antecedência do lembrete, em dias
+    static final int LEAD_DAYS = 1;
+
+    // Hora local do lembrete
+    static final int REMINDER_HOUR = 18;
+
+    private static final long DAY_MS = 86_400_000L;
+
+    private ReminderPlan() {
+        // Classe utilitária - não instanciável
+    }
+
+    /**
+     * Atividades lembradas em um mesmo despertar.
+     */
+    static final class Batch {
+        final long fireAtMs;
+        final List<UpcomingNote> notes = new ArrayList<>();
+
+        Batch(long fireAtMs) {
+            this.fireAtMs = fireAtMs;
+        }
+
+        /**
+         * return Último dia de atividade do lote
+         */
+        int lastDay() {
+            return notes.get(notes.size() - 1).epochDay;
+        }
+    }
+
+    /**
+     * Agrupa as atividades em lotes, em ordem de horário.
+     *
+     * param notes Atividades em ordem de data (NoteDao.loadUpcoming)
+     * param afterDay Dias até este (inclusive) já foram lembrados
+     * param nowMs Instante atual
+     * param zone Fuso do aparelho
+     */
+    static List<Batch> plan(List<UpcomingNote> notes, int afterDay, long nowMs, TimeZone zone) {
+        List<Batch> batches = new ArrayList<>();
+        Batch current = null;
+        int currentDay = Integer.MIN_VALUE;
+        long currentFire = 0;
+        for (UpcomingNote note : notes) {
+            if (note.epochDay <= afterDay) {
+                continue;
+            }
+            if (note.epochDay != currentDay) {
+                currentDay = note.epochDay;
+                currentFire = fireAt(currentDay, nowMs, zone);
+            }
+            if (current == null || current.fireAtMs != currentFire) {
+                current = new Batch(currentFire);
+                batches.add(current);
+            }
+            current.notes.add(note);
+        }
+        return Collections.unmodifiableList(batches);
+    }
+
+    /**
+     * return Horário do lembrete das atividades do dia, ou nowMs se já passou
+     */
+    static long fireAt(int epochDay, long nowMs, TimeZone zone) {
+        return Math.max(nowMs, reminderTime(epochDay, zone));
+    }
+
+    /**
+     * return Instante das REMINDER_HOUR horas locais de LEAD_DAYS dias antes
+     */
+    static long reminderTime(int epochDay, TimeZone zone) {
+        // Ano, mês e dia do epoch day (em UTC, sem deslocamento)
+        Calendar utc = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        utc.setTimeInMillis((epochDay - LEAD_DAYS) * DAY_MS);
+
+        Calendar local = new GregorianCalendar(zone);
+        local.clear();
+        local.set(utc.get(Calendar.YEAR), utc.get(Calendar.MONTH), utc.get(Calendar.DAY_OF_MONTH),
+                REMINDER_HOUR, 0, 0);
+        return local.getTimeInMillis();
+    }
+
+    /**
+     * return Dia local (epoch day) do instante
+     */
+    static int today(long nowMs, TimeZone zone) {
+        return (int) Math.floorDiv(nowMs + zone.getOffset(nowMs), DAY_MS);
+    }
+}
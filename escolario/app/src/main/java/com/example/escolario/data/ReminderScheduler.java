@@ -0,0 +1,449 @@
+package com.example.escolario.data;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.escolario.model.Reminder;
+import com.example.escolario.model.UpcomingNote;
+import com.example.escolario.model.User;
+import com.example.escolario.utils.ReminderNotifier;
+import com.example.escolario.utils.ReminderReceiver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Lembretes das provas e trabalhos próximos, com poucos despertares.
+ * <p>
+ * Em vez de um alarme por nota, uma varredura lê com uma única consulta
+ * (NoteDao.loadUpcoming, pelo índice em epochDay) as atividades dos
+ * próximos HORIZON_DAYS dias, agrupa-as por horário de lembrete
+ * (ReminderPlan) e agenda apenas o alarme do primeiro lote. Ao disparar,
+ * o lote é notificado e a próxima varredura agenda o seguinte: há no
+ * máximo um despertar por dia com atividades, qualquer que seja o número
+ * de notas. Sem atividades na janela, o alarme apenas repete a varredura
+ * quando a janela avançar.
+ * <p>
+ * Alterações de notas chegam pelo ChangeFeed e são tratadas de forma
+ * incremental: só as linhas alteradas são relidas, e uma nova varredura
+ * acontece apenas se o alarme agendado precisar mudar (atividade mais
+ * próxima que o lote atual, ou nota do lote removida ou movida).
+ * <p>
+ * Os dias já lembrados ficam nas preferências, por escola: um lembrete
+ * não se repete após reiniciar o aparelho ou o processo. Atividades
+ * cadastradas para um dia já lembrado não geram novo lembrete.
+ */
+public final class ReminderScheduler {
+    private static final String TAG = "ReminderScheduler";
+
+    /**
+     * Ação do alarme de lembrete (ver ReminderReceiver).
+     */
+    public static final String ACTION_REMIND = "com.example.escolario.action.REMIND";
+
+    // Tipos de atividade que geram lembrete
+    static final String[] REMINDER_TYPES = {"Prova", "Trabalho"};
+
+    // Dias à frente lidos por varredura
+    static final int HORIZON_DAYS = 14;
+
+    // Tolerância do alarme: o sistema pode juntá-lo a outros despertares
+    static final long WINDOW_MS = 10 * 60_000;
+
+    // Limite de variáveis por consulta do SQLite (999), com folga
+    private static final int CHUNK_SIZE = 500;
+
+    private static final String PREF_NAME = "ESCOLARIO_REMINDERS";
+    private static final String KEY_LAST_DAY = "last_day_"; // + escola
+    private static final String KEY_WAKE_UPS = "wake_ups";
+    private static final String KEY_SINCE = "since";
+
+    private static volatile ReminderScheduler INSTANCE;
+
+    /**
+     * Banco da escola atual, seguro durante uma varredura.
+     */
+    interface Target {
+        AppDatabase database();
+
+        // Fim da varredura: a restauração de backup pode fechar o banco
+        default void release() {
+        }
+    }
+
+    /**
+     * Exibe os lembretes de um lote (chamado na thread do agendador).
+     */
+    public interface Notifier {
+        /**
+         * param reminders Atividades do lote, em ordem de data
+         * param today Dia atual (epoch day), para "hoje"/"amanhã"
+         */
+        void show(List<Reminder> reminders, int today);
+    }
+
+    /**
+     * Contadores do agendador. Despertares são persistidos (contam entre
+     * execuções do processo); os demais valem desde o início do processo.
+     */
+    public static final class Metrics {
+        public final long wakeUps;
+        public final double wakeUpsPerDay;
+        public final long scans;
+        public final long incrementalUpdates;
+        public final long lastScanMicros;
+        public final long lastUpdateMicros;
+        public final int scheduledNotes;
+        public final long nextFireAtMs;
+
+        Metrics(long wakeUps, double wakeUpsPerDay, long scans, long incrementalUpdates,
+                long lastScanMicros, long lastUpdateMicros, int scheduledNotes, long nextFireAtMs) {
+            this.wakeUps = wakeUps;
+            this.wakeUpsPerDay = wakeUpsPerDay;
+            this.scans = scans;
+            this.incrementalUpdates = incrementalUpdates;
+            this.lastScanMicros = lastScanMicros;
+            this.lastUpdateMicros = lastUpdateMicros;
+            this.scheduledNotes = scheduledNotes;
+            this.nextFireAtMs = nextFireAtMs;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "despertares=%d (%.2f/dia) varreduras=%d incrementais=%d última varredura=%d µs "
+                            + "último incremento=%d µs notas no lote=%d",
+                    wakeUps, wakeUpsPerDay, scans, incrementalUpdates, lastScanMicros,
+                    lastUpdateMicros, scheduledNotes);
+        }
+    }
+
+    private final Context context;
+    private final Target target;
+    private final Notifier notifier;
+    private final SharedPreferences pref;
+    private final TimeZone zone;
+
+    // Varreduras, alarmes e alterações em sequência, fora da thread principal
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reminders");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Estado do agendamento (sob o bloqueio da instância)
+    private AppDatabase attached;
+    private ChangeFeed.Listener listener;
+    private Set<Integer> typeIds = Collections.emptySet();
+    private int horizonEnd;
+    private long scheduledFireAt = -1; // -1 = nenhum alarme
+    private final Set<Integer> scheduledIds = new HashSet<>();
+
+    // Métricas
+    private long scans;
+    private long incrementalUpdates;
+    private long lastScanMicros;
+    private long lastUpdateMicros;
+
+    ReminderScheduler(Context context, Target target, Notifier notifier, TimeZone zone) {
+        this.context = context.getApplicationContext();
+        this.target = target;
+        this.notifier = notifier;
+        this.zone = zone;
+        this.pref = this.context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        if (!pref.contains(KEY_SINCE)) {
+            pref.edit().putLong(KEY_SINCE, System.currentTimeMillis()).apply();
+        }
+    }
+
+    /**
+     * Obtém a instância única.
+     * param context Qualquer contexto (o da aplicação é utilizado)
+     */
+    public static ReminderScheduler getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (ReminderScheduler.class) {
+                if (INSTANCE == null) {
+                    Context app = context.getApplicationContext();
+                    ReminderNotifier notifier = new ReminderNotifier(app);
+                    INSTANCE = new ReminderScheduler(app, new Target() {
+                        // Escola reservada pela varredura em curso (sob o bloqueio de scan)
+                        private String held;
+
+                        @Override
+                        public AppDatabase database() {
+                            String tenant = AppDatabase.currentTenant(app);
+                            AppDatabase db = AppDatabase.acquireDatabase(app, tenant);
+                            held = tenant;
+                            return db;
+                        }
+
+                        @Override
+                        public void release() {
+                            if (held != null) {
+                                AppDatabase.releaseDatabase(app, held);
+                                held = null;
+                            }
+                        }
+                    }, notifier::show, TimeZone.getDefault());
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Liga o agendador ao banco da escola atual e refaz o agendamento
+     * (abertura do aplicativo, troca de escola, reinício do aparelho).
+     */
+    public void start() {
+        start(() -> { });
+    }
+
+    /**
+     * Como start, avisando ao terminar a varredura.
+     * param done Chamado ao terminar (libera o BroadcastReceiver)
+     */
+    public void start(Runnable done) {
+        executor.execute(() -> {
+            try {
+                scan(false);
+            } finally {
+                done.run();
+            }
+        });
+    }
+
+    /**
+     * Trata o disparo do alarme: notifica o lote vencido e agenda o próximo.
+     * param done Chamado ao terminar (libera o BroadcastReceiver)
+     */
+    public void onAlarm(Runnable done) {
+        executor.execute(() -> {
+            try {
+                scan(true);
+            } finally {
+                done.run();
+            }
+        });
+    }
+
+    /**
+     * return Contadores atuais (despertares, varreduras, custo)
+     */
+    public synchronized Metrics metrics() {
+        long wakeUps = pref.getLong(KEY_WAKE_UPS, 0);
+        long since = pref.getLong(KEY_SINCE, System.currentTimeMillis());
+        double days = Math.max(1.0, (System.currentTimeMillis() - since) / 86_400_000.0);
+        return new Metrics(wakeUps, wakeUps / days, scans, incrementalUpdates,
+                lastScanMicros, lastUpdateMicros, scheduledIds.size(), scheduledFireAt);
+    }
+
+    /**
+     * Varredura completa: uma consulta pela janela de datas, notificação
+     * dos lotes vencidos e agendamento do próximo alarme (na thread do
+     * agendador; chamada diretamente pelos testes). Sincronizada com
+     * onNotesChanged, para que os testes não concorram com o ouvinte.
+     * param alarm true se disparada pelo alarme (conta um despertar)
+     */
+    synchronized void scan(boolean alarm) {
+        long start = System.nanoTime();
+        try {
+            AppDatabase db = target.database();
+            attach(db);
+            if (alarm) {
+                pref.edit().putLong(KEY_WAKE_UPS, pref.getLong(KEY_WAKE_UPS, 0) + 1).apply();
+            }
+
+            long now = System.currentTimeMillis();
+            int today = ReminderPlan.today(now, zone);
+            int lastDay = lastDay(today);
+            horizonEnd = today + HORIZON_DAYS;
+            List<UpcomingNote> upcoming = typeIds.isEmpty() ? Collections.emptyList()
+                    : db.noteDao().loadUpcoming(lastDay + 1, horizonEnd, new ArrayList<>(typeIds));
+            List<ReminderPlan.Batch> batches = ReminderPlan.plan(upcoming, lastDay, now, zone);
+
+            // Lotes vencidos (ou dentro da tolerância do alarme) são notificados juntos
+            List<UpcomingNote> due = new ArrayList<>();
+            ReminderPlan.Batch next = null;
+            for (ReminderPlan.Batch batch : batches) {
+                if (batch.fireAtMs <= now + WINDOW_MS) {
+                    due.addAll(batch.notes);
+                    lastDay = batch.lastDay();
+                } else {
+                    next = batch;
+                    break;
+                }
+            }
+            if (!due.isEmpty()) {
+                notifier.show(resolve(db, due), today);
+                pref.edit().putInt(lastDayKey(), lastDay).apply();
+            }
+
+            scheduledIds.clear();
+            if (next != null) {
+                for (UpcomingNote note : next.notes) {
+                    scheduledIds.add(note.id);
+                }
+                schedule(next.fireAtMs);
+            } else {
+                // Nada na janela: repete a varredura quando ela avançar
+                schedule(ReminderPlan.reminderTime(horizonEnd + 1, zone));
+            }
+
+            long micros = (System.nanoTime() - start) / 1_000;
+            scans++;
+            lastScanMicros = micros;
+            Log.d(TAG, "varredura: " + upcoming.size() + " atividades em " + batches.size()
+                    + " lotes, " + due.size() + " notificadas, " + micros + " µs");
+        } catch (RuntimeException e) {
+            // Banco fechado durante a varredura (troca de escola)
+            Log.w(TAG, "Falha ao agendar lembretes", e);
+        } finally {
+            target.release();
+        }
+    }
+
+    /**
+     * Aplica as alterações de notas ao agendamento (na thread do agendador;
+     * chamada diretamente pelos testes). Uma varredura só é feita quando o
+     * alarme agendado precisa mudar.
+     */
+    synchronized void onNotesChanged(AppDatabase db, ChangeFeed.ChangeSet changes) {
+        if (db != attached) {
+            return; // Alteração de outra escola
+        }
+        long start = System.nanoTime();
+        for (Long id : changes.deleted) {
+            if (scheduledIds.contains(id.intValue())) {
+                scan(false);
+                return;
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(changes.upserted());
+        long now = System.currentTimeMillis();
+        int lastDay = lastDay(ReminderPlan.today(now, zone));
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<UpcomingNote> notes = db.noteDao().loadUpcomingByIds(
+                    ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())));
+            for (UpcomingNote note : notes) {
+                boolean relevant = typeIds.contains(note.typeId)
+                        && note.epochDay > lastDay && note.epochDay <= horizonEnd;
+                long fireAt = relevant ? ReminderPlan.fireAt(note.epochDay, now, zone) : -1;
+                if (scheduledIds.contains(note.id) && fireAt != scheduledFireAt) {
+                    // Saiu do lote agendado (data ou tipo alterados)
+                    scan(false);
+                    return;
+                }
+                if (relevant && (scheduledFireAt < 0 || fireAt < scheduledFireAt)) {
+                    // Mais próxima que o alarme atual
+                    scan(false);
+                    return;
+                }
+                if (relevant && fireAt == scheduledFireAt) {
+                    scheduledIds.add(note.id); // Mesmo lote: o alarme não muda
+                }
+                // Lotes posteriores são lidos na varredura após o alarme
+            }
+        }
+
+        long micros = (System.nanoTime() - start) / 1_000;
+        incrementalUpdates++;
+        lastUpdateMicros = micros;
+    }
+
+    // Registra o ouvinte de notas no banco atual e lê os tipos com lembrete
+    private void attach(AppDatabase db) {
+        if (db == attached) {
+            return;
+        }
+        if (attached != null && attached.isOpen()) {
+            attached.changeFeed().removeListener("notes", listener);
+        }
+        listener = changes -> executor.execute(() -> {
+            try {
+                onNotesChanged(db, changes);
+            } catch (RuntimeException e) {
+                Log.w(TAG, "Falha ao aplicar alterações aos lembretes", e);
+            }
+        });
+        db.changeFeed().addListener("notes", listener);
+        attached = db;
+
+        Set<Integer> ids = new HashSet<>();
+        for (String type : REMINDER_TYPES) {
+            Integer id = db.dictionary().findTypeId(type);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        typeIds = ids;
+    }
+
+    // Converte as notas do lote em lembretes com os nomes de aluno, matéria e tipo
+    private List<Reminder> resolve(AppDatabase db, List<UpcomingNote> notes) {
+        List<Integer> userIds = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+        for (UpcomingNote note : notes) {
+            if (seen.add(note.userId)) {
+                userIds.add(note.userId);
+            }
+        }
+        Map<Integer, String> students = new HashMap<>();
+        for (int from = 0; from < userIds.size(); from += CHUNK_SIZE) {
+            for (User user : db.userDao().getUsersByIds(
+                    userIds.subList(from, Math.min(from + CHUNK_SIZE, userIds.size())))) {
+                students.put(user.id, user.name);
+            }
+        }
+
+        NoteDictionary dictionary = db.dictionary();
+        List<Reminder> reminders = new ArrayList<>(notes.size());
+        for (UpcomingNote note : notes) {
+            String student = students.get(note.userId);
+            if (student != null) {
+                reminders.add(new Reminder(note.id, student, dictionary.subjectName(note.subjectId),
+                        dictionary.typeName(note.typeId), note.epochDay));
+            }
+        }
+        return reminders;
+    }
+
+    // Substitui o alarme pendente (um único alarme por vez)
+    private void schedule(long fireAtMs) {
+        scheduledFireAt = fireAtMs;
+        AlarmManager alarms = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        Intent intent = new Intent(context, ReminderReceiver.class).setAction(ACTION_REMIND);
+        PendingIntent pending = PendingIntent.getBroadcast(context, 0, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+        // Janela em vez de horário exato: dispensa a permissão de alarmes
+        // exatos e permite ao sistema juntar despertares
+        alarms.setWindow(AlarmManager.RTC_WAKEUP, fireAtMs, WINDOW_MS, pending);
+    }
+
+    // Último dia já lembrado na escola atual (ontem, na primeira execução)
+    private int lastDay(int today) {
+        return pref.getInt(lastDayKey(), today - 1);
+    }
+
+    private String lastDayKey() {
+        return KEY_LAST_DAY + AppDatabase.currentTenant(context);
+    }
+}
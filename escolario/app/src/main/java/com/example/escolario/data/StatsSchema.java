@@ -0,0 +1,129 @@
+package com.example.escolario.data;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * Triggers que mantêm a tabela stat_counters atualizada.
+ * <p>
+ * Cada escrita em users/notes ajusta apenas os contadores afetados
+ * (+1/-1), de modo que as consultas agregadas dos DAOs leem poucas
+ * linhas já calculadas em vez de varrer as tabelas. As exclusões em
+ * cascata de notes também disparam os triggers.
+ * <p>
+ * Como as datas das notas são armazenadas como dd/MM/yyyy, os triggers
+ * convertem a data para yyyy-MM-dd, permitindo somar intervalos de dias
+ * por comparação de texto. Os contadores por matéria usam o ID da matéria
+ * (em texto) como chave; o nome vem de subjects na consulta.
+ */
+final class StatsSchema {
+
+    private StatsSchema() {
+        // Classe utilitária - não instanciável
+    }
+
+    // DDL idêntica à gerada pelo Room para a entidade StatCounter
+    private static final String CREATE_TABLE =
+            "CREATE TABLE IF NOT EXISTS `stat_counters` (`kind` TEXT NOT NULL, "
+                    + "`key` TEXT NOT NULL, `value` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`kind`, `key`))";
+
+    // Converte dd/MM/yyyy em yyyy-MM-dd (prefixo NEW. ou OLD.)
+    private static String isoDay(String row) {
+        return "substr(" + row + ".date, 7, 4) || '-' || substr(" + row + ".date, 4, 2)"
+                + " || '-' || substr(" + row + ".date, 1, 2)";
+    }
+
+    // Chave dos contadores por matéria (prefixo NEW. ou OLD.)
+    private static String subjectKey(String row) {
+        return "CAST(" + row + ".subjectId AS TEXT)";
+    }
+
+    // Incrementa (ou cria com o valor) o contador kind/key
+    private static String increment(String kind, String keyExpr) {
+        return "INSERT OR IGNORE INTO stat_counters (kind, key, value) VALUES ('" + kind + "', " + keyExpr + ", 0);"
+                + " UPDATE stat_counters SET value = value + 1"
+                + " WHERE kind = '" + kind + "' AND key = " + keyExpr + ";";
+    }
+
+    // Decrementa o contador kind/key, removendo a linha quando zera
+    private static String decrement(String kind, String keyExpr) {
+        return "UPDATE stat_counters SET value = value - 1"
+                + " WHERE kind = '" + kind + "' AND key = " + keyExpr + ";"
+                + " DELETE FROM stat_counters WHERE kind = '" + kind + "' AND key = " + keyExpr
+                + " AND value <= 0 AND kind <> 'total';";
+    }
+
+    private static final String[] TRIGGERS = {
+            // Alunos (usuários não-administradores)
+            "CREATE TRIGGER IF NOT EXISTS stats_users_insert AFTER INSERT ON users"
+                    + " WHEN NEW.isAdmin = 0 BEGIN "
+                    + increment("total", "'students'")
+                    + " END",
+            "CREATE TRIGGER IF NOT EXISTS stats_users_delete AFTER DELETE ON users"
+                    + " WHEN OLD.isAdmin = 0 BEGIN "
+                    + decrement("total", "'students'")
+                    + " END",
+            "CREATE TRIGGER IF NOT EXISTS stats_users_update AFTER UPDATE OF isAdmin ON users"
+                    + " WHEN OLD.isAdmin <> NEW.isAdmin BEGIN "
+                    + "UPDATE stat_counters SET value = value + (CASE WHEN NEW.isAdmin = 0 THEN 1 ELSE -1 END)"
+                    + " WHERE kind = 'total' AND key = 'students';"
+                    + " END",
+
+            // Notas: total, por matéria e por dia
+            "CREATE TRIGGER IF NOT EXISTS stats_notes_insert AFTER INSERT ON notes BEGIN "
+                    + increment("total", "'notes'")
+                    + increment("subject", subjectKey("NEW"))
+                    + increment("day", isoDay("NEW"))
+                    + " END",
+            "CREATE TRIGGER IF NOT EXISTS stats_notes_delete AFTER DELETE ON notes BEGIN "
+                    + decrement("total", "'notes'")
+                    + decrement("subject", subjectKey("OLD"))
+                    + decrement("day", isoDay("OLD"))
+                    + " END",
+            "CREATE TRIGGER IF NOT EXISTS stats_notes_update AFTER UPDATE OF subjectId, date ON notes BEGIN "
+                    + decrement("subject", subjectKey("OLD"))
+                    + decrement("day", isoDay("OLD"))
+                    + increment("subject", subjectKey("NEW"))
+                    + increment("day", isoDay("NEW"))
+                    + " END"
+    };
+
+    /**
+     * Cria os triggers (tabela já criada pelo Room).
+     * Chamado na criação do banco e após migrações destrutivas.
+     */
+    static void createTriggers(SupportSQLiteDatabase db) {
+        for (String trigger : TRIGGERS) {
+            db.execSQL(trigger);
+        }
+        // Totais sempre presentes, mesmo com as tabelas vazias
+        db.execSQL("INSERT OR IGNORE INTO stat_counters (kind, key, value) VALUES ('total', 'students', 0)");
+        db.execSQL("INSERT OR IGNORE INTO stat_counters (kind, key, value) VALUES ('total', 'notes', 0)");
+    }
+
+    /**
+     * Cria apenas a tabela em um banco existente (migração 5 -> 6). Os
+     * triggers e o cálculo usam notes.subjectId, que só existe a partir da
+     * versão 10: MIGRATION_9_10 os cria e recalcula os contadores.
+     */
+    static void createTable(SupportSQLiteDatabase db) {
+        db.execSQL(CREATE_TABLE);
+    }
+
+    /**
+     * Recalcula os contadores do zero. Operação O(n) - usada apenas na
+     * migração ou para reparo; o uso normal é incremental.
+     */
+    static void rebuild(SupportSQLiteDatabase db) {
+        db.execSQL("DELETE FROM stat_counters");
+        db.execSQL("INSERT INTO stat_counters (kind, key, value)"
+                + " SELECT 'total', 'students', COUNT(*) FROM users WHERE isAdmin = 0");
+        db.execSQL("INSERT INTO stat_counters (kind, key, value)"
+                + " SELECT 'total', 'notes', COUNT(*) FROM notes");
+        db.execSQL("INSERT INTO stat_counters (kind, key, value)"
+                + " SELECT 'subject', " + subjectKey("notes") + ", COUNT(*) FROM notes GROUP BY subjectId");
+        db.execSQL("INSERT INTO stat_counters (kind, key, value)"
+                + " SELECT 'day', " + isoDay("notes") + ", COUNT(*) FROM notes"
+                + " GROUP BY " + isoDay("notes"));
+    }
+}
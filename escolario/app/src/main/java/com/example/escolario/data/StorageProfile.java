@@ -0,0 +1,136 @@
+package com.example.escolario.data;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * Perfis de armazenamento do SQLite: modo de journal, nível de
+ * sincronização, cache de páginas, E/S mapeada em memória e checkpoint
+ * automático do WAL, aplicados na abertura de cada banco.
+ * <p>
+ * O perfil escolhido fica em SharedPreferences e vale para todas as
+ * escolas. Sem escolha, aparelhos com pouca RAM usam LOW_MEMORY e os
+ * demais BALANCED. As medições de cada perfil (latência de leitura, vazão
+ * de escrita e RSS) estão em StorageProfileBenchmarkTest.
+ * <p>
+ * Os PRAGMAs valem por conexão e são aplicados na conexão principal, que
+ * faz as escritas e transações. Em WAL, as conexões só de leitura abertas
+ * pela plataforma mantêm o cache e o mmap padrão.
+ */
+public enum StorageProfile {
+
+    /**
+     * Tablets antigos com pouca memória: journal em arquivo (uma conexão),
+     * cache pequeno e sem mmap. Escritas mais lentas, mas duráveis a cada
+     * commit mesmo em eMMC com cache de escrita.
+     */
+    LOW_MEMORY(RoomDatabase.JournalMode.TRUNCATE, "FULL", 512, 0, 1000),
+
+    /**
+     * Padrão: WAL com sincronização no checkpoint e cache próximo ao
+     * padrão do SQLite.
+     */
+    BALANCED(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING, "NORMAL", 2048, 0, 1000),
+
+    /**
+     * Aparelhos novos: cache maior, leituras por mmap e checkpoints menos
+     * frequentes (WAL maior entre checkpoints).
+     */
+    THROUGHPUT(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING, "NORMAL", 8192, 64L * 1024 * 1024, 4000);
+
+    private static final String PREF_NAME = "ESCOLARIO_STORAGE";
+    private static final String KEY_PROFILE = "profile";
+
+    // Modo de journal (só muda ao reabrir o banco)
+    public final RoomDatabase.JournalMode journalMode;
+
+    // PRAGMA synchronous (OFF, NORMAL, FULL)
+    public final String synchronous;
+
+    // Cache de páginas por conexão, em KiB
+    public final int cacheSizeKb;
+
+    // Máximo de bytes lidos por mmap (0 desativa)
+    public final long mmapSizeBytes;
+
+    // Páginas no WAL antes do checkpoint automático
+    public final int walAutoCheckpointPages;
+
+    StorageProfile(RoomDatabase.JournalMode journalMode, String synchronous, int cacheSizeKb,
+                   long mmapSizeBytes, int walAutoCheckpointPages) {
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.cacheSizeKb = cacheSizeKb;
+        this.mmapSizeBytes = mmapSizeBytes;
+        this.walAutoCheckpointPages = walAutoCheckpointPages;
+    }
+
+    /**
+     * Aplica o perfil a um builder: modo de journal e PRAGMAs na abertura.
+     * <p>
+     * param builder Builder do Room (já configurado por AppDatabase.configure)
+     * return O mesmo builder
+     */
+    RoomDatabase.Builder<AppDatabase> apply(RoomDatabase.Builder<AppDatabase> builder) {
+        return builder
+                .setJournalMode(journalMode)
+                .addCallback(new RoomDatabase.Callback() {
+                    @Override
+                    public void onOpen(@NonNull SupportSQLiteDatabase db) {
+                        applyPragmas(db);
+                    }
+                });
+    }
+
+    /**
+     * Aplica os PRAGMAs a uma conexão aberta (todos, exceto o modo de
+     * journal). Usado também ao trocar de perfil com o banco aberto.
+     */
+    void applyPragmas(SupportSQLiteDatabase db) {
+        pragma(db, "synchronous = " + synchronous);
+        // Valor negativo: tamanho em KiB, independente do tamanho da página
+        pragma(db, "cache_size = " + -cacheSizeKb);
+        pragma(db, "mmap_size = " + mmapSizeBytes);
+        pragma(db, "wal_autocheckpoint = " + walAutoCheckpointPages);
+    }
+
+    // Alguns PRAGMAs devolvem uma linha; query funciona para todos
+    private static void pragma(SupportSQLiteDatabase db, String statement) {
+        try (Cursor cursor = db.query("PRAGMA " + statement)) {
+            cursor.moveToFirst();
+        }
+    }
+
+    /**
+     * return Perfil escolhido ou, sem escolha, o indicado para o aparelho
+     */
+    public static StorageProfile load(Context context) {
+        String name = prefs(context).getString(KEY_PROFILE, null);
+        if (name != null) {
+            try {
+                return valueOf(name);
+            } catch (IllegalArgumentException e) {
+                // Perfil removido em uma atualização: volta ao padrão
+            }
+        }
+        ActivityManager am = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        return am != null && am.isLowRamDevice() ? LOW_MEMORY : BALANCED;
+    }
+
+    /**
+     * Salva o perfil escolhido (aplicado por AppDatabase.setStorageProfile).
+     */
+    static void save(Context context, StorageProfile profile) {
+        prefs(context).edit().putString(KEY_PROFILE, profile.name()).apply();
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getApplicationContext().getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+    }
+}
@@ -0,0 +1,529 @@
+package com.example.escolario.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Bancos por escola (tenant): um arquivo por escola ou turma, aberto sob
+ * demanda, com no máximo maxOpen conexões abertas ao mesmo tempo.
+ * <p>
+ * O banco da escola atual fica sempre aberto. Os demais entram em uma
+ * fila LRU e o menos usado é fechado quando o limite é excedido,
+ * liberando o cache de páginas e a thread do ChangeFeed. Assim a memória
+ * acompanha a escola em uso, e não o total de dados do aparelho.
+ * <p>
+ * Só o banco da escola atual é devolvido sem reserva (currentDatabase).
+ * Bancos de outras escolas são obtidos com acquire e devolvidos com
+ * release (como faz CrossTenantQuery): bancos em uso não são fechados.
+ * Se todos estiverem em uso o limite é excedido temporariamente e
+ * reaplicado na liberação.
+ * <p>
+ * O mapa de bancos abertos é sincronizado em AppDatabase.class, o mesmo
+ * bloqueio usado pela restauração de backup ao substituir o arquivo. A
+ * abertura (cópia de segurança antes da migração, construção do Room e
+ * a própria migração, que ocorre no primeiro acesso) roda fora dele: a
+ * thread que cria a entrada da escola abre o banco e as demais esperam
+ * só por aquela escola.
+ * <p>
+ * As telas não abrem o banco: observam observeCurrent, que abre o banco
+ * da escola atual em segundo plano e o publica quando fica pronto. Assim
+ * a thread principal nunca espera uma migração ou uma cópia de segurança.
+ */
+final class TenantDatabases {
+    private static final String TAG = "TenantDatabases";
+
+    private static final String PREF_NAME = "ESCOLARIO_TENANT";
+    private static final String KEY_CURRENT = "current";
+
+    // Letras minúsculas, dígitos e "_" (o "-" separa o nome dos backups)
+    private static final Pattern TENANT_ID = Pattern.compile("[a-z0-9][a-z0-9_]{0,39}");
+
+    // Banco da escola (aberto por opening, fora do bloqueio) e quantos
+    // usuários o seguram. Enquanto abre, a entrada é segura por quem a criou.
+    private static final class Entry {
+        final FutureTask<AppDatabase> opening;
+        int leases;
+
+        Entry(FutureTask<AppDatabase> opening) {
+            this.opening = opening;
+        }
+
+        boolean isReady() {
+            return opening.isDone();
+        }
+
+        // Banco aberto, ou null se ainda abrindo ou se a abertura falhou
+        AppDatabase db() {
+            if (!opening.isDone()) {
+                return null;
+            }
+            try {
+                return await();
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+
+        // Espera a abertura, repassando a falha da thread que abriu
+        AppDatabase await() {
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    try {
+                        return opening.get();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException(cause);
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        void close() {
+            AppDatabase db = db();
+            if (db != null) {
+                db.close();
+            }
+        }
+    }
+
+    private final Context context;
+    private final int maxOpen;
+    private final SharedPreferences prefs;
+
+    // Ordem de acesso: o primeiro é o menos usado recentemente
+    private final LinkedHashMap<String, Entry> open = new LinkedHashMap<>(16, 0.75f, true);
+
+    private volatile String current;
+
+    // Banco da escola atual (leitura sem bloqueio no caminho comum)
+    private volatile AppDatabase currentDb;
+
+    // Banco da escola atual para as telas (publicado quando aberto)
+    private final CurrentLiveData currentLive = new CurrentLiveData();
+
+    // Abre o banco da escola atual para currentLive
+    private final ExecutorService openExecutor = Executors.newSingleThreadExecutor();
+
+    private volatile AppDatabase.OpenListener openListener;
+
+    // Perfil de armazenamento aplicado na abertura dos bancos
+    private volatile StorageProfile profile;
+
+    TenantDatabases(Context context, int maxOpen) {
+        if (maxOpen < 1) {
+            throw new IllegalArgumentException("maxOpen deve ser ao menos 1");
+        }
+        this.context = context.getApplicationContext();
+        this.maxOpen = maxOpen;
+        this.prefs = this.context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        this.current = prefs.getString(KEY_CURRENT, AppDatabase.DEFAULT_TENANT);
+        this.profile = StorageProfile.load(this.context);
+    }
+
+    int maxOpen() {
+        return maxOpen;
+    }
+
+    String current() {
+        return current;
+    }
+
+    void setOpenListener(AppDatabase.OpenListener listener) {
+        openListener = listener;
+    }
+
+    StorageProfile profile() {
+        return profile;
+    }
+
+    /**
+     * Troca o perfil de armazenamento. Os PRAGMAs são reaplicados nos
+     * bancos abertos (fora do bloqueio, com os bancos seguros); o modo de
+     * journal muda quando cada banco é reaberto, por isso os bancos fora
+     * de uso (exceto o atual) são fechados agora. Bancos ainda abrindo
+     * recebem o perfil novo ao conectar (ver build).
+     */
+    void setProfile(StorageProfile profile) {
+        Map<String, AppDatabase> held = new LinkedHashMap<>();
+        synchronized (AppDatabase.class) {
+            if (profile == this.profile) {
+                return;
+            }
+            this.profile = profile;
+            Iterator<Map.Entry<String, Entry>> it = open.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Entry> entry = it.next();
+                AppDatabase db = entry.getValue().db();
+                if (db == null) {
+                    continue;
+                }
+                if (!entry.getKey().equals(current) && entry.getValue().leases == 0) {
+                    it.remove();
+                    db.close();
+                } else {
+                    entry.getValue().leases++;
+                    held.put(entry.getKey(), db);
+                }
+            }
+        }
+        try {
+            for (AppDatabase db : held.values()) {
+                // Só conexões já abertas: abrir aqui dispararia a migração
+                if (db.isOpen()) {
+                    profile.applyPragmas(db.getOpenHelper().getWritableDatabase());
+                }
+            }
+        } finally {
+            synchronized (AppDatabase.class) {
+                for (Map.Entry<String, AppDatabase> entry : held.entrySet()) {
+                    unlease(entry.getKey(), entry.getValue());
+                }
+                trim();
+            }
+        }
+        Log.i(TAG, "Perfil de armazenamento: " + profile);
+    }
+
+    /**
+     * return Banco da escola atual, aberto sob demanda
+     */
+    AppDatabase currentDatabase() {
+        AppDatabase db = currentDb;
+        while (db == null) {
+            String tenant = current;
+            AppDatabase opened = lease(tenant);
+            synchronized (AppDatabase.class) {
+                // Fechado nesse meio tempo (restauração): abre de novo
+                if (unlease(tenant, opened) && currentDb == null && tenant.equals(current)) {
+                    currentDb = opened;
+                    currentLive.postValue(opened);
+                }
+                db = currentDb;
+                trim();
+            }
+        }
+        return db;
+    }
+
+    /**
+     * return Banco da escola atual, publicado na thread principal quando
+     *        estiver aberto (null enquanto abre). O primeiro observador
+     *        dispara a abertura em segundo plano; a troca de escola e a
+     *        restauração publicam o banco novo.
+     */
+    LiveData<AppDatabase> observeCurrent() {
+        return currentLive;
+    }
+
+    /**
+     * Abre (se preciso) e segura o banco da escola até release. A abertura
+     * roda na thread que chama, fora do bloqueio; quem pede uma escola que
+     * outra thread está abrindo espera por ela.
+     */
+    AppDatabase acquire(String tenant) {
+        checkTenant(tenant);
+        return lease(tenant);
+    }
+
+    /**
+     * Libera um banco obtido com acquire.
+     */
+    void release(String tenant) {
+        synchronized (AppDatabase.class) {
+            Entry entry = open.get(tenant);
+            if (entry != null && entry.leases > 0) {
+                entry.leases--;
+            }
+            AppDatabase.class.notifyAll(); // Restauração esperando (closeCurrent)
+            trim();
+        }
+    }
+
+    /**
+     * Troca a escola atual (persistida para as próximas execuções). O banco
+     * anterior continua aberto até ser o menos usado além do limite.
+     */
+    void switchTo(String tenant) {
+        checkTenant(tenant);
+        if (tenant.equals(current)) {
+            return;
+        }
+        AppDatabase db = lease(tenant);
+        synchronized (AppDatabase.class) {
+            prefs.edit().putString(KEY_CURRENT, tenant).apply();
+            current = tenant;
+            // Se foi fechado nesse meio tempo, currentDatabase reabre
+            currentDb = unlease(tenant, db) ? db : null;
+            currentLive.postValue(currentDb);
+            trim();
+            Log.i(TAG, "Escola atual: " + (tenant.isEmpty() ? "(padrão)" : tenant));
+        }
+    }
+
+    /**
+     * Fecha o banco da escola atual (restauração de backup) quando ninguém
+     * mais o segurar: espera as reservas (AuditLog, CrossTenantQuery, a
+     * verificação do administrador, o agendador de lembretes) e uma
+     * abertura em curso. Chamado sob o bloqueio, que fica com quem chama
+     * ao retornar: nenhuma reserva nova é feita até ele sair, e a próxima
+     * chamada a currentDatabase reabre o arquivo.
+     * <p>
+     * param timeoutMs Espera máxima pelas reservas
+     * return Escola cujo banco foi fechado, ou null se continuou em uso
+     *        (nada é fechado)
+     */
+    String closeCurrent(long timeoutMs) throws InterruptedException {
+        synchronized (AppDatabase.class) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            Entry entry = open.get(current);
+            while (entry != null && entry.leases > 0) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) {
+                    return null;
+                }
+                // Libera o bloqueio enquanto espera (release e unlease avisam)
+                AppDatabase.class.wait(Math.max(1, TimeUnit.NANOSECONDS.toMillis(left)));
+                entry = open.get(current);
+            }
+            currentDb = null;
+            currentLive.postValue(null);
+            if (entry != null) {
+                open.remove(current);
+                awaitQuietly(entry);
+                entry.close();
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Fecha todos os bancos abertos (testes).
+     */
+    void closeAll() {
+        synchronized (AppDatabase.class) {
+            currentDb = null;
+            currentLive.postValue(null);
+            for (Entry entry : open.values()) {
+                awaitQuietly(entry);
+                entry.close();
+            }
+            open.clear();
+        }
+    }
+
+    /**
+     * return Escolas com banco no aparelho (a padrão sempre incluída)
+     */
+    List<String> list() {
+        List<String> tenants = new ArrayList<>();
+        tenants.add(AppDatabase.DEFAULT_TENANT);
+
+        File dir = context.getDatabasePath(AppDatabase.DATABASE_NAME).getParentFile();
+        String[] names = dir != null ? dir.list() : null;
+        if (names != null) {
+            String prefix = AppDatabase.DATABASE_NAME + "_";
+            for (String name : names) {
+                if (name.startsWith(prefix)) {
+                    String tenant = name.substring(prefix.length());
+                    if (TENANT_ID.matcher(tenant).matches()) {
+                        tenants.add(tenant);
+                    }
+                }
+            }
+        }
+        Collections.sort(tenants);
+        return tenants;
+    }
+
+    /**
+     * return Quantidade de bancos abertos no momento
+     */
+    int openCount() {
+        synchronized (AppDatabase.class) {
+            return open.size();
+        }
+    }
+
+    /**
+     * Valida o ID da escola ("" é a escola padrão).
+     */
+    static void checkTenant(String tenant) {
+        if (tenant == null || (!tenant.isEmpty() && !TENANT_ID.matcher(tenant).matches())) {
+            throw new IllegalArgumentException("ID de escola inválido: " + tenant);
+        }
+    }
+
+    // Segura o banco da escola, abrindo-o se preciso. Só o registro no mapa
+    // é feito sob o bloqueio; quem cria a entrada abre o banco e avisa o
+    // openListener, os demais esperam pela abertura daquela escola.
+    private AppDatabase lease(String tenant) {
+        Entry entry;
+        boolean opener = false;
+        synchronized (AppDatabase.class) {
+            entry = open.get(tenant);
+            if (entry == null) {
+                StorageProfile used = profile;
+                entry = new Entry(new FutureTask<>(() -> build(tenant, used)));
+                open.put(tenant, entry);
+                opener = true;
+            }
+            entry.leases++;
+        }
+
+        AppDatabase db;
+        try {
+            if (opener) {
+                entry.opening.run();
+            }
+            db = entry.await();
+        } catch (RuntimeException | Error e) {
+            synchronized (AppDatabase.class) {
+                entry.leases--;
+                if (open.get(tenant) == entry) {
+                    open.remove(tenant); // A próxima chamada tenta de novo
+                }
+            }
+            throw e;
+        }
+
+        if (opener) {
+            AppDatabase.OpenListener listener = openListener;
+            if (listener != null) {
+                listener.onOpen(tenant, db);
+            }
+        }
+        synchronized (AppDatabase.class) {
+            trim();
+        }
+        return db;
+    }
+
+    // Devolve uma reserva feita por lease; false se o banco foi fechado
+    // (e a entrada removida) nesse meio tempo. Sob o bloqueio.
+    private boolean unlease(String tenant, AppDatabase db) {
+        Entry entry = open.get(tenant);
+        if (entry == null || entry.db() != db) {
+            return false;
+        }
+        if (entry.leases > 0) {
+            entry.leases--;
+        }
+        AppDatabase.class.notifyAll(); // Restauração esperando (closeCurrent)
+        return true;
+    }
+
+    // Abre o banco da escola (fora do bloqueio, na thread de lease)
+    private AppDatabase build(String tenant, StorageProfile used) {
+        String name = AppDatabase.databaseName(tenant);
+        // Preserva o arquivo atual caso uma migração esteja pendente
+        DatabaseBackup.backupBeforeUpgrade(context, name);
+
+        AppDatabase db = used.apply(AppDatabase.configure(Room.databaseBuilder(
+                context, AppDatabase.class, name)))
+                .addCallback(new RoomDatabase.Callback() {
+                    @Override
+                    public void onOpen(@NonNull SupportSQLiteDatabase connection) {
+                        // Perfil trocado durante a abertura
+                        StorageProfile now = profile;
+                        if (now != used) {
+                            now.applyPragmas(connection);
+                        }
+                    }
+                })
+                .build();
+        // Consome o registro de alterações desde a abertura
+        db.changeFeed();
+        return db;
+    }
+
+    // Abre o banco da escola atual fora da thread principal; currentDatabase
+    // publica o resultado em currentLive
+    private void openCurrentInBackground() {
+        openExecutor.execute(() -> {
+            try {
+                currentDatabase();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Falha ao abrir o banco da escola atual", e);
+            }
+        });
+    }
+
+    // Banco atual para as telas: com observadores e sem banco publicado,
+    // pede a abertura em segundo plano
+    private final class CurrentLiveData extends MutableLiveData<AppDatabase> {
+        @Override
+        protected void onActive() {
+            if (getValue() == null) {
+                openCurrentInBackground();
+            }
+        }
+
+        @Override
+        public void setValue(AppDatabase db) {
+            super.setValue(db);
+            if (db == null && hasActiveObservers()) {
+                openCurrentInBackground();
+            }
+        }
+    }
+
+    // Espera uma abertura em curso (sob o bloqueio: só restauração e testes)
+    private static void awaitQuietly(Entry entry) {
+        try {
+            entry.await();
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Falha na abertura de um banco sendo fechado", e);
+        }
+    }
+
+    // Fecha os menos usados além do limite (exceto o atual e os em uso,
+    // o que inclui os que ainda estão abrindo). Sob o bloqueio.
+    private void trim() {
+        Iterator<Map.Entry<String, Entry>> it = open.entrySet().iterator();
+        while (open.size() > maxOpen && it.hasNext()) {
+            Map.Entry<String, Entry> eldest = it.next();
+            if (eldest.getKey().equals(current) || eldest.getValue().leases > 0
+                    || !eldest.getValue().isReady()) {
+                continue;
+            }
+            it.remove();
+            eldest.getValue().close();
+            Log.d(TAG, "Banco fechado (LRU): " + AppDatabase.databaseName(eldest.getKey()));
+        }
+    }
+}
@@ -1,79 +1,212 @@
-package com.example.escolario.data;
-
-import androidx.lifecycle.LiveData;
-import androidx.room.Dao;
-import androidx.room.Delete;
-import androidx.room.Insert;
-import androidx.room.OnConflictStrategy;
-import androidx.room.Query;
-
-import com.example.escolario.model.User;
-
-import java.util.List;
-
-/**
- * Interface DAO para operações de banco de dados relacionadas a usuários.
- *
- * Responsável por todas as operações CRUD (Create, Read, Update, Delete)
- * na tabela de usuários, incluindo:
- *
- *   Inserção de novos usuários
- *   Consulta por email
- *   Autenticação (login)
- *   Listagem de usuários comuns
- *   Remoção de usuários<
- *
- */
-@Dao
-public interface UserDao {
-
-    /**
-     * Insere um novo usuário no banco de dados.
-     *
-     * Política de conflito: ABORT - aborta a operação se já existir
-     * um usuário com o mesmo email (chave única).
-     *
-     * @param user Objeto User a ser persistido
-     */
-    @Insert(onConflict = OnConflictStrategy.ABORT)
-    void insert(User user);
-
-    /**
-     * Realiza a autenticação do usuário.
-     *
-     * param email Email do usuário
-     * param password Senha não hasheada (comparação deve ser feita após hash)
-     * return Objeto User se autenticação for bem-sucedida, null caso contrário
-     * deprecated Este método não é seguro - deve-se usar verificação com hash
-     */
-    @Query("SELECT * FROM users WHERE email = :email AND password = :password LIMIT 1")
-    User login(String email, String password);
-
-    /**
-     * Busca um usuário pelo email.
-     *
-     * param email Email a ser pesquisado
-     * return Objeto User se encontrado, null caso contrário
-     */
-    @Query("SELECT * FROM users WHERE email = :email LIMIT 1")
-    User findByEmail(String email);
-
-    /**
-     * Recupera todos os usuários não-administradores.
-     *
-     * return LiveData contendo lista observável de usuários comuns
-     */
-    @Query("SELECT * FROM users WHERE isAdmin = 0")
-    LiveData<List<User>> getAllRegularUsers();
-
-    /**
-     * Remove um usuário do banco de dados.
-     *
-     * param user Objeto User a ser removido
-     */
-
-    @Query("SELECT * FROM users WHERE isAdmin = 0 AND name LIKE :searchQuery")
-    LiveData<List<User>> searchUsers(String searchQuery);
-    @Delete
-    void delete(User user);
+package com.example.escolario.data;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Delete;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.example.escolario.model.User;
+import com.example.escolario.utils.Cpf;
+
+import java.util.List;
+
+/**
+ * Interface DAO para operações de banco de dados relacionadas a usuários.
+ *
+ * Responsável por todas as operações CRUD (Create, Read, Update, Delete)
+ * na tabela de usuários, incluindo:
+ *
+ *   Inserção de novos usuários
+ *   Consulta por email
+ *   Autenticação (login)
+ *   Listagem e contagem de usuários comuns
+ *   Remoção de usuários (individual ou em lote)
+ *
+ */
+@Dao
+public interface UserDao {
+
+    /**
+     * Insere um novo usuário no banco de dados.
+     *
+     * Política de conflito: ABORT - aborta a operação se já existir
+     * um usuário com o mesmo email (chave única).
+     *
+     * @param user Objeto User a ser persistido
+     * @return ID gerado para o usuário
+     */
+    @Insert(onConflict = OnConflictStrategy.ABORT)
+    long insert(User user);
+
+    /**
+     * Insere vários usuários (desfazer exclusões em lote, carga em massa).
+     * IDs já definidos são preservados; IDs 0 são gerados.
+     *
+     * @param users Usuários a serem persistidos
+     * @return IDs das linhas inseridas, na mesma ordem
+     */
+    @Insert(onConflict = OnConflictStrategy.ABORT)
+    long[] insertAll(List<User> users);
+
+    /**
+     * Realiza a autenticação do usuário.
+     *
+     * param email Email do usuário
+     * param password Senha não hasheada (comparação deve ser feita após hash)
+     * return Objeto User se autenticação for bem-sucedida, null caso contrário
+     * deprecated Este método não é seguro - deve-se usar verificação com hash
+     */
+    @Query("SELECT * FROM users WHERE email = :email AND password = :password LIMIT 1")
+    User login(String email, String password);
+
+    /**
+     * Verifica se o email já está em uso (consulta apenas o índice único).
+     *
+     * param email Email normalizado
+     * return true se existir um usuário com o email
+     */
+    @Query("SELECT EXISTS(SELECT 1 FROM users WHERE email = :email)")
+    boolean emailExists(String email);
+
+    /**
+     * Verifica se o CPF já está em uso (consulta apenas o índice único).
+     *
+     * param cpf Chave numérica do CPF (ver Cpf.parse)
+     * return true se existir um usuário com o CPF
+     */
+    @Query("SELECT EXISTS(SELECT 1 FROM users WHERE cpf = :cpf)")
+    boolean cpfExists(long cpf);
+
+    /**
+     * Busca um usuário pela chave numérica do CPF (índice único).
+     *
+     * param cpf Chave numérica do CPF (ver Cpf.parse)
+     * return Objeto User se encontrado, null caso contrário
+     */
+    @Query("SELECT * FROM users WHERE cpf = :cpf LIMIT 1")
+    User findByCpf(long cpf);
+
+    /**
+     * Busca um usuário pelo CPF digitado (com ou sem pontuação).
+     * Entradas inválidas não chegam ao banco.
+     *
+     * param cpf CPF digitado (ex.: "529.982.247-25")
+     * return Objeto User se encontrado, null se inválido ou inexistente
+     */
+    default User findByCpf(String cpf) {
+        long key = Cpf.parse(cpf);
+        return key == Cpf.INVALID ? null : findByCpf(key);
+    }
+
+    /**
+     * Busca um usuário pelo email.
+     *
+     * param email Email a ser pesquisado
+     * return Objeto User se encontrado, null caso contrário
+     */
+    @Query("SELECT * FROM users WHERE email = :email LIMIT 1")
+    User findByEmail(String email);
+
+    /**
+     * Hash da senha atual de um usuário (conferência do usuário pré-carregado
+     * no login).
+     *
+     * param id ID do usuário
+     * return Hash armazenado, ou null se o usuário não existir
+     */
+    @Query("SELECT password FROM users WHERE id = :id")
+    String passwordHash(int id);
+
+    /**
+     * Recupera todos os usuários não-administradores.
+     *
+     * return LiveData contendo lista observável de usuários comuns
+     */
+    @Query("SELECT * FROM users WHERE isAdmin = 0")
+    LiveData<List<User>> getAllRegularUsers();
+
+    /**
+     * Carrega os usuários não-administradores (consulta síncrona, ordem de ID).
+     * Usada pela carga inicial de DeltaListLiveData.
+     */
+    @Query("SELECT * FROM users WHERE isAdmin = 0 ORDER BY id")
+    List<User> loadRegularUsers();
+
+    /**
+     * Relê, entre os IDs alterados, os que ainda são usuários comuns.
+     * param ids IDs alterados (máx. 999 por chamada)
+     */
+    @Query("SELECT * FROM users WHERE isAdmin = 0 AND id IN (:ids)")
+    List<User> loadRegularUsersByIds(List<Long> ids);
+
+    /**
+     * Busca síncrona de usuários comuns pelo nome (ordem de ID).
+     * param searchQuery Padrão LIKE (ex.: %texto%)
+     */
+    @Query("SELECT * FROM users WHERE isAdmin = 0 AND name LIKE :searchQuery ORDER BY id")
+    List<User> loadUsersMatching(String searchQuery);
+
+    /**
+     * Relê, entre os IDs alterados, os que satisfazem a busca.
+     * param searchQuery Padrão LIKE (ex.: %texto%)
+     * param ids IDs alterados (máx. 999 por chamada)
+     */
+    @Query("SELECT * FROM users WHERE isAdmin = 0 AND name LIKE :searchQuery AND id IN (:ids)")
+    List<User> loadUsersMatchingByIds(String searchQuery, List<Long> ids);
+
+    /**
+     * Conta os usuários não-administradores.
+     *
+     * Lê o contador mantido por triggers (stat_counters) em vez de
+     * carregar ou varrer a tabela de usuários.
+     *
+     * return LiveData com o total de alunos, atualizado a cada escrita
+     */
+    @Query("SELECT COALESCE((SELECT value FROM stat_counters "
+            + "WHERE kind = 'total' AND key = 'students'), 0)")
+    LiveData<Integer> countRegularUsers();
+
+    /**
+     * Remove um usuário do banco de dados.
+     *
+     * param user Objeto User a ser removido
+     */
+
+    @Query("SELECT * FROM users WHERE isAdmin = 0 AND name LIKE :searchQuery")
+    LiveData<List<User>> searchUsers(String searchQuery);
+    @Delete
+    void delete(User user);
+
+    /**
+     * Recupera usuários por ID.
+     *
+     * param ids IDs dos usuários (máx. 999 por chamada - limite do SQLite)
+     * return Usuários encontrados
+     */
+    @Query("SELECT * FROM users WHERE id IN (:ids)")
+    List<User> getUsersByIds(List<Integer> ids);
+
+    /**
+     * Remove usuários comuns por ID. As notas são removidas em cascata.
+     * Administradores nunca são removidos por este método.
+     *
+     * param ids IDs dos usuários (máx. 999 por chamada - limite do SQLite)
+     * return Quantidade de usuários removidos
+     */
+    @Query("DELETE FROM users WHERE id IN (:ids) AND isAdmin = 0")
+    int deleteRegularUsersByIds(List<Integer> ids);
+
+    /**
+     * Substitui o hash da senha, apenas se ainda for o hash lido no login
+     * (evita sobrescrever uma troca de senha concorrente).
+     *
+     * param id ID do usuário
+     * param oldHash Hash verificado no login
+     * param newHash Hash recalculado com a política atual
+     * return 1 se atualizado, 0 se o hash mudou nesse meio tempo
+     */
+    @Query("UPDATE users SET password = :newHash WHERE id = :id AND password = :oldHash")
+    int updatePasswordHash(int id, String oldHash, String newHash);
 }
\ No newline at end of file
@@ -0,0 +1,136 @@
+package com.example.escolario.data;
+
+import android.util.Log;
+
+import com.example.escolario.model.User;
+import com.example.escolario.utils.Cpf;
+import com.example.escolario.utils.PasswordUtils;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Cadastro de usuários em pipeline.
+ * <p>
+ * O hash da senha (a etapa mais cara) começa imediatamente em outra
+ * thread, enquanto a thread chamadora verifica se email e CPF já estão em
+ * uso. Assim o tempo percebido é aproximadamente max(hash, verificações)
+ * em vez da soma. Se houver conflito, o hash é descartado.
+ * <p>
+ * A inserção ocorre em uma transação que repete as verificações: dois
+ * cadastros simultâneos com o mesmo email ou CPF não passam ambos, e o
+ * perdedor recebe o conflito específico em vez de um erro genérico do
+ * índice único.
+ * <p>
+ * register() acessa o banco e deve ser chamado fora da thread principal.
+ */
+public class UserRegistration {
+    private static final String TAG = "UserRegistration";
+
+    // Thread dedicada ao hash (compartilhada entre cadastros)
+    private static final ExecutorService HASH_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    private final AppDatabase db;
+
+    /**
+     * Motivo de recusa do cadastro.
+     */
+    public enum Conflict {
+        EMAIL_TAKEN,
+        CPF_TAKEN
+    }
+
+    /**
+     * Cadastro recusado por email ou CPF já cadastrado.
+     */
+    public static class ConflictException extends Exception {
+        public final Conflict conflict;
+
+        ConflictException(Conflict conflict) {
+            super(conflict == Conflict.EMAIL_TAKEN ? "Email já cadastrado" : "CPF já cadastrado");
+            this.conflict = conflict;
+        }
+    }
+
+    public UserRegistration(AppDatabase db) {
+        this.db = db;
+    }
+
+    /**
+     * Cadastra um usuário comum.
+     *
+     * param name Nome completo
+     * param email Email já normalizado (minúsculas, sem espaços)
+     * param cpf CPF digitado (a formatação é removida)
+     * param password Senha em texto puro
+     * return Usuário cadastrado, com o ID gerado
+     * throws ConflictException Se o email ou o CPF já estiverem em uso
+     * throws IllegalArgumentException Se o CPF for inválido
+     */
+    public User register(String name, String email, String cpf, String password)
+            throws ConflictException {
+        long start = System.nanoTime();
+        long cpfKey = Cpf.parse(cpf);
+        if (cpfKey == Cpf.INVALID) {
+            throw new IllegalArgumentException("CPF inválido");
+        }
+
+        // Etapa cara em paralelo com as verificações
+        Future<String> hash = HASH_EXECUTOR.submit(() -> PasswordUtils.hash(password));
+
+        UserDao userDao = db.userDao();
+        Conflict conflict = probe(userDao, email, cpfKey);
+        long probeNanos = System.nanoTime() - start;
+        if (conflict != null) {
+            hash.cancel(false);
+            throw new ConflictException(conflict);
+        }
+
+        User user = new User(name, email, await(hash), cpfKey, false);
+        long hashReadyNanos = System.nanoTime() - start;
+
+        // Verificação e inserção atômicas (a transação detém o bloqueio de escrita)
+        Conflict lateConflict = db.runInTransaction(() -> {
+            Conflict found = probe(userDao, email, cpfKey);
+            if (found == null) {
+                user.id = (int) userDao.insert(user);
+            }
+            return found;
+        });
+        if (lateConflict != null) {
+            throw new ConflictException(lateConflict);
+        }
+
+        Log.d(TAG, String.format(Locale.US,
+                "cadastro: verificações %.1f ms, hash pronto %.1f ms, total %.1f ms",
+                probeNanos / 1e6, hashReadyNanos / 1e6, (System.nanoTime() - start) / 1e6));
+        return user;
+    }
+
+    private static Conflict probe(UserDao userDao, String email, long cpf) {
+        if (userDao.emailExists(email)) {
+            return Conflict.EMAIL_TAKEN;
+        }
+        if (userDao.cpfExists(cpf)) {
+            return Conflict.CPF_TAKEN;
+        }
+        return null;
+    }
+
+    private static String await(Future<String> hash) {
+        try {
+            return hash.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException
+                    ? (RuntimeException) cause
+                    : new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Cadastro interrompido", e);
+        }
+    }
+}
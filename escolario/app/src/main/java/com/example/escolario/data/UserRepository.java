@@ -0,0 +1,186 @@
+package com.example.escolario.data;
+
+import android.content.Context;
+
+import androidx.lifecycle.LiveData;
+
+import com.example.escolario.model.AuditEntry;
+import com.example.escolario.model.User;
+import com.example.escolario.model.UserNoteStats;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repositório de usuários: ponto único de acesso ao UserDao para as telas.
+ * <p>
+ * As consultas observáveis retornam LiveData do Room; os ViewModels as
+ * guardam, de modo que uma mudança de configuração reaproveita o resultado
+ * em vez de repetir a consulta. Elas não abrem o banco na thread que as
+ * pede: são montadas quando a abertura em segundo plano termina (ver
+ * AppDatabase.whenOpen). Os métodos síncronos acessam (e se preciso abrem)
+ * o banco e devem ser chamados fora da thread principal.
+ * <p>
+ * O banco é obtido a cada chamada (e não guardado em campo) porque a
+ * restauração de backup e a troca de escola substituem a instância do
+ * AppDatabase.
+ */
+public class UserRepository {
+    private static volatile UserRepository INSTANCE;
+
+    // Ordem das listas de usuários
+    private static final Comparator<User> BY_ID = (a, b) -> Integer.compare(a.id, b.id);
+
+    private final Context context;
+
+    private UserRepository(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * Obtém a instância única do repositório.
+     * param context Qualquer contexto (o da aplicação é utilizado)
+     */
+    public static UserRepository getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (UserRepository.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new UserRepository(context);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private AppDatabase db() {
+        return AppDatabase.getDatabase(context);
+    }
+
+    /**
+     * return LiveData com todos os usuários não-administradores, atualizado
+     *        por deltas (apenas as linhas alteradas são relidas)
+     */
+    public LiveData<List<User>> getAllRegularUsers() {
+        return AppDatabase.whenOpen(context, db -> {
+            UserDao dao = db.userDao();
+            return new DeltaListLiveData<>(db.changeFeed(), "users",
+                    dao::loadRegularUsers, dao::loadRegularUsersByIds,
+                    user -> user.id, BY_ID);
+        });
+    }
+
+    /**
+     * Busca usuários não-administradores pelo nome (contém o texto).
+     * Atualizada por deltas, como getAllRegularUsers.
+     * param text Texto digitado (sem curingas)
+     */
+    public LiveData<List<User>> searchUsers(String text) {
+        String pattern = "%" + text + "%";
+        return AppDatabase.whenOpen(context, db -> {
+            UserDao dao = db.userDao();
+            return new DeltaListLiveData<>(db.changeFeed(), "users",
+                    () -> dao.loadUsersMatching(pattern),
+                    ids -> dao.loadUsersMatchingByIds(pattern, ids),
+                    user -> user.id, BY_ID);
+        });
+    }
+
+    /**
+     * return LiveData com o total de alunos (contador agregado)
+     */
+    public LiveData<Integer> countRegularUsers() {
+        return AppDatabase.whenOpen(context, db -> db.userDao().countRegularUsers());
+    }
+
+    /**
+     * Busca um usuário pelo email (síncrono).
+     */
+    public User findByEmail(String email) {
+        return db().userDao().findByEmail(email);
+    }
+
+    /**
+     * Hash da senha armazenado para o usuário (síncrono, sempre do banco).
+     */
+    public String passwordHash(int userId) {
+        return db().userDao().passwordHash(userId);
+    }
+
+    /**
+     * Busca um usuário pelo ID (síncrono). Usuários recentes vêm do cache
+     * em memória, sem acesso ao banco.
+     */
+    public User findById(int userId) {
+        return db().warmUsers().user(userId);
+    }
+
+    /**
+     * Mantém em memória o usuário e seu rascunho (síncrono), para que a
+     * próxima entrada dele não acesse o banco.
+     */
+    public void warmUp(int userId) {
+        db().warmUsers().warm(userId);
+    }
+
+    /**
+     * Estatísticas de notas de uma página de alunos (síncrono): uma
+     * consulta agregada para os que ainda não estão em memória.
+     * param userIds Alunos da página (ver UserAdapter.STATS_PAGE_SIZE)
+     */
+    public Map<Integer, UserNoteStats> loadNoteStats(List<Integer> userIds) {
+        return db().noteStats().load(userIds);
+    }
+
+    /**
+     * Registra um ouvinte chamado quando as estatísticas de notas deixam
+     * de valer (notas alteradas); as páginas visíveis devem ser pedidas
+     * de novo. Chamado na thread do ChangeFeed. Abre o banco se preciso:
+     * registrar fora da thread principal.
+     */
+    public void addNoteStatsListener(Runnable listener) {
+        db().noteStats().addListener(listener);
+    }
+
+    public void removeNoteStatsListener(Runnable listener) {
+        db().noteStats().removeListener(listener);
+    }
+
+    /**
+     * Cadastra um usuário comum (síncrono). O hash da senha é calculado em
+     * paralelo com a verificação de email e CPF. O cadastro entra na trilha
+     * de auditoria.
+     * return Usuário cadastrado
+     * throws UserRegistration.ConflictException Se o email ou CPF já estiverem em uso
+     */
+    public User register(String name, String email, String cpf, String password)
+            throws UserRegistration.ConflictException {
+        User user = new UserRegistration(db()).register(name, email, cpf, password);
+        AuditLog.getInstance(context).record(AuditEntry.REGISTER, user.id, user.id, null);
+        return user;
+    }
+
+    /**
+     * Troca o hash da senha se ele não mudou desde a leitura (síncrono).
+     * return true se o hash foi atualizado
+     */
+    public boolean updatePasswordHash(int userId, String oldHash, String newHash) {
+        return db().userDao().updatePasswordHash(userId, oldHash, newHash) == 1;
+    }
+
+    /**
+     * Exclui usuários e suas notas em uma transação (síncrono).
+     * return Snapshot para desfazer a exclusão
+     */
+    public BulkUserDeleter.Snapshot deleteUsers(List<Integer> ids,
+                                                BulkUserDeleter.ProgressListener listener) {
+        return new BulkUserDeleter(db()).delete(ids, listener);
+    }
+
+    /**
+     * Desfaz uma exclusão feita por deleteUsers (síncrono).
+     */
+    public void undoDelete(BulkUserDeleter.Snapshot snapshot) {
+        new BulkUserDeleter(db()).undo(snapshot);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.escolario.data;
+
+import com.example.escolario.model.NoteDraft;
+import com.example.escolario.model.User;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dados por usuário mantidos em memória para a troca rápida de aluno.
+ * <p>
+ * Em um tablet compartilhado os mesmos poucos alunos se revezam; ao
+ * voltar, cada um precisa do próprio registro (login por PIN) e do
+ * rascunho de nota (abertura de NoteActivity). Este cache guarda ambos
+ * para os CAPACITY usuários usados mais recentemente, com remoção LRU.
+ * <p>
+ * O registro do usuário é descartado quando o ChangeFeed informa que a
+ * linha mudou ou foi removida (troca de senha, exclusão pelo
+ * administrador). Os rascunhos só são gravados por NoteRepository, que
+ * atualiza o cache na mesma operação. Cada banco tem seu cache (ver
+ * AppDatabase.warmUsers()), então a troca de escola ou a restauração de
+ * backup começam com o cache vazio.
+ * <p>
+ * As leituras que faltam no cache acessam o banco: chamar fora da thread
+ * principal.
+ */
+public class WarmUserCache {
+    // Usuários mantidos em memória
+    static final int CAPACITY = 8;
+
+    private static final class Entry {
+        User user;
+        NoteDraft draft;
+        boolean draftLoaded;
+    }
+
+    private final AppDatabase db;
+
+    // Em ordem de acesso: o primeiro é o menos usado recentemente
+    private final LinkedHashMap<Integer, Entry> entries;
+
+    // Incrementado a cada invalidação; uma leitura do banco iniciada antes
+    // dela não é guardada
+    private long version;
+
+    private long hits;
+    private long misses;
+
+    WarmUserCache(AppDatabase db, int capacity) {
+        this.db = db;
+        this.entries = new LinkedHashMap<Integer, Entry>(capacity + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+        db.changeFeed().addListener("users", this::onUsersChanged);
+    }
+
+    /**
+     * return Usuário pelo ID, ou null se não existir
+     */
+    public User user(int userId) {
+        long readVersion;
+        synchronized (this) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.user != null) {
+                hits++;
+                return entry.user;
+            }
+            misses++;
+            readVersion = version;
+        }
+
+        List<User> found = db.userDao().getUsersByIds(Collections.singletonList(userId));
+        User user = found.isEmpty() ? null : found.get(0);
+        synchronized (this) {
+            if (user != null && readVersion == version) {
+                entry(userId).user = user;
+            }
+        }
+        return user;
+    }
+
+    /**
+     * return Rascunho salvo do usuário, ou null se não houver
+     */
+    public NoteDraft draft(int userId) {
+        long readVersion;
+        synchronized (this) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.draftLoaded) {
+                hits++;
+                return entry.draft;
+            }
+            misses++;
+            readVersion = version;
+        }
+
+        NoteDraft draft = db.noteDraftDao().find(userId);
+        synchronized (this) {
+            if (readVersion == version) {
+                Entry entry = entry(userId);
+                entry.draft = draft;
+                entry.draftLoaded = true;
+            }
+        }
+        return draft;
+    }
+
+    /**
+     * Registra o rascunho recém-gravado (null = removido).
+     */
+    public synchronized void putDraft(int userId, NoteDraft draft) {
+        version++;
+        Entry entry = entry(userId);
+        entry.draft = draft;
+        entry.draftLoaded = true;
+    }
+
+    /**
+     * Carrega usuário e rascunho para o cache (ex.: ao exibir a lista de
+     * alunos recentes, antes do toque).
+     */
+    public void warm(int userId) {
+        if (user(userId) != null) {
+            draft(userId);
+        }
+    }
+
+    /**
+     * return [acertos, faltas] desde a criação
+     */
+    public synchronized long[] stats() {
+        return new long[]{hits, misses};
+    }
+
+    public synchronized void clear() {
+        version++;
+        entries.clear();
+    }
+
+    // Entrada do usuário, criada se necessário (sob o bloqueio)
+    private Entry entry(int userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(userId, entry);
+        }
+        return entry;
+    }
+
+    // Na thread do feed: descarta as linhas alteradas ou removidas
+    private synchronized void onUsersChanged(ChangeFeed.ChangeSet changes) {
+        version++;
+        for (Long id : changes.updated) {
+            entries.remove(id.intValue());
+        }
+        for (Long id : changes.deleted) {
+            entries.remove(id.intValue());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.escolario.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+/**
+ * Tipo de atividade (prova, trabalho, etc) referenciado por Note.typeId.
+ */
+@Entity(tableName = "activity_types",
+        indices = @Index(value = "name", unique = true))
+public class ActivityType extends DictionaryEntry {
+
+    public ActivityType(@NonNull String name) {
+        super(name);
+    }
+}
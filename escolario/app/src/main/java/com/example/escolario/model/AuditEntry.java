@@ -0,0 +1,77 @@
+package com.example.escolario.model;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Evento da trilha de auditoria (login, cadastro, exclusão de usuários).
+ *
+ * Os eventos são registrados em memória por AuditLog e gravados em lote;
+ * a tabela só recebe inserções e a poda das linhas mais antigas. Não há
+ * chave estrangeira para users: o registro de uma exclusão precisa
+ * sobreviver ao usuário excluído.
+ */
+@Entity(tableName = "audit_log",
+        // Consultas por usuário e período, e por período
+        indices = {
+                @Index(value = {"userId", "time"}),
+                @Index(value = "time")})
+public class AuditEntry {
+    public static final String LOGIN = "login";
+    public static final String LOGIN_FAILED = "login_failed";
+    public static final String REGISTER = "register";
+    public static final String DELETE_USER = "delete_user";
+    public static final String RESTORE_USER = "restore_user";
+
+    /**
+     * Sequência crescente (AUTOINCREMENT: a poda usa a ordem de gravação)
+     */
+    @PrimaryKey(autoGenerate = true)
+    public long seq;
+
+    /**
+     * Momento do evento (System.currentTimeMillis)
+     */
+    public long time;
+
+    /**
+     * Tipo do evento (LOGIN, REGISTER, ...)
+     */
+    @NonNull
+    public String action;
+
+    /**
+     * Quem executou a ação (0 se desconhecido)
+     */
+    public int actorId;
+
+    /**
+     * Usuário afetado (0 se desconhecido, ex.: login com email inexistente)
+     */
+    public int userId;
+
+    /**
+     * Informação adicional (ex.: email informado em um login recusado)
+     */
+    @Nullable
+    public String detail;
+
+    public AuditEntry(long time, @NonNull String action, int actorId, int userId,
+                      @Nullable String detail) {
+        this.time = time;
+        this.action = action;
+        this.actorId = actorId;
+        this.userId = userId;
+        this.detail = detail;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return time + " " + action + " actor=" + actorId + " user=" + userId
+                + (detail != null ? " " + detail : "");
+    }
+}
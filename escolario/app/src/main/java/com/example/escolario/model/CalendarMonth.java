@@ -0,0 +1,61 @@
+package com.example.escolario.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Notas de um aluno em um mês, por dia, para o calendário.
+ */
+public class CalendarMonth {
+    public final int userId;
+
+    /**
+     * Ano (ex.: 2025)
+     */
+    public final int year;
+
+    /**
+     * Mês, de 1 a 12
+     */
+    public final int month;
+
+    /**
+     * Primeiro dia do mês em dias desde 01/01/1970
+     */
+    public final int firstEpochDay;
+
+    /**
+     * Quantidade de notas por dia (índice 0 = dia 1)
+     */
+    public final int[] counts;
+
+    /**
+     * Quantidade por tipo de atividade (nome) de cada dia (índice 0 = dia 1)
+     */
+    public final List<Map<String, Integer>> countsByType;
+
+    public CalendarMonth(int userId, int year, int month, int firstEpochDay, int[] counts,
+                         List<Map<String, Integer>> countsByType) {
+        this.userId = userId;
+        this.year = year;
+        this.month = month;
+        this.firstEpochDay = firstEpochDay;
+        this.counts = counts;
+        this.countsByType = countsByType;
+    }
+
+    /**
+     * return Dias do mês
+     */
+    public int length() {
+        return counts.length;
+    }
+
+    /**
+     * return Dia da semana do dia 1 (0 = domingo ... 6 = sábado)
+     */
+    public int firstWeekday() {
+        // 01/01/1970 foi uma quinta-feira
+        return Math.floorMod(firstEpochDay + 4, 7);
+    }
+}
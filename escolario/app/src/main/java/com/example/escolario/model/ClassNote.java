@@ -0,0 +1,38 @@
+package com.example.escolario.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Ignore;
+
+/**
+ * Nota de um aluno de uma turma, com o nome do aluno.
+ * Não é uma entidade - apenas mapeia as colunas da consulta.
+ */
+public class ClassNote {
+    public int id;
+
+    public int userId;
+
+    /**
+     * Nome do aluno
+     */
+    @NonNull
+    public String student = "";
+
+    public int typeId;
+
+    /**
+     * Nome do tipo de atividade (preenchido a partir de NoteDictionary)
+     */
+    @Ignore
+    @NonNull
+    public String type = "";
+
+    /**
+     * Data da atividade (formato dd/MM/yyyy)
+     */
+    @NonNull
+    public String date = "";
+
+    @NonNull
+    public String content = "";
+}
@@ -0,0 +1,31 @@
+package com.example.escolario.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.PrimaryKey;
+
+/**
+ * Base das tabelas de dicionário (matérias e tipos de atividade).
+ *
+ * Cada nome aparece uma única vez (índice único, sem diferenciar
+ * maiúsculas) e as notas guardam apenas o ID inteiro correspondente.
+ * Os nomes nunca são removidos nem renomeados.
+ */
+public abstract class DictionaryEntry {
+    /**
+     * ID do nome (auto-incrementado)
+     */
+    @PrimaryKey(autoGenerate = true)
+    public int id;
+
+    /**
+     * Nome exibido (ex.: "Matemática", "Prova")
+     */
+    @NonNull
+    @ColumnInfo(collate = ColumnInfo.NOCASE)
+    public String name;
+
+    protected DictionaryEntry(@NonNull String name) {
+        this.name = name;
+    }
+}
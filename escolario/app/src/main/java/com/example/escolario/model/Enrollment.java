@@ -0,0 +1,65 @@
+package com.example.escolario.model;
+
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+
+import static androidx.room.ForeignKey.CASCADE;
+
+/**
+ * Matrícula de um usuário em uma turma, como aluno ou professor.
+ *
+ * Relacionamento: liga users e classes (N:N); removida em cascata com
+ * o usuário ou a turma. Um usuário tem um único papel em cada turma.
+ */
+@Entity(tableName = "enrollments",
+        primaryKeys = {"classId", "userId"},
+        foreignKeys = {
+                @ForeignKey(
+                        entity = SchoolClass.class,
+                        parentColumns = "id",
+                        childColumns = "classId",
+                        onDelete = CASCADE),
+                @ForeignKey(
+                        entity = User.class,
+                        parentColumns = "id",
+                        childColumns = "userId",
+                        onDelete = CASCADE)},
+        // (classId, role, userId) cobre a lista de alunos/professores de uma
+        // turma sem ler a tabela; (userId, classId) atende a exclusão em
+        // cascata do usuário e as turmas de um usuário
+        indices = {
+                @Index(value = {"classId", "role", "userId"}),
+                @Index(value = {"userId", "classId"})})
+public class Enrollment {
+    /**
+     * Papel: aluno da turma
+     */
+    public static final int ROLE_STUDENT = 0;
+
+    /**
+     * Papel: professor da turma
+     */
+    public static final int ROLE_TEACHER = 1;
+
+    /**
+     * ID da turma (chave estrangeira)
+     */
+    public int classId;
+
+    /**
+     * ID do usuário matriculado (chave estrangeira)
+     */
+    public int userId;
+
+    /**
+     * Papel na turma (ROLE_STUDENT ou ROLE_TEACHER)
+     */
+    public int role;
+
+    public Enrollment(int classId, int userId, int role) {
+        this.classId = classId;
+        this.userId = userId;
+        this.role = role;
+    }
+}
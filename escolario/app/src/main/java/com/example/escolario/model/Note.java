@@ -1,75 +1,110 @@
-package com.example.escolario.model;
-
-import androidx.annotation.NonNull;
-import androidx.room.Entity;
-import androidx.room.ForeignKey;
-import androidx.room.PrimaryKey;
-
-import static androidx.room.ForeignKey.CASCADE;
-
-/**
- * Entidade que representa uma nota acadêmica no banco de dados.
- *
- * Relacionamento: Cada nota pertence a um usuário (relação 1:N)
- */
-@Entity(tableName = "notes",
-        foreignKeys = @ForeignKey(
-                entity = User.class,
-                parentColumns = "id",
-                childColumns = "userId",
-                onDelete = CASCADE))
-public class Note {
-    /**
-     * ID único da nota (auto-incrementado)
-     */
-    @PrimaryKey(autoGenerate = true)
-    public int id;
-
-    /**
-     * ID do usuário dono da nota (chave estrangeira)
-     */
-    public int userId;
-
-    /**
-     * Matéria/disciplina da nota
-     */
-    @NonNull
-    public String subject;
-
-    /**
-     * Tipo de atividade (prova, trabalho, etc)
-     */
-    @NonNull
-    public String type;
-
-    /**
-     * Conteúdo/descrição da nota
-     */
-    @NonNull
-    public String content;
-
-    /**
-     * Data da atividade (formato dd/MM/yyyy)
-     */
-    @NonNull
-    public String date;
-
-    /**
-     * Construtor para criação de novas notas
-     *
-     * param userId ID do usuário dono da nota
-     * param subject Matéria/disciplina
-     * param type Tipo de atividade
-     * param content Descrição completa
-     * param date Data no formato dd/MM/yyyy
-     */
-    public Note(int userId, @NonNull String subject,
-                @NonNull String type, @NonNull String content,
-                @NonNull String date) {
-        this.userId = userId;
-        this.subject = subject;
-        this.type = type;
-        this.content = content;
-        this.date = date;
-    }
+package com.example.escolario.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import com.example.escolario.utils.DateUtils;
+
+import static androidx.room.ForeignKey.CASCADE;
+
+/**
+ * Entidade que representa uma nota acadêmica no banco de dados.
+ *
+ * Relacionamento: Cada nota pertence a um usuário (relação 1:N)
+ */
+@Entity(tableName = "notes",
+        foreignKeys = {
+                @ForeignKey(
+                        entity = User.class,
+                        parentColumns = "id",
+                        childColumns = "userId",
+                        onDelete = CASCADE),
+                @ForeignKey(
+                        entity = Subject.class,
+                        parentColumns = "id",
+                        childColumns = "subjectId"),
+                @ForeignKey(
+                        entity = ActivityType.class,
+                        parentColumns = "id",
+                        childColumns = "typeId")},
+        // Índice na chave estrangeira: evita varredura de notes a cada
+        // exclusão em cascata e nas consultas por usuário; os demais
+        // atendem os agrupamentos e filtros por matéria e tipo, e as
+        // consultas por intervalo de datas (epochDay, com o tipo no índice
+        // para filtrar sem ler a linha). (userId, typeId, epochDay) cobre as
+        // estatísticas por aluno e (userId, subjectId, epochDay) as notas de
+        // uma turma por matéria; o índice simples em userId continua
+        // servindo as listas por aluno em ordem de ID sem ordenação extra
+        indices = {
+                @Index(value = "userId"),
+                @Index(value = {"userId", "typeId", "epochDay"}),
+                @Index(value = {"userId", "subjectId", "epochDay"}),
+                @Index(value = "subjectId"),
+                @Index(value = "typeId"),
+                @Index(value = {"epochDay", "typeId"})})
+public class Note {
+    /**
+     * ID único da nota (auto-incrementado)
+     */
+    @PrimaryKey(autoGenerate = true)
+    public int id;
+
+    /**
+     * ID do usuário dono da nota (chave estrangeira)
+     */
+    public int userId;
+
+    /**
+     * Matéria/disciplina da nota (ID em subjects - ver NoteDictionary)
+     */
+    public int subjectId;
+
+    /**
+     * Tipo de atividade (ID em activity_types - ver NoteDictionary)
+     */
+    public int typeId;
+
+    /**
+     * Conteúdo/descrição da nota
+     */
+    @NonNull
+    public String content;
+
+    /**
+     * Data da atividade (formato dd/MM/yyyy)
+     */
+    @NonNull
+    public String date;
+
+    /**
+     * Data da atividade em dias desde 01/01/1970 (derivada de date).
+     * Ordena como a data e permite consultas por intervalo com índice;
+     * 0 se date for inválida.
+     */
+    @ColumnInfo(defaultValue = "0")
+    public int epochDay;
+
+    /**
+     * Construtor para criação de novas notas
+     *
+     * param userId ID do usuário dono da nota
+     * param subjectId ID da matéria/disciplina
+     * param typeId ID do tipo de atividade
+     * param content Descrição completa
+     * param date Data no formato dd/MM/yyyy
+     */
+    public Note(int userId, int subjectId, int typeId,
+                @NonNull String content, @NonNull String date) {
+        this.userId = userId;
+        this.subjectId = subjectId;
+        this.typeId = typeId;
+        this.content = content;
+        this.date = date;
+        Integer day = DateUtils.toEpochDay(date);
+        this.epochDay = day != null ? day : 0;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.example.escolario.model;
+
+import androidx.room.Entity;
+
+/**
+ * Resumo de notas por aluno, dia e tipo de atividade, mantido
+ * incrementalmente por triggers do SQLite (ver CalendarSchema).
+ *
+ * Um mês do calendário lê apenas as linhas dos seus dias (chave primária
+ * userId, epochDay, typeId), sem carregar nem converter as datas das
+ * notas. Notas com data inválida (epochDay 0) não entram no resumo.
+ *
+ * A aplicação nunca escreve nesta tabela diretamente.
+ */
+@Entity(tableName = "note_days", primaryKeys = {"userId", "epochDay", "typeId"})
+public class NoteDay {
+    /**
+     * Aluno dono das notas
+     */
+    public int userId;
+
+    /**
+     * Dia em dias desde 01/01/1970
+     */
+    public int epochDay;
+
+    /**
+     * Tipo de atividade (ID em activity_types)
+     */
+    public int typeId;
+
+    /**
+     * Quantidade de notas do aluno no dia e tipo
+     */
+    public int count;
+
+    public NoteDay(int userId, int epochDay, int typeId, int count) {
+        this.userId = userId;
+        this.epochDay = epochDay;
+        this.typeId = typeId;
+        this.count = count;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.escolario.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.PrimaryKey;
+
+import static androidx.room.ForeignKey.CASCADE;
+
+/**
+ * Rascunho da nota em edição: um por usuário, regravado pelo salvamento
+ * automático (DraftAutosaver) enquanto o usuário digita.
+ *
+ * Guarda os textos do formulário como digitados: matéria e tipo só viram
+ * IDs do dicionário quando o rascunho é promovido a Note.
+ */
+@Entity(tableName = "note_drafts",
+        foreignKeys = @ForeignKey(
+                entity = User.class,
+                parentColumns = "id",
+                childColumns = "userId",
+                onDelete = CASCADE))
+public class NoteDraft {
+    /**
+     * ID do usuário dono do rascunho (chave primária e estrangeira)
+     */
+    @PrimaryKey
+    public int userId;
+
+    @NonNull
+    public String subject;
+
+    @NonNull
+    public String type;
+
+    /**
+     * Data como digitada (pode estar incompleta)
+     */
+    @NonNull
+    public String date;
+
+    @NonNull
+    public String content;
+
+    /**
+     * Momento da última gravação (System.currentTimeMillis)
+     */
+    public long updatedAt;
+
+    public NoteDraft(int userId, @NonNull String subject, @NonNull String type,
+                     @NonNull String date, @NonNull String content) {
+        this.userId = userId;
+        this.subject = subject;
+        this.type = type;
+        this.date = date;
+        this.content = content;
+    }
+
+    /**
+     * return true se nenhum campo de texto foi preenchido (o tipo sempre
+     *        tem um valor selecionado e não conta)
+     */
+    public boolean isEmpty() {
+        return subject.trim().isEmpty() && date.trim().isEmpty() && content.trim().isEmpty();
+    }
+}
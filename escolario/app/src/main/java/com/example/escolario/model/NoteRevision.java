@@ -0,0 +1,97 @@
+package com.example.escolario.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import static androidx.room.ForeignKey.CASCADE;
+
+/**
+ * Versão de uma nota no histórico de edições (ver NoteHistory).
+ *
+ * A versão 1 é a nota original. O conteúdo de cada versão é guardado
+ * como diferença (delta) em relação à versão anterior, exceto a cada
+ * NoteHistory.SNAPSHOT_INTERVAL versões (e quando o delta não compensa),
+ * em que o conteúdo completo é guardado: reconstruir uma versão aplica no
+ * máximo SNAPSHOT_INTERVAL - 1 deltas. Os demais campos são pequenos e
+ * guardados completos em todas as versões.
+ *
+ * Relacionamento: cada versão pertence a uma nota (removida em cascata)
+ */
+@Entity(tableName = "note_revisions",
+        foreignKeys = @ForeignKey(
+                entity = Note.class,
+                parentColumns = "id",
+                childColumns = "noteId",
+                onDelete = CASCADE),
+        indices = @Index(value = {"noteId", "revision"}, unique = true))
+public class NoteRevision {
+    /**
+     * payload é o conteúdo completo
+     */
+    public static final int KIND_SNAPSHOT = 0;
+
+    /**
+     * payload é o delta em relação à versão anterior (ver NoteDelta)
+     */
+    public static final int KIND_DELTA = 1;
+
+    @PrimaryKey(autoGenerate = true)
+    public int id;
+
+    /**
+     * ID da nota (chave estrangeira)
+     */
+    public int noteId;
+
+    /**
+     * Número da versão, a partir de 1 (a original)
+     */
+    public int revision;
+
+    /**
+     * Momento da edição em milissegundos (0 na versão original)
+     */
+    public long editedAt;
+
+    /**
+     * ID do usuário que fez a edição
+     */
+    public int editorId;
+
+    public int subjectId;
+
+    public int typeId;
+
+    /**
+     * Data da atividade nesta versão (formato dd/MM/yyyy)
+     */
+    @NonNull
+    public String date;
+
+    /**
+     * KIND_SNAPSHOT ou KIND_DELTA
+     */
+    public int kind;
+
+    /**
+     * Conteúdo completo ou delta, conforme kind
+     */
+    @NonNull
+    public String payload;
+
+    public NoteRevision(int noteId, int revision, long editedAt, int editorId, int subjectId,
+                        int typeId, @NonNull String date, int kind, @NonNull String payload) {
+        this.noteId = noteId;
+        this.revision = revision;
+        this.editedAt = editedAt;
+        this.editorId = editorId;
+        this.subjectId = subjectId;
+        this.typeId = typeId;
+        this.date = date;
+        this.kind = kind;
+        this.payload = payload;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.escolario.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Ignore;
+
+/**
+ * Resultado da busca textual nas notas de um aluno.
+ * Não é uma entidade - apenas mapeia as colunas da consulta.
+ */
+public class NoteSearchResult {
+    /**
+     * Caractere que marca o início de um trecho destacado no snippet
+     */
+    public static final char HIGHLIGHT_START = '\u0002';
+
+    /**
+     * Caractere que marca o fim de um trecho destacado no snippet
+     */
+    public static final char HIGHLIGHT_END = '\u0003';
+
+    public int id;
+
+    public int subjectId;
+
+    public int typeId;
+
+    /**
+     * Nome da matéria (preenchido a partir de NoteDictionary)
+     */
+    @Ignore
+    @NonNull
+    public String subject = "";
+
+    /**
+     * Nome do tipo de atividade (preenchido a partir de NoteDictionary)
+     */
+    @Ignore
+    @NonNull
+    public String type = "";
+
+    /**
+     * Data da atividade (formato dd/MM/yyyy)
+     */
+    @NonNull
+    public String date = "";
+
+    /**
+     * Trecho do conteúdo com os termos encontrados entre
+     * HIGHLIGHT_START e HIGHLIGHT_END
+     */
+    @NonNull
+    public String snippet = "";
+
+    /**
+     * Estatísticas do FTS (matchinfo 'pcnalx') usadas no ranking
+     */
+    public byte[] matchinfo;
+
+    /**
+     * Relevância calculada (BM25) - maior é mais relevante
+     */
+    @Ignore
+    public double score;
+}
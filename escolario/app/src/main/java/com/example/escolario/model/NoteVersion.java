@@ -0,0 +1,51 @@
+package com.example.escolario.model;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Versão reconstruída de uma nota, para exibição do histórico.
+ * Não é uma entidade - montada por NoteHistory a partir de NoteRevision.
+ */
+public class NoteVersion {
+    public final int revision;
+
+    /**
+     * Momento da edição em milissegundos (0 na versão original)
+     */
+    public final long editedAt;
+
+    public final int editorId;
+
+    public final int subjectId;
+
+    public final int typeId;
+
+    /**
+     * Nome da matéria (preenchido a partir de NoteDictionary)
+     */
+    @NonNull
+    public String subject = "";
+
+    /**
+     * Nome do tipo de atividade (preenchido a partir de NoteDictionary)
+     */
+    @NonNull
+    public String type = "";
+
+    @NonNull
+    public final String date;
+
+    @NonNull
+    public final String content;
+
+    public NoteVersion(int revision, long editedAt, int editorId, int subjectId, int typeId,
+                       @NonNull String date, @NonNull String content) {
+        this.revision = revision;
+        this.editedAt = editedAt;
+        this.editorId = editorId;
+        this.subjectId = subjectId;
+        this.typeId = typeId;
+        this.date = date;
+        this.content = content;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.escolario.model;
+
+/**
+ * Lembrete de uma atividade próxima, com os nomes já resolvidos para a
+ * notificação. Não é uma entidade.
+ */
+public class Reminder {
+    public final int noteId;
+    public final String student;
+    public final String subject;
+    public final String type;
+
+    /**
+     * Data da atividade em dias desde 01/01/1970
+     */
+    public final int epochDay;
+
+    public Reminder(int noteId, String student, String subject, String type, int epochDay) {
+        this.noteId = noteId;
+        this.student = student;
+        this.subject = subject;
+        this.type = type;
+        this.epochDay = epochDay;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.escolario.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Registro de uma alteração de linha em users ou notes.
+ *
+ * Gravado por triggers do SQLite (ChangeLogSchema) a cada inserção,
+ * atualização ou exclusão, e consumido por ChangeFeed, que publica aos
+ * observadores apenas as linhas alteradas. Os registros consumidos são
+ * removidos; a aplicação nunca escreve nesta tabela diretamente.
+ */
+@Entity(tableName = "row_changes")
+public class RowChange {
+    public static final int OP_INSERT = 1;
+    public static final int OP_UPDATE = 2;
+    public static final int OP_DELETE = 3;
+
+    /**
+     * Sequência crescente (AUTOINCREMENT: nunca reutilizada)
+     */
+    @PrimaryKey(autoGenerate = true)
+    public long seq;
+
+    /**
+     * Tabela alterada (users ou notes)
+     */
+    @NonNull
+    public String tableName;
+
+    /**
+     * ID da linha alterada
+     */
+    public long rowId;
+
+    /**
+     * Operação (OP_INSERT, OP_UPDATE, OP_DELETE)
+     */
+    public int op;
+
+    public RowChange(@NonNull String tableName, long rowId, int op) {
+        this.tableName = tableName;
+        this.rowId = rowId;
+        this.op = op;
+    }
+}
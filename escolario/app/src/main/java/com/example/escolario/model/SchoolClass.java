@@ -0,0 +1,53 @@
+package com.example.escolario.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Entidade que representa uma turma (ex.: "7º A" de 2025).
+ *
+ * Relacionamento: alunos e professores ligam-se às turmas por
+ * Enrollment (relação N:N)
+ */
+@Entity(tableName = "classes",
+        // Nome único por ano letivo; o índice também ordena a lista de turmas
+        indices = @Index(value = {"year", "name"}, unique = true))
+public class SchoolClass {
+    /**
+     * ID único da turma (auto-incrementado)
+     */
+    @PrimaryKey(autoGenerate = true)
+    public int id;
+
+    /**
+     * Nome da turma (comparação sem diferenciar maiúsculas)
+     */
+    @NonNull
+    @ColumnInfo(collate = ColumnInfo.NOCASE)
+    public String name;
+
+    /**
+     * Ano letivo
+     */
+    public int year;
+
+    /**
+     * Construtor para criação de novas turmas
+     *
+     * param name Nome da turma
+     * param year Ano letivo
+     */
+    public SchoolClass(@NonNull String name, int year) {
+        this.name = name;
+        this.year = year;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return name + " (" + year + ")";
+    }
+}
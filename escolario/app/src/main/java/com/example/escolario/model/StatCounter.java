@@ -0,0 +1,49 @@
+package com.example.escolario.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+
+/**
+ * Contador agregado mantido incrementalmente por triggers do SQLite.
+ *
+ * Cada linha guarda um total já calculado, evitando carregar ou varrer
+ * tabelas inteiras para exibir estatísticas:
+ * - kind "total":   chaves "students" e "notes"
+ * - kind "subject": chave = ID da matéria, valor = quantidade de notas
+ * - kind "day":     chave = data ISO (yyyy-MM-dd), valor = notas no dia
+ *
+ * Os triggers são criados em StatsSchema; a aplicação nunca escreve
+ * nesta tabela diretamente.
+ */
+@Entity(tableName = "stat_counters", primaryKeys = {"kind", "key"})
+public class StatCounter {
+    public static final String KIND_TOTAL = "total";
+    public static final String KIND_SUBJECT = "subject";
+    public static final String KIND_DAY = "day";
+
+    public static final String KEY_STUDENTS = "students";
+    public static final String KEY_NOTES = "notes";
+
+    /**
+     * Categoria do contador (total, subject, day)
+     */
+    @NonNull
+    public String kind;
+
+    /**
+     * Chave dentro da categoria
+     */
+    @NonNull
+    public String key;
+
+    /**
+     * Valor atual do contador
+     */
+    public int value;
+
+    public StatCounter(@NonNull String kind, @NonNull String key, int value) {
+        this.kind = kind;
+        this.key = key;
+        this.value = value;
+    }
+}
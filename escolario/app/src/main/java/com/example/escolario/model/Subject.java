@@ -0,0 +1,17 @@
+package com.example.escolario.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+/**
+ * Matéria/disciplina referenciada por Note.subjectId.
+ */
+@Entity(tableName = "subjects",
+        indices = @Index(value = "name", unique = true))
+public class Subject extends DictionaryEntry {
+
+    public Subject(@NonNull String name) {
+        super(name);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.escolario.model;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Resultado de consulta agregada: quantidade de notas por matéria.
+ * Não é uma entidade - apenas mapeia as colunas da consulta.
+ */
+public class SubjectCount {
+    /**
+     * Nome da matéria
+     */
+    @NonNull
+    public String subject;
+
+    /**
+     * Quantidade de notas registradas na matéria
+     */
+    public int count;
+
+    public SubjectCount(@NonNull String subject, int count) {
+        this.subject = subject;
+        this.count = count;
+    }
+}
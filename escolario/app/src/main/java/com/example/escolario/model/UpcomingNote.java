@@ -0,0 +1,40 @@
+package com.example.escolario.model;
+
+/**
+ * Resultado da consulta de lembretes: nota com data dentro da janela.
+ * Não é uma entidade - apenas mapeia as colunas da consulta.
+ */
+public class UpcomingNote {
+    /**
+     * ID da nota
+     */
+    public int id;
+
+    /**
+     * Aluno dono da nota
+     */
+    public int userId;
+
+    /**
+     * Matéria (ID em subjects)
+     */
+    public int subjectId;
+
+    /**
+     * Tipo de atividade (ID em activity_types)
+     */
+    public int typeId;
+
+    /**
+     * Data da atividade em dias desde 01/01/1970
+     */
+    public int epochDay;
+
+    public UpcomingNote(int id, int userId, int subjectId, int typeId, int epochDay) {
+        this.id = id;
+        this.userId = userId;
+        this.subjectId = subjectId;
+        this.typeId = typeId;
+        this.epochDay = epochDay;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.escolario.model;
+
+import java.util.Map;
+
+/**
+ * Estatísticas de notas de um aluno exibidas na lista de administração:
+ * total, data da atividade mais recente e quantidade por tipo.
+ */
+public class UserNoteStats {
+    /**
+     * Aluno
+     */
+    public final int userId;
+
+    /**
+     * Total de notas
+     */
+    public final int noteCount;
+
+    /**
+     * Data mais recente das notas, em dias desde 01/01/1970 (0 se nenhuma)
+     */
+    public final int lastEpochDay;
+
+    /**
+     * Quantidade por tipo de atividade (nome), da maior para a menor
+     */
+    public final Map<String, Integer> countsByType;
+
+    public UserNoteStats(int userId, int noteCount, int lastEpochDay, Map<String, Integer> countsByType) {
+        this.userId = userId;
+        this.noteCount = noteCount;
+        this.lastEpochDay = lastEpochDay;
+        this.countsByType = countsByType;
+    }
+}
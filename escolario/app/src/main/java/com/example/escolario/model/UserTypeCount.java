@@ -0,0 +1,35 @@
+package com.example.escolario.model;
+
+/**
+ * Resultado de consulta agregada: notas de um aluno em um tipo de atividade.
+ * Alunos sem notas aparecem uma vez, com count 0 e typeId 0.
+ * Não é uma entidade - apenas mapeia as colunas da consulta.
+ */
+public class UserTypeCount {
+    /**
+     * Aluno
+     */
+    public int userId;
+
+    /**
+     * Tipo de atividade (ID em activity_types)
+     */
+    public int typeId;
+
+    /**
+     * Quantidade de notas do aluno no tipo
+     */
+    public int count;
+
+    /**
+     * Data mais recente das notas, em dias desde 01/01/1970 (0 se nenhuma)
+     */
+    public int lastDay;
+
+    public UserTypeCount(int userId, int typeId, int count, int lastDay) {
+        this.userId = userId;
+        this.typeId = typeId;
+        this.count = count;
+        this.lastDay = lastDay;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.escolario.ui;
+
+import android.graphics.Typeface;
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import com.example.escolario.databinding.ItemCalendarDayBinding;
+import com.example.escolario.model.CalendarMonth;
+import java.util.Map;
+
+/**
+ * Adapter da grade do calendário (7 colunas, de domingo a sábado).
+ * Os primeiros itens são vazios até o dia da semana do dia 1; cada dia
+ * mostra as iniciais e quantidades dos tipos de atividade (ex.: "P2 T1").
+ */
+public class CalendarAdapter extends RecyclerView.Adapter<CalendarAdapter.DayViewHolder> {
+    // Mês exibido (null até o primeiro carregamento)
+    private CalendarMonth month;
+
+    // Dia selecionado e dia atual (epoch day)
+    private int selectedDay;
+    private int today;
+
+    private final OnDayClickListener listener;
+
+    /**
+     * Interface para comunicação de eventos de clique.
+     */
+    public interface OnDayClickListener {
+        /**
+         * Disparado quando um dia do mês é tocado.
+         * @param epochDay Dia em dias desde 01/01/1970
+         */
+        void onDayClick(int epochDay);
+    }
+
+    public CalendarAdapter(OnDayClickListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Atualiza o mês exibido.
+     * @param month Mês com as quantidades por dia
+     * @param today Dia atual (destacado)
+     */
+    public void submitMonth(CalendarMonth month, int today) {
+        this.month = month;
+        this.today = today;
+        notifyDataSetChanged(); // Um mês substitui a grade inteira
+    }
+
+    /**
+     * Destaca o dia selecionado.
+     * @param epochDay Dia em dias desde 01/01/1970 (0 = nenhum)
+     */
+    public void setSelectedDay(int epochDay) {
+        selectedDay = epochDay;
+        notifyDataSetChanged(); // No máximo 42 células
+    }
+
+    @NonNull
+    @Override
+    public DayViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        ItemCalendarDayBinding binding = ItemCalendarDayBinding.inflate(
+                LayoutInflater.from(parent.getContext()),
+                parent,
+                false
+        );
+        return new DayViewHolder(binding);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull DayViewHolder holder, int position) {
+        int index = position - month.firstWeekday();
+        if (index < 0) {
+            // Antes do dia 1
+            holder.binding.tvDay.setText("");
+            holder.binding.tvMarks.setText("");
+            holder.itemView.setOnClickListener(null);
+            holder.itemView.setActivated(false);
+            return;
+        }
+
+        int epochDay = month.firstEpochDay + index;
+        holder.binding.tvDay.setText(String.valueOf(index + 1));
+        holder.binding.tvDay.setTypeface(null, epochDay == today ? Typeface.BOLD : Typeface.NORMAL);
+        holder.binding.tvMarks.setText(marks(month.countsByType.get(index)));
+        holder.itemView.setActivated(epochDay == selectedDay);
+        holder.itemView.setBackgroundColor(epochDay == selectedDay ? 0x226200EE : 0x00000000);
+        holder.itemView.setOnClickListener(v -> listener.onDayClick(epochDay));
+    }
+
+    // "P2 T1": inicial e quantidade de cada tipo
+    private static String marks(Map<String, Integer> types) {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, Integer> type : types.entrySet()) {
+            if (text.length() > 0) text.append(' ');
+            text.append(type.getKey().charAt(0)).append(type.getValue());
+        }
+        return text.toString();
+    }
+
+    @Override
+    public int getItemCount() {
+        return month != null ? month.firstWeekday() + month.length() : 0;
+    }
+
+    /**
+     * ViewHolder padrão que cacheia as views para performance.
+     */
+    static class DayViewHolder extends RecyclerView.ViewHolder {
+        final ItemCalendarDayBinding binding;
+
+        DayViewHolder(ItemCalendarDayBinding binding) {
+            super(binding.getRoot());
+            this.binding = binding;
+        }
+    }
+}
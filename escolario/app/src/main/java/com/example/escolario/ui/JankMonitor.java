@@ -0,0 +1,453 @@
+package com.example.escolario.ui;
+
+import android.app.Activity;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.Display;
+import android.view.FrameMetrics;
+import android.view.Window;
+
+import androidx.annotation.NonNull;
+import androidx.core.hardware.display.DisplayManagerCompat;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Coletor de métricas de quadros (FrameMetrics) de uma tela.
+ * <p>
+ * Registra a duração de cada quadro desenhado enquanto uma seção está
+ * ativa (ex.: rolagem da lista, digitação na busca), contando quadros
+ * lentos (acima do orçamento do display), congelados (acima de 700 ms) e
+ * a fase dominante de cada quadro lento (entrada, animação, layout,
+ * desenho, sincronização, GPU ou atraso antes do quadro).
+ * <p>
+ * As durações ficam em histogramas de 1 ms, com memória constante. Os
+ * resumos podem ser exportados em JSON e conferidos contra um Budget em
+ * testes automatizados.
+ */
+public class JankMonitor {
+    private static final String TAG = "JankMonitor";
+
+    // Seções padrão
+    public static final String SECTION_SCROLL = "scroll";
+    public static final String SECTION_SEARCH = "search";
+
+    // Quadros acima deste tempo são considerados congelados
+    private static final long FROZEN_FRAME_MS = 700;
+
+    // Limite do histograma (quadros maiores caem no último intervalo)
+    private static final int MAX_BUCKET_MS = 1000;
+
+    // Arquivos de resumo mantidos por tela (os mais antigos são apagados)
+    static final int MAX_EXPORTED_FILES = 10;
+
+    // Exportações de todas as telas, em ordem, fora da thread principal
+    private static final ExecutorService EXPORT_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    // Fases avaliadas para a causa de um quadro lento
+    private static final int[] PHASES = {
+            FrameMetrics.UNKNOWN_DELAY_DURATION,
+            FrameMetrics.INPUT_HANDLING_DURATION,
+            FrameMetrics.ANIMATION_DURATION,
+            FrameMetrics.LAYOUT_MEASURE_DURATION,
+            FrameMetrics.DRAW_DURATION,
+            FrameMetrics.SYNC_DURATION,
+            FrameMetrics.COMMAND_ISSUE_DURATION,
+            FrameMetrics.SWAP_BUFFERS_DURATION
+    };
+    private static final String[] PHASE_NAMES = {
+            "delay", "input", "animation", "layout", "draw", "sync", "gpu", "swap"
+    };
+
+    private final Window window;
+    private final String screen;
+    private final double budgetMs;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private HandlerThread metricsThread;
+
+    // Seções ativas e estatísticas por seção (acesso sincronizado em this)
+    private final Set<String> activeSections = new HashSet<>();
+    private final Map<String, SectionStats> sections = new LinkedHashMap<>();
+
+    private final Window.OnFrameMetricsAvailableListener listener =
+            (w, metrics, dropped) -> onFrame(metrics, dropped);
+
+    /**
+     * param activity Tela monitorada
+     * param screen Nome da tela nos resumos exportados
+     */
+    public JankMonitor(Activity activity, String screen) {
+        this.window = activity.getWindow();
+        this.screen = screen;
+
+        // Orçamento por quadro conforme a taxa de atualização do display
+        Display display = DisplayManagerCompat.getInstance(activity).getDisplay(Display.DEFAULT_DISPLAY);
+        float refreshRate = display != null && display.getRefreshRate() > 0
+                ? display.getRefreshRate() : 60f;
+        this.budgetMs = 1000.0 / refreshRate;
+    }
+
+    /**
+     * Começa a receber métricas (chamar em onResume).
+     */
+    public void start() {
+        if (metricsThread != null) {
+            return;
+        }
+        metricsThread = new HandlerThread("jank-" + screen);
+        metricsThread.start();
+        window.addOnFrameMetricsAvailableListener(listener, new Handler(metricsThread.getLooper()));
+    }
+
+    /**
+     * Para de receber métricas (chamar em onPause). Seções são encerradas.
+     */
+    public void stop() {
+        if (metricsThread == null) {
+            return;
+        }
+        window.removeOnFrameMetricsAvailableListener(listener);
+        metricsThread.quitSafely();
+        metricsThread = null;
+        mainHandler.removeCallbacksAndMessages(null);
+        synchronized (this) {
+            activeSections.clear();
+        }
+    }
+
+    /**
+     * Ativa uma seção: os próximos quadros são atribuídos a ela.
+     */
+    public synchronized void begin(String section) {
+        activeSections.add(section);
+        sections.computeIfAbsent(section, SectionStats::new);
+    }
+
+    /**
+     * Encerra uma seção.
+     */
+    public synchronized void end(String section) {
+        activeSections.remove(section);
+    }
+
+    /**
+     * Ativa uma seção dirigida por eventos (ex.: teclas), encerrando-a
+     * após idleMs sem novos eventos.
+     */
+    public void pulse(String section, long idleMs) {
+        begin(section);
+        mainHandler.removeCallbacksAndMessages(section);
+        mainHandler.postAtTime(() -> end(section), section,
+                SystemClock.uptimeMillis() + idleMs);
+    }
+
+    /**
+     * Atribui à seção SECTION_SCROLL os quadros em que a lista está rolando.
+     */
+    public void trackScrolling(RecyclerView recyclerView) {
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrollStateChanged(@NonNull RecyclerView rv, int newState) {
+                if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                    end(SECTION_SCROLL);
+                } else {
+                    begin(SECTION_SCROLL);
+                }
+            }
+        });
+    }
+
+    // Chamado na thread de métricas para cada quadro desenhado
+    private void onFrame(FrameMetrics metrics, int dropped) {
+        // Quadros de layout inicial não representam interação
+        if (metrics.getMetric(FrameMetrics.FIRST_DRAW_FRAME) == 1) {
+            return;
+        }
+        double totalMs = metrics.getMetric(FrameMetrics.TOTAL_DURATION) / 1_000_000.0;
+
+        String cause = null;
+        if (totalMs > budgetMs) {
+            long longest = -1;
+            for (int i = 0; i < PHASES.length; i++) {
+                long phase = metrics.getMetric(PHASES[i]);
+                if (phase > longest) {
+                    longest = phase;
+                    cause = PHASE_NAMES[i];
+                }
+            }
+        }
+
+        synchronized (this) {
+            for (String section : activeSections) {
+                sections.get(section).add(totalMs, budgetMs, cause, dropped);
+            }
+        }
+    }
+
+    /**
+     * return Resumo atual da seção (vazio se ela nunca foi ativada)
+     */
+    public synchronized Summary summary(String section) {
+        SectionStats stats = sections.get(section);
+        return stats != null ? stats.toSummary() : new SectionStats(section).toSummary();
+    }
+
+    /**
+     * Descarta as estatísticas acumuladas (ex.: entre execuções de teste).
+     */
+    public synchronized void reset() {
+        sections.clear();
+        for (String section : activeSections) {
+            sections.put(section, new SectionStats(section));
+        }
+    }
+
+    /**
+     * Exporta em segundo plano, no executor compartilhado entre as telas.
+     * Ver export.
+     */
+    public void exportAsync(File dir) {
+        EXPORT_EXECUTOR.execute(() -> export(dir));
+    }
+
+    /**
+     * Registra os resumos no Logcat e os grava em JSON em dir
+     * (arquivo jank-tela-instante.json), mantendo apenas os
+     * MAX_EXPORTED_FILES mais recentes da tela. Os quadros exportados são
+     * descartados, então cada arquivo cobre apenas o período desde a
+     * exportação anterior. Faz I/O: chamar fora da thread principal.
+     * return Arquivo gravado, ou null se não houver quadros
+     */
+    public File export(File dir) {
+        JSONObject json = new JSONObject();
+        List<Summary> summaries = new ArrayList<>();
+        synchronized (this) {
+            for (SectionStats stats : sections.values()) {
+                if (stats.frames > 0) summaries.add(stats.toSummary());
+            }
+            reset();
+        }
+        if (summaries.isEmpty()) {
+            return null;
+        }
+
+        try {
+            json.put("screen", screen);
+            json.put("budgetMs", budgetMs);
+            json.put("exportedAt", System.currentTimeMillis());
+            JSONObject sectionsJson = new JSONObject();
+            for (Summary summary : summaries) {
+                Log.i(TAG, screen + " " + summary);
+                sectionsJson.put(summary.section, summary.toJson());
+            }
+            json.put("sections", sectionsJson);
+
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Não foi possível criar " + dir);
+            }
+            File file = new File(dir, "jank-" + screen + "-" + System.currentTimeMillis() + ".json");
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+                writer.write(json.toString(2));
+            }
+            pruneExports(dir);
+            return file;
+        } catch (JSONException | IOException e) {
+            Log.w(TAG, "Falha ao exportar métricas", e);
+            return null;
+        }
+    }
+
+    // Apaga os resumos mais antigos da tela além de MAX_EXPORTED_FILES
+    private void pruneExports(File dir) {
+        String prefix = "jank-" + screen + "-";
+        File[] files = dir.listFiles((d, name) -> name.startsWith(prefix) && name.endsWith(".json"));
+        if (files == null || files.length <= MAX_EXPORTED_FILES) {
+            return;
+        }
+        // O instante no nome ordena os arquivos (mesmo número de dígitos)
+        Arrays.sort(files, (a, b) -> a.getName().compareTo(b.getName()));
+        for (int i = 0; i < files.length - MAX_EXPORTED_FILES; i++) {
+            if (!files[i].delete()) {
+                Log.w(TAG, "Não foi possível apagar " + files[i]);
+            }
+        }
+    }
+
+    /**
+     * Estatísticas acumuladas de uma seção.
+     */
+    private static class SectionStats {
+        final String section;
+        final int[] histogram = new int[MAX_BUCKET_MS + 1];
+        final Map<String, Integer> causes = new LinkedHashMap<>();
+        int frames;
+        int jankFrames;
+        int frozenFrames;
+        int droppedReports;
+        double totalMs;
+
+        SectionStats(String section) {
+            this.section = section;
+        }
+
+        void add(double frameMs, double budgetMs, String cause, int dropped) {
+            frames++;
+            totalMs += frameMs;
+            droppedReports += dropped;
+            histogram[(int) Math.min(MAX_BUCKET_MS, Math.round(frameMs))]++;
+            if (frameMs > budgetMs) {
+                jankFrames++;
+                causes.merge(cause, 1, Integer::sum);
+            }
+            if (frameMs > FROZEN_FRAME_MS) {
+                frozenFrames++;
+            }
+        }
+
+        int percentile(int percent) {
+            if (frames == 0) return 0;
+            int target = (int) Math.ceil(frames * percent / 100.0);
+            int seen = 0;
+            for (int ms = 0; ms < histogram.length; ms++) {
+                seen += histogram[ms];
+                if (seen >= target) return ms;
+            }
+            return MAX_BUCKET_MS;
+        }
+
+        Summary toSummary() {
+            return new Summary(section, frames, jankFrames, frozenFrames, droppedReports,
+                    frames == 0 ? 0 : totalMs / frames,
+                    percentile(50), percentile(90), percentile(99),
+                    new LinkedHashMap<>(causes));
+        }
+    }
+
+    /**
+     * Resumo imutável de uma seção.
+     */
+    public static class Summary {
+        public final String section;
+        public final int frames;
+        public final int jankFrames;
+        public final int frozenFrames;
+        // Quadros cujas métricas o sistema descartou (listener atrasado)
+        public final int droppedReports;
+        public final double meanMs;
+        public final int p50Ms;
+        public final int p90Ms;
+        public final int p99Ms;
+        // Fase dominante dos quadros lentos -> quantidade
+        public final Map<String, Integer> causes;
+
+        Summary(String section, int frames, int jankFrames, int frozenFrames, int droppedReports,
+                double meanMs, int p50Ms, int p90Ms, int p99Ms, Map<String, Integer> causes) {
+            this.section = section;
+            this.frames = frames;
+            this.jankFrames = jankFrames;
+            this.frozenFrames = frozenFrames;
+            this.droppedReports = droppedReports;
+            this.meanMs = meanMs;
+            this.p50Ms = p50Ms;
+            this.p90Ms = p90Ms;
+            this.p99Ms = p99Ms;
+            this.causes = causes;
+        }
+
+        /**
+         * return Fração de quadros lentos (0 a 1)
+         */
+        public double jankRate() {
+            return frames == 0 ? 0 : (double) jankFrames / frames;
+        }
+
+        JSONObject toJson() throws JSONException {
+            JSONObject json = new JSONObject();
+            json.put("frames", frames);
+            json.put("jankFrames", jankFrames);
+            json.put("frozenFrames", frozenFrames);
+            json.put("droppedReports", droppedReports);
+            json.put("jankRate", jankRate());
+            json.put("meanMs", meanMs);
+            json.put("p50Ms", p50Ms);
+            json.put("p90Ms", p90Ms);
+            json.put("p99Ms", p99Ms);
+            json.put("causes", new JSONObject(causes));
+            return json;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%s: %d quadros, %d lentos (%.1f%%), %d congelados, p50 %d ms, p90 %d ms, p99 %d ms, causas %s",
+                    section, frames, jankFrames, jankRate() * 100, frozenFrames,
+                    p50Ms, p90Ms, p99Ms, causes);
+        }
+    }
+
+    /**
+     * Orçamento de jank para testes automatizados.
+     */
+    public static class Budget {
+        private final double maxJankRate;
+        private final int maxP90Ms;
+        private final int maxFrozenFrames;
+
+        /**
+         * param maxJankRate Fração máxima de quadros lentos (ex.: 0.05)
+         * param maxP90Ms p90 máximo da duração dos quadros
+         * param maxFrozenFrames Quantidade máxima de quadros congelados
+         */
+        public Budget(double maxJankRate, int maxP90Ms, int maxFrozenFrames) {
+            this.maxJankRate = maxJankRate;
+            this.maxP90Ms = maxP90Ms;
+            this.maxFrozenFrames = maxFrozenFrames;
+        }
+
+        /**
+         * return Descrição das violações (vazia se o resumo cabe no orçamento)
+         */
+        public List<String> violations(Summary summary) {
+            List<String> violations = new ArrayList<>();
+            if (summary.frames == 0) {
+                violations.add(summary.section + ": nenhum quadro registrado");
+                return violations;
+            }
+            if (summary.jankRate() > maxJankRate) {
+                violations.add(String.format(Locale.US, "%s: %.1f%% de quadros lentos (máx. %.1f%%)",
+                        summary.section, summary.jankRate() * 100, maxJankRate * 100));
+            }
+            if (summary.p90Ms > maxP90Ms) {
+                violations.add(summary.section + ": p90 " + summary.p90Ms + " ms (máx. " + maxP90Ms + " ms)");
+            }
+            if (summary.frozenFrames > maxFrozenFrames) {
+                violations.add(summary.section + ": " + summary.frozenFrames
+                        + " quadros congelados (máx. " + maxFrozenFrames + ")");
+            }
+            return violations;
+        }
+    }
+}
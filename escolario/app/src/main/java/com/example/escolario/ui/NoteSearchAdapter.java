@@ -0,0 +1,118 @@
+package com.example.escolario.ui;
+
+import android.graphics.Typeface;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.style.StyleSpan;
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import com.example.escolario.databinding.ItemNoteSearchBinding;
+import com.example.escolario.model.NoteSearchResult;
+import java.util.List;
+
+/**
+ * Adapter para os resultados da busca de notas.
+ * Exibe matéria, tipo/data e o trecho do conteúdo com os termos
+ * encontrados em negrito.
+ */
+public class NoteSearchAdapter extends RecyclerView.Adapter<NoteSearchAdapter.ResultViewHolder> {
+    // Resultados atuais (já ordenados por relevância)
+    private List<NoteSearchResult> results;
+
+    // Opcional: a busca apenas exibe, o calendário abre a nota
+    private OnResultClickListener listener;
+
+    /**
+     * Interface para comunicação de eventos de clique.
+     */
+    public interface OnResultClickListener {
+        /**
+         * Disparado quando um resultado é tocado.
+         * @param result Nota tocada
+         */
+        void onResultClick(NoteSearchResult result);
+    }
+
+    /**
+     * Define o listener de toque nos resultados (null para nenhum).
+     */
+    public void setOnResultClickListener(OnResultClickListener listener) {
+        this.listener = listener;
+        notifyDataSetChanged();
+    }
+
+    /**
+     * Atualiza os resultados exibidos.
+     * @param results Nova lista de resultados (pode ser null)
+     */
+    public void submitList(List<NoteSearchResult> results) {
+        this.results = results;
+        notifyDataSetChanged(); // Cada busca substitui a lista inteira
+    }
+
+    @NonNull
+    @Override
+    public ResultViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        ItemNoteSearchBinding binding = ItemNoteSearchBinding.inflate(
+                LayoutInflater.from(parent.getContext()),
+                parent,
+                false
+        );
+        return new ResultViewHolder(binding);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ResultViewHolder holder, int position) {
+        NoteSearchResult result = results.get(position);
+
+        holder.binding.tvSubject.setText(result.subject);
+        holder.binding.tvTypeDate.setText(result.type + " · " + result.date);
+        holder.binding.tvSnippet.setText(highlight(result.snippet));
+        holder.itemView.setOnClickListener(listener != null
+                ? v -> listener.onResultClick(result)
+                : null);
+    }
+
+    @Override
+    public int getItemCount() {
+        return results != null ? results.size() : 0;
+    }
+
+    /**
+     * Converte os marcadores do snippet em trechos em negrito.
+     * @param snippet Texto com HIGHLIGHT_START/HIGHLIGHT_END
+     */
+    static CharSequence highlight(String snippet) {
+        SpannableStringBuilder text = new SpannableStringBuilder();
+        int start = -1;
+        for (int i = 0; i < snippet.length(); i++) {
+            char c = snippet.charAt(i);
+            if (c == NoteSearchResult.HIGHLIGHT_START) {
+                start = text.length();
+            } else if (c == NoteSearchResult.HIGHLIGHT_END) {
+                if (start >= 0) {
+                    text.setSpan(new StyleSpan(Typeface.BOLD), start, text.length(),
+                            Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+                }
+                start = -1;
+            } else {
+                text.append(c);
+            }
+        }
+        return text;
+    }
+
+    /**
+     * ViewHolder padrão que cacheia as views para performance.
+     */
+    static class ResultViewHolder extends RecyclerView.ViewHolder {
+        final ItemNoteSearchBinding binding;
+
+        ResultViewHolder(ItemNoteSearchBinding binding) {
+            super(binding.getRoot());
+            this.binding = binding;
+        }
+    }
+}
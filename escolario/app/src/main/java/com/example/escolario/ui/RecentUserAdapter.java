@@ -0,0 +1,90 @@
+package com.example.escolario.ui;
+
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import com.example.escolario.databinding.ItemRecentUserBinding;
+import com.example.escolario.utils.QuickSwitch;
+import java.util.List;
+
+/**
+ * Adapter da lista de alunos recentes na tela de login (modo de
+ * aparelho compartilhado). Um toque inicia a entrada do aluno; um clique
+ * longo o remove da lista.
+ */
+public class RecentUserAdapter extends RecyclerView.Adapter<RecentUserAdapter.RecentUserViewHolder> {
+    // Alunos recentes, do mais recente ao mais antigo
+    private List<QuickSwitch.RecentUser> users;
+
+    private final OnRecentUserListener listener;
+
+    /**
+     * Eventos dos itens da lista.
+     */
+    public interface OnRecentUserListener {
+        /**
+         * Toque no aluno: pedir o PIN (ou a senha, se não houver PIN).
+         */
+        void onRecentUserClick(QuickSwitch.RecentUser user);
+
+        /**
+         * Clique longo no aluno: removê-lo da lista.
+         */
+        void onRecentUserLongClick(QuickSwitch.RecentUser user);
+    }
+
+    public RecentUserAdapter(OnRecentUserListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Atualiza a lista exibida.
+     * @param users Nova lista (pode ser null)
+     */
+    public void submitList(List<QuickSwitch.RecentUser> users) {
+        this.users = users;
+        notifyDataSetChanged(); // No máximo QuickSwitch.MAX_RECENT itens
+    }
+
+    @NonNull
+    @Override
+    public RecentUserViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        ItemRecentUserBinding binding = ItemRecentUserBinding.inflate(
+                LayoutInflater.from(parent.getContext()),
+                parent,
+                false
+        );
+        return new RecentUserViewHolder(binding);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecentUserViewHolder holder, int position) {
+        QuickSwitch.RecentUser user = users.get(position);
+
+        holder.binding.tvName.setText(user.name);
+        holder.binding.tvHint.setText(user.hasPin ? "Entrar com PIN" : "Entrar com senha");
+        holder.itemView.setOnClickListener(v -> listener.onRecentUserClick(user));
+        holder.itemView.setOnLongClickListener(v -> {
+            listener.onRecentUserLongClick(user);
+            return true;
+        });
+    }
+
+    @Override
+    public int getItemCount() {
+        return users != null ? users.size() : 0;
+    }
+
+    /**
+     * ViewHolder padrão que cacheia as views para performance.
+     */
+    static class RecentUserViewHolder extends RecyclerView.ViewHolder {
+        final ItemRecentUserBinding binding;
+
+        RecentUserViewHolder(ItemRecentUserBinding binding) {
+            super(binding.getRoot());
+            this.binding = binding;
+        }
+    }
+}
@@ -1,108 +1,317 @@
-package com.example.escolario.ui;
-
-import android.view.LayoutInflater;
-import android.view.ViewGroup;
-import androidx.annotation.NonNull;
-import androidx.recyclerview.widget.RecyclerView;
-import com.example.escolario.databinding.ItemUserBinding;
-import com.example.escolario.model.User;
-import java.util.List;
-
-/**
- * Adapter para exibição de usuários em um RecyclerView.
- * Implementa padrão ViewHolder para eficiência de memória e
- * suporta operações de filtragem e clique.
- */
-public class UserAdapter extends RecyclerView.Adapter<UserAdapter.UserViewHolder> {
-    // Lista atual de usuários (pode ser filtrada)
-    private List<User> users;
-
-    // Listener para eventos de clique (injetado via construtor)
-    private final OnUserClickListener listener;
-
-    /**
-     * Interface para comunicação de eventos de clique.
-     * Segrega a responsabilidade de lidar com cliques
-     * da lógica de renderização do Adapter.
-     */
-    public interface OnUserClickListener {
-        /**
-         * Disparado quando um item da lista é selecionado.
-         * @param user Usuário correspondente ao item clicado
-         */
-        void onUserClick(User user);
-    }
-
-    /**
-     * Constrói o adapter com dependências necessárias.
-     * @param listener Implementação para tratar eventos de clique
-     */
-    public UserAdapter(OnUserClickListener listener) {
-        this.listener = listener;
-    }
-
-    /**
-     * Atualiza a lista de usuários exibidos.
-     * Notifica automaticamente as mudanças para o RecyclerView.
-     * @param users Nova lista de usuários (pode ser null)
-     */
-    public void submitList(List<User> users) {
-        this.users = users;
-        notifyDataSetChanged(); // Notificação bruta - ideal para substituição completa
-    }
-
-    /**
-     * Filtra a lista atual de usuários por critérios externos.
-     * @param filteredList Lista já filtrada (não modifica a lista original)
-     */
-    public void filterList(List<User> filteredList) {
-        this.users = filteredList;
-        notifyDataSetChanged();
-    }
-
-    @NonNull
-    @Override
-    public UserViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        // Infla o layout usando ViewBinding (melhor performance que findViewById)
-        ItemUserBinding binding = ItemUserBinding.inflate(
-                LayoutInflater.from(parent.getContext()),
-                parent,
-                false
-        );
-        return new UserViewHolder(binding);
-    }
-
-    @Override
-    public void onBindViewHolder(@NonNull UserViewHolder holder, int position) {
-        User user = users.get(position);
-
-        // Preenche os dados do usuário
-        holder.binding.tvName.setText(user.name);
-        holder.binding.tvEmail.setText(user.email);
-
-        // Configura o clique (delega para a Activity/Fragment)
-        holder.itemView.setOnClickListener(v -> {
-            if (listener != null) {
-                listener.onUserClick(user);
-            }
-        });
-    }
-
-    @Override
-    public int getItemCount() {
-        return users != null ? users.size() : 0;
-    }
-
-    /**
-     * ViewHolder padrão que cacheia as views para performance.
-     * Padrão: static para evitar vazamentos de memória.
-     */
-    static class UserViewHolder extends RecyclerView.ViewHolder {
-        final ItemUserBinding binding;
-
-        UserViewHolder(ItemUserBinding binding) {
-            super(binding.getRoot());
-            this.binding = binding;
-        }
-    }
+package com.example.escolario.ui;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import com.example.escolario.databinding.ItemUserBinding;
+import com.example.escolario.model.User;
+import com.example.escolario.model.UserNoteStats;
+import com.example.escolario.utils.Cpf;
+import com.example.escolario.utils.DateUtils;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Adapter para exibição de usuários em um RecyclerView.
+ * Implementa padrão ViewHolder para eficiência de memória e
+ * suporta operações de filtragem, clique e seleção múltipla.
+ *
+ * Seleção múltipla: um clique longo ativa o modo de seleção; nele,
+ * cliques marcam/desmarcam itens. A seleção é guardada por ID, então
+ * sobrevive a atualizações e filtros da lista.
+ *
+ * Estatísticas de notas: ao exibir um item de uma página ainda não
+ * pedida, o adapter pede as estatísticas de todos os alunos da página
+ * (STATS_PAGE_SIZE) de uma vez; os itens mostram "…" até elas chegarem.
+ */
+public class UserAdapter extends RecyclerView.Adapter<UserAdapter.UserViewHolder> {
+    /**
+     * Alunos por página de estatísticas (pouco mais que uma tela de lista)
+     */
+    public static final int STATS_PAGE_SIZE = 30;
+
+    // Atualização parcial: apenas a linha de estatísticas
+    private static final Object PAYLOAD_STATS = new Object();
+
+    // Lista atual de usuários (pode ser filtrada)
+    private List<User> users;
+
+    // Listener para eventos de clique (injetado via construtor)
+    private final OnUserClickListener listener;
+
+    // Listener para mudanças na seleção múltipla (opcional)
+    private OnSelectionChangedListener selectionListener;
+
+    // IDs dos usuários selecionados
+    private final Set<Integer> selectedIds = new HashSet<>();
+
+    // Indica se o modo de seleção múltipla está ativo
+    private boolean selectionMode;
+
+    // Estatísticas de notas por aluno (apenas das páginas já lidas)
+    private Map<Integer, UserNoteStats> noteStats = Collections.emptyMap();
+
+    // Páginas já pedidas desde a última mudança da lista ou das estatísticas
+    private final Set<Integer> requestedPages = new HashSet<>();
+
+    // Listener das páginas de estatísticas (opcional)
+    private OnStatsPageNeededListener statsListener;
+
+    /**
+     * Interface para comunicação de eventos de clique.
+     * Segrega a responsabilidade de lidar com cliques
+     * da lógica de renderização do Adapter.
+     */
+    public interface OnUserClickListener {
+        /**
+         * Disparado quando um item da lista é selecionado.
+         * @param user Usuário correspondente ao item clicado
+         */
+        void onUserClick(User user);
+    }
+
+    /**
+     * Interface para acompanhar a seleção múltipla.
+     */
+    public interface OnSelectionChangedListener {
+        /**
+         * Disparado quando itens são marcados/desmarcados.
+         * @param selectedCount Quantidade de usuários selecionados
+         *                      (0 indica que o modo de seleção terminou)
+         */
+        void onSelectionChanged(int selectedCount);
+    }
+
+    /**
+     * Interface para a leitura das estatísticas por página.
+     */
+    public interface OnStatsPageNeededListener {
+        /**
+         * Disparado na primeira exibição de um item da página.
+         * @param userIds Alunos da página, na ordem da lista
+         */
+        void onStatsPageNeeded(List<Integer> userIds);
+    }
+
+    /**
+     * Constrói o adapter com dependências necessárias.
+     * @param listener Implementação para tratar eventos de clique
+     */
+    public UserAdapter(OnUserClickListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Define o listener de seleção múltipla.
+     * @param selectionListener Listener notificado a cada mudança
+     */
+    public void setOnSelectionChangedListener(OnSelectionChangedListener selectionListener) {
+        this.selectionListener = selectionListener;
+    }
+
+    /**
+     * Define o listener das páginas de estatísticas.
+     * @param statsListener Listener chamado uma vez por página exibida
+     */
+    public void setOnStatsPageNeededListener(OnStatsPageNeededListener statsListener) {
+        this.statsListener = statsListener;
+    }
+
+    /**
+     * Atualiza as estatísticas exibidas (apenas a linha de estatísticas
+     * dos itens é redesenhada). Alunos ausentes do mapa voltam a ser
+     * pedidos quando exibidos.
+     * @param noteStats Estatísticas por ID do aluno
+     */
+    public void setNoteStats(Map<Integer, UserNoteStats> noteStats) {
+        this.noteStats = noteStats != null ? noteStats : Collections.emptyMap();
+        requestedPages.clear();
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_STATS);
+    }
+
+    /**
+     * @return IDs dos usuários selecionados
+     */
+    public List<Integer> getSelectedIds() {
+        return new ArrayList<>(selectedIds);
+    }
+
+    /**
+     * Limpa a seleção e encerra o modo de seleção múltipla.
+     */
+    public void clearSelection() {
+        selectedIds.clear();
+        selectionMode = false;
+        notifyDataSetChanged();
+        notifySelectionChanged();
+    }
+
+    /**
+     * Atualiza a lista de usuários exibidos.
+     * Notifica automaticamente as mudanças para o RecyclerView.
+     * @param users Nova lista de usuários (pode ser null)
+     */
+    public void submitList(List<User> users) {
+        this.users = users;
+        requestedPages.clear(); // As páginas mudam com as posições
+        notifyDataSetChanged(); // Notificação bruta - ideal para substituição completa
+    }
+
+    /**
+     * Filtra a lista atual de usuários por critérios externos.
+     * @param filteredList Lista já filtrada (não modifica a lista original)
+     */
+    public void filterList(List<User> filteredList) {
+        this.users = filteredList;
+        requestedPages.clear();
+        notifyDataSetChanged();
+    }
+
+    @NonNull
+    @Override
+    public UserViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        // Infla o layout usando ViewBinding (melhor performance que findViewById)
+        ItemUserBinding binding = ItemUserBinding.inflate(
+                LayoutInflater.from(parent.getContext()),
+                parent,
+                false
+        );
+        return new UserViewHolder(binding);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull UserViewHolder holder, int position) {
+        User user = users.get(position);
+
+        // Preenche os dados do usuário
+        holder.binding.tvName.setText(user.name);
+        holder.binding.tvEmail.setText(user.email);
+        holder.binding.tvCpf.setText(Cpf.format(user.cpf));
+        bindStats(holder, user, position);
+
+        // Estado de seleção
+        holder.binding.cbSelected.setVisibility(selectionMode ? View.VISIBLE : View.GONE);
+        holder.binding.cbSelected.setChecked(selectedIds.contains(user.id));
+
+        // Configura o clique (delega para a Activity/Fragment)
+        holder.itemView.setOnClickListener(v -> {
+            if (selectionMode) {
+                toggleSelection(user, holder.getAdapterPosition());
+            } else if (listener != null) {
+                listener.onUserClick(user);
+            }
+        });
+
+        // Clique longo inicia o modo de seleção com o item pressionado
+        holder.itemView.setOnLongClickListener(v -> {
+            if (!selectionMode) {
+                selectionMode = true;
+                selectedIds.add(user.id);
+                notifyDataSetChanged(); // Exibe os checkboxes em todos os itens
+                notifySelectionChanged();
+            } else {
+                toggleSelection(user, holder.getAdapterPosition());
+            }
+            return true;
+        });
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull UserViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.contains(PAYLOAD_STATS)) {
+            bindStats(holder, users.get(position), position);
+        } else {
+            super.onBindViewHolder(holder, position, payloads);
+        }
+    }
+
+    /**
+     * Exibe as estatísticas do aluno, pedindo a página se necessário.
+     */
+    private void bindStats(UserViewHolder holder, User user, int position) {
+        requestPage(position / STATS_PAGE_SIZE);
+
+        UserNoteStats stats = noteStats.get(user.id);
+        if (stats == null) {
+            holder.binding.tvStats.setText("…");
+            return;
+        }
+        if (stats.noteCount == 0) {
+            holder.binding.tvStats.setText("Nenhuma nota");
+            return;
+        }
+        StringBuilder text = new StringBuilder();
+        text.append(stats.noteCount).append(stats.noteCount == 1 ? " nota" : " notas");
+        if (stats.lastEpochDay > 0) {
+            text.append(" · última em ").append(DateUtils.fromEpochDay(stats.lastEpochDay));
+        }
+        for (Map.Entry<String, Integer> type : stats.countsByType.entrySet()) {
+            text.append(" · ").append(type.getKey()).append(' ').append(type.getValue());
+        }
+        holder.binding.tvStats.setText(text);
+    }
+
+    /**
+     * Pede as estatísticas dos alunos da página (uma vez por página).
+     */
+    private void requestPage(int page) {
+        if (statsListener == null || !requestedPages.add(page)) {
+            return;
+        }
+        int from = page * STATS_PAGE_SIZE;
+        int to = Math.min(from + STATS_PAGE_SIZE, getItemCount());
+        List<Integer> ids = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            ids.add(users.get(i).id);
+        }
+        statsListener.onStatsPageNeeded(ids);
+    }
+
+    /**
+     * Marca/desmarca um usuário. Ao desmarcar o último, encerra o modo de seleção.
+     */
+    private void toggleSelection(User user, int position) {
+        if (!selectedIds.remove(user.id)) {
+            selectedIds.add(user.id);
+        }
+
+        if (selectedIds.isEmpty()) {
+            clearSelection();
+            return;
+        }
+        if (position != RecyclerView.NO_POSITION) {
+            notifyItemChanged(position);
+        }
+        notifySelectionChanged();
+    }
+
+    private void notifySelectionChanged() {
+        if (selectionListener != null) {
+            selectionListener.onSelectionChanged(selectedIds.size());
+        }
+    }
+
+    @Override
+    public int getItemCount() {
+        return users != null ? users.size() : 0;
+    }
+
+    /**
+     * ViewHolder padrão que cacheia as views para performance.
+     * Padrão: static para evitar vazamentos de memória.
+     */
+    static class UserViewHolder extends RecyclerView.ViewHolder {
+        final ItemUserBinding binding;
+
+        UserViewHolder(ItemUserBinding binding) {
+            super(binding.getRoot());
+            this.binding = binding;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.example.escolario.utils;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+/**
+ * KDF BCrypt (formato $2a$NN$...). Formato original do aplicativo:
+ * todos os hashes anteriores à calibração (custo 12) usam este formato.
+ */
+public class BCryptKdf implements PasswordKdf {
+    public static final String ID = "bcrypt";
+
+    // Limites de custo: abaixo de 10 a proteção é insuficiente
+    static final int MIN_COST = 10;
+    static final int MAX_COST = 14;
+
+    // Custo usado na medição (rápido em qualquer aparelho)
+    private static final int PROBE_COST = 8;
+
+    @Override
+    public String id() {
+        return ID;
+    }
+
+    // Só a revisão $2a$: o jbcrypt 0.4 rejeita $2b$ e $2y$ ("Invalid salt revision")
+    @Override
+    public boolean canVerify(String encoded) {
+        return encoded.startsWith("$2a$");
+    }
+
+    @Override
+    public String hash(String password, int cost) {
+        return BCrypt.hashpw(password, BCrypt.gensalt(cost));
+    }
+
+    @Override
+    public boolean verify(String password, String encoded) {
+        try {
+            return BCrypt.checkpw(password, encoded);
+        } catch (IllegalArgumentException e) {
+            return false; // Hash malformado
+        }
+    }
+
+    @Override
+    public int costOf(String encoded) {
+        try {
+            return Integer.parseInt(encoded.substring(4, 6));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public int calibrate(long targetMs) {
+        double probeMs = KdfCalibrator.medianMillis(() -> hash("calibracao", PROBE_COST));
+
+        // Cada unidade de custo dobra o tempo
+        int cost = PROBE_COST;
+        while (cost < MAX_COST && probeMs * (1 << (cost + 1 - PROBE_COST)) <= targetMs) {
+            cost++;
+        }
+        return Math.max(MIN_COST, cost);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.escolario.utils;
+
+import java.util.Locale;
+
+/**
+ * CPF como chave numérica.
+ *
+ * No banco o CPF é guardado como inteiro (os 11 dígitos, sem formatação):
+ * ocupa no máximo 6 bytes por linha e no índice único, contra 12 do texto,
+ * e a comparação no índice é numérica. A formatação (000.000.000-00) é
+ * aplicada apenas na exibição.
+ *
+ * Zeros à esquerda não se perdem: a largura é sempre 11 dígitos.
+ *
+ * Fora da faixa dos CPFs ficam as chaves reservadas: a do administrador
+ * padrão (ADMIN) e as provisórias (pending), que nunca coincidem com um
+ * CPF digitado.
+ */
+public final class Cpf {
+
+    /**
+     * Valor devolvido por parse para entradas inválidas
+     */
+    public static final long INVALID = -1;
+
+    /**
+     * Chave do administrador padrão: negativa, nunca um CPF nem provisória
+     */
+    public static final long ADMIN = -2;
+
+    // Maior valor com 11 dígitos
+    private static final long MAX = 99_999_999_999L;
+
+    // Início das chaves provisórias: acima de 11 dígitos, nunca um CPF
+    private static final long PENDING_BASE = MAX + 1;
+
+    private Cpf() {
+        // Classe utilitária - não instanciável
+    }
+
+    /**
+     * Converte o CPF digitado (com ou sem pontuação) na chave numérica.
+     * Aceita apenas dígitos, pontos, hífen e espaços; exige 11 dígitos
+     * com dígitos verificadores corretos, não todos iguais.
+     *
+     * param input Texto digitado (ex.: "529.982.247-25")
+     * return Chave numérica, ou INVALID
+     */
+    public static long parse(String input) {
+        if (input == null) {
+            return INVALID;
+        }
+        long value = 0;
+        int digits = 0;
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > 11) {
+                    return INVALID;
+                }
+                value = value * 10 + (c - '0');
+            } else if (c != '.' && c != '-' && c != ' ') {
+                return INVALID;
+            }
+        }
+        return digits == 11 && isValid(value) ? value : INVALID;
+    }
+
+    /**
+     * Converte um CPF guardado como texto por versões anteriores (digitado
+     * com qualquer separador, sem conferência dos dígitos verificadores).
+     * Todo caractere que não é dígito é descartado.
+     *
+     * param text Valor antigo da coluna users.cpf
+     * return Chave numérica, ou INVALID se não restarem 11 dígitos
+     */
+    public static long parseLegacy(String text) {
+        if (text == null) {
+            return INVALID;
+        }
+        long value = 0;
+        int digits = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > 11) {
+                    return INVALID;
+                }
+                value = value * 10 + (c - '0');
+            }
+        }
+        return digits == 11 ? value : INVALID;
+    }
+
+    /**
+     * Chave provisória de um usuário cujo CPF antigo era inválido ou
+     * repetido (ver Migrations.MIGRATION_10_11). É única por usuário e
+     * nunca coincide com um CPF; o administrador corrige o cadastro.
+     */
+    public static long pending(int userId) {
+        return PENDING_BASE + userId;
+    }
+
+    /**
+     * return true se a chave for provisória (CPF a corrigir)
+     */
+    public static boolean isPending(long cpf) {
+        return cpf >= PENDING_BASE;
+    }
+
+    /**
+     * Confere os dígitos verificadores de uma chave numérica. Sequências
+     * de um só dígito (000.000.000-00, 111.111.111-11...) passam na conta,
+     * mas não são CPFs.
+     */
+    public static boolean isValid(long cpf) {
+        if (cpf < 0 || cpf > MAX || isRepeated(cpf)) {
+            return false;
+        }
+        // Dígitos da esquerda para a direita
+        int[] d = new int[11];
+        long rest = cpf;
+        for (int i = 10; i >= 0; i--) {
+            d[i] = (int) (rest % 10);
+            rest /= 10;
+        }
+        return d[9] == checkDigit(d, 9) && d[10] == checkDigit(d, 10);
+    }
+
+    /**
+     * return true se os 11 dígitos forem todos iguais (múltiplos de 11111111111)
+     */
+    public static boolean isRepeated(long cpf) {
+        return cpf >= 0 && cpf <= MAX && cpf % 11_111_111_111L == 0;
+    }
+
+    // Dígito verificador calculado sobre os primeiros "length" dígitos
+    private static int checkDigit(int[] d, int length) {
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += d[i] * (length + 1 - i);
+        }
+        int remainder = (sum * 10) % 11;
+        return remainder == 10 ? 0 : remainder;
+    }
+
+    /**
+     * return Os 11 dígitos, sem formatação (ex.: "00012345678")
+     */
+    public static String digits(long cpf) {
+        return String.format(Locale.ROOT, "%011d", cpf);
+    }
+
+    /**
+     * return CPF formatado para exibição (ex.: "529.982.247-25"), ou um
+     *         aviso para chaves reservadas
+     */
+    public static String format(long cpf) {
+        if (isPending(cpf)) {
+            return "CPF a corrigir";
+        }
+        if (cpf == ADMIN) {
+            return "Administrador";
+        }
+        String d = digits(cpf);
+        return d.substring(0, 3) + '.' + d.substring(3, 6) + '.'
+                + d.substring(6, 9) + '-' + d.substring(9);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.escolario.utils;
+
+import java.util.Locale;
+
+/**
+ * Classe utilitária para conversão de datas.
+ *
+ * As notas guardam a data no formato brasileiro (dd/MM/yyyy); consultas
+ * por intervalo usam o formato ISO (yyyy-MM-dd), que ordena como texto.
+ */
+public class DateUtils {
+
+    /**
+     * Converte uma data dd/MM/yyyy para yyyy-MM-dd
+     * param date Data no formato brasileiro
+     * return Data ISO, ou null se a data for inválida
+     */
+    public static String toIsoDay(String date) {
+        if (!Validator.isValidDate(date)) {
+            return null;
+        }
+        return date.substring(6, 10) + "-" + date.substring(3, 5) + "-" + date.substring(0, 2);
+    }
+
+    /**
+     * Converte uma data dd/MM/yyyy em dias desde 01/01/1970 (calendário
+     * gregoriano, sem fuso). java.time.LocalDate exige a API 26; o cálculo
+     * é feito diretamente.
+     * param date Data no formato brasileiro
+     * return Dia (epoch day), ou null se a data for inválida
+     */
+    public static Integer toEpochDay(String date) {
+        if (!Validator.isValidDate(date)) {
+            return null;
+        }
+        int day = Integer.parseInt(date.substring(0, 2));
+        int month = Integer.parseInt(date.substring(3, 5));
+        int year = Integer.parseInt(date.substring(6, 10));
+        return epochDay(year, month, day);
+    }
+
+    /**
+     * return Dias desde 01/01/1970 da data (mês de 1 a 12)
+     */
+    public static int epochDay(int year, int month, int day) {
+        // Anos começando em março: o dia 29/02 fica no fim do ano
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * Converte dias desde 01/01/1970 em dd/MM/yyyy.
+     */
+    public static String fromEpochDay(int epochDay) {
+        int[] date = civil(epochDay);
+        return String.format(Locale.US, "%02d/%02d/%04d", date[2], date[1], date[0]);
+    }
+
+    /**
+     * return Mês da data como ano * 12 + mês - 1 (meses consecutivos diferem em 1)
+     */
+    public static int monthIndex(int epochDay) {
+        int[] date = civil(epochDay);
+        return date[0] * 12 + date[1] - 1;
+    }
+
+    // Ano, mês (1 a 12) e dia de uma data em dias desde 01/01/1970
+    private static int[] civil(int epochDay) {
+        int z = epochDay + 719468;
+        int era = Math.floorDiv(z, 146097);
+        int dayOfEra = z - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return new int[]{year, month, day};
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.escolario.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.util.Log;
+
+import java.util.Arrays;
+
+/**
+ * Calibração do custo de hash de senhas para o aparelho.
+ *
+ * Na primeira execução (e após atualizações do sistema) mede o tempo do
+ * algoritmo padrão e escolhe o maior custo cuja verificação fique dentro
+ * de TARGET_VERIFY_MS. O resultado fica em SharedPreferences e é aplicado
+ * a PasswordUtils nas execuções seguintes sem nova medição.
+ *
+ * Assim, tablets antigos deixam de levar segundos por login e aparelhos
+ * novos passam a usar um custo maior que o fixo anterior (12).
+ */
+public class KdfCalibrator {
+    private static final String TAG = "KdfCalibrator";
+
+    // Latência desejada de uma verificação de senha
+    static final long TARGET_VERIFY_MS = 250;
+
+    private static final String PREF_NAME = "ESCOLARIO_KDF";
+    private static final String KEY_ALGORITHM = "algorithm";
+    private static final String KEY_COST = "cost";
+    private static final String KEY_FINGERPRINT = "fingerprint";
+
+    private KdfCalibrator() {
+        // Classe utilitária - não instanciável
+    }
+
+    /**
+     * Aplica a calibração salva ou, se não houver (ou o sistema mudou),
+     * calibra em uma thread secundária. Até o fim da calibração, vale o
+     * custo padrão de PasswordUtils.
+     *
+     * param context Contexto da aplicação
+     */
+    public static void init(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        String algorithm = prefs.getString(KEY_ALGORITHM, null);
+        PasswordKdf kdf = PasswordUtils.defaultKdf();
+
+        if (kdf.id().equals(algorithm) && Build.FINGERPRINT.equals(prefs.getString(KEY_FINGERPRINT, null))) {
+            PasswordUtils.setPolicy(algorithm, prefs.getInt(KEY_COST, 0));
+            return;
+        }
+
+        new Thread(() -> {
+            long start = System.nanoTime();
+            int cost = kdf.calibrate(TARGET_VERIFY_MS);
+            PasswordUtils.setPolicy(kdf.id(), cost);
+
+            prefs.edit()
+                    .putString(KEY_ALGORITHM, kdf.id())
+                    .putInt(KEY_COST, cost)
+                    .putString(KEY_FINGERPRINT, Build.FINGERPRINT)
+                    .apply();
+            Log.i(TAG, kdf.id() + " calibrado com custo " + cost + " em "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }, "kdf-calibration").start();
+    }
+
+    /**
+     * Mediana de 3 execuções da tarefa, em milissegundos (após 1 aquecimento).
+     */
+    static double medianMillis(Runnable task) {
+        task.run();
+        double[] samples = new double[3];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            task.run();
+            samples[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(samples);
+        return samples[1];
+    }
+}
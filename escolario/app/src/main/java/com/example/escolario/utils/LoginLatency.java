@@ -0,0 +1,103 @@
+package com.example.escolario.utils;
+
+import android.app.Activity;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import java.util.Locale;
+
+/**
+ * Mede a latência do login: do toque em "Entrar" até o primeiro quadro
+ * da tela seguinte (NoteActivity ou UserListActivity).
+ *
+ * Cada medição é registrada no Logcat (tag "LoginLatency") indicando se
+ * o usuário já tinha sido pré-carregado enquanto a senha era digitada,
+ * ou se entrou por PIN na lista de recentes (modo compartilhado), junto
+ * com a média acumulada de cada caso no processo.
+ */
+public final class LoginLatency {
+    private static final String TAG = "LoginLatency";
+
+    // Instante do toque pendente (0 = nenhum login em andamento)
+    private static long tapMillis;
+    private static boolean prefetchHit;
+    private static boolean pin;
+
+    // Acumulados por caso: [0] = sem pré-carga, [1] = com pré-carga, [2] = PIN
+    private static final long[] count = new long[3];
+    private static final long[] totalMillis = new long[3];
+
+    private LoginLatency() {
+        // Classe utilitária - não instanciável
+    }
+
+    /**
+     * Registra o toque no botão de login.
+     */
+    public static synchronized void markTap() {
+        tapMillis = SystemClock.uptimeMillis();
+        prefetchHit = false;
+        pin = false;
+    }
+
+    /**
+     * Registra a confirmação do PIN de um aluno recente.
+     */
+    public static synchronized void markPinTap() {
+        markTap();
+        pin = true;
+    }
+
+    /**
+     * Informa se o login usou o usuário pré-carregado.
+     */
+    public static synchronized void setPrefetchHit(boolean hit) {
+        prefetchHit = hit;
+    }
+
+    /**
+     * Encerra a medição no primeiro quadro da Activity. Sem efeito se a
+     * tela não foi aberta por um login.
+     * @param activity Tela aberta após o login (após setContentView)
+     */
+    public static void reportFirstFrame(Activity activity) {
+        synchronized (LoginLatency.class) {
+            if (tapMillis == 0) {
+                return;
+            }
+        }
+
+        View root = activity.getWindow().getDecorView();
+        root.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                root.getViewTreeObserver().removeOnPreDrawListener(this);
+                record(SystemClock.uptimeMillis());
+                return true;
+            }
+        });
+    }
+
+    private static synchronized void record(long nowMillis) {
+        if (tapMillis == 0) {
+            return;
+        }
+        long elapsed = nowMillis - tapMillis;
+        int bucket = pin ? 2 : prefetchHit ? 1 : 0;
+        count[bucket]++;
+        totalMillis[bucket] += elapsed;
+        tapMillis = 0;
+
+        Log.i(TAG, String.format(Locale.US,
+                "toque até a próxima tela: %d ms (%s) | média com pré-carga %s, sem %s, PIN %s",
+                elapsed, pin ? "PIN" : prefetchHit ? "com pré-carga" : "sem pré-carga",
+                average(1), average(0), average(2)));
+    }
+
+    private static String average(int bucket) {
+        return count[bucket] == 0 ? "-"
+                : (totalMillis[bucket] / count[bucket]) + " ms (n=" + count[bucket] + ")";
+    }
+}
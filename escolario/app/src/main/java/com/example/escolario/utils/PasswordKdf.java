@@ -0,0 +1,49 @@
+package com.example.escolario.utils;
+
+/**
+ * Função de derivação de chave (KDF) usada para armazenar senhas.
+ *
+ * Cada implementação tem um formato de hash próprio e autodescritivo
+ * (prefixo + parâmetro de custo + salt), de modo que hashes de formatos
+ * e custos diferentes convivem na coluna users.password. PasswordUtils
+ * escolhe a implementação pelo prefixo na verificação.
+ */
+public interface PasswordKdf {
+
+    /**
+     * return Identificador do algoritmo (persistido na calibração)
+     */
+    String id();
+
+    /**
+     * param encoded Hash armazenado
+     * return true se o hash está no formato desta implementação
+     */
+    boolean canVerify(String encoded);
+
+    /**
+     * Gera o hash de uma senha com o custo informado.
+     * param password Senha em texto puro
+     * param cost Parâmetro de custo (rodadas log2 no BCrypt, iterações no PBKDF2)
+     * return Hash no formato desta implementação
+     */
+    String hash(String password, int cost);
+
+    /**
+     * Verifica uma senha contra um hash deste formato (tempo constante).
+     */
+    boolean verify(String password, String encoded);
+
+    /**
+     * return Custo embutido no hash, ou -1 se o formato for inválido
+     */
+    int costOf(String encoded);
+
+    /**
+     * Mede o dispositivo e escolhe o maior custo cuja verificação caiba
+     * no orçamento, respeitando o mínimo de segurança do algoritmo.
+     * param targetMs Latência desejada de uma verificação
+     * return Custo calibrado
+     */
+    int calibrate(long targetMs);
+}
@@ -1,53 +1,120 @@
-package com.example.escolario.utils;
-
-import org.mindrot.jbcrypt.BCrypt;
-
-/**
- * Utilitário para manipulação segura de senhas usando BCrypt.
- *
- * Implementa as melhores práticas para:
- *
- *   Hash de senhas com salt automático
- *   Verificação segura de credenciais
- *   Proteção contra ataques de força bruta
- *
- */
-public class PasswordUtils {
-    private static final int BCRYPT_COST_FACTOR = 12; // Fator de custo balanceado entre segurança e performance
-
-    /**
-     * Gera um hash seguro para armazenamento de senhas.
-     *
-     * param password Senha em texto puro (será hasheada)
-     * return String com o hash seguro (contém salt incorporado)
-     * throws IllegalArgumentException Se a senha for nula ou vazia
-     */
-    public static String hash(String password) {
-        if (password == null || password.trim().isEmpty()) {
-            throw new IllegalArgumentException("Senha não pode ser vazia");
-        }
-        return BCrypt.hashpw(password, BCrypt.gensalt(BCRYPT_COST_FACTOR));
-    }
-
-    /**
-     * Verifica se uma senha corresponde a um hash armazenado.
-     *
-     * param password Senha em texto puro para verificação
-     * param hash Hash armazenado para comparação
-     * return true se a senha corresponder ao hash, false caso contrário
-     * throws IllegalArgumentException Se qualquer parâmetro for inválido
-     */
-    public static boolean verify(String password, String hash) {
-        if (password == null || hash == null ||
-                password.trim().isEmpty() || hash.trim().isEmpty()) {
-            throw new IllegalArgumentException("Parâmetros não podem ser nulos/vazios");
-        }
-
-        try {
-            return BCrypt.checkpw(password, hash);
-        } catch (Exception e) {
-            // Registre o erro adequadamente em produção
-            return false;
-        }
-    }
-}
\ No newline at end of file
+package com.example.escolario.utils;
+
+/**
+ * Utilitário para manipulação segura de senhas.
+ *
+ * Implementa as melhores práticas para:
+ *
+ *   Hash de senhas com salt automático
+ *   Verificação segura de credenciais
+ *   Proteção contra ataques de força bruta
+ *
+ * O algoritmo (PasswordKdf) e o custo usados em novos hashes formam a
+ * política atual, definida pela calibração do aparelho (KdfCalibrator).
+ * A verificação reconhece todos os formatos conhecidos pelo prefixo, de
+ * modo que hashes antigos continuam válidos e são atualizados no login
+ * (ver needsRehash).
+ */
+public class PasswordUtils {
+    private static final int BCRYPT_COST_FACTOR = 12; // Custo usado até a calibração do aparelho
+
+    // Formatos reconhecidos na verificação (o primeiro é o padrão)
+    private static final PasswordKdf[] KDFS = {new BCryptKdf(), new Pbkdf2Kdf()};
+
+    // Política atual para novos hashes
+    private static volatile PasswordKdf currentKdf = KDFS[0];
+    private static volatile int currentCost = BCRYPT_COST_FACTOR;
+
+    /**
+     * Define o algoritmo e o custo usados em novos hashes.
+     * param kdfId Identificador do algoritmo (PasswordKdf.id())
+     * param cost Custo calibrado
+     * throws IllegalArgumentException Se o algoritmo for desconhecido
+     */
+    public static void setPolicy(String kdfId, int cost) {
+        PasswordKdf kdf = findKdf(kdfId);
+        if (kdf == null) {
+            throw new IllegalArgumentException("Algoritmo desconhecido: " + kdfId);
+        }
+        currentKdf = kdf;
+        currentCost = cost;
+    }
+
+    /**
+     * return Algoritmo padrão (calibrado na primeira execução)
+     */
+    public static PasswordKdf defaultKdf() {
+        return KDFS[0];
+    }
+
+    /**
+     * return Implementação com o identificador informado, ou null
+     */
+    public static PasswordKdf findKdf(String id) {
+        for (PasswordKdf kdf : KDFS) {
+            if (kdf.id().equals(id)) {
+                return kdf;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gera um hash seguro para armazenamento de senhas.
+     *
+     * param password Senha em texto puro (será hasheada)
+     * return String com o hash seguro (contém algoritmo, custo e salt)
+     * throws IllegalArgumentException Se a senha for nula ou vazia
+     */
+    public static String hash(String password) {
+        if (password == null || password.trim().isEmpty()) {
+            throw new IllegalArgumentException("Senha não pode ser vazia");
+        }
+        return currentKdf.hash(password, currentCost);
+    }
+
+    /**
+     * Verifica se uma senha corresponde a um hash armazenado.
+     *
+     * param password Senha em texto puro para verificação
+     * param hash Hash armazenado para comparação (qualquer formato conhecido)
+     * return true se a senha corresponder ao hash, false caso contrário
+     * throws IllegalArgumentException Se qualquer parâmetro for inválido
+     */
+    public static boolean verify(String password, String hash) {
+        if (password == null || hash == null ||
+                password.trim().isEmpty() || hash.trim().isEmpty()) {
+            throw new IllegalArgumentException("Parâmetros não podem ser nulos/vazios");
+        }
+
+        PasswordKdf kdf = kdfFor(hash);
+        try {
+            return kdf != null && kdf.verify(password, hash);
+        } catch (Exception e) {
+            // Registre o erro adequadamente em produção
+            return false;
+        }
+    }
+
+    /**
+     * Indica se um hash deve ser recalculado com a política atual
+     * (algoritmo ou custo diferentes). Só pode ser feito após um login
+     * bem-sucedido, quando a senha em texto puro está disponível.
+     *
+     * param hash Hash armazenado
+     * return true se o hash não segue a política atual
+     */
+    public static boolean needsRehash(String hash) {
+        PasswordKdf kdf = hash != null ? kdfFor(hash) : null;
+        return kdf != currentKdf || kdf.costOf(hash) != currentCost;
+    }
+
+    private static PasswordKdf kdfFor(String hash) {
+        for (PasswordKdf kdf : KDFS) {
+            if (kdf.canVerify(hash)) {
+                return kdf;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.escolario.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * KDF PBKDF2-HMAC-SHA256 (RFC 8018).
+ *
+ * Formato: $pbkdf2-sha256$iterações$salt(hex)$hash(hex)
+ *
+ * Implementado sobre HmacSHA256 porque a fábrica PBKDF2WithHmacSHA256
+ * só existe a partir da API 26 (minSdk do aplicativo é 24). O custo é
+ * linear nas iterações, o que permite um ajuste mais fino que o BCrypt.
+ */
+public class Pbkdf2Kdf implements PasswordKdf {
+    public static final String ID = "pbkdf2-sha256";
+    private static final String PREFIX = "$" + ID + "$";
+
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BYTES = 32;
+
+    static final int MIN_ITERATIONS = 100_000;
+    static final int MAX_ITERATIONS = 2_000_000;
+    private static final int PROBE_ITERATIONS = 10_000;
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Override
+    public String id() {
+        return ID;
+    }
+
+    @Override
+    public boolean canVerify(String encoded) {
+        return encoded.startsWith(PREFIX);
+    }
+
+    @Override
+    public String hash(String password, int iterations) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] hash = derive(password.getBytes(StandardCharsets.UTF_8), salt, iterations, HASH_BYTES);
+        return PREFIX + iterations + "$" + toHex(salt) + "$" + toHex(hash);
+    }
+
+    @Override
+    public boolean verify(String password, String encoded) {
+        String[] parts = encoded.substring(PREFIX.length()).split("\\$");
+        if (parts.length != 3) {
+            return false;
+        }
+        try {
+            int iterations = Integer.parseInt(parts[0]);
+            byte[] salt = fromHex(parts[1]);
+            byte[] expected = fromHex(parts[2]);
+            byte[] actual = derive(password.getBytes(StandardCharsets.UTF_8), salt,
+                    iterations, expected.length);
+            return MessageDigest.isEqual(expected, actual);
+        } catch (IllegalArgumentException e) {
+            return false; // Hash malformado
+        }
+    }
+
+    @Override
+    public int costOf(String encoded) {
+        try {
+            String rest = encoded.substring(PREFIX.length());
+            return Integer.parseInt(rest.substring(0, rest.indexOf('$')));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public int calibrate(long targetMs) {
+        byte[] password = "calibracao".getBytes(StandardCharsets.UTF_8);
+        byte[] salt = new byte[SALT_BYTES];
+        double probeMs = KdfCalibrator.medianMillis(
+                () -> derive(password, salt, PROBE_ITERATIONS, HASH_BYTES));
+
+        // Tempo linear nas iterações; arredonda para múltiplos de 10.000
+        long iterations = (long) (PROBE_ITERATIONS * targetMs / Math.max(probeMs, 0.001));
+        iterations = iterations / 10_000 * 10_000;
+        return (int) Math.max(MIN_ITERATIONS, Math.min(MAX_ITERATIONS, iterations));
+    }
+
+    /**
+     * Deriva length bytes com PBKDF2-HMAC-SHA256.
+     */
+    static byte[] derive(byte[] password, byte[] salt, int iterations, int length) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("Iterações inválidas");
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(password, "HmacSHA256"));
+            int macLength = mac.getMacLength();
+
+            byte[] output = new byte[length];
+            byte[] block = new byte[4];
+            for (int blockIndex = 1, offset = 0; offset < length; blockIndex++, offset += macLength) {
+                block[0] = (byte) (blockIndex >>> 24);
+                block[1] = (byte) (blockIndex >>> 16);
+                block[2] = (byte) (blockIndex >>> 8);
+                block[3] = (byte) blockIndex;
+
+                // U1 = HMAC(senha, salt || i); T = U1 ^ U2 ^ ... ^ Uc
+                mac.update(salt);
+                byte[] u = mac.doFinal(block);
+                byte[] t = u.clone();
+                for (int i = 1; i < iterations; i++) {
+                    u = mac.doFinal(u);
+                    for (int j = 0; j < t.length; j++) {
+                        t[j] ^= u[j];
+                    }
+                }
+                System.arraycopy(t, 0, output, offset, Math.min(macLength, length - offset));
+            }
+            return output;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 indisponível", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16))
+                    .append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static byte[] fromHex(String hex) {
+        if (hex.length() % 2 != 0) {
+            throw new IllegalArgumentException("Hex inválido");
+        }
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int high = Character.digit(hex.charAt(2 * i), 16);
+            int low = Character.digit(hex.charAt(2 * i + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new IllegalArgumentException("Hex inválido");
+            }
+            bytes[i] = (byte) ((high << 4) | low);
+        }
+        return bytes;
+    }
+}
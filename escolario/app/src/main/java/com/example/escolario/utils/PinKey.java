@@ -0,0 +1,58 @@
+package com.example.escolario.utils;
+
+import android.security.keystore.KeyGenParameterSpec;
+import android.security.keystore.KeyProperties;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+
+/**
+ * Chave do aparelho que amarra os PINs do modo compartilhado ao hardware.
+ * <p>
+ * Um PIN de 4 a 6 dígitos tem no máximo um milhão de valores: com uma
+ * cópia do arquivo de preferências, nenhum custo de PBKDF2 impede testar
+ * todos. Por isso o PIN é guardado como HMAC com uma chave do Android
+ * Keystore, que não sai do aparelho; o valor guardado só pode ser atacado
+ * no próprio aparelho, onde vale o limite de tentativas do QuickSwitch.
+ */
+interface PinKey {
+
+    /**
+     * return HMAC do PIN com a chave do aparelho
+     * throws IllegalStateException Se a chave estiver indisponível
+     */
+    byte[] bind(byte[] pin);
+
+    // Chave HMAC-SHA256 do Android Keystore, criada no primeiro uso
+    PinKey KEYSTORE = new PinKey() {
+        private static final String PROVIDER = "AndroidKeyStore";
+        private static final String ALIAS = "escolario_pin";
+
+        @Override
+        public byte[] bind(byte[] pin) {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(key());
+                return mac.doFinal(pin);
+            } catch (GeneralSecurityException | IOException e) {
+                throw new IllegalStateException("Chave do PIN indisponível", e);
+            }
+        }
+
+        private synchronized SecretKey key() throws GeneralSecurityException, IOException {
+            KeyStore keyStore = KeyStore.getInstance(PROVIDER);
+            keyStore.load(null);
+            if (keyStore.containsAlias(ALIAS)) {
+                return (SecretKey) keyStore.getKey(ALIAS, null);
+            }
+            KeyGenerator generator = KeyGenerator.getInstance(KeyProperties.KEY_ALGORITHM_HMAC_SHA256, PROVIDER);
+            generator.init(new KeyGenParameterSpec.Builder(ALIAS, KeyProperties.PURPOSE_SIGN).build());
+            return generator.generateKey();
+        }
+    };
+}
@@ -0,0 +1,373 @@
+package com.example.escolario.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Base64;
+import android.util.Log;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Modo de aparelho compartilhado: alunos recentes e reentrada por PIN.
+ * <p>
+ * Em um tablet usado por vários alunos, cada troca exigiria email, senha
+ * e a verificação completa do hash da senha. Com o modo ativo, o login
+ * guarda os MAX_RECENT alunos mais recentes deste aparelho (por escola),
+ * e cada um pode cadastrar um PIN numérico para voltar com um toque.
+ * <p>
+ * O PIN é curto demais para que o custo de um hash proteja uma cópia do
+ * arquivo, por isso não há PBKDF2: o PIN é guardado como HMAC (com um sal
+ * aleatório) feito com a chave do aparelho no Android Keystore (PinKey),
+ * e só pode ser testado no próprio aparelho. Ali vale o limite de
+ * tentativas: após MAX_ATTEMPTS erros seguidos o PIN é apagado e o aluno
+ * volta a entrar com a senha. Verificar custa uma operação HMAC, de modo
+ * que a troca de aluno não espera um hash lento. PINs de versões
+ * anteriores são descartados. Administradores nunca entram na lista.
+ * <p>
+ * Os métodos que verificam ou cadastram PIN devem ser chamados fora da
+ * thread principal.
+ */
+public class QuickSwitch {
+    private static final String TAG = "QuickSwitch";
+
+    private static final String PREF_NAME = "ESCOLARIO_SHARED_DEVICE";
+    private static final String KEY_ENABLED = "enabled";
+    private static final String KEY_RECENT_PREFIX = "recent_";
+
+    // Alunos mantidos na lista de recentes
+    public static final int MAX_RECENT = 8;
+
+    // Erros seguidos que apagam o PIN
+    public static final int MAX_ATTEMPTS = 5;
+
+    // Formato do PIN guardado: 3 = HMAC (chave do aparelho) de sal + PIN
+    private static final int PIN_VERSION = 3;
+
+    // Tamanho do sal de cada PIN
+    private static final int SALT_BYTES = 16;
+
+    public static final int MIN_PIN_LENGTH = 4;
+    public static final int MAX_PIN_LENGTH = 6;
+
+    /**
+     * Resultado da verificação de um PIN.
+     */
+    public enum Result {
+        OK,
+        WRONG,
+        // Tentativas esgotadas (ou PIN inexistente): entrar com a senha
+        LOCKED
+    }
+
+    /**
+     * Aluno da lista de recentes.
+     */
+    public static class RecentUser {
+        public final int id;
+        public final String name;
+        public final String email;
+        public final boolean hasPin;
+
+        RecentUser(int id, String name, String email, boolean hasPin) {
+            this.id = id;
+            this.name = name;
+            this.email = email;
+            this.hasPin = hasPin;
+        }
+    }
+
+    // As instâncias são criadas por chamada; todas leem e gravam a mesma lista
+    private static final Object LOCK = new Object();
+
+    private final SharedPreferences pref;
+    private final String recentKey;
+    private final SecureRandom random = new SecureRandom();
+    private final PinKey pinKey;
+
+    /**
+     * param context Qualquer contexto
+     * param tenant Escola atual (cada escola tem sua lista)
+     */
+    public QuickSwitch(Context context, String tenant) {
+        this(context, tenant, PinKey.KEYSTORE);
+    }
+
+    // Chave do aparelho substituível nos testes (o Robolectric não tem Keystore)
+    QuickSwitch(Context context, String tenant, PinKey pinKey) {
+        pref = context.getApplicationContext().getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        recentKey = KEY_RECENT_PREFIX + tenant;
+        this.pinKey = pinKey;
+    }
+
+    /**
+     * return true se o aparelho está no modo compartilhado
+     */
+    public boolean isEnabled() {
+        return pref.getBoolean(KEY_ENABLED, false);
+    }
+
+    /**
+     * Liga ou desliga o modo compartilhado. Desligar apaga a lista de
+     * recentes e os PINs de todas as escolas.
+     */
+    public void setEnabled(boolean enabled) {
+        SharedPreferences.Editor editor = pref.edit();
+        if (!enabled) {
+            editor.clear();
+        }
+        editor.putBoolean(KEY_ENABLED, enabled).apply();
+    }
+
+    /**
+     * return Alunos recentes, do mais recente ao mais antigo
+     */
+    public List<RecentUser> recentUsers() {
+        synchronized (LOCK) {
+            JSONArray entries = load();
+            List<RecentUser> users = new ArrayList<>(entries.length());
+            for (int i = 0; i < entries.length(); i++) {
+                JSONObject entry = entries.optJSONObject(i);
+                users.add(new RecentUser(entry.optInt("id"), entry.optString("name"),
+                        entry.optString("email"), hasCurrentPin(entry)));
+            }
+            return Collections.unmodifiableList(users);
+        }
+    }
+
+    /**
+     * Coloca o aluno no topo da lista de recentes (após um login). O mais
+     * antigo sai da lista, com seu PIN, se ela passar de MAX_RECENT.
+     * O email preenche o login quando o aluno ainda não tem PIN.
+     */
+    public void remember(int userId, String name, String email) {
+        synchronized (LOCK) {
+            if (!isEnabled()) {
+                return;
+            }
+            JSONArray entries = load();
+            int index = indexOf(entries, userId);
+            JSONObject entry = index >= 0 ? entries.optJSONObject(index) : new JSONObject();
+            try {
+                entry.put("id", userId);
+                entry.put("name", name);
+                entry.put("email", email);
+            } catch (JSONException e) {
+                throw new IllegalStateException(e);
+            }
+
+            JSONArray reordered = new JSONArray();
+            reordered.put(entry);
+            for (int i = 0; i < entries.length() && reordered.length() < MAX_RECENT; i++) {
+                if (i != index) {
+                    reordered.put(entries.optJSONObject(i));
+                }
+            }
+            save(reordered);
+        }
+    }
+
+    /**
+     * return true se o aluno está na lista e tem PIN cadastrado
+     */
+    public boolean hasPin(int userId) {
+        synchronized (LOCK) {
+            JSONArray entries = load();
+            int index = indexOf(entries, userId);
+            return index >= 0 && hasCurrentPin(entries.optJSONObject(index));
+        }
+    }
+
+    /**
+     * Cadastra (ou troca) o PIN de um aluno da lista de recentes.
+     * throws IllegalArgumentException Se o PIN não tiver de 4 a 6 dígitos
+     * throws IllegalStateException Se o aluno não estiver na lista ou a
+     *         chave do aparelho estiver indisponível
+     */
+    public void setPin(int userId, String pin) {
+        if (!isValidPin(pin)) {
+            throw new IllegalArgumentException("O PIN deve ter de "
+                    + MIN_PIN_LENGTH + " a " + MAX_PIN_LENGTH + " dígitos");
+        }
+        // HMAC calculado fora do bloqueio
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        String encoded = encode(bind(salt, pin));
+        synchronized (LOCK) {
+            JSONArray entries = load();
+            int index = indexOf(entries, userId);
+            if (index < 0) {
+                throw new IllegalStateException("Usuário fora da lista de recentes");
+            }
+            JSONObject entry = entries.optJSONObject(index);
+            try {
+                entry.put("pin", encoded);
+                entry.put("pinSalt", encode(salt));
+                entry.put("pinVersion", PIN_VERSION);
+                entry.put("failures", 0);
+            } catch (JSONException e) {
+                throw new IllegalStateException(e);
+            }
+            save(entries);
+        }
+    }
+
+    /**
+     * Verifica o PIN de um aluno. Um acerto zera os erros e coloca o aluno
+     * no topo da lista; o erro de número MAX_ATTEMPTS apaga o PIN.
+     */
+    public Result verifyPin(int userId, String pin) {
+        synchronized (LOCK) {
+            JSONArray entries = load();
+            int index = indexOf(entries, userId);
+            JSONObject entry = index >= 0 ? entries.optJSONObject(index) : null;
+            if (entry == null || !entry.has("pin")) {
+                return Result.LOCKED;
+            }
+
+            // PIN de formato antigo é descartado: só a senha
+            boolean dropPin = !hasCurrentPin(entry);
+            boolean valid = false;
+            if (!dropPin) {
+                try {
+                    valid = isValidPin(pin) && MessageDigest.isEqual(
+                            bind(decode(entry.optString("pinSalt")), pin),
+                            decode(entry.optString("pin")));
+                } catch (IllegalArgumentException e) {
+                    // Sal ou hash corrompido no arquivo
+                    Log.w(TAG, "PIN descartado", e);
+                    dropPin = true;
+                } catch (IllegalStateException e) {
+                    // Chave do aparelho perdida: o PIN não pode mais ser verificado
+                    Log.w(TAG, "PIN descartado", e);
+                    dropPin = true;
+                }
+            }
+            try {
+                if (dropPin) {
+                    removePin(entry);
+                } else if (valid) {
+                    entry.put("failures", 0);
+                } else {
+                    int failures = entry.optInt("failures") + 1;
+                    if (failures >= MAX_ATTEMPTS) {
+                        removePin(entry);
+                    } else {
+                        entry.put("failures", failures);
+                    }
+                }
+            } catch (JSONException e) {
+                throw new IllegalStateException(e);
+            }
+            save(entries);
+
+            if (valid) {
+                remember(userId, entry.optString("name"), entry.optString("email"));
+                return Result.OK;
+            }
+            return entry.has("pin") ? Result.WRONG : Result.LOCKED;
+        }
+    }
+
+    /**
+     * return Tentativas restantes antes de o PIN ser apagado
+     */
+    public int attemptsLeft(int userId) {
+        synchronized (LOCK) {
+            JSONArray entries = load();
+            int index = indexOf(entries, userId);
+            if (index < 0 || !hasCurrentPin(entries.optJSONObject(index))) {
+                return 0;
+            }
+            return MAX_ATTEMPTS - entries.optJSONObject(index).optInt("failures");
+        }
+    }
+
+    /**
+     * Remove o aluno (e seu PIN) da lista de recentes.
+     */
+    public void forget(int userId) {
+        synchronized (LOCK) {
+            JSONArray entries = load();
+            int index = indexOf(entries, userId);
+            if (index >= 0) {
+                entries.remove(index);
+                save(entries);
+            }
+        }
+    }
+
+    /**
+     * return true se o PIN tem apenas dígitos e tamanho permitido
+     */
+    public static boolean isValidPin(String pin) {
+        return pin != null
+                && pin.length() >= MIN_PIN_LENGTH
+                && pin.length() <= MAX_PIN_LENGTH
+                && pin.chars().allMatch(c -> c >= '0' && c <= '9');
+    }
+
+    // PIN cadastrado no formato atual
+    private static boolean hasCurrentPin(JSONObject entry) {
+        return entry.has("pin") && entry.optInt("pinVersion") == PIN_VERSION;
+    }
+
+    private static void removePin(JSONObject entry) {
+        entry.remove("pin");
+        entry.remove("pinSalt");
+        entry.remove("pinVersion");
+        entry.remove("failures");
+    }
+
+    // HMAC do sal seguido do PIN, com a chave do aparelho
+    private byte[] bind(byte[] salt, String pin) {
+        byte[] digits = pin.getBytes(StandardCharsets.UTF_8);
+        byte[] message = Arrays.copyOf(salt, salt.length + digits.length);
+        System.arraycopy(digits, 0, message, salt.length, digits.length);
+        return pinKey.bind(message);
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.encodeToString(bytes, Base64.NO_WRAP);
+    }
+
+    private static byte[] decode(String text) {
+        return Base64.decode(text, Base64.NO_WRAP);
+    }
+
+    private JSONArray load() {
+        String json = pref.getString(recentKey, null);
+        if (json == null) {
+            return new JSONArray();
+        }
+        try {
+            return new JSONArray(json);
+        } catch (JSONException e) {
+            Log.w(TAG, "Lista de recentes corrompida; descartada", e);
+            return new JSONArray();
+        }
+    }
+
+    private void save(JSONArray entries) {
+        pref.edit().putString(recentKey, entries.toString()).apply();
+    }
+
+    private static int indexOf(JSONArray entries, int userId) {
+        for (int i = 0; i < entries.length(); i++) {
+            JSONObject entry = entries.optJSONObject(i);
+            if (entry != null && entry.optInt("id", -1) == userId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.escolario.utils;
+
+import android.Manifest;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.os.Build;
+import android.util.Log;
+
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+import androidx.core.content.ContextCompat;
+
+import com.example.escolario.activities.auth.LoginActivity;
+import com.example.escolario.model.Reminder;
+
+import java.util.List;
+
+/**
+ * Notificação dos lembretes de provas e trabalhos.
+ * <p>
+ * Um lote gera uma única notificação (substituída pelo lote seguinte),
+ * com uma linha por atividade: o aparelho pode ser compartilhado, então
+ * cada linha traz o nome do aluno.
+ */
+public class ReminderNotifier {
+    private static final String TAG = "ReminderNotifier";
+
+    private static final String CHANNEL_ID = "reminders";
+    private static final int NOTIFICATION_ID = 1;
+
+    // Linhas exibidas na notificação expandida
+    private static final int MAX_LINES = 6;
+
+    private final Context context;
+
+    public ReminderNotifier(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * Exibe os lembretes de um lote. Sem permissão de notificação, o lote
+     * é apenas registrado no Logcat.
+     * param reminders Atividades do lote, em ordem de data
+     * param today Dia atual (epoch day)
+     */
+    public void show(List<Reminder> reminders, int today) {
+        if (reminders.isEmpty()) {
+            return;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU
+                && ContextCompat.checkSelfPermission(context, Manifest.permission.POST_NOTIFICATIONS)
+                != PackageManager.PERMISSION_GRANTED) {
+            Log.i(TAG, reminders.size() + " lembretes sem permissão de notificação");
+            return;
+        }
+        createChannel();
+
+        Reminder first = reminders.get(0);
+        String title = reminders.size() == 1
+                ? dayLabel(first.epochDay, today) + ": " + describe(first)
+                : reminders.size() + " provas e trabalhos próximos";
+
+        NotificationCompat.InboxStyle style = new NotificationCompat.InboxStyle();
+        for (int i = 0; i < Math.min(MAX_LINES, reminders.size()); i++) {
+            Reminder reminder = reminders.get(i);
+            style.addLine(dayLabel(reminder.epochDay, today) + " · " + reminder.student
+                    + " · " + describe(reminder));
+        }
+        if (reminders.size() > MAX_LINES) {
+            style.setSummaryText("+" + (reminders.size() - MAX_LINES));
+        }
+
+        Intent intent = new Intent(context, LoginActivity.class)
+                .setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+        PendingIntent open = PendingIntent.getActivity(context, 0, intent, PendingIntent.FLAG_IMMUTABLE);
+
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(android.R.drawable.ic_popup_reminder)
+                .setContentTitle(title)
+                .setContentText(first.student + " · " + describe(first))
+                .setStyle(style)
+                .setNumber(reminders.size())
+                .setContentIntent(open)
+                .setAutoCancel(true);
+        NotificationManagerCompat.from(context).notify(NOTIFICATION_ID, builder.build());
+    }
+
+    // "Prova de Matemática"
+    private static String describe(Reminder reminder) {
+        return reminder.type + " de " + reminder.subject;
+    }
+
+    // "Hoje", "Amanhã" ou a data dd/MM
+    private static String dayLabel(int epochDay, int today) {
+        if (epochDay == today) {
+            return "Hoje";
+        }
+        if (epochDay == today + 1) {
+            return "Amanhã";
+        }
+        return DateUtils.fromEpochDay(epochDay).substring(0, 5);
+    }
+
+    private void createChannel() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(CHANNEL_ID,
+                    "Lembretes de provas e trabalhos", NotificationManager.IMPORTANCE_DEFAULT);
+            context.getSystemService(NotificationManager.class).createNotificationChannel(channel);
+        }
+    }
+}
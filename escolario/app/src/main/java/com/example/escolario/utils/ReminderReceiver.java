@@ -0,0 +1,30 @@
+package com.example.escolario.utils;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+import com.example.escolario.data.ReminderScheduler;
+
+/**
+ * Recebe o alarme dos lembretes e o reinício do aparelho (que apaga os
+ * alarmes) e repassa ao ReminderScheduler. A varredura roda na thread do
+ * agendador; goAsync mantém o processo ativo até ela terminar.
+ * <p>
+ * O receptor é exportado (por causa do BOOT_COMPLETED): qualquer outra
+ * ação é ignorada.
+ */
+public class ReminderReceiver extends BroadcastReceiver {
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        String action = intent.getAction();
+        if (ReminderScheduler.ACTION_REMIND.equals(action)) {
+            PendingResult result = goAsync();
+            ReminderScheduler.getInstance(context).onAlarm(result::finish);
+        } else if (Intent.ACTION_BOOT_COMPLETED.equals(action)) {
+            // Apenas refaz o agendamento
+            PendingResult result = goAsync();
+            ReminderScheduler.getInstance(context).start(result::finish);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.escolario.utils;
+
+import android.app.Activity;
+import android.app.ActivityManager;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Bundle;
+import android.os.Process;
+
+import androidx.core.content.IntentCompat;
+
+import java.util.List;
+
+/**
+ * Reinicia o processo do aplicativo e abre uma tela no processo novo.
+ * <p>
+ * Usado após a restauração de backup: singletons, ViewModels, LiveData e
+ * listeners guardam a instância do AppDatabase fechada, então em vez de
+ * reconectar cada um o processo inteiro é recriado. Esta tela roda em um
+ * processo separado (":restart", ver AndroidManifest), encerra o processo
+ * principal e inicia a tela informada, que sobe um processo novo.
+ */
+public class RestartActivity extends Activity {
+    private static final String EXTRA_NEXT = "next";
+    private static final String EXTRA_PID = "pid";
+
+    // Sufixo do processo declarado no AndroidManifest
+    private static final String PROCESS_SUFFIX = ":restart";
+
+    /**
+     * Encerra o processo atual e abre a tela em um processo novo.
+     *
+     * param activity Tela em primeiro plano (as telas da tarefa são fechadas)
+     * param next Tela a abrir no processo novo
+     */
+    public static void restart(Activity activity, Intent next) {
+        Intent intent = new Intent(activity, RestartActivity.class)
+                .addFlags(Intent.FLAG_ACTIVITY_NEW_TASK)
+                .putExtra(EXTRA_NEXT, next)
+                .putExtra(EXTRA_PID, Process.myPid());
+        activity.startActivity(intent);
+        activity.finishAffinity();
+    }
+
+    /**
+     * return true se o processo atual é o de reinício (App.onCreate não
+     * deve abrir bancos nem agendar lembretes nele)
+     */
+    public static boolean isRestartProcess(Context context) {
+        ActivityManager manager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        List<ActivityManager.RunningAppProcessInfo> processes =
+                manager != null ? manager.getRunningAppProcesses() : null;
+        if (processes == null) {
+            return false;
+        }
+        int pid = Process.myPid();
+        for (ActivityManager.RunningAppProcessInfo process : processes) {
+            if (process.pid == pid) {
+                return process.processName.endsWith(PROCESS_SUFFIX);
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+
+        // Encerra o processo principal antes de subir o novo
+        Process.killProcess(getIntent().getIntExtra(EXTRA_PID, -1));
+
+        Intent next = IntentCompat.getParcelableExtra(getIntent(), EXTRA_NEXT, Intent.class);
+        if (next != null) {
+            startActivity(next.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK));
+        }
+        finish();
+        Runtime.getRuntime().exit(0);
+    }
+}
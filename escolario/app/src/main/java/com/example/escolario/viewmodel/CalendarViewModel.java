@@ -0,0 +1,197 @@
+package com.example.escolario.viewmodel;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.escolario.data.NoteRepository;
+import com.example.escolario.model.CalendarMonth;
+import com.example.escolario.model.NoteSearchResult;
+import com.example.escolario.model.NoteVersion;
+
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ViewModel do calendário de notas (CalendarActivity).
+ * <p>
+ * Guarda o mês exibido e o dia selecionado entre mudanças de
+ * configuração. Ao exibir um mês, os vizinhos são lidos em seguida
+ * (prefetch), então deslizar para eles é atendido pela memória. Apenas o
+ * resultado do mês mais recente é publicado: deslizar rápido não mostra
+ * meses intermediários fora de ordem.
+ * <p>
+ * As notas do dia podem ser editadas (a versão anterior vai para o
+ * histórico - ver NoteHistory); a alteração chega ao calendário pelo
+ * ChangeFeed, que relê o mês e o dia exibidos.
+ */
+public class CalendarViewModel extends AndroidViewModel {
+    private final NoteRepository noteRepository;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    // Identifica o mês pedido mais recentemente
+    private final AtomicInteger generation = new AtomicInteger();
+
+    private final MutableLiveData<CalendarMonth> month = new MutableLiveData<>();
+    private final MutableLiveData<List<NoteSearchResult>> dayNotes =
+            new MutableLiveData<>(Collections.emptyList());
+    private final MutableLiveData<Event<String>> message = new MutableLiveData<>();
+    private final MutableLiveData<Event<List<NoteVersion>>> history = new MutableLiveData<>();
+
+    // Aluno, mês exibido (1 a 12) e dia selecionado (epoch day, 0 = nenhum);
+    // alterados na thread principal e lidos no executor
+    private volatile int userId;
+    private volatile int year;
+    private volatile int monthOfYear;
+    private volatile int selectedDay;
+    private boolean started;
+
+    // Notas alteradas: relê o mês exibido e o dia selecionado
+    private final Runnable calendarListener = () -> {
+        if (!executor.isShutdown()) {
+            executor.execute(this::reload);
+        }
+    };
+
+    public CalendarViewModel(@NonNull Application application) {
+        super(application);
+        noteRepository = NoteRepository.getInstance(application);
+    }
+
+    public LiveData<CalendarMonth> getMonth() {
+        return month;
+    }
+
+    /**
+     * return Notas do dia selecionado
+     */
+    public LiveData<List<NoteSearchResult>> getDayNotes() {
+        return dayNotes;
+    }
+
+    /**
+     * return Mensagens de resultado das edições
+     */
+    public LiveData<Event<String>> getMessage() {
+        return message;
+    }
+
+    /**
+     * return Versões da nota pedida em loadHistory, da mais recente à original
+     */
+    public LiveData<Event<List<NoteVersion>>> getHistory() {
+        return history;
+    }
+
+    /**
+     * return Dia selecionado (epoch day), ou 0 se nenhum
+     */
+    public int getSelectedDay() {
+        return selectedDay;
+    }
+
+    /**
+     * Exibe o mês atual do aluno (apenas na primeira chamada; após uma
+     * rotação o mês exibido é mantido).
+     */
+    public void start(int userId) {
+        if (started) {
+            return;
+        }
+        started = true;
+        this.userId = userId;
+        // No executor, antes da primeira leitura: pode abrir o banco
+        executor.execute(() -> noteRepository.addCalendarListener(calendarListener));
+        Calendar today = Calendar.getInstance();
+        showMonth(today.get(Calendar.YEAR), today.get(Calendar.MONTH) + 1);
+    }
+
+    /**
+     * Exibe o mês seguinte (delta 1) ou anterior (delta -1).
+     */
+    public void moveMonth(int delta) {
+        int index = year * 12 + monthOfYear - 1 + delta;
+        showMonth(index / 12, index % 12 + 1);
+    }
+
+    /**
+     * Seleciona um dia e carrega suas notas.
+     * @param epochDay Dia em dias desde 01/01/1970
+     */
+    public void selectDay(int epochDay) {
+        selectedDay = epochDay;
+        int current = generation.get();
+        executor.execute(() -> {
+            List<NoteSearchResult> notes = noteRepository.loadNotesOnDay(userId, epochDay);
+            if (current == generation.get()) {
+                dayNotes.postValue(notes);
+            }
+        });
+    }
+
+    /**
+     * Edita o conteúdo e a data de uma nota do dia (matéria e tipo mantidos).
+     * param date Nova data, já validada (dd/MM/yyyy)
+     */
+    public void editNote(NoteSearchResult note, String content, String date) {
+        int editorId = userId;
+        executor.execute(() -> {
+            try {
+                boolean changed = noteRepository.editNote(note.id, editorId, note.subject,
+                        note.type, content, date);
+                message.postValue(new Event<>(changed ? "Nota atualizada" : "Nenhuma alteração"));
+            } catch (Exception e) {
+                message.postValue(new Event<>("Erro ao salvar: " + e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Carrega o histórico de edições de uma nota (entregue em getHistory).
+     */
+    public void loadHistory(int noteId) {
+        executor.execute(() -> history.postValue(new Event<>(noteRepository.loadHistory(noteId))));
+    }
+
+    private void showMonth(int year, int monthOfYear) {
+        this.year = year;
+        this.monthOfYear = monthOfYear;
+        selectedDay = 0;
+        dayNotes.setValue(Collections.emptyList());
+        generation.incrementAndGet();
+        executor.execute(this::reload);
+    }
+
+    // No executor: publica o mês exibido e lê os vizinhos
+    private void reload() {
+        int current = generation.get();
+        int shownYear = year;
+        int shownMonth = monthOfYear;
+        int day = selectedDay;
+
+        CalendarMonth loaded = noteRepository.loadCalendarMonth(userId, shownYear, shownMonth);
+        if (current != generation.get()) {
+            return; // Outro mês foi pedido nesse meio tempo
+        }
+        month.postValue(loaded);
+        if (day > 0) {
+            dayNotes.postValue(noteRepository.loadNotesOnDay(userId, day));
+        }
+        noteRepository.prefetchCalendarMonths(userId, shownYear, shownMonth);
+    }
+
+    @Override
+    protected void onCleared() {
+        if (started) {
+            executor.execute(() -> noteRepository.removeCalendarListener(calendarListener));
+        }
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.escolario.viewmodel;
+
+/**
+ * Envelope para eventos de uso único expostos via LiveData
+ * (mensagens, navegação, resultado de operações).
+ * <p>
+ * Após uma rotação, o LiveData reentrega o último valor; o envelope
+ * garante que o evento seja tratado apenas uma vez.
+ *
+ * @param <T> Tipo do conteúdo do evento
+ */
+public class Event<T> {
+    private final T content;
+    private boolean handled;
+
+    public Event(T content) {
+        this.content = content;
+    }
+
+    /**
+     * Retorna o conteúdo apenas na primeira chamada.
+     * @return Conteúdo, ou null se o evento já foi tratado
+     */
+    public T getContentIfNotHandled() {
+        if (handled) {
+            return null;
+        }
+        handled = true;
+        return content;
+    }
+}
@@ -0,0 +1,373 @@
+package com.example.escolario.viewmodel;
+
+import android.app.Application;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.room.InvalidationTracker;
+
+import com.example.escolario.data.AppDatabase;
+import com.example.escolario.data.AuditLog;
+import com.example.escolario.data.UserRepository;
+import com.example.escolario.model.AuditEntry;
+import com.example.escolario.model.User;
+import com.example.escolario.utils.BCryptKdf;
+import com.example.escolario.utils.LoginLatency;
+import com.example.escolario.utils.PasswordUtils;
+import com.example.escolario.utils.QuickSwitch;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ViewModel da tela de login (LoginActivity).
+ * <p>
+ * Faz o aquecimento especulativo enquanto o usuário digita a senha:
+ * abre o banco, carrega o usuário do email informado e exercita o código
+ * de hash. Ao tocar em "Entrar", resta apenas a verificação da senha.
+ * <p>
+ * O usuário pré-carregado é descartado se a tabela users mudar (exclusão,
+ * troca de senha), evitando autenticar contra dados desatualizados.
+ * <p>
+ * No modo de aparelho compartilhado (QuickSwitch), oferece também a
+ * lista de alunos recentes com entrada por PIN. Ao exibir a lista, os
+ * registros e rascunhos desses alunos são carregados no cache em memória
+ * (WarmUserCache), e a entrada por PIN não lê o banco nem calcula o hash
+ * da senha.
+ */
+public class LoginViewModel extends AndroidViewModel {
+    private static final String TAG = "LoginViewModel";
+
+    // O código de hash só precisa ser aquecido uma vez por processo
+    private static final AtomicBoolean HASH_WARMED = new AtomicBoolean(false);
+
+    // Detalhe dos eventos de auditoria da entrada por PIN
+    private static final String PIN_DETAIL = "pin";
+
+    private final UserRepository userRepository;
+    private final AuditLog auditLog;
+
+    // Pré-carga e login em sequência: o login espera uma pré-carga em andamento
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    // Resultado de uma pré-carga, publicado de uma vez (email e usuário
+    // nunca são lidos de pré-cargas diferentes)
+    private static final class Prefetch {
+        final String email;
+        final User user; // null = email não cadastrado
+        final int usersVersion;
+
+        Prefetch(String email, User user, int usersVersion) {
+            this.email = email;
+            this.user = user;
+            this.usersVersion = usersVersion;
+        }
+    }
+
+    // Última pré-carga (null = nenhuma ou descartada)
+    private volatile Prefetch prefetched;
+
+    // Descarta a pré-carga quando a tabela users muda; o contador detecta
+    // mudanças ocorridas durante a própria consulta de pré-carga
+    private AppDatabase trackedDatabase;
+    private final AtomicInteger usersVersion = new AtomicInteger();
+    private final InvalidationTracker.Observer usersObserver = new InvalidationTracker.Observer("users") {
+        @Override
+        public void onInvalidated(@NonNull Set<String> tables) {
+            usersVersion.incrementAndGet();
+            prefetched = null;
+        }
+    };
+
+    private final MutableLiveData<Boolean> loading = new MutableLiveData<>(false);
+    private final MutableLiveData<Event<User>> loggedIn = new MutableLiveData<>();
+    private final MutableLiveData<Event<String>> errors = new MutableLiveData<>();
+
+    // Aluno autenticado aguardando a resposta ao convite de PIN (null =
+    // nenhum convite). Estado, e não Event: a tela recriada mostra o
+    // convite de novo até que seja respondido.
+    private final MutableLiveData<User> pinOffer = new MutableLiveData<>();
+
+    // Alunos recentes do modo compartilhado (vazia com o modo desligado)
+    private final MutableLiveData<List<QuickSwitch.RecentUser>> recentUsers =
+            new MutableLiveData<>(Collections.emptyList());
+
+    public LoginViewModel(@NonNull Application application) {
+        super(application);
+        userRepository = UserRepository.getInstance(application);
+        auditLog = AuditLog.getInstance(application);
+    }
+
+    public LiveData<Boolean> getLoading() {
+        return loading;
+    }
+
+    public LiveData<Event<User>> getLoggedIn() {
+        return loggedIn;
+    }
+
+    public LiveData<Event<String>> getErrors() {
+        return errors;
+    }
+
+    public LiveData<User> getPinOffer() {
+        return pinOffer;
+    }
+
+    public LiveData<List<QuickSwitch.RecentUser>> getRecentUsers() {
+        return recentUsers;
+    }
+
+    /**
+     * Relê a lista de alunos recentes e aquece o cache de cada um.
+     */
+    public void loadRecentUsers() {
+        executor.execute(() -> {
+            QuickSwitch quickSwitch = quickSwitch();
+            if (!quickSwitch.isEnabled()) {
+                recentUsers.postValue(Collections.emptyList());
+                return;
+            }
+            List<QuickSwitch.RecentUser> users = quickSwitch.recentUsers();
+            recentUsers.postValue(users);
+            long start = System.nanoTime();
+            for (QuickSwitch.RecentUser user : users) {
+                userRepository.warmUp(user.id);
+            }
+            Log.d(TAG, users.size() + " alunos recentes aquecidos em "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        });
+    }
+
+    /**
+     * Responde ao convite de PIN (na thread principal) e conclui o login
+     * pendente por getLoggedIn().
+     * @param pin PIN já validado (QuickSwitch.isValidPin), ou null para não cadastrar
+     */
+    public void answerPinOffer(String pin) {
+        User user = pinOffer.getValue();
+        if (user == null) {
+            return;
+        }
+        pinOffer.setValue(null);
+        if (pin != null) {
+            setPin(user.id, pin);
+        }
+        loggedIn.setValue(new Event<>(user));
+    }
+
+    // true se o aluno autenticado deve ser convidado a cadastrar um PIN
+    // (modo compartilhado, aluno ainda sem PIN)
+    private boolean shouldOfferPin(User user) {
+        QuickSwitch quickSwitch = quickSwitch();
+        return !user.isAdmin && quickSwitch.isEnabled() && !quickSwitch.hasPin(user.id);
+    }
+
+    // Cadastra o PIN do aluno em segundo plano
+    private void setPin(int userId, String pin) {
+        executor.execute(() -> {
+            try {
+                quickSwitch().setPin(userId, pin);
+            } catch (RuntimeException e) {
+                Log.w(TAG, "Falha ao cadastrar PIN", e);
+            }
+        });
+    }
+
+    /**
+     * Remove um aluno da lista de recentes (e seu PIN).
+     */
+    public void forgetRecentUser(int userId) {
+        executor.execute(() -> {
+            QuickSwitch quickSwitch = quickSwitch();
+            quickSwitch.forget(userId);
+            recentUsers.postValue(quickSwitch.recentUsers());
+        });
+    }
+
+    /**
+     * Entrada por PIN de um aluno recente. O resultado chega por
+     * getLoggedIn() ou getErrors(); esgotadas as tentativas, o aluno some
+     * do atalho de PIN e precisa entrar com a senha.
+     */
+    public void quickLogin(int userId, String pin) {
+        if (Boolean.TRUE.equals(loading.getValue())) {
+            return;
+        }
+        loading.setValue(true);
+
+        executor.execute(() -> {
+            try {
+                QuickSwitch quickSwitch = quickSwitch();
+                QuickSwitch.Result result = quickSwitch.verifyPin(userId, pin);
+                if (result == QuickSwitch.Result.OK) {
+                    User user = userRepository.findById(userId);
+                    if (user != null && !user.isAdmin) {
+                        loggedIn.postValue(new Event<>(user));
+                        auditLog.record(AuditEntry.LOGIN, user.id, user.id, PIN_DETAIL);
+                        return;
+                    }
+                    // Excluído desde o último login
+                    quickSwitch.forget(userId);
+                    errors.postValue(new Event<>("Usuário não encontrado"));
+                } else {
+                    auditLog.record(AuditEntry.LOGIN_FAILED, 0, userId, PIN_DETAIL);
+                    errors.postValue(new Event<>(result == QuickSwitch.Result.WRONG
+                            ? "PIN incorreto (" + quickSwitch.attemptsLeft(userId) + " tentativas restantes)"
+                            : "Tentativas esgotadas: entre com email e senha"));
+                }
+                recentUsers.postValue(quickSwitch.recentUsers());
+            } catch (Exception e) {
+                errors.postValue(new Event<>("Erro: " + e.getMessage()));
+            } finally {
+                loading.postValue(false);
+            }
+        });
+    }
+
+    /**
+     * Pré-carrega o usuário do email em segundo plano. Emails iguais ao
+     * último pré-carregado são ignorados.
+     * @param email Email normalizado e com formato válido
+     */
+    public void prefetch(String email) {
+        if (prefetchedFor(email) != null) {
+            return;
+        }
+        executor.execute(() -> {
+            if (prefetchedFor(email) != null) {
+                return;
+            }
+            long start = System.nanoTime();
+            watchUsersTable();
+            int version = usersVersion.get();
+            User user = userRepository.findByEmail(email);
+            if (version == usersVersion.get()) {
+                prefetched = new Prefetch(email, user, version);
+            }
+            warmUpHashing();
+            Log.d(TAG, "pré-carga em " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        });
+    }
+
+    /**
+     * Autentica em segundo plano, usando o usuário pré-carregado quando
+     * disponível. O resultado chega por getLoggedIn() ou getErrors().
+     * <p>
+     * Antes de aceitar o usuário pré-carregado, o hash da senha é
+     * conferido no banco (consulta pela chave primária): uma troca de senha
+     * ainda não notificada pelo InvalidationTracker não autentica com a
+     * senha antiga.
+     */
+    public void login(String email, String password) {
+        if (Boolean.TRUE.equals(loading.getValue())) {
+            return;
+        }
+        loading.setValue(true);
+
+        executor.execute(() -> {
+            try {
+                Prefetch prefetch = prefetchedFor(email);
+                boolean hit = prefetch != null;
+                User user = hit ? prefetch.user : userRepository.findByEmail(email);
+                boolean valid = user != null && PasswordUtils.verify(password, user.password);
+                if (hit && valid && !user.password.equals(userRepository.passwordHash(user.id))) {
+                    // Senha trocada (ou usuário excluído) depois da pré-carga
+                    hit = false;
+                    user = userRepository.findByEmail(email);
+                    valid = user != null && PasswordUtils.verify(password, user.password);
+                }
+                LoginLatency.setPrefetchHit(hit);
+
+                if (valid) {
+                    if (!user.isAdmin) {
+                        // Modo compartilhado: o aluno entra na lista de recentes
+                        quickSwitch().remember(user.id, user.name, user.email);
+                    }
+                    if (shouldOfferPin(user)) {
+                        // O login é concluído por answerPinOffer
+                        pinOffer.postValue(user);
+                    } else {
+                        loggedIn.postValue(new Event<>(user));
+                    }
+                    auditLog.record(AuditEntry.LOGIN, user.id, user.id, null);
+                    upgradePasswordHash(user, password);
+                } else {
+                    // Mensagem genérica por segurança (não revela se email existe)
+                    errors.postValue(new Event<>("Credenciais inválidas"));
+                    auditLog.record(AuditEntry.LOGIN_FAILED, 0, user != null ? user.id : 0, email);
+                }
+            } catch (Exception e) {
+                errors.postValue(new Event<>("Erro: " + e.getMessage()));
+            } finally {
+                loading.postValue(false);
+            }
+        });
+    }
+
+    /**
+     * Recalcula o hash de senhas antigas (algoritmo ou custo diferentes da
+     * calibração atual). Executado após publicar o login, sem atrasá-lo.
+     */
+    private void upgradePasswordHash(User user, String password) {
+        if (!PasswordUtils.needsRehash(user.password)) {
+            return;
+        }
+        try {
+            userRepository.updatePasswordHash(user.id, user.password, PasswordUtils.hash(password));
+        } catch (Exception e) {
+            // Tenta novamente no próximo login
+            Log.w(TAG, "Falha ao atualizar hash da senha", e);
+        }
+    }
+
+    // Pré-carga ainda válida para o email, ou null
+    private Prefetch prefetchedFor(String email) {
+        Prefetch prefetch = prefetched;
+        return prefetch != null && prefetch.email.equals(email)
+                && prefetch.usersVersion == usersVersion.get() ? prefetch : null;
+    }
+
+    // Lista de recentes da escola atual
+    private QuickSwitch quickSwitch() {
+        return new QuickSwitch(getApplication(), AppDatabase.currentTenant(getApplication()));
+    }
+
+    // Registra o observador de invalidação no banco atual (na thread do executor)
+    private void watchUsersTable() {
+        AppDatabase db = AppDatabase.getDatabase(getApplication());
+        if (db != trackedDatabase) {
+            if (trackedDatabase != null) {
+                trackedDatabase.getInvalidationTracker().removeObserver(usersObserver);
+            }
+            db.getInvalidationTracker().addObserver(usersObserver);
+            trackedDatabase = db;
+        }
+    }
+
+    // Exercita o BCrypt com custo mínimo (carrega classes e compila o código quente)
+    private static void warmUpHashing() {
+        if (HASH_WARMED.compareAndSet(false, true)) {
+            PasswordUtils.verify("aquecimento", new BCryptKdf().hash("aquecimento", 4));
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        executor.execute(() -> {
+            if (trackedDatabase != null) {
+                trackedDatabase.getInvalidationTracker().removeObserver(usersObserver);
+            }
+        });
+        // Tarefas já enviadas (como a atualização do hash) terminam; nenhuma nova é aceita
+        executor.shutdown();
+    }
+}
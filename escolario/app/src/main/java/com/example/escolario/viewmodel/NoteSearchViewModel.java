@@ -0,0 +1,147 @@
+package com.example.escolario.viewmodel;
+
+import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.escolario.data.NoteRepository;
+import com.example.escolario.model.NoteSearchResult;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ViewModel da busca de notas (NoteSearchActivity).
+ * <p>
+ * A busca é disparada após uma breve pausa na digitação (debounce) e
+ * apenas o resultado da busca mais recente é publicado. Os resultados
+ * sobrevivem a mudanças de configuração.
+ */
+public class NoteSearchViewModel extends AndroidViewModel {
+    // Pausa na digitação antes de executar a busca
+    private static final long DEBOUNCE_MS = 250;
+
+    // Quantidade máxima de resultados exibidos
+    private static final int MAX_RESULTS = 50;
+
+    private final NoteRepository noteRepository;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    // Identifica a busca mais recente (resultados antigos são descartados)
+    private final AtomicInteger generation = new AtomicInteger();
+
+    private final MutableLiveData<List<NoteSearchResult>> results =
+            new MutableLiveData<>(Collections.emptyList());
+
+    // Tipos de atividade do filtro (dicionário do banco)
+    private final MutableLiveData<List<String>> types = new MutableLiveData<>();
+
+    // Critérios da última busca executada
+    private Criteria lastCriteria;
+
+    /**
+     * Critérios de busca (imutáveis).
+     */
+    public static class Criteria {
+        final int userId;
+        final String text;
+        final String type;     // null = todos os tipos
+        final Integer fromDay;  // Epoch day ou null
+        final Integer toDay;    // Epoch day ou null
+
+        public Criteria(int userId, String text, String type, Integer fromDay, Integer toDay) {
+            this.userId = userId;
+            this.text = text != null ? text.trim() : "";
+            this.type = type;
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Criteria)) return false;
+            Criteria other = (Criteria) o;
+            return userId == other.userId && text.equals(other.text)
+                    && Objects.equals(type, other.type)
+                    && Objects.equals(fromDay, other.fromDay)
+                    && Objects.equals(toDay, other.toDay);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, text, type, fromDay, toDay);
+        }
+    }
+
+    public NoteSearchViewModel(@NonNull Application application) {
+        super(application);
+        noteRepository = NoteRepository.getInstance(application);
+        executor.execute(() -> types.postValue(noteRepository.getTypeNames()));
+    }
+
+    /**
+     * return Tipos de atividade disponíveis para o filtro
+     */
+    public LiveData<List<String>> getTypes() {
+        return types;
+    }
+
+    /**
+     * return Resultados da busca mais recente, do mais relevante ao menos
+     */
+    public LiveData<List<NoteSearchResult>> getResults() {
+        return results;
+    }
+
+    /**
+     * Agenda uma busca. Critérios iguais aos da última busca são ignorados
+     * (ex.: campos restaurados após rotação).
+     * @param criteria Critérios de busca
+     */
+    public void search(Criteria criteria) {
+        if (criteria.equals(lastCriteria)) {
+            return;
+        }
+        lastCriteria = criteria;
+
+        int current = generation.incrementAndGet();
+        handler.removeCallbacksAndMessages(null);
+
+        if (criteria.text.isEmpty()) {
+            results.setValue(Collections.emptyList());
+            return;
+        }
+
+        handler.postDelayed(() -> executor.execute(() -> {
+            if (current != generation.get()) return; // Superada por outra busca
+
+            List<NoteSearchResult> found;
+            try {
+                found = noteRepository.searchNotes(criteria.userId, criteria.text,
+                        criteria.type, criteria.fromDay, criteria.toDay, MAX_RESULTS);
+            } catch (Exception e) {
+                found = Collections.emptyList(); // Ex.: expressão MATCH rejeitada
+            }
+
+            if (current == generation.get()) {
+                results.postValue(found);
+            }
+        }), DEBOUNCE_MS);
+    }
+
+    @Override
+    protected void onCleared() {
+        handler.removeCallbacksAndMessages(null);
+        executor.shutdown();
+    }
+}
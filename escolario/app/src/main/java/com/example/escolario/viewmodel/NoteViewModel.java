@@ -0,0 +1,163 @@
+package com.example.escolario.viewmodel;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.escolario.data.DraftAutosaver;
+import com.example.escolario.data.NoteRepository;
+import com.example.escolario.model.NoteDraft;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * ViewModel da tela de notas (NoteActivity).
+ * <p>
+ * Mantém o salvamento em andamento e seu resultado entre mudanças de
+ * configuração: uma rotação durante o salvamento não perde o feedback
+ * nem permite salvar a mesma nota duas vezes.
+ * <p>
+ * O formulário é salvo como rascunho enquanto o usuário digita
+ * (DraftAutosaver, com escritas agrupadas) e restaurado na próxima
+ * abertura da tela, inclusive após o encerramento do processo.
+ */
+public class NoteViewModel extends AndroidViewModel {
+    private final NoteRepository noteRepository;
+
+    // Executa as escritas fora da thread principal (notas e rascunhos, em ordem)
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+    private final DraftAutosaver autosaver;
+
+    // Indica se há um salvamento em andamento
+    private final MutableLiveData<Boolean> saving = new MutableLiveData<>(false);
+
+    // Resultado do salvamento: sucesso ou mensagem de erro
+    private final MutableLiveData<Event<String>> saveError = new MutableLiveData<>();
+    private final MutableLiveData<Event<Boolean>> saved = new MutableLiveData<>();
+
+    // Opções do formulário, vindas do dicionário de matérias e tipos
+    private final MutableLiveData<List<String>> types = new MutableLiveData<>();
+    private final MutableLiveData<List<String>> subjects = new MutableLiveData<>();
+
+    // Rascunho salvo, entregue uma vez após loadDraft
+    private final MutableLiveData<Event<NoteDraft>> draft = new MutableLiveData<>();
+    private boolean draftRequested;
+
+    public NoteViewModel(@NonNull Application application) {
+        super(application);
+        noteRepository = NoteRepository.getInstance(application);
+        autosaver = new DraftAutosaver(executor, noteRepository::saveDraft);
+        executor.execute(() -> {
+            types.postValue(noteRepository.getTypeNames());
+            subjects.postValue(noteRepository.getSubjectNames());
+        });
+    }
+
+    /**
+     * return Tipos de atividade do formulário
+     */
+    public LiveData<List<String>> getTypes() {
+        return types;
+    }
+
+    /**
+     * return Matérias já cadastradas (sugestões do campo de matéria)
+     */
+    public LiveData<List<String>> getSubjects() {
+        return subjects;
+    }
+
+    /**
+     * return Rascunho restaurado (conteúdo null se não houver)
+     */
+    public LiveData<Event<NoteDraft>> getDraft() {
+        return draft;
+    }
+
+    /**
+     * Carrega o rascunho salvo do usuário (apenas na primeira chamada;
+     * após uma rotação os campos já estão preenchidos).
+     */
+    public void loadDraft(int userId) {
+        if (draftRequested) {
+            return;
+        }
+        draftRequested = true;
+        executor.execute(() -> draft.postValue(new Event<>(noteRepository.loadDraft(userId))));
+    }
+
+    /**
+     * Registra o estado atual do formulário para o salvamento automático.
+     * Ignorado até o rascunho salvo ser entregue, para que o formulário
+     * ainda vazio não o sobrescreva.
+     */
+    public void updateDraft(int userId, String subject, String type, String date, String content) {
+        if (draft.getValue() == null) {
+            return;
+        }
+        autosaver.update(new NoteDraft(userId, subject, type, date, content));
+    }
+
+    /**
+     * Grava imediatamente o rascunho pendente (a tela saiu de vista).
+     */
+    public void flushDraft() {
+        autosaver.flushNow();
+    }
+
+    public LiveData<Boolean> getSaving() {
+        return saving;
+    }
+
+    public LiveData<Event<Boolean>> getSaved() {
+        return saved;
+    }
+
+    public LiveData<Event<String>> getSaveError() {
+        return saveError;
+    }
+
+    /**
+     * Salva uma nota em segundo plano. Ignorado se já houver um salvamento
+     * em andamento (evita duplicidade por cliques repetidos).
+     * Matéria e tipo são gravados como IDs do dicionário, e o rascunho é
+     * removido junto com a inserção.
+     */
+    public void saveNote(int userId, String subject, String type, String content, String date) {
+        if (Boolean.TRUE.equals(saving.getValue())) {
+            return;
+        }
+        saving.setValue(true);
+        // O rascunho pendente não deve ser gravado depois da nota
+        autosaver.cancel();
+
+        executor.execute(() -> {
+            try {
+                noteRepository.insert(userId, subject, type, content, date);
+                saved.postValue(new Event<>(true));
+                // A matéria pode ser nova: atualiza as sugestões
+                subjects.postValue(noteRepository.getSubjectNames());
+            } catch (Exception e) {
+                saveError.postValue(new Event<>("Erro ao salvar: " + e.getMessage()));
+                // A nota continua no formulário: mantém o rascunho atualizado
+                noteRepository.saveDraft(new NoteDraft(userId, subject, type, date, content));
+            } finally {
+                saving.postValue(false);
+            }
+        });
+    }
+
+    @Override
+    protected void onCleared() {
+        // Tarefas já enviadas (inclusive o rascunho pendente) terminam;
+        // nenhuma nova é aceita
+        autosaver.flushNow();
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,439 @@
+package com.example.escolario.viewmodel;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
+
+import com.example.escolario.data.AuditLog;
+import com.example.escolario.data.BulkUserDeleter;
+import com.example.escolario.data.ClassRepository;
+import com.example.escolario.data.DatabaseBackup;
+import com.example.escolario.data.NoteRepository;
+import com.example.escolario.data.UserRepository;
+import com.example.escolario.model.AuditEntry;
+import com.example.escolario.model.Enrollment;
+import com.example.escolario.model.SchoolClass;
+import com.example.escolario.model.SubjectCount;
+import com.example.escolario.model.User;
+import com.example.escolario.model.UserNoteStats;
+import com.example.escolario.utils.SessionManager;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ViewModel da tela de administração (UserListActivity).
+ * <p>
+ * Sobrevive a mudanças de configuração (rotação, modo escuro): as
+ * consultas são criadas uma única vez no construtor e reobservadas pela
+ * nova Activity sem nova execução, e as operações em andamento (exclusão,
+ * backup, restauração) continuam e entregam o resultado à nova tela.
+ * <p>
+ * A busca usa um único LiveData (switchMap sobre o filtro: texto e turma),
+ * evitando que cada tecla adicione um novo observador. Com uma turma
+ * escolhida, a lista e a busca leem apenas os alunos matriculados nela.
+ * <p>
+ * As estatísticas de notas de cada aluno são lidas por página, conforme
+ * a lista é exibida (requestNoteStats), em uma thread própria: uma
+ * exclusão em andamento não atrasa a rolagem.
+ * <p>
+ * Nada aqui abre o banco na thread principal: as consultas observáveis
+ * esperam a abertura em segundo plano e os registros de ouvintes rodam
+ * nos executores.
+ */
+public class UserListViewModel extends AndroidViewModel {
+    private final UserRepository userRepository;
+    private final ClassRepository classRepository;
+
+    // Executa as operações de escrita em sequência, fora da thread principal
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    // Lê as páginas de estatísticas em sequência
+    private final ExecutorService statsExecutor = Executors.newSingleThreadExecutor();
+
+    // Filtro atual (texto "" e turma 0 = lista completa)
+    private final MutableLiveData<Filter> filter = new MutableLiveData<>(new Filter("", 0));
+
+    // Lista exibida (completa ou filtrada)
+    private final LiveData<List<User>> users;
+
+    // Turmas, para o filtro e a matrícula
+    private final LiveData<List<SchoolClass>> classes;
+
+    // Totais do resumo
+    private final LiveData<Integer> studentCount;
+    private final LiveData<Integer> noteCount;
+    private final LiveData<Integer> weekNoteCount;
+    // Semana contada: {segunda, domingo} em yyyy-MM-dd; ver refreshWeek
+    private final MutableLiveData<String[]> week = new MutableLiveData<>();
+    private final LiveData<List<SubjectCount>> subjectCounts;
+
+    // Estatísticas de notas dos alunos já exibidos (acumuladas por página)
+    private final MutableLiveData<Map<Integer, UserNoteStats>> noteStats =
+            new MutableLiveData<>(Collections.emptyMap());
+
+    // Estatísticas lidas (acessado apenas em statsExecutor)
+    private final Map<Integer, UserNoteStats> loadedStats = new HashMap<>();
+
+    // Notas alteradas: as estatísticas lidas deixam de valer
+    private final Runnable noteStatsListener = () -> {
+        if (statsExecutor.isShutdown()) {
+            return;
+        }
+        statsExecutor.execute(() -> {
+            loadedStats.clear();
+            noteStats.postValue(Collections.emptyMap());
+        });
+    };
+
+    // Progresso da exclusão em lote (null = nenhuma exclusão em andamento)
+    private final MutableLiveData<int[]> deleteProgress = new MutableLiveData<>();
+
+    // Resultado da última exclusão, para oferecer "Desfazer"
+    private final MutableLiveData<Event<BulkUserDeleter.Snapshot>> deleted = new MutableLiveData<>();
+
+    // Backup em andamento
+    private final MutableLiveData<Boolean> backupRunning = new MutableLiveData<>(false);
+
+    // Restauração concluída (a tela deve voltar ao login)
+    private final MutableLiveData<Event<Boolean>> restored = new MutableLiveData<>();
+
+    // Mensagens de feedback para o usuário
+    private final MutableLiveData<Event<String>> messages = new MutableLiveData<>();
+
+    public UserListViewModel(@NonNull Application application) {
+        super(application);
+        userRepository = UserRepository.getInstance(application);
+        classRepository = ClassRepository.getInstance(application);
+        NoteRepository noteRepository = NoteRepository.getInstance(application);
+
+        users = Transformations.switchMap(filter, current -> {
+            if (current.classId != 0) {
+                return current.query.isEmpty()
+                        ? classRepository.getStudents(current.classId)
+                        : classRepository.searchStudents(current.classId, current.query);
+            }
+            return current.query.isEmpty()
+                    ? userRepository.getAllRegularUsers()
+                    : userRepository.searchUsers(current.query);
+        });
+        classes = classRepository.getClasses();
+
+        studentCount = userRepository.countRegularUsers();
+        noteCount = noteRepository.countNotes();
+        subjectCounts = noteRepository.getNoteCountsBySubject();
+        // Registrado no executor: pode abrir (e migrar) o banco
+        statsExecutor.execute(() -> userRepository.addNoteStatsListener(noteStatsListener));
+
+        // Semana corrente: de segunda a domingo, refeita quando a semana vira
+        weekNoteCount = Transformations.switchMap(week,
+                bounds -> noteRepository.countNotesBetween(bounds[0], bounds[1]));
+        refreshWeek();
+    }
+
+    /**
+     * Atualiza a semana do total semanal para a semana de hoje (chamar em
+     * onResume: a tela pode ficar aberta de uma semana para a outra).
+     * Na mesma semana, não refaz a consulta.
+     */
+    public void refreshWeek() {
+        SimpleDateFormat isoFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+        Calendar calendar = Calendar.getInstance();
+        calendar.setFirstDayOfWeek(Calendar.MONDAY);
+        calendar.set(Calendar.DAY_OF_WEEK, Calendar.MONDAY);
+        String weekStart = isoFormat.format(calendar.getTime());
+        calendar.add(Calendar.DAY_OF_MONTH, 6);
+        String weekEnd = isoFormat.format(calendar.getTime());
+
+        String[] current = week.getValue();
+        if (current == null || !current[0].equals(weekStart)) {
+            week.setValue(new String[]{weekStart, weekEnd});
+        }
+    }
+
+    public LiveData<List<User>> getUsers() {
+        return users;
+    }
+
+    public LiveData<List<SchoolClass>> getClasses() {
+        return classes;
+    }
+
+    /**
+     * return Turma do filtro atual (0 = todas)
+     */
+    public int getClassFilter() {
+        return filter.getValue().classId;
+    }
+
+    public LiveData<Integer> getStudentCount() {
+        return studentCount;
+    }
+
+    public LiveData<Integer> getNoteCount() {
+        return noteCount;
+    }
+
+    public LiveData<Integer> getWeekNoteCount() {
+        return weekNoteCount;
+    }
+
+    public LiveData<List<SubjectCount>> getSubjectCounts() {
+        return subjectCounts;
+    }
+
+    /**
+     * return Estatísticas de notas por aluno (apenas das páginas pedidas)
+     */
+    public LiveData<Map<Integer, UserNoteStats>> getNoteStats() {
+        return noteStats;
+    }
+
+    /**
+     * Pede as estatísticas de uma página da lista. Alunos já lidos são
+     * ignorados; os demais são lidos em uma única consulta agregada.
+     * @param userIds Alunos da página (ver UserAdapter.STATS_PAGE_SIZE)
+     */
+    public void requestNoteStats(List<Integer> userIds) {
+        statsExecutor.execute(() -> {
+            List<Integer> missing = new ArrayList<>();
+            for (Integer id : userIds) {
+                if (!loadedStats.containsKey(id)) {
+                    missing.add(id);
+                }
+            }
+            if (missing.isEmpty()) {
+                return;
+            }
+            try {
+                loadedStats.putAll(userRepository.loadNoteStats(missing));
+                noteStats.postValue(Collections.unmodifiableMap(new HashMap<>(loadedStats)));
+            } catch (RuntimeException e) {
+                // Banco fechado (restauração): a lista será recriada
+                messages.postValue(new Event<>("Erro ao carregar estatísticas: " + e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * return Progresso [processados, total], ou null se ocioso
+     */
+    public LiveData<int[]> getDeleteProgress() {
+        return deleteProgress;
+    }
+
+    public LiveData<Event<BulkUserDeleter.Snapshot>> getDeleted() {
+        return deleted;
+    }
+
+    public LiveData<Boolean> getBackupRunning() {
+        return backupRunning;
+    }
+
+    public LiveData<Event<Boolean>> getRestored() {
+        return restored;
+    }
+
+    public LiveData<Event<String>> getMessages() {
+        return messages;
+    }
+
+    /**
+     * Atualiza o texto de busca. Textos iguais ao atual são ignorados, de
+     * modo que a SearchView restaurada após rotação não repete a consulta.
+     * @param text Texto digitado (pode ser vazio)
+     */
+    public void setSearchQuery(String text) {
+        String query = text != null ? text.trim() : "";
+        Filter current = filter.getValue();
+        if (!Objects.equals(query, current.query)) {
+            filter.setValue(new Filter(query, current.classId));
+        }
+    }
+
+    /**
+     * Restringe a lista (e a busca) aos alunos de uma turma.
+     * @param classId ID da turma, ou 0 para todos os alunos
+     */
+    public void setClassFilter(int classId) {
+        Filter current = filter.getValue();
+        if (classId != current.classId) {
+            filter.setValue(new Filter(current.query, classId));
+        }
+    }
+
+    /**
+     * Cadastra uma turma no ano letivo atual.
+     * @param name Nome da turma
+     */
+    public void createClass(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            messages.setValue(new Event<>("Informe o nome da turma"));
+            return;
+        }
+        int year = Calendar.getInstance().get(Calendar.YEAR);
+        executor.execute(() -> {
+            try {
+                SchoolClass created = classRepository.createClass(name, year);
+                messages.postValue(new Event<>("Turma " + created + " cadastrada"));
+            } catch (Exception e) {
+                messages.postValue(new Event<>("Erro ao cadastrar turma: " + e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Matricula alunos em uma turma (os já matriculados são mantidos).
+     * @param ids IDs dos alunos
+     * @param schoolClass Turma de destino
+     */
+    public void enrollUsers(List<Integer> ids, SchoolClass schoolClass) {
+        executor.execute(() -> {
+            try {
+                classRepository.enroll(schoolClass.id, ids, Enrollment.ROLE_STUDENT);
+                messages.postValue(new Event<>(ids.size() + " aluno(s) matriculado(s) em " + schoolClass));
+            } catch (Exception e) {
+                messages.postValue(new Event<>("Erro ao matricular: " + e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Remove alunos da turma do filtro atual.
+     * @param ids IDs dos alunos
+     */
+    public void unenrollUsers(List<Integer> ids) {
+        int classId = getClassFilter();
+        if (classId == 0) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                int removed = classRepository.unenroll(classId, ids);
+                messages.postValue(new Event<>(removed + " aluno(s) removido(s) da turma"));
+            } catch (Exception e) {
+                messages.postValue(new Event<>("Erro ao remover da turma: " + e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Exclui usuários (e suas notas) em uma transação, publicando o progresso.
+     * @param ids IDs dos usuários a serem removidos
+     */
+    public void deleteUsers(List<Integer> ids) {
+        deleteProgress.setValue(new int[]{0, ids.size()});
+
+        executor.execute(() -> {
+            try {
+                BulkUserDeleter.Snapshot snapshot = userRepository.deleteUsers(ids,
+                        (processed, total) -> deleteProgress.postValue(new int[]{processed, total}));
+                deleted.postValue(new Event<>(snapshot));
+                audit(AuditEntry.DELETE_USER, snapshot);
+            } catch (Exception e) {
+                messages.postValue(new Event<>("Erro ao excluir: " + e.getMessage()));
+            } finally {
+                deleteProgress.postValue(null);
+            }
+        });
+    }
+
+    /**
+     * Restaura os usuários e notas removidos por uma exclusão.
+     */
+    public void undoDelete(BulkUserDeleter.Snapshot snapshot) {
+        executor.execute(() -> {
+            try {
+                userRepository.undoDelete(snapshot);
+                messages.postValue(new Event<>("Exclusão desfeita"));
+                audit(AuditEntry.RESTORE_USER, snapshot);
+            } catch (Exception e) {
+                messages.postValue(new Event<>("Erro ao desfazer: " + e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Registra a ação do administrador da sessão sobre cada usuário
+     * (apenas em memória; a trilha grava em lote).
+     */
+    private void audit(String action, BulkUserDeleter.Snapshot snapshot) {
+        AuditLog auditLog = AuditLog.getInstance(getApplication());
+        int adminId = new SessionManager(getApplication()).getUserId();
+        for (User user : snapshot.users) {
+            auditLog.record(action, adminId, user.id, user.email);
+        }
+    }
+
+    /**
+     * Gera um backup do banco. O aplicativo continua utilizável durante a cópia.
+     */
+    public void createBackup() {
+        if (Boolean.TRUE.equals(backupRunning.getValue())) {
+            return;
+        }
+        backupRunning.setValue(true);
+
+        executor.execute(() -> {
+            try {
+                DatabaseBackup.BackupResult result = DatabaseBackup.backup(getApplication());
+                messages.postValue(new Event<>(
+                        "Backup criado (" + result.compressedBytes / 1024 + " KB)"));
+            } catch (Exception e) {
+                messages.postValue(new Event<>("Erro no backup: " + e.getMessage()));
+            } finally {
+                backupRunning.postValue(false);
+            }
+        });
+    }
+
+    /**
+     * Restaura um backup, substituindo o banco em uso.
+     * @param archive Arquivo de backup
+     */
+    public void restoreBackup(File archive) {
+        executor.execute(() -> {
+            try {
+                DatabaseBackup.restore(getApplication(), archive);
+                restored.postValue(new Event<>(true));
+            } catch (Exception e) {
+                messages.postValue(new Event<>("Erro na restauração: " + e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Filtro da lista: texto de busca e turma (0 = todas).
+     */
+    private static final class Filter {
+        final String query;
+        final int classId;
+
+        Filter(String query, int classId) {
+            this.query = query;
+            this.classId = classId;
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        // Tarefas já enviadas terminam; nenhuma nova é aceita
+        statsExecutor.execute(() -> userRepository.removeNoteStatsListener(noteStatsListener));
+        executor.shutdown();
+        statsExecutor.shutdown();
+    }
+}
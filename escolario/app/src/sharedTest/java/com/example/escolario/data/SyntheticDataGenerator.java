@@ -0,0 +1,245 @@
+package com.example.escolario.data;
+
+import com.example.escolario.model.Note;
+import com.example.escolario.model.User;
+import com.example.escolario.utils.PasswordUtils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Gerador determinístico de dados sintéticos para testes de carga.
+ * <p>
+ * Com a mesma semente, produz sempre os mesmos usuários (nomes
+ * brasileiros, emails e CPFs válidos e únicos) e as mesmas notas
+ * (matérias, tipos, datas no ano letivo e descrições), permitindo
+ * reproduzir em laboratório o volume de escolas grandes.
+ * <p>
+ * A inserção é feita em transações de BATCH_SIZE linhas, como em uma
+ * importação real. Deve ser chamado fora da thread principal.
+ * <p>
+ * Fica em src/sharedTest, compartilhado pelos testes JVM e instrumentados
+ * e fora do APK.
+ */
+public class SyntheticDataGenerator {
+    // Linhas por transação na inserção
+    private static final int BATCH_SIZE = 1_000;
+
+    // Senha de todos os usuários gerados
+    public static final String DEFAULT_PASSWORD = "Senha123";
+
+    static final String[] FIRST_NAMES = {
+            "Ana", "Beatriz", "Bruno", "Camila", "Carlos", "Daniela", "Eduardo", "Fernanda",
+            "Gabriel", "Gustavo", "Helena", "Isabela", "João", "Júlia", "Larissa", "Leonardo",
+            "Lucas", "Luiza", "Marcos", "Maria", "Mateus", "Natália", "Pedro", "Rafael",
+            "Rafaela", "Rodrigo", "Sofia", "Thiago", "Valentina", "Vinícius"
+    };
+
+    static final String[] LAST_NAMES = {
+            "Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves", "Pereira",
+            "Lima", "Gomes", "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes",
+            "Soares", "Fernandes", "Vieira", "Barbosa", "Rocha", "Dias", "Nascimento", "Araújo"
+    };
+
+    static final String[] SUBJECTS = {
+            "Matemática", "Português", "História", "Geografia", "Ciências", "Física",
+            "Química", "Biologia", "Inglês", "Educação Física", "Artes", "Filosofia", "Sociologia"
+    };
+
+    // Tipos cadastrados com o banco
+    static final String[] TYPES = NoteDictionary.DEFAULT_TYPES;
+
+    private static final String[] TOPICS = {
+            "frações", "equações do segundo grau", "interpretação de texto", "Revolução Francesa",
+            "relevo brasileiro", "sistema solar", "leis de Newton", "tabela periódica",
+            "fotossíntese", "verbos irregulares", "Renascimento", "ética", "cidadania",
+            "geometria plana", "análise sintática", "Brasil colonial", "ciclo da água"
+    };
+
+    private static final String[] TEMPLATES = {
+            "Estudar %s para a avaliação; revisar capítulos %d e %d.",
+            "Entregar lista de exercícios sobre %s (questões %d a %d).",
+            "Apresentação em grupo sobre %s, slides %d a %d.",
+            "Resumo sobre %s com no mínimo %d linhas e %d referências."
+    };
+
+    private final Random random;
+    private final int year;
+
+    // Hash calculado uma única vez: um BCrypt por usuário tornaria a carga inviável
+    private String passwordHash;
+
+    // IDs de SUBJECTS e TYPES no dicionário do banco (posição + 1 até o
+    // primeiro populate, suficiente para gerar notas sem banco)
+    private final int[] subjectIds = positions(SUBJECTS.length);
+    private final int[] typeIds = positions(TYPES.length);
+
+    /**
+     * param seed Semente (mesma semente = mesmos dados)
+     * param year Ano letivo usado nas datas das notas
+     */
+    public SyntheticDataGenerator(long seed, int year) {
+        this.random = new Random(seed);
+        this.year = year;
+    }
+
+    /**
+     * Resultado da geração.
+     */
+    public static class Result {
+        public final List<Integer> userIds;
+        public final List<String> emails;
+        public final int notes;
+        public final long elapsedMs;
+
+        Result(List<Integer> userIds, List<String> emails, int notes, long elapsedMs) {
+            this.userIds = userIds;
+            this.emails = emails;
+            this.notes = notes;
+            this.elapsedMs = elapsedMs;
+        }
+    }
+
+    /**
+     * Gera e insere usuários e suas notas.
+     *
+     * param db Banco de destino
+     * param users Quantidade de usuários (não-administradores)
+     * param notesPerUser Notas por usuário
+     * param firstIndex Índice inicial (permite gerar lotes adicionais sem
+     *                  colidir emails/CPFs com lotes anteriores)
+     * return IDs e emails dos usuários criados e total de notas
+     */
+    public Result populate(AppDatabase db, int users, int notesPerUser, int firstIndex) {
+        long start = System.nanoTime();
+        bind(db.dictionary());
+        List<Integer> ids = new ArrayList<>(users);
+        List<String> emails = new ArrayList<>(users);
+        int notes = 0;
+
+        for (int batchStart = 0; batchStart < users; batchStart += BATCH_SIZE) {
+            int batchEnd = Math.min(users, batchStart + BATCH_SIZE);
+
+            List<User> batch = new ArrayList<>(batchEnd - batchStart);
+            for (int i = batchStart; i < batchEnd; i++) {
+                User user = newUser(firstIndex + i);
+                batch.add(user);
+                emails.add(user.email);
+            }
+
+            List<Integer> batchIds = new ArrayList<>();
+            int[] insertedNotes = new int[1];
+            db.runInTransaction(() -> {
+                for (long id : db.userDao().insertAll(batch)) {
+                    batchIds.add((int) id);
+                }
+
+                List<Note> noteBatch = new ArrayList<>(BATCH_SIZE);
+                for (int userId : batchIds) {
+                    for (int n = 0; n < notesPerUser; n++) {
+                        noteBatch.add(newNote(userId));
+                        if (noteBatch.size() == BATCH_SIZE) {
+                            db.noteDao().insertAll(noteBatch);
+                            insertedNotes[0] += noteBatch.size();
+                            noteBatch.clear();
+                        }
+                    }
+                }
+                if (!noteBatch.isEmpty()) {
+                    db.noteDao().insertAll(noteBatch);
+                    insertedNotes[0] += noteBatch.size();
+                }
+            });
+            ids.addAll(batchIds);
+            notes += insertedNotes[0];
+        }
+
+        return new Result(ids, emails, notes, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Cria um usuário comum com nome, email e CPF únicos para o índice.
+     */
+    public User newUser(int index) {
+        String first = pick(FIRST_NAMES);
+        String last = pick(LAST_NAMES);
+        String name = first + " " + pick(LAST_NAMES) + " " + last;
+        String email = (stripAccents(first) + "." + stripAccents(last) + index + "@escola.com.br")
+                .toLowerCase(Locale.ROOT);
+
+        if (passwordHash == null) {
+            passwordHash = PasswordUtils.hash(DEFAULT_PASSWORD);
+        }
+        return new User(name, email, passwordHash, cpfFor(index), false);
+    }
+
+    /**
+     * Cria uma nota para o usuário com matéria, tipo, data e descrição sorteados.
+     */
+    public Note newNote(int userId) {
+        int subjectId = subjectIds[random.nextInt(SUBJECTS.length)];
+        int typeId = typeIds[random.nextInt(TYPES.length)];
+        String content = String.format(Locale.ROOT, pick(TEMPLATES),
+                pick(TOPICS), 1 + random.nextInt(10), 11 + random.nextInt(10));
+
+        // Ano letivo: fevereiro a dezembro
+        int month = 2 + random.nextInt(11);
+        int day = 1 + random.nextInt(28);
+        String date = String.format(Locale.ROOT, "%02d/%02d/%04d", day, month, year);
+
+        return new Note(userId, subjectId, typeId, content, date);
+    }
+
+    // Cadastra (ou localiza) as matérias e tipos sorteados no dicionário
+    private void bind(NoteDictionary dictionary) {
+        for (int i = 0; i < SUBJECTS.length; i++) {
+            subjectIds[i] = dictionary.subjectId(SUBJECTS[i]);
+        }
+        for (int i = 0; i < TYPES.length; i++) {
+            typeIds[i] = dictionary.typeId(TYPES[i]);
+        }
+    }
+
+    private static int[] positions(int length) {
+        int[] ids = new int[length];
+        for (int i = 0; i < length; i++) {
+            ids[i] = i + 1;
+        }
+        return ids;
+    }
+
+    /**
+     * Gera um CPF válido (com dígitos verificadores) e único para o índice.
+     * param index Índice do usuário (0 a 999.999.999)
+     * return Chave numérica do CPF (ver Cpf)
+     */
+    public static long cpfFor(int index) {
+        // Base de 9 dígitos; o deslocamento evita CPFs com dígitos repetidos
+        // (ex.: 000.000.000-00, recusados por Cpf.parse)
+        String base = String.format(Locale.ROOT, "%09d", (100_000_000L + index) % 1_000_000_000L);
+        int d1 = checkDigit(base, 10);
+        int d2 = checkDigit(base + d1, 11);
+        return Long.parseLong(base + d1 + d2);
+    }
+
+    private static int checkDigit(String digits, int weight) {
+        int sum = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            sum += (digits.charAt(i) - '0') * (weight - i);
+        }
+        int rest = (sum * 10) % 11;
+        return rest == 10 ? 0 : rest;
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String stripAccents(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "");
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.escolario.data;
+
+import android.app.Application;
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.escolario.model.AuditEntry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes da trilha de auditoria: buffer em memória, gravação em lote,
+ * descarte com o buffer cheio, rotação por tamanho, gravação no banco da
+ * escola de cada evento e consultas.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class AuditLogTest {
+    // Sem gravação automática nos testes que a controlam
+    private static final long NEVER_MS = 3_600_000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private AppDatabase db;
+    private final FakeTenants tenants = new FakeTenants();
+
+    @Before
+    public void setUp() {
+        db = open("audit.db");
+        tenants.databases.put(AppDatabase.DEFAULT_TENANT, db);
+    }
+
+    @After
+    public void tearDown() {
+        for (AppDatabase database : tenants.databases.values()) {
+            database.close();
+        }
+    }
+
+    @Test
+    public void flush_writesEachEventToTheTenantCurrentAtRecord() {
+        AppDatabase other = open("audit_b.db");
+        tenants.databases.put("escola_b", other);
+        AuditLog audit = new AuditLog(tenants, 16, 100, NEVER_MS, 1_000);
+
+        audit.record(AuditEntry.LOGIN, 1, 1, null);
+        audit.record(AuditEntry.LOGIN, 2, 2, null);
+        // Escola trocada antes da gravação: os eventos anteriores ficam na primeira
+        tenants.current = "escola_b";
+        audit.record(AuditEntry.REGISTER, 3, 3, null);
+        audit.flush();
+
+        assertEquals(2, db.auditDao().findBetween(0, Long.MAX_VALUE, 10).size());
+        List<AuditEntry> moved = other.auditDao().findBetween(0, Long.MAX_VALUE, 10);
+        assertEquals(1, moved.size());
+        assertEquals(AuditEntry.REGISTER, moved.get(0).action);
+        assertEquals(2, audit.metrics().flushes);
+        assertEquals(3, audit.metrics().flushed);
+    }
+
+    @Test
+    public void record_buffersUntilFlushInOneBatch() {
+        AuditLog audit = new AuditLog(tenants, 16, 100, NEVER_MS, 1_000);
+        for (int i = 1; i <= 5; i++) {
+            audit.record(AuditEntry.LOGIN, i, i, null);
+        }
+        assertTrue("Gravado antes do lote", db.auditDao().findBetween(0, Long.MAX_VALUE, 100).isEmpty());
+        assertEquals(5, audit.metrics().pending);
+
+        audit.flush();
+        AuditLog.Metrics metrics = audit.metrics();
+        assertEquals(5, metrics.recorded);
+        assertEquals(5, metrics.flushed);
+        assertEquals(1, metrics.flushes);
+        assertEquals(0, metrics.pending);
+        assertEquals(5, db.auditDao().findBetween(0, Long.MAX_VALUE, 100).size());
+    }
+
+    @Test
+    public void fullBuffer_dropsOldestAndCountsIt() {
+        AuditLog audit = new AuditLog(tenants, 4, 100, NEVER_MS, 1_000);
+        for (int i = 1; i <= 6; i++) {
+            audit.record(AuditEntry.LOGIN_FAILED, 0, i, "tentativa " + i);
+        }
+        assertEquals(2, audit.metrics().dropped);
+
+        List<AuditEntry> entries = audit.find(0, Long.MAX_VALUE, 100);
+        assertEquals(4, entries.size());
+        // Mais recentes primeiro; 1 e 2 foram descartados
+        assertEquals(6, entries.get(0).userId);
+        assertEquals(3, entries.get(3).userId);
+    }
+
+    @Test
+    public void flush_rotatesTableBySize() {
+        AuditLog audit = new AuditLog(tenants, 64, 100, NEVER_MS, 10);
+        for (int i = 1; i <= 25; i++) {
+            audit.record(AuditEntry.REGISTER, i, i, null);
+        }
+        audit.flush();
+
+        List<AuditEntry> entries = audit.find(0, Long.MAX_VALUE, 100);
+        assertEquals(10, entries.size());
+        assertEquals(25, entries.get(0).userId);
+        assertEquals(16, entries.get(9).userId);
+    }
+
+    @Test
+    public void findByUser_filtersByUserAndPeriod() {
+        AuditDao dao = db.auditDao();
+        dao.insertAll(Arrays.asList(
+                new AuditEntry(1_000, AuditEntry.LOGIN, 7, 7, null),
+                new AuditEntry(2_000, AuditEntry.DELETE_USER, 1, 7, "aluno@escola.br"),
+                new AuditEntry(3_000, AuditEntry.LOGIN, 8, 8, null),
+                new AuditEntry(4_000, AuditEntry.RESTORE_USER, 1, 7, "aluno@escola.br")));
+        AuditLog audit = new AuditLog(tenants, 16, 100, NEVER_MS, 1_000);
+
+        List<AuditEntry> entries = audit.findByUser(7, 1_500, 4_000, 10);
+        assertEquals(2, entries.size());
+        assertEquals(AuditEntry.RESTORE_USER, entries.get(0).action);
+        assertEquals(AuditEntry.DELETE_USER, entries.get(1).action);
+        assertEquals(1, audit.findByUser(8, 0, Long.MAX_VALUE, 10).size());
+        assertEquals(1, audit.findByUser(7, 0, Long.MAX_VALUE, 1).size());
+    }
+
+    @Test
+    public void threshold_flushesInBackground() throws InterruptedException {
+        AuditLog audit = new AuditLog(tenants, 64, 8, NEVER_MS, 1_000);
+        for (int i = 1; i <= 8; i++) {
+            audit.record(AuditEntry.LOGIN, i, i, null);
+        }
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (audit.metrics().flushed < 8 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(8, audit.metrics().flushed);
+        assertEquals(0, audit.metrics().dropped);
+    }
+
+    private AppDatabase open(String name) {
+        Context context = ApplicationProvider.getApplicationContext();
+        File file = new File(folder.getRoot(), name);
+        return AppDatabase.configure(Room.databaseBuilder(context, AppDatabase.class, file.getPath()))
+                .allowMainThreadQueries()
+                .build();
+    }
+
+    // Bancos por escola simulados, com a escola atual trocável
+    private static final class FakeTenants implements AuditLog.Target {
+        final Map<String, AppDatabase> databases = new HashMap<>();
+        volatile String current = AppDatabase.DEFAULT_TENANT;
+
+        @Override
+        public String currentTenant() {
+            return current;
+        }
+
+        @Override
+        public AppDatabase acquire(String tenant) {
+            return databases.get(tenant);
+        }
+
+        @Override
+        public void release(String tenant) {
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.escolario.data;
+
+import android.app.Application;
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.escolario.model.RowChange;
+import com.example.escolario.model.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes do feed de alterações por linha: redução das operações e entrega
+ * agrupada após escritas reais.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class ChangeFeedTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private AppDatabase db;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        File file = new File(folder.getRoot(), "changes.db");
+        db = AppDatabase.configure(Room.databaseBuilder(context, AppDatabase.class, file.getPath()))
+                .allowMainThreadQueries()
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void collapse_keepsOnlyTheNetEffect() {
+        Map<Long, int[]> rows = new HashMap<>();
+        rows.put(1L, new int[]{RowChange.OP_INSERT, RowChange.OP_UPDATE});
+        rows.put(2L, new int[]{RowChange.OP_INSERT, RowChange.OP_DELETE});
+        rows.put(3L, new int[]{RowChange.OP_UPDATE, RowChange.OP_DELETE});
+        rows.put(4L, new int[]{RowChange.OP_UPDATE, RowChange.OP_UPDATE});
+        rows.put(5L, new int[]{RowChange.OP_DELETE, RowChange.OP_INSERT});
+
+        ChangeFeed.ChangeSet changes = ChangeFeed.collapse("users", rows);
+
+        assertEquals(Collections.singleton(1L), changes.inserted);
+        assertEquals(Collections.singleton(3L), changes.deleted);
+        assertTrue(changes.updated.contains(4L));
+        assertTrue(changes.updated.contains(5L));
+        assertFalse(changes.upserted().contains(2L));
+        assertEquals(4, changes.size());
+    }
+
+    @Test
+    public void writes_areDeliveredAsOneCoalescedChangeSet() throws Exception {
+        List<ChangeFeed.ChangeSet> received = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(1);
+        db.changeFeed().addListener("users", changes -> {
+            received.add(changes);
+            delivered.countDown();
+        });
+
+        UserDao dao = db.userDao();
+        db.runInTransaction(() -> {
+            int kept = (int) dao.insert(new User("Ana Silva", "ana@escola.com.br", "h1", 52998224725L, false));
+            dao.updatePasswordHash(kept, "h1", "h2");
+            User removed = new User("Bruno Lima", "bruno@escola.com.br", "h1", 11144477735L, false);
+            removed.id = (int) dao.insert(removed);
+            dao.delete(removed);
+        });
+
+        assertTrue("Alterações não entregues", delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(1, received.size());
+        ChangeFeed.ChangeSet changes = received.get(0);
+        assertEquals(1, changes.inserted.size());
+        assertTrue(changes.updated.isEmpty());
+        assertTrue(changes.deleted.isEmpty());
+
+        // Alterações consumidas são removidas do registro antes da entrega
+        assertEquals(0, db.changeLogDao().changesAfter(0, 10).size());
+    }
+
+    @Test
+    public void prune_doesNotTriggerAnotherDrain() throws Exception {
+        CountDownLatch delivered = new CountDownLatch(1);
+        db.changeFeed().addListener("users", changes -> delivered.countDown());
+
+        db.userDao().insert(new User("Ana Silva", "ana@escola.com.br", "h1", 52998224725L, false));
+        assertTrue("Alterações não entregues", delivered.await(5, TimeUnit.SECONDS));
+
+        // A invalidação causada pelo prune não agenda uma leitura vazia
+        Thread.sleep(ChangeFeed.COALESCE_WINDOW_MS * 5);
+        assertEquals(1, db.changeFeed().drainCount());
+    }
+}
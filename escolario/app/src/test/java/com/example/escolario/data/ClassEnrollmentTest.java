@@ -0,0 +1,186 @@
+package com.example.escolario.data;
+
+import android.app.Application;
+import android.content.Context;
+import android.database.sqlite.SQLiteConstraintException;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.escolario.model.ClassNote;
+import com.example.escolario.model.Enrollment;
+import com.example.escolario.model.Note;
+import com.example.escolario.model.SchoolClass;
+import com.example.escolario.model.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes de turmas e matrículas: lista da turma por papel, busca na
+ * turma, notas da turma por matéria e matrículas na exclusão (e no
+ * desfazer) de usuários.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class ClassEnrollmentTest {
+    // LiveData do Room entregue de forma síncrona (sem a thread de IO)
+    @Rule
+    public InstantTaskExecutorRule instantTaskExecutorRule = new InstantTaskExecutorRule();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private AppDatabase db;
+    private ClassDao dao;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        File file = new File(folder.getRoot(), "classes.db");
+        db = AppDatabase.configure(Room.databaseBuilder(context, AppDatabase.class, file.getPath()))
+                .allowMainThreadQueries()
+                .build();
+        dao = db.classDao();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void insert_nameUniquePerYear() {
+        dao.insert(new SchoolClass("7º A", 2025));
+        dao.insert(new SchoolClass("7º A", 2026));
+
+        try {
+            dao.insert(new SchoolClass("7º a", 2025));
+            fail("Turma duplicada aceita");
+        } catch (SQLiteConstraintException expected) {
+            // Nome comparado sem diferenciar maiúsculas
+        }
+        assertEquals(2, value(dao.getClasses()).size());
+    }
+
+    @Test
+    public void roster_onlyClassMembersByRole() {
+        int classA = (int) dao.insert(new SchoolClass("7º A", 2025));
+        int classB = (int) dao.insert(new SchoolClass("7º B", 2025));
+        int ana = insertUser(0, "Ana");
+        int bruno = insertUser(1, "Bruno");
+        int carla = insertUser(2, "Carla");
+        int teacher = insertUser(3, "Professora");
+        dao.enroll(Arrays.asList(
+                new Enrollment(classA, ana, Enrollment.ROLE_STUDENT),
+                new Enrollment(classA, bruno, Enrollment.ROLE_STUDENT),
+                new Enrollment(classB, carla, Enrollment.ROLE_STUDENT),
+                new Enrollment(classA, teacher, Enrollment.ROLE_TEACHER)));
+
+        assertEquals(Arrays.asList(ana, bruno), ids(value(dao.getRoster(classA, Enrollment.ROLE_STUDENT))));
+        assertEquals(Arrays.asList(teacher), ids(value(dao.getRoster(classA, Enrollment.ROLE_TEACHER))));
+        assertEquals(Arrays.asList(bruno),
+                ids(value(dao.searchRoster(classA, Enrollment.ROLE_STUDENT, "%bru%"))));
+        assertTrue(value(dao.searchRoster(classA, Enrollment.ROLE_STUDENT, "%Carla%")).isEmpty());
+
+        // Matrícula repetida mantém o papel original
+        dao.enroll(Arrays.asList(new Enrollment(classA, teacher, Enrollment.ROLE_STUDENT)));
+        assertEquals(2, value(dao.getRoster(classA, Enrollment.ROLE_STUDENT)).size());
+
+        assertEquals(1, dao.unenroll(classA, Arrays.asList(bruno, carla)));
+        assertEquals(Arrays.asList(ana), ids(value(dao.getRoster(classA, Enrollment.ROLE_STUDENT))));
+        assertEquals(1, dao.loadClassesOfUser(carla).size());
+    }
+
+    @Test
+    public void loadClassNotes_onlyClassStudentsAndSubject() {
+        int classA = (int) dao.insert(new SchoolClass("7º A", 2025));
+        int ana = insertUser(0, "Ana");
+        int bruno = insertUser(1, "Bruno");
+        int outsider = insertUser(2, "Carla");
+        int teacher = insertUser(3, "Professora");
+        dao.enroll(Arrays.asList(
+                new Enrollment(classA, ana, Enrollment.ROLE_STUDENT),
+                new Enrollment(classA, bruno, Enrollment.ROLE_STUDENT),
+                new Enrollment(classA, teacher, Enrollment.ROLE_TEACHER)));
+        insertNote(ana, "Matemática", "20/03/2025");
+        insertNote(ana, "Matemática", "05/03/2025");
+        insertNote(ana, "História", "06/03/2025");
+        insertNote(bruno, "Matemática", "01/03/2025");
+        insertNote(outsider, "Matemática", "01/03/2025");
+        insertNote(teacher, "Matemática", "01/03/2025");
+
+        List<ClassNote> notes = dao.loadClassNotes(classA, db.dictionary().subjectId("Matemática"));
+
+        assertEquals(3, notes.size());
+        assertEquals("Ana", notes.get(0).student);
+        assertEquals("05/03/2025", notes.get(0).date);
+        assertEquals("20/03/2025", notes.get(1).date);
+        assertEquals(bruno, notes.get(2).userId);
+    }
+
+    @Test
+    public void deleteUsers_cascadesEnrollmentsAndUndoRestoresThem() {
+        int classA = (int) dao.insert(new SchoolClass("7º A", 2025));
+        int ana = insertUser(0, "Ana");
+        int bruno = insertUser(1, "Bruno");
+        dao.enroll(Arrays.asList(
+                new Enrollment(classA, ana, Enrollment.ROLE_STUDENT),
+                new Enrollment(classA, bruno, Enrollment.ROLE_STUDENT)));
+        BulkUserDeleter deleter = new BulkUserDeleter(db);
+
+        BulkUserDeleter.Snapshot snapshot = deleter.delete(Arrays.asList(ana), null);
+        assertEquals(1, snapshot.enrollments.size());
+        assertEquals(Arrays.asList(bruno), ids(value(dao.getRoster(classA, Enrollment.ROLE_STUDENT))));
+
+        deleter.undo(snapshot);
+        assertEquals(Arrays.asList(ana, bruno), ids(value(dao.getRoster(classA, Enrollment.ROLE_STUDENT))));
+    }
+
+    /**
+     * Lê o valor atual de um LiveData do Room (entregue de forma síncrona
+     * graças ao InstantTaskExecutorRule).
+     */
+    private static <T> T value(LiveData<T> liveData) {
+        List<T> holder = new ArrayList<>(1);
+        Observer<T> observer = holder::add;
+        liveData.observeForever(observer);
+        liveData.removeObserver(observer);
+        assertFalse("LiveData sem valor", holder.isEmpty());
+        return holder.get(0);
+    }
+
+    private static List<Integer> ids(List<User> users) {
+        List<Integer> ids = new ArrayList<>();
+        for (User user : users) {
+            ids.add(user.id);
+        }
+        return ids;
+    }
+
+    private void insertNote(int userId, String subject, String date) {
+        db.noteDao().insert(new Note(userId, db.dictionary().subjectId(subject),
+                db.dictionary().typeId("Prova"), subject, date));
+    }
+
+    private int insertUser(int index, String name) {
+        return (int) db.userDao().insert(new User(name, "aluno" + index + "@escola.br",
+                "h" + index, SyntheticDataGenerator.cpfFor(index), false));
+    }
+}
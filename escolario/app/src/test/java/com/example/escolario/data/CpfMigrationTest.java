@@ -0,0 +1,141 @@
+package com.example.escolario.data;
+
+import android.app.Application;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteConstraintException;
+
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteOpenHelper;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.escolario.utils.Cpf;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes da migração 10 -> 11 (CPF em texto para chave numérica) com os
+ * valores que versões anteriores aceitavam: o mesmo CPF com e sem
+ * pontuação, separadores quaisquer, valores sem 11 dígitos e o CPF zero.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class CpfMigrationTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private SupportSQLiteOpenHelper helper;
+    private SupportSQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        File file = new File(folder.getRoot(), "cpf.db");
+        helper = new FrameworkSQLiteOpenHelperFactory().create(
+                SupportSQLiteOpenHelper.Configuration.builder(context)
+                        .name(file.getPath())
+                        .callback(new SupportSQLiteOpenHelper.Callback(10) {
+                            @Override
+                            public void onCreate(@NonNull SupportSQLiteDatabase db) {
+                                // users da versão 10 (CPF em texto) e as tabelas dos triggers
+                                db.execSQL("CREATE TABLE `users` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                                        + "`name` TEXT NOT NULL, `email` TEXT NOT NULL COLLATE NOCASE, "
+                                        + "`password` TEXT NOT NULL, `cpf` TEXT NOT NULL, `isAdmin` INTEGER NOT NULL)");
+                                db.execSQL("CREATE UNIQUE INDEX `index_users_cpf` ON `users` (`cpf`)");
+                                db.execSQL("CREATE TABLE `stat_counters` (`kind` TEXT NOT NULL, "
+                                        + "`key` TEXT NOT NULL, `value` INTEGER NOT NULL, PRIMARY KEY(`kind`, `key`))");
+                                db.execSQL("CREATE TABLE `row_changes` (`seq` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                                        + "`tableName` TEXT NOT NULL, `rowId` INTEGER NOT NULL, `op` INTEGER NOT NULL)");
+                            }
+
+                            @Override
+                            public void onUpgrade(@NonNull SupportSQLiteDatabase db, int oldVersion, int newVersion) {
+                            }
+                        })
+                        .build());
+        db = helper.getWritableDatabase();
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+    }
+
+    @Test
+    public void migrate_resolvesDuplicateAndInvalidCpfs() {
+        insertUser(1, "000.000.000-00", true);    // Administrador padrão
+        insertUser(2, "529.982.247-25", false);
+        insertUser(3, "52998224725", false);      // Mesmo CPF, sem pontuação
+        insertUser(4, "123/456/789-09", false);   // Separador qualquer
+        insertUser(5, "", false);
+        insertUser(6, "abc", false);
+        insertUser(7, "00000000000", false);      // Zero é do administrador
+        insertUser(8, "1234567890123", false);    // Dígitos demais
+
+        Migrations.MIGRATION_10_11.migrate(db);
+
+        Map<Integer, Long> cpfs = cpfs();
+        assertEquals(8, cpfs.size());
+        assertEquals(Long.valueOf(0), cpfs.get(1));
+        assertEquals(Long.valueOf(52998224725L), cpfs.get(2));
+        assertEquals(Long.valueOf(Cpf.pending(3)), cpfs.get(3));
+        assertEquals(Long.valueOf(12345678909L), cpfs.get(4));
+        for (int id : new int[]{5, 6, 7, 8}) {
+            assertEquals(Long.valueOf(Cpf.pending(id)), cpfs.get(id));
+            assertTrue(Cpf.isPending(cpfs.get(id)));
+        }
+        assertEquals("CPF a corrigir", Cpf.format(cpfs.get(3)));
+    }
+
+    @Test
+    public void migrate_keepsRowsAndRecreatesIndexes() {
+        insertUser(1, "529.982.247-25", false);
+        insertUser(2, "012.345.678-90", false);
+
+        Migrations.MIGRATION_10_11.migrate(db);
+
+        assertEquals(Long.valueOf(1234567890L), cpfs().get(2));
+        try (Cursor cursor = db.query("SELECT name FROM sqlite_master WHERE type = 'index' "
+                + "AND tbl_name = 'users' AND name LIKE 'index_users_%' ORDER BY name")) {
+            assertEquals(3, cursor.getCount());
+        }
+        // O índice único vale para as chaves convertidas
+        try {
+            db.execSQL("INSERT INTO users (name, email, password, cpf, isAdmin) "
+                    + "VALUES ('x', 'x@escola.br', 'h', 52998224725, 0)");
+            fail("CPF repetido aceito");
+        } catch (SQLiteConstraintException expected) {
+            // Esperado
+        }
+    }
+
+    private void insertUser(int id, String cpf, boolean admin) {
+        db.execSQL("INSERT INTO users (id, name, email, password, cpf, isAdmin) VALUES (?, ?, ?, 'h', ?, ?)",
+                new Object[]{id, "Usuário " + id, "u" + id + "@escola.br", cpf, admin ? 1 : 0});
+    }
+
+    private Map<Integer, Long> cpfs() {
+        Map<Integer, Long> cpfs = new HashMap<>();
+        try (Cursor cursor = db.query("SELECT id, cpf FROM users")) {
+            while (cursor.moveToNext()) {
+                cpfs.put(cursor.getInt(0), cursor.getLong(1));
+            }
+        }
+        return cpfs;
+    }
+}
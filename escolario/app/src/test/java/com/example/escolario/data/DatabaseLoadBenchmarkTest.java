@@ -0,0 +1,389 @@
+package com.example.escolario.data;
+
+import android.app.Application;
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.escolario.model.Note;
+import com.example.escolario.model.User;
+import com.example.escolario.utils.Cpf;
+import com.example.escolario.utils.Validator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Benchmark de carga do banco, executado na JVM (Robolectric) sobre um
+ * arquivo SQLite real e com a mesma configuração do aplicativo.
+ *
+ * Para cada volume, popula o banco com o SyntheticDataGenerator e mede
+ * todas as consultas de UserDao e NoteDao: vazão, latências p50/p95/p99
+ * e tamanho do arquivo. Os volumes são cumulativos (o banco cresce entre
+ * as medições). Por padrão roda um volume pequeno; volumes maiores:
+ *
+ *   ./gradlew testDebugUnitTest -Pbenchmark.scales=1000,10000,50000
+ *
+ * O relatório é impresso e salvo em build/reports/benchmark/database-load.txt.
+ * A comparação de chaves de CPF (texto x inteiro) vai para cpf-index.txt.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class DatabaseLoadBenchmarkTest {
+    private static final long SEED = 2025L;
+    private static final int YEAR = 2025;
+    private static final int NOTES_PER_USER = 20;
+    private static final int[] DEFAULT_SCALES = {500};
+
+    // Amostras por consulta (consultas que leem a tabela inteira usam menos)
+    private static final int SAMPLES = 300;
+    private static final int FULL_SCAN_SAMPLES = 20;
+    private static final int WARMUP = 20;
+
+    // LiveData do Room entregue de forma síncrona (sem a thread de IO)
+    @Rule
+    public InstantTaskExecutorRule instantTaskExecutorRule = new InstantTaskExecutorRule();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File dbFile;
+    private AppDatabase db;
+
+    @Before
+    public void setUp() throws IOException {
+        Context context = ApplicationProvider.getApplicationContext();
+        dbFile = new File(folder.getRoot(), "benchmark.db");
+        db = AppDatabase.configure(Room.databaseBuilder(context, AppDatabase.class, dbFile.getPath()))
+                .allowMainThreadQueries()
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void generator_isDeterministicAndProducesValidUsers() {
+        SyntheticDataGenerator first = new SyntheticDataGenerator(SEED, YEAR);
+        SyntheticDataGenerator second = new SyntheticDataGenerator(SEED, YEAR);
+
+        for (int i = 0; i < 50; i++) {
+            User a = first.newUser(i);
+            User b = second.newUser(i);
+            assertEquals(a.name, b.name);
+            assertEquals(a.email, b.email);
+            assertTrue(Cpf.format(a.cpf), Cpf.isValid(a.cpf));
+            assertTrue(a.email, Validator.isValidEmail(a.email));
+
+            Note n = first.newNote(1);
+            Note m = second.newNote(1);
+            assertEquals(n.subjectId, m.subjectId);
+            assertEquals(n.typeId, m.typeId);
+            assertEquals(n.content, m.content);
+            assertTrue(n.date, Validator.isValidDate(n.date));
+        }
+        assertNotEquals(SyntheticDataGenerator.cpfFor(0), SyntheticDataGenerator.cpfFor(1));
+    }
+
+    @Test
+    public void loadBenchmark() throws IOException {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(SEED, YEAR);
+        Random random = new Random(SEED);
+        List<Integer> userIds = new ArrayList<>();
+        List<String> emails = new ArrayList<>();
+        StringBuilder report = new StringBuilder();
+
+        int extraIndex = 900_000_000; // usuários criados pelas medições de escrita
+        for (int scale : scales()) {
+            if (scale <= userIds.size()) continue;
+
+            SyntheticDataGenerator.Result loaded =
+                    generator.populate(db, scale - userIds.size(), NOTES_PER_USER, userIds.size());
+            userIds.addAll(loaded.userIds);
+            emails.addAll(loaded.emails);
+
+            long rows = loaded.userIds.size() + (long) loaded.notes;
+            report.append(String.format(Locale.US,
+                    "%n== %d alunos, %d notas ==%n"
+                            + "carga: %d linhas em %d ms (%.0f linhas/s)%n",
+                    userIds.size(), count("SELECT COUNT(*) FROM notes"),
+                    rows, loaded.elapsedMs, rows * 1000.0 / Math.max(1, loaded.elapsedMs)));
+            report.append(String.format(Locale.US, "%-26s %9s %10s %9s %9s %9s%n",
+                    "operação", "amostras", "ops/s", "p50 µs", "p95 µs", "p99 µs"));
+
+            User sample = db.userDao().findByEmail(emails.get(0));
+            String passwordHash = sample.password;
+
+            // UserDao
+            report.append(measure("findByEmail", SAMPLES, i ->
+                    db.userDao().findByEmail(emails.get(random.nextInt(emails.size())))));
+            report.append(measure("findByCpf", SAMPLES, i ->
+                    db.userDao().findByCpf(SyntheticDataGenerator.cpfFor(random.nextInt(userIds.size())))));
+            report.append(measure("login", SAMPLES, i ->
+                    db.userDao().login(emails.get(random.nextInt(emails.size())), passwordHash)));
+            report.append(measure("getAllRegularUsers", FULL_SCAN_SAMPLES, i ->
+                    value(db.userDao().getAllRegularUsers())));
+            report.append(measure("searchUsers", FULL_SCAN_SAMPLES, i ->
+                    value(db.userDao().searchUsers(
+                            pick(random, SyntheticDataGenerator.FIRST_NAMES) + "%"))));
+            report.append(measure("countRegularUsers", SAMPLES, i ->
+                    value(db.userDao().countRegularUsers())));
+            report.append(measure("getUsersByIds(100)", SAMPLES, i ->
+                    db.userDao().getUsersByIds(randomIds(random, userIds, 100))));
+
+            // NoteDao
+            report.append(measure("getNotesByUser", SAMPLES, i ->
+                    value(db.noteDao().getNotesByUser(userIds.get(random.nextInt(userIds.size()))))));
+            report.append(measure("getNotesByUsers(100)", SAMPLES, i ->
+                    db.noteDao().getNotesByUsers(randomIds(random, userIds, 100))));
+            report.append(measure("countNotes", SAMPLES, i ->
+                    value(db.noteDao().countNotes())));
+            report.append(measure("getNoteCountsBySubject", SAMPLES, i ->
+                    value(db.noteDao().getNoteCountsBySubject())));
+            report.append(measure("countNotesBetween(mês)", SAMPLES, i -> {
+                String month = String.format(Locale.US, "%04d-%02d", YEAR, 2 + random.nextInt(11));
+                value(db.noteDao().countNotesBetween(month + "-01", month + "-31"));
+            }));
+            report.append(measure("searchNotes", SAMPLES, i ->
+                    db.noteDao().searchNotes(NoteSearch.searchQuery(
+                            userIds.get(random.nextInt(userIds.size())),
+                            NoteSearch.buildMatchQuery(pick(random, SyntheticDataGenerator.SUBJECTS)),
+                            null, null, null))));
+
+            // Escritas (cada uma em sua própria transação implícita)
+            List<String> newEmails = new ArrayList<>();
+            int firstExtra = extraIndex;
+            report.append(measure("insert(User)", SAMPLES, i -> {
+                User user = generator.newUser(firstExtra + i);
+                db.userDao().insert(user);
+                newEmails.add(user.email);
+            }));
+            extraIndex += SAMPLES + WARMUP;
+            report.append(measure("insert(Note)", SAMPLES, i ->
+                    db.noteDao().insert(generator.newNote(userIds.get(random.nextInt(userIds.size()))))));
+            List<User> newUsers = new ArrayList<>();
+            for (String email : newEmails) {
+                newUsers.add(db.userDao().findByEmail(email));
+            }
+            report.append(measure("delete(User)", newUsers.size() - WARMUP, i ->
+                    db.userDao().delete(newUsers.get(i))));
+
+            report.append(String.format(Locale.US, "tamanho do banco: %.1f KB (%.0f bytes/linha)%n",
+                    databaseBytes() / 1024.0,
+                    databaseBytes() / (double) (userIds.size() + count("SELECT COUNT(*) FROM notes"))));
+
+            assertCountersConsistent();
+        }
+
+        System.out.print(report);
+        writeReport("database-load.txt", report.toString());
+    }
+
+    /**
+     * Compara o CPF como texto (11 dígitos) e como inteiro: tamanho do
+     * índice único e latência da busca pela chave. Usa tabelas avulsas
+     * com os mesmos CPFs; o tamanho do índice é a diferença de páginas
+     * antes e depois de criá-lo.
+     */
+    @Test
+    public void cpfKey_integerVersusText() throws IOException {
+        int rows = Math.max(20_000, scales()[scales().length - 1]);
+        SupportSQLiteDatabase sqlite = db.getOpenHelper().getWritableDatabase();
+        Random random = new Random(SEED);
+        StringBuilder report = new StringBuilder(String.format(Locale.US,
+                "%n== índice único de CPF, %d linhas ==%n%-26s %9s %10s %9s %9s %9s %12s%n",
+                rows, "chave", "amostras", "ops/s", "p50 µs", "p95 µs", "p99 µs", "índice KB"));
+
+        String[] keys = {"TEXT", "INTEGER"};
+        long[] indexBytes = new long[keys.length];
+        for (int k = 0; k < keys.length; k++) {
+            boolean text = keys[k].equals("TEXT");
+            String table = "cpf_" + keys[k].toLowerCase(Locale.ROOT);
+            sqlite.execSQL("CREATE TABLE " + table + " (id INTEGER PRIMARY KEY, cpf " + keys[k] + " NOT NULL)");
+            sqlite.beginTransaction();
+            try (SupportSQLiteStatement insert = sqlite.compileStatement(
+                    "INSERT INTO " + table + " (cpf) VALUES (?)")) {
+                for (int i = 0; i < rows; i++) {
+                    long cpf = SyntheticDataGenerator.cpfFor(i);
+                    if (text) {
+                        insert.bindString(1, Cpf.digits(cpf));
+                    } else {
+                        insert.bindLong(1, cpf);
+                    }
+                    insert.executeInsert();
+                }
+                sqlite.setTransactionSuccessful();
+            } finally {
+                sqlite.endTransaction();
+            }
+
+            long before = count("PRAGMA page_count");
+            sqlite.execSQL("CREATE UNIQUE INDEX index_" + table + " ON " + table + " (cpf)");
+            indexBytes[k] = (count("PRAGMA page_count") - before) * count("PRAGMA page_size");
+
+            try (SupportSQLiteStatement lookup = sqlite.compileStatement(
+                    "SELECT id FROM " + table + " WHERE cpf = ?")) {
+                String line = measure(keys[k], SAMPLES, i -> {
+                    long cpf = SyntheticDataGenerator.cpfFor(random.nextInt(rows));
+                    if (text) {
+                        lookup.bindString(1, Cpf.digits(cpf));
+                    } else {
+                        lookup.bindLong(1, cpf);
+                    }
+                    lookup.simpleQueryForLong();
+                });
+                report.append(line.trim()).append(String.format(Locale.US, " %12.1f%n", indexBytes[k] / 1024.0));
+            } finally {
+                sqlite.execSQL("DROP TABLE " + table);
+            }
+        }
+
+        System.out.print(report);
+        writeReport("cpf-index.txt", report.toString());
+        assertTrue("Índice inteiro maior que o de texto", indexBytes[1] <= indexBytes[0]);
+    }
+
+    /**
+     * Operação medida; i é o índice da execução (aquecimento incluído).
+     */
+    interface Operation {
+        void run(int i);
+    }
+
+    /**
+     * Executa a operação WARMUP + samples vezes e formata as estatísticas
+     * das execuções medidas.
+     */
+    static String measure(String name, int samples, Operation operation) {
+        for (int i = 0; i < WARMUP; i++) {
+            operation.run(i);
+        }
+        long[] nanos = new long[samples];
+        long start = System.nanoTime();
+        for (int i = 0; i < samples; i++) {
+            long t0 = System.nanoTime();
+            operation.run(WARMUP + i);
+            nanos[i] = System.nanoTime() - t0;
+        }
+        long total = System.nanoTime() - start;
+        Arrays.sort(nanos);
+
+        return String.format(Locale.US, "%-26s %9d %10.0f %9.1f %9.1f %9.1f%n",
+                name, samples, samples * 1e9 / total,
+                percentile(nanos, 50) / 1000.0,
+                percentile(nanos, 95) / 1000.0,
+                percentile(nanos, 99) / 1000.0);
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    /**
+     * Lê o valor atual de um LiveData do Room (entregue de forma síncrona
+     * graças ao InstantTaskExecutorRule).
+     */
+    private static <T> T value(LiveData<T> liveData) {
+        List<T> holder = new ArrayList<>(1);
+        Observer<T> observer = holder::add;
+        liveData.observeForever(observer);
+        liveData.removeObserver(observer);
+        assertFalse("LiveData sem valor", holder.isEmpty());
+        return holder.get(0);
+    }
+
+    private static List<Integer> randomIds(Random random, List<Integer> ids, int count) {
+        List<Integer> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(ids.get(random.nextInt(ids.size())));
+        }
+        return result;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private long count(String sql) {
+        try (Cursor cursor = db.query(sql, null)) {
+            cursor.moveToFirst();
+            return cursor.getLong(0);
+        }
+    }
+
+    /**
+     * Tamanho do banco após checkpoint do WAL (arquivo principal + WAL).
+     */
+    private long databaseBytes() {
+        SupportSQLiteDatabase sqlite = db.getOpenHelper().getWritableDatabase();
+        try (Cursor cursor = sqlite.query("PRAGMA wal_checkpoint(TRUNCATE)")) {
+            cursor.moveToFirst();
+        }
+        return dbFile.length() + new File(dbFile.getPath() + "-wal").length();
+    }
+
+    /**
+     * Os contadores mantidos por triggers devem refletir as tabelas.
+     */
+    private void assertCountersConsistent() {
+        assertEquals(count("SELECT COUNT(*) FROM users WHERE isAdmin = 0"),
+                (long) value(db.userDao().countRegularUsers()));
+        assertEquals(count("SELECT COUNT(*) FROM notes"),
+                (long) value(db.noteDao().countNotes()));
+    }
+
+    static int[] scales() {
+        String property = System.getProperty("benchmark.scales", "");
+        if (property.trim().isEmpty()) {
+            return DEFAULT_SCALES;
+        }
+        String[] parts = property.split(",");
+        int[] scales = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            scales[i] = Integer.parseInt(parts[i].trim());
+        }
+        Arrays.sort(scales);
+        return scales;
+    }
+
+    static void writeReport(String name, String report) throws IOException {
+        File dir = new File("build/reports/benchmark");
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            return;
+        }
+        try (Writer writer = new OutputStreamWriter(
+                new FileOutputStream(new File(dir, name)), StandardCharsets.UTF_8)) {
+            writer.write(report);
+        }
+    }
+}
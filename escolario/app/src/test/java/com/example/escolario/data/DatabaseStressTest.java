@@ -0,0 +1,439 @@
+package com.example.escolario.data;
+
+import android.app.Application;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteConstraintException;
+import android.database.sqlite.SQLiteDatabaseLockedException;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.escolario.model.User;
+import com.example.escolario.utils.BCryptKdf;
+import com.example.escolario.utils.Cpf;
+import com.example.escolario.utils.PasswordUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Teste de estresse do banco, executado na JVM (Robolectric) sobre um
+ * arquivo SQLite real e com a mesma configuração do aplicativo.
+ *
+ * Várias threads executam uma carga mista por um tempo fixo: leituras,
+ * cadastros (UserRegistration, com emails e CPFs repetidos de propósito),
+ * notas inseridas para alunos que outra thread pode estar removendo e
+ * remoções de alunos (cascata nas notas). Para cada número de threads
+ * mede vazão, espera pelo bloqueio de escrita, erros de banco ocupado e
+ * deadlocks, e ao final confere as invariantes: nenhum email/CPF
+ * duplicado, nenhuma nota órfã e resumos (stat_counters, note_days) iguais
+ * aos recalculados. Por padrão roda pouco tempo; execuções longas (soak):
+ *
+ *   ./gradlew testDebugUnitTest -Pstress.threads=1,2,4,8,16 -Pstress.seconds=60
+ *
+ * O relatório é impresso e salvo em build/reports/benchmark/database-stress.txt.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class DatabaseStressTest {
+    private static final long SEED = 2025L;
+    private static final int[] DEFAULT_THREADS = {1, 2, 4};
+    private static final int DEFAULT_SECONDS = 2;
+
+    // Alunos iniciais e notas de cada um
+    private static final int USERS = 300;
+    private static final int NOTES_PER_USER = 10;
+
+    // Emails e CPFs disputados pelos cadastros (poucos: força conflitos)
+    private static final int REGISTRATION_POOL = 200;
+    private static final int CPF_OFFSET = 5_000_000;
+
+    // Tempo extra para as threads terminarem antes de considerá-las travadas
+    private static final long GRACE_MS = 30_000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Context context;
+    private AppDatabase db;
+
+    // Gera as notas da carga (ligado ao dicionário pela população inicial)
+    private SyntheticDataGenerator generator;
+
+    @Before
+    public void setUp() {
+        // Custo mínimo do BCrypt: o cadastro não deve dominar a carga
+        PasswordUtils.setPolicy(BCryptKdf.ID, 4);
+        context = ApplicationProvider.getApplicationContext();
+        File file = new File(folder.getRoot(), "stress.db");
+        db = AppDatabase.configure(Room.databaseBuilder(context, AppDatabase.class, file.getPath()))
+                .allowMainThreadQueries()
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+        PasswordUtils.setPolicy(BCryptKdf.ID, 12);
+    }
+
+    @Test
+    public void singleton_concurrentFirstAccessOpensOneDatabase() throws Exception {
+        int threads = 16;
+        TenantDatabases tenants = new TenantDatabases(context, 2);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<AppDatabase>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return tenants.currentDatabase();
+                }));
+            }
+            start.countDown();
+
+            AppDatabase first = results.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<AppDatabase> result : results) {
+                assertSame(first, result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, tenants.openCount());
+        } finally {
+            executor.shutdownNow();
+            tenants.closeAll();
+        }
+    }
+
+    @Test
+    public void stress_mixedWorkloadKeepsInvariants() throws Exception {
+        generator = new SyntheticDataGenerator(SEED, 2025);
+        SyntheticDataGenerator.Result seeded = generator.populate(db, USERS, NOTES_PER_USER, 0);
+        List<User> pool = Collections.synchronizedList(
+                new ArrayList<>(db.userDao().getUsersByIds(seeded.userIds)));
+        long seconds = seconds();
+        StringBuilder report = new StringBuilder(String.format(Locale.US,
+                "%n== estresse: %d alunos iniciais, %d s por rodada ==%n"
+                        + "%-8s %10s %8s %10s %10s %9s %9s %9s %7s %9s %9s%n",
+                USERS, seconds, "threads", "ops/s", "escala", "leituras", "escritas",
+                "espera50", "espera95", "esperaMax", "busy", "conflitos", "FK"));
+
+        double baseline = 0;
+        for (int threads : threads()) {
+            Stats stats = run(threads, seconds * 1000, pool);
+            double opsPerSecond = stats.operations() * 1000.0 / stats.elapsedMs;
+            if (baseline == 0) {
+                baseline = opsPerSecond;
+            }
+            long[] waits = stats.sortedWaits();
+            report.append(String.format(Locale.US,
+                    "%-8d %10.0f %7.2fx %10d %10d %8.1fms %8.1fms %8.1fms %7d %9d %9d%n",
+                    threads, opsPerSecond, opsPerSecond / baseline,
+                    stats.reads.get(), stats.writes.get(),
+                    percentile(waits, 50) / 1e6, percentile(waits, 95) / 1e6,
+                    percentile(waits, 100) / 1e6,
+                    stats.busy.get(), stats.conflicts.get(), stats.foreignKeyRejects.get()));
+
+            List<String> violations = invariantViolations();
+            assertTrue(threads + " threads: " + violations, violations.isEmpty());
+            assertEquals(threads + " threads: erros inesperados " + stats.errors,
+                    0, stats.errors.size());
+        }
+
+        System.out.print(report);
+        writeReport(report.toString());
+    }
+
+    /**
+     * Contadores de uma rodada (atualizados por todas as threads).
+     */
+    private static class Stats {
+        final AtomicLong reads = new AtomicLong();
+        final AtomicLong writes = new AtomicLong();
+        final AtomicLong busy = new AtomicLong();
+        final AtomicLong conflicts = new AtomicLong();
+        final AtomicLong foreignKeyRejects = new AtomicLong();
+        final List<Long> waits = Collections.synchronizedList(new ArrayList<>());
+        final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        long elapsedMs;
+
+        long operations() {
+            return reads.get() + writes.get();
+        }
+
+        long[] sortedWaits() {
+            long[] sorted;
+            synchronized (waits) {
+                sorted = new long[waits.size()];
+                for (int i = 0; i < sorted.length; i++) {
+                    sorted[i] = waits.get(i);
+                }
+            }
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    /**
+     * Executa a carga mista em várias threads pelo tempo informado. Falha
+     * se houver deadlock entre as threads ou se alguma não terminar.
+     */
+    private Stats run(int threads, long durationMs, List<User> pool) throws Exception {
+        Stats stats = new Stats();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + durationMs;
+        for (int t = 0; t < threads; t++) {
+            Random random = new Random(SEED + t);
+            workers.add(executor.submit(() -> {
+                start.await();
+                while (System.currentTimeMillis() < deadline) {
+                    step(random, pool, stats);
+                }
+                return null;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        while (!executor.awaitTermination(200, TimeUnit.MILLISECONDS)) {
+            long[] deadlocked = threadBean.findDeadlockedThreads();
+            if (deadlocked != null) {
+                executor.shutdownNow();
+                fail("Deadlock: " + describe(threadBean.getThreadInfo(deadlocked, Integer.MAX_VALUE)));
+            }
+            if (System.currentTimeMillis() > deadline + GRACE_MS) {
+                executor.shutdownNow();
+                fail("Threads não terminaram " + GRACE_MS + " ms após o fim da rodada");
+            }
+        }
+        stats.elapsedMs = Math.max(1, (System.nanoTime() - begin) / 1_000_000);
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        return stats;
+    }
+
+    // Uma operação da carga: 70% leituras, 30% escritas
+    private void step(Random random, List<User> pool, Stats stats) {
+        int dice = random.nextInt(100);
+        try {
+            if (dice < 10) {
+                register(random, pool, stats);
+            } else if (dice < 22) {
+                insertNote(random, pool, stats);
+            } else if (dice < 30) {
+                deleteUser(random, pool, stats);
+            } else {
+                read(random, pool, dice);
+                stats.reads.incrementAndGet();
+            }
+        } catch (SQLiteDatabaseLockedException e) {
+            // SQLITE_BUSY/LOCKED: o pool de conexões deveria serializar as escritas
+            stats.busy.incrementAndGet();
+        } catch (RuntimeException e) {
+            stats.errors.add(e.toString());
+        }
+    }
+
+    // Cadastro concorrente: a transação de UserRegistration deve recusar duplicados
+    private void register(Random random, List<User> pool, Stats stats) {
+        int emailIndex = random.nextInt(REGISTRATION_POOL);
+        int cpfIndex = CPF_OFFSET + random.nextInt(REGISTRATION_POOL);
+        try {
+            User user = new UserRegistration(db).register("Aluno " + emailIndex,
+                    "estresse" + emailIndex + "@escola.br",
+                    Cpf.format(SyntheticDataGenerator.cpfFor(cpfIndex)),
+                    SyntheticDataGenerator.DEFAULT_PASSWORD);
+            pool.add(user);
+            stats.writes.incrementAndGet();
+        } catch (UserRegistration.ConflictException e) {
+            stats.conflicts.incrementAndGet();
+        }
+    }
+
+    // Nota para um aluno que outra thread pode estar removendo
+    private void insertNote(Random random, List<User> pool, Stats stats) {
+        User user = pick(random, pool);
+        if (user == null) {
+            return;
+        }
+        long requested = System.nanoTime();
+        try {
+            db.runInTransaction(() -> {
+                stats.waits.add(System.nanoTime() - requested);
+                db.noteDao().insert(generator.newNote(user.id));
+            });
+            stats.writes.incrementAndGet();
+        } catch (SQLiteConstraintException e) {
+            // Aluno removido entre a escolha e a inserção: recusada pela chave estrangeira
+            stats.foreignKeyRejects.incrementAndGet();
+        }
+    }
+
+    // Remoção com cascata nas notas (e nos resumos mantidos por triggers)
+    private void deleteUser(Random random, List<User> pool, Stats stats) {
+        User user;
+        synchronized (pool) {
+            if (pool.size() <= USERS / 2) {
+                return; // Mantém alunos suficientes para as demais operações
+            }
+            user = pool.remove(random.nextInt(pool.size()));
+        }
+        long requested = System.nanoTime();
+        db.runInTransaction(() -> {
+            stats.waits.add(System.nanoTime() - requested);
+            db.userDao().delete(user);
+        });
+        stats.writes.incrementAndGet();
+    }
+
+    private void read(Random random, List<User> pool, int dice) {
+        User user = pick(random, pool);
+        if (user == null) {
+            return;
+        }
+        if (dice < 50) {
+            db.userDao().findByEmail(user.email);
+        } else if (dice < 75) {
+            db.noteDao().loadNotesByUser(user.id);
+        } else if (dice < 90) {
+            db.noteDao().loadUserTypeCounts(Collections.singletonList(user.id));
+        } else {
+            db.noteDao().loadNoteDays(user.id, 0, Integer.MAX_VALUE);
+        }
+    }
+
+    private static User pick(Random random, List<User> pool) {
+        synchronized (pool) {
+            return pool.isEmpty() ? null : pool.get(random.nextInt(pool.size()));
+        }
+    }
+
+    /**
+     * Invariantes do banco após uma rodada (sem escritas em andamento).
+     */
+    private List<String> invariantViolations() {
+        List<String> violations = new ArrayList<>();
+        check(violations, "emails duplicados",
+                "SELECT COUNT(*) FROM (SELECT email FROM users GROUP BY email HAVING COUNT(*) > 1)");
+        check(violations, "CPFs duplicados",
+                "SELECT COUNT(*) FROM (SELECT cpf FROM users GROUP BY cpf HAVING COUNT(*) > 1)");
+        check(violations, "notas órfãs",
+                "SELECT COUNT(*) FROM notes n LEFT JOIN users u ON u.id = n.userId WHERE u.id IS NULL");
+
+        // Resumos incrementais iguais aos recalculados do zero
+        SupportSQLiteDatabase sqlite = db.getOpenHelper().getWritableDatabase();
+        String counters = rows("SELECT kind, key, value FROM stat_counters WHERE value <> 0 ORDER BY kind, key");
+        String days = rows("SELECT userId, epochDay, typeId, count FROM note_days ORDER BY userId, epochDay, typeId");
+        db.runInTransaction(() -> {
+            StatsSchema.rebuild(sqlite);
+            CalendarSchema.rebuild(sqlite);
+        });
+        if (!counters.equals(rows("SELECT kind, key, value FROM stat_counters WHERE value <> 0 ORDER BY kind, key"))) {
+            violations.add("stat_counters diverge do recálculo");
+        }
+        if (!days.equals(rows("SELECT userId, epochDay, typeId, count FROM note_days ORDER BY userId, epochDay, typeId"))) {
+            violations.add("note_days diverge do recálculo");
+        }
+
+        String integrity = rows("PRAGMA integrity_check");
+        if (!integrity.equals("ok;")) {
+            violations.add("integrity_check: " + integrity);
+        }
+        return violations;
+    }
+
+    private void check(List<String> violations, String name, String countSql) {
+        try (Cursor cursor = db.query(countSql, null)) {
+            cursor.moveToFirst();
+            if (cursor.getLong(0) != 0) {
+                violations.add(name + ": " + cursor.getLong(0));
+            }
+        }
+    }
+
+    // Linhas da consulta como texto (colunas separadas por "|", linhas por ";")
+    private String rows(String sql) {
+        StringBuilder text = new StringBuilder();
+        try (Cursor cursor = db.query(sql, null)) {
+            while (cursor.moveToNext()) {
+                for (int i = 0; i < cursor.getColumnCount(); i++) {
+                    if (i > 0) text.append('|');
+                    text.append(cursor.getString(i));
+                }
+                text.append(';');
+            }
+        }
+        return text.toString();
+    }
+
+    private static String describe(ThreadInfo[] infos) {
+        StringBuilder text = new StringBuilder();
+        for (ThreadInfo info : infos) {
+            text.append(info);
+        }
+        return text.toString();
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    static int[] threads() {
+        String property = System.getProperty("stress.threads", "");
+        if (property.trim().isEmpty()) {
+            return DEFAULT_THREADS;
+        }
+        String[] parts = property.split(",");
+        int[] threads = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            threads[i] = Integer.parseInt(parts[i].trim());
+        }
+        Arrays.sort(threads);
+        return threads;
+    }
+
+    static long seconds() {
+        String property = System.getProperty("stress.seconds", "");
+        return property.trim().isEmpty() ? DEFAULT_SECONDS : Long.parseLong(property.trim());
+    }
+
+    private static void writeReport(String report) throws IOException {
+        DatabaseLoadBenchmarkTest.writeReport("database-stress.txt", report);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.escolario.data;
+
+import android.app.Application;
+import android.database.Cursor;
+
+import androidx.room.migration.Migration;
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.escolario.utils.Cpf;
+import com.example.escolario.utils.DateUtils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes das migrações explícitas: um banco da versão 5 com dados é
+ * migrado até a versão atual e validado contra os esquemas exportados
+ * (app/schemas). Os objetos mantidos fora do Room - contadores
+ * (stat_counters), resumo do calendário (note_days) e índice de texto
+ * (notes_fts) - devem coincidir com as tabelas base, antes e depois de
+ * novas escritas (os triggers precisam existir ao fim da migração).
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class MigrationTest {
+    private static final String TEST_DB = "migration-test";
+
+    @Rule
+    public MigrationTestHelper helper = new MigrationTestHelper(
+            InstrumentationRegistry.getInstrumentation(), AppDatabase.class);
+
+    @Test
+    public void migrations_coverEveryVersionFrom5() {
+        int version = 5;
+        for (Migration migration : Migrations.ALL) {
+            assertEquals(version, migration.startVersion);
+            assertEquals(version + 1, migration.endVersion);
+            version++;
+        }
+        assertEquals(AppDatabase.VERSION, version);
+    }
+
+    @Test
+    public void migrate5ToLatest_keepsDataAndDerivedTables() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 5);
+        insertUser(db, 1, "Administrador", "000.000.000-00", true);
+        insertUser(db, 2, "Ana Souza", "529.982.247-25", false);
+        insertUser(db, 3, "Bruno Lima", "123.456.789-09", false);
+        insertUser(db, 4, "Carla Dias", "98765432100", false);
+        insertUser(db, 5, "Eva Melo", "111.111.111-11", false);
+        insertNote(db, 1, 2, "Matemática", "Prova", "Prova de frações", "10/03/2025");
+        insertNote(db, 2, 2, " Matemática ", "Trabalho", "Lista de frações e decimais", "10/03/2025");
+        insertNote(db, 3, 2, "História", "Prova", "Revolução Francesa", "14/04/2025");
+        insertNote(db, 4, 3, "Matemática", "Prova", "Frações equivalentes", "10/03/2025");
+        insertNote(db, 5, 3, "Geografia", "Seminário", "Relevo brasileiro", "a definir");
+        insertNote(db, 6, 4, "Ciências", "Prova", "Ciclo da água", "02/06/2025");
+        db.close();
+
+        db = helper.runMigrationsAndValidate(TEST_DB, AppDatabase.VERSION, false, Migrations.ALL);
+
+        assertEquals(5, count(db, "SELECT COUNT(*) FROM users"));
+        assertEquals(6, count(db, "SELECT COUNT(*) FROM notes"));
+        assertEquals(52998224725L, count(db, "SELECT cpf FROM users WHERE id = 2"));
+        // Administrador na chave reservada; dígitos repetidos ficam a corrigir
+        assertEquals(Cpf.ADMIN, count(db, "SELECT cpf FROM users WHERE id = 1"));
+        assertEquals(Cpf.pending(5), count(db, "SELECT cpf FROM users WHERE id = 5"));
+        // Grafias com espaços nas pontas viram a mesma matéria
+        assertEquals(4, count(db, "SELECT COUNT(*) FROM subjects"));
+        assertEquals(count(db, "SELECT subjectId FROM notes WHERE id = 1"),
+                count(db, "SELECT subjectId FROM notes WHERE id = 2"));
+        assertEquals(DateUtils.epochDay(2025, 3, 10), count(db, "SELECT epochDay FROM notes WHERE id = 1"));
+        assertEquals(0, count(db, "SELECT epochDay FROM notes WHERE id = 5"));
+
+        assertDerivedTablesMatch(db);
+        assertEquals(2, search(db, 2, "fracoes*"));
+        assertEquals(1, search(db, 3, "fracoes*"));
+        assertEquals(0, search(db, 4, "fracoes*"));
+        assertEquals(2, search(db, 2, "matematica*"));
+
+        // Escritas depois da migração passam pelos triggers recriados
+        long subjectId = count(db, "SELECT subjectId FROM notes WHERE id = 1");
+        long typeId = count(db, "SELECT typeId FROM notes WHERE id = 1");
+        db.execSQL("INSERT INTO notes (userId, subjectId, typeId, content, date, epochDay) VALUES (?, ?, ?, ?, ?, ?)",
+                new Object[]{4, subjectId, typeId, "Frações na receita", "11/03/2025",
+                        DateUtils.epochDay(2025, 3, 11)});
+        db.execSQL("UPDATE notes SET content = 'Ciclo do carbono', userId = 2 WHERE id = 6");
+        db.execSQL("DELETE FROM notes WHERE id = 3");
+        db.execSQL("INSERT INTO users (name, email, password, cpf, isAdmin) VALUES ('Davi', 'davi@escola.br', 'h', 11144477735, 0)");
+
+        assertDerivedTablesMatch(db);
+        assertEquals(1, search(db, 4, "fracoes*"));
+        assertEquals(0, search(db, 4, "ciclo*"));
+        assertEquals(1, search(db, 2, "carbono*"));
+        assertEquals(0, search(db, 2, "revolucao*"));
+    }
+
+    // Contadores, calendário e índice de texto iguais aos recalculados das tabelas base
+    private static void assertDerivedTablesMatch(SupportSQLiteDatabase db) {
+        String counters = "SELECT kind, key, value FROM stat_counters ORDER BY kind, key";
+        List<String> migrated = rows(db, counters);
+        StatsSchema.rebuild(db);
+        assertEquals(rows(db, counters), migrated);
+
+        String days = "SELECT userId, epochDay, typeId, count FROM note_days ORDER BY userId, epochDay, typeId";
+        migrated = rows(db, days);
+        CalendarSchema.rebuild(db);
+        assertEquals(rows(db, days), migrated);
+
+        // Falha (SQLITE_CORRUPT_VTAB) se o índice divergir de notes
+        db.execSQL("INSERT INTO notes_fts (notes_fts) VALUES ('integrity-check')");
+        assertEquals(count(db, "SELECT COUNT(*) FROM notes"),
+                count(db, "SELECT COUNT(*) FROM notes_fts_content"));
+    }
+
+    private static long search(SupportSQLiteDatabase db, int userId, String match) {
+        try (Cursor cursor = db.query(NoteSearch.searchQuery(userId, match, null, null, null))) {
+            return cursor.getCount();
+        }
+    }
+
+    private static List<String> rows(SupportSQLiteDatabase db, String sql) {
+        List<String> rows = new ArrayList<>();
+        try (Cursor cursor = db.query(sql)) {
+            while (cursor.moveToNext()) {
+                StringBuilder row = new StringBuilder();
+                for (int i = 0; i < cursor.getColumnCount(); i++) {
+                    row.append(i == 0 ? "" : "|").append(cursor.getString(i));
+                }
+                rows.add(row.toString());
+            }
+        }
+        return rows;
+    }
+
+    private static long count(SupportSQLiteDatabase db, String sql) {
+        try (Cursor cursor = db.query(sql)) {
+            cursor.moveToFirst();
+            return cursor.getLong(0);
+        }
+    }
+
+    private static void insertUser(SupportSQLiteDatabase db, int id, String name, String cpf, boolean admin) {
+        db.execSQL("INSERT INTO users (id, name, email, password, cpf, isAdmin) VALUES (?, ?, ?, 'h', ?, ?)",
+                new Object[]{id, name, "u" + id + "@escola.br", cpf, admin ? 1 : 0});
+    }
+
+    private static void insertNote(SupportSQLiteDatabase db, int id, int userId, String subject,
+                                   String type, String content, String date) {
+        db.execSQL("INSERT INTO notes (id, userId, subject, type, content, date) VALUES (?, ?, ?, ?, ?, ?)",
+                new Object[]{id, userId, subject, type, content, date});
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.escolario.data;
+
+import android.app.Application;
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.escolario.model.CalendarMonth;
+import com.example.escolario.model.Note;
+import com.example.escolario.model.User;
+import com.example.escolario.utils.DateUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes do calendário de notas: resumo por dia mantido por triggers,
+ * montagem do mês, cache com prefetch e descarte quando as notas mudam.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class NoteCalendarTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private AppDatabase db;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        File file = new File(folder.getRoot(), "calendar.db");
+        db = AppDatabase.configure(Room.databaseBuilder(context, AppDatabase.class, file.getPath()))
+                .allowMainThreadQueries()
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void triggers_keepSummaryEqualToRebuild() {
+        int student = insertUser(0);
+        int other = insertUser(1);
+        insertNote(student, "Prova", "10/03/2025");
+        insertNote(student, "Prova", "10/03/2025");
+        insertNote(student, "Trabalho", "10/03/2025");
+        insertNote(student, "Prova", "sem data");
+        insertNote(other, "Prova", "11/03/2025");
+        SupportSQLiteDatabase sql = db.getOpenHelper().getWritableDatabase();
+        sql.execSQL("DELETE FROM notes WHERE id = (SELECT MIN(id) FROM notes)");
+        sql.execSQL("UPDATE notes SET epochDay = epochDay + 1 WHERE typeId = ?",
+                new Object[]{db.dictionary().typeId("Trabalho")});
+        db.userDao().deleteRegularUsersByIds(Arrays.asList(other));
+
+        // Uma prova no dia 10 e um trabalho no dia 11; datas inválidas ficam de fora
+        assertEquals("1,1", summary(sql));
+        String incremental = rows(sql);
+        CalendarSchema.rebuild(sql);
+        assertEquals(incremental, rows(sql));
+    }
+
+    @Test
+    public void month_distributesCountsByDayAndType() {
+        int student = insertUser(0);
+        insertNote(student, "Prova", "01/03/2025");
+        insertNote(student, "Prova", "10/03/2025");
+        insertNote(student, "Trabalho", "10/03/2025");
+        insertNote(student, "Prova", "31/03/2025");
+        insertNote(student, "Prova", "01/04/2025");
+
+        CalendarMonth month = db.calendar().month(student, 2025, 3);
+
+        assertEquals(31, month.length());
+        assertEquals(DateUtils.toEpochDay("01/03/2025").intValue(), month.firstEpochDay);
+        assertEquals(6, month.firstWeekday()); // 01/03/2025 foi um sábado
+        assertEquals(1, month.counts[0]);
+        assertEquals(2, month.counts[9]);
+        assertEquals(1, month.counts[30]);
+        assertEquals(Integer.valueOf(1), month.countsByType.get(9).get("Trabalho"));
+        assertTrue(month.countsByType.get(1).isEmpty());
+        assertEquals(28, db.calendar().month(student, 2025, 2).length());
+    }
+
+    @Test
+    public void month_cachedAndNeighborsPrefetched() {
+        int student = insertUser(0);
+        insertNote(student, "Prova", "15/01/2025");
+        NoteCalendar calendar = db.calendar();
+
+        calendar.month(student, 2024, 12);
+        calendar.month(student, 2024, 12);
+        assertEquals(1, calendar.queries());
+
+        // Dezembro/2024 exibido: novembro e janeiro lidos antecipadamente
+        calendar.prefetch(student, 2024, 12);
+        assertEquals(3, calendar.queries());
+        assertEquals(1, calendar.month(student, 2025, 1).counts[14]);
+        assertEquals(3, calendar.queries());
+    }
+
+    @Test
+    public void notesChanged_discardsMonths() throws Exception {
+        int student = insertUser(0);
+        insertNote(student, "Prova", "10/03/2025");
+        NoteCalendar calendar = db.calendar();
+        assertEquals(1, calendar.month(student, 2025, 3).counts[9]);
+
+        CountDownLatch invalidated = new CountDownLatch(1);
+        calendar.addListener(invalidated::countDown);
+        insertNote(student, "Seminário", "10/03/2025");
+        assertTrue("Alterações não entregues", invalidated.await(5, TimeUnit.SECONDS));
+
+        CalendarMonth month = calendar.month(student, 2025, 3);
+        assertEquals(2, month.counts[9]);
+        assertEquals(Integer.valueOf(1), month.countsByType.get(9).get("Seminário"));
+        assertEquals(2, calendar.queries());
+    }
+
+    @Test
+    public void notesChanged_discardsOnlyAffectedMonths() throws Exception {
+        int student = insertUser(0);
+        int other = insertUser(1);
+        NoteCalendar calendar = db.calendar();
+        // Carga inicial entregue antes de os meses serem lidos
+        awaitChange(calendar, () -> db.runInTransaction(() -> {
+            insertNote(student, "Prova", "10/03/2025");
+            insertNote(student, "Prova", "10/04/2025");
+            insertNote(other, "Prova", "10/03/2025");
+        }));
+        calendar.month(student, 2025, 3);
+        calendar.month(student, 2025, 4);
+        calendar.month(student, 2025, 5);
+        calendar.month(other, 2025, 3);
+        assertEquals(4, calendar.cachedMonths());
+
+        // Nota nova em março: só março do aluno é relido
+        awaitChange(calendar, () -> insertNote(student, "Trabalho", "11/03/2025"));
+        assertEquals(3, calendar.cachedMonths());
+        assertEquals(1, calendar.month(student, 2025, 3).counts[10]);
+        assertEquals(5, calendar.queries());
+        assertEquals(1, calendar.month(other, 2025, 3).counts[9]);
+        assertEquals(5, calendar.queries());
+
+        // Nota movida de abril para maio: os dois meses são descartados
+        Note moved = db.noteDao().loadNotesByUser(student).get(1);
+        moved.epochDay = DateUtils.epochDay(2025, 5, 2);
+        awaitChange(calendar, () -> db.noteDao().update(moved));
+        assertEquals(2, calendar.cachedMonths());
+        assertEquals(0, calendar.month(student, 2025, 4).counts[9]);
+        assertEquals(1, calendar.month(student, 2025, 5).counts[1]);
+
+        // Exclusão: o ID da nota indica o mês em memória
+        int deleted = db.noteDao().loadNotesByUser(other).get(0).id;
+        awaitChange(calendar, () -> db.runInTransaction(() -> db.getOpenHelper().getWritableDatabase()
+                .execSQL("DELETE FROM notes WHERE id = ?", new Object[]{deleted})));
+        assertEquals(3, calendar.cachedMonths());
+        assertEquals(0, calendar.month(other, 2025, 3).counts[9]);
+    }
+
+    // Executa a alteração e espera o calendário recebê-la do feed
+    private static void awaitChange(NoteCalendar calendar, Runnable change) throws InterruptedException {
+        CountDownLatch invalidated = new CountDownLatch(1);
+        Runnable listener = invalidated::countDown;
+        calendar.addListener(listener);
+        try {
+            change.run();
+            assertTrue("Alterações não entregues", invalidated.await(5, TimeUnit.SECONDS));
+        } finally {
+            calendar.removeListener(listener);
+        }
+    }
+
+    // Quantidade por dia, em ordem de dia
+    private static String summary(SupportSQLiteDatabase sql) {
+        StringBuilder text = new StringBuilder();
+        try (Cursor cursor = sql.query("SELECT SUM(count) FROM note_days GROUP BY epochDay ORDER BY epochDay")) {
+            while (cursor.moveToNext()) {
+                if (text.length() > 0) text.append(',');
+                text.append(cursor.getInt(0));
+            }
+        }
+        return text.toString();
+    }
+
+    private static String rows(SupportSQLiteDatabase sql) {
+        StringBuilder text = new StringBuilder();
+        try (Cursor cursor = sql.query("SELECT userId, epochDay, typeId, count FROM note_days "
+                + "ORDER BY userId, epochDay, typeId")) {
+            while (cursor.moveToNext()) {
+                text.append(cursor.getInt(0)).append('/').append(cursor.getInt(1)).append('/')
+                        .append(cursor.getInt(2)).append('=').append(cursor.getInt(3)).append(';');
+            }
+        }
+        return text.toString();
+    }
+
+    private void insertNote(int userId, String type, String date) {
+        db.noteDao().insert(new Note(userId, db.dictionary().subjectId("Geografia"),
+                db.dictionary().typeId(type), type, date));
+    }
+
+    private int insertUser(int index) {
+        return (int) db.userDao().insert(new User("Aluno " + index, "aluno" + index + "@escola.br",
+                "h" + index, SyntheticDataGenerator.cpfFor(index), false));
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.escolario.data;
+
+import android.app.Application;
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.escolario.model.Note;
+import com.example.escolario.model.NoteSearchResult;
+import com.example.escolario.model.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes do dicionário de matérias e tipos: tipos padrão, unificação de
+ * grafias, nomes compartilhados e busca textual pelo nome da matéria.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class NoteDictionaryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private AppDatabase db;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        File file = new File(folder.getRoot(), "dictionary.db");
+        db = AppDatabase.configure(Room.databaseBuilder(context, AppDatabase.class, file.getPath()))
+                .allowMainThreadQueries()
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void defaultTypes_areSeededInFormOrder() {
+        assertEquals(Arrays.asList(NoteDictionary.DEFAULT_TYPES), db.dictionary().typeNames());
+    }
+
+    @Test
+    public void intern_unifiesSpellingsAndSharesNames() {
+        NoteDictionary dictionary = db.dictionary();
+        int id = dictionary.subjectId("Matemática");
+
+        assertEquals(id, dictionary.subjectId("  matemática "));
+        assertEquals(id, dictionary.subjectId("MATEMÁTICA"));
+        assertEquals(dictionary.typeId("Prova"), dictionary.typeId("prova"));
+        assertSame(dictionary.subjectName(id), dictionary.subjectName(id));
+        assertEquals("Matemática", dictionary.subjectName(id));
+
+        // Outro cache sobre o mesmo banco encontra os mesmos IDs
+        dictionary.reset();
+        assertEquals(id, dictionary.subjectId("matemática"));
+        assertEquals(Arrays.asList("Matemática"), dictionary.subjectNames());
+        assertNull(dictionary.findTypeId("Inexistente"));
+    }
+
+    @Test
+    public void search_matchesSubjectNameThroughDictionary() {
+        NoteDictionary dictionary = db.dictionary();
+        int userId = (int) db.userDao().insert(
+                new User("Ana Silva", "ana@escola.com.br", "hash", 52998224725L, false));
+        db.noteDao().insert(new Note(userId, dictionary.subjectId("Matemática"),
+                dictionary.typeId("Prova"), "Frações e porcentagem", "10/03/2025"));
+        db.noteDao().insert(new Note(userId, dictionary.subjectId("História"),
+                dictionary.typeId("Trabalho"), "Revolução Francesa", "11/03/2025"));
+
+        List<NoteSearchResult> results = db.noteDao().searchNotes(NoteSearch.searchQuery(
+                userId, NoteSearch.buildMatchQuery("matematica"), null, null, null));
+        assertEquals(1, results.size());
+        assertEquals(dictionary.subjectId("Matemática"), results.get(0).subjectId);
+
+        Integer trabalho = dictionary.findTypeId("Trabalho");
+        results = db.noteDao().searchNotes(NoteSearch.searchQuery(
+                userId, NoteSearch.buildMatchQuery("revolucao"), trabalho, null, null));
+        assertEquals(1, results.size());
+    }
+}
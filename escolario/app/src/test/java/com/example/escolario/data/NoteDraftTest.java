@@ -0,0 +1,132 @@
+package com.example.escolario.data;
+
+import android.app.Application;
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.escolario.model.NoteDraft;
+import com.example.escolario.model.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes dos rascunhos de nota: gravações agrupadas do salvamento
+ * automático, um rascunho por usuário e remoção junto com o usuário.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class NoteDraftTest {
+    // Intervalos curtos para o teste (o aplicativo usa 1 s e 3 s)
+    private static final long IDLE_MS = 50;
+    private static final long MAX_WAIT_MS = 200;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private AppDatabase db;
+    private int userId;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        File file = new File(folder.getRoot(), "drafts.db");
+        db = AppDatabase.configure(Room.databaseBuilder(context, AppDatabase.class, file.getPath()))
+                .allowMainThreadQueries()
+                .build();
+        userId = (int) db.userDao().insert(new User("Aluno", "aluno@escola.br", "hash",
+                SyntheticDataGenerator.cpfFor(0), false));
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        db.close();
+    }
+
+    @Test
+    public void autosaver_coalescesKeystrokesIntoFewWrites() throws Exception {
+        DraftAutosaver autosaver = new DraftAutosaver(executor,
+                draft -> db.noteDraftDao().save(draft), IDLE_MS, MAX_WAIT_MS);
+
+        // Digitação contínua: uma alteração a cada 10 ms por ~600 ms
+        String text = "";
+        int updates = 60;
+        for (int i = 0; i < updates; i++) {
+            text += (char) ('a' + i % 26);
+            autosaver.update(new NoteDraft(userId, "Matemática", "Prova", "01/03/2025", text));
+            Thread.sleep(10);
+        }
+        awaitIdle();
+
+        int writes = autosaver.writes();
+        assertTrue("Digitação contínua não pode adiar a gravação: " + writes, writes >= 2);
+        assertTrue("Gravações não agrupadas: " + writes + " para " + updates, writes <= updates / 4);
+        assertEquals(text, db.noteDraftDao().find(userId).content);
+    }
+
+    @Test
+    public void autosaver_flushNowAndCancel() throws Exception {
+        DraftAutosaver autosaver = new DraftAutosaver(executor,
+                draft -> db.noteDraftDao().save(draft), 10_000, 10_000);
+
+        autosaver.update(new NoteDraft(userId, "História", "Trabalho", "", "Rascunho"));
+        autosaver.flushNow();
+        awaitIdle();
+        assertEquals("Rascunho", db.noteDraftDao().find(userId).content);
+
+        // Nota salva: a versão pendente é descartada
+        autosaver.update(new NoteDraft(userId, "História", "Trabalho", "", "Descartado"));
+        autosaver.cancel();
+        autosaver.flushNow();
+        awaitIdle();
+        assertEquals(1, autosaver.writes());
+        assertEquals("Rascunho", db.noteDraftDao().find(userId).content);
+    }
+
+    @Test
+    public void drafts_oneRowPerUserAndRemovedWithUser() {
+        NoteDraftDao dao = db.noteDraftDao();
+        dao.save(new NoteDraft(userId, "Física", "Prova", "02/03", "Primeira"));
+        dao.save(new NoteDraft(userId, "Física", "Prova", "02/03/2025", "Segunda"));
+        assertEquals("Segunda", dao.find(userId).content);
+        assertEquals(1, count());
+
+        assertTrue(new NoteDraft(userId, " ", "Prova", "", "").isEmpty());
+
+        db.userDao().delete(db.userDao().findByEmail("aluno@escola.br"));
+        assertNull(dao.find(userId));
+        assertEquals(0, count());
+    }
+
+    // Aguarda as gravações já agendadas
+    private void awaitIdle() throws Exception {
+        Thread.sleep(MAX_WAIT_MS);
+        executor.submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    private long count() {
+        try (Cursor cursor = db.query("SELECT COUNT(*) FROM note_drafts", null)) {
+            cursor.moveToFirst();
+            return cursor.getLong(0);
+        }
+    }
+}
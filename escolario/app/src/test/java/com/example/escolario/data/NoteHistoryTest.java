@@ -0,0 +1,281 @@
+package com.example.escolario.data;
+
+import android.app.Application;
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.escolario.model.Note;
+import com.example.escolario.model.NoteDay;
+import com.example.escolario.model.NoteDraft;
+import com.example.escolario.model.NoteRevision;
+import com.example.escolario.model.NoteVersion;
+import com.example.escolario.model.User;
+import com.example.escolario.utils.DateUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes do histórico de edições das notas: deltas, snapshots periódicos,
+ * reconstrução de cada versão e os resumos mantidos por triggers após uma
+ * edição. Mede a latência de reconstrução e o espaço por versão
+ * (relatório em build/reports/benchmark/note-history.txt).
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class NoteHistoryTest {
+    // Edições do benchmark (várias vezes o intervalo de snapshots)
+    private static final int EDITS = 64;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private AppDatabase db;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        File file = new File(folder.getRoot(), "history.db");
+        db = AppDatabase.configure(Room.databaseBuilder(context, AppDatabase.class, file.getPath()))
+                .allowMainThreadQueries()
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void delta_roundTrips() {
+        String[][] cases = {
+                {"", ""},
+                {"", "nova"},
+                {"apagar tudo", ""},
+                {"Prova de frações", "Prova de frações e decimais"},
+                {"Nota 7,5 na prova", "Nota 8,5 na prova"},
+                {"aaaa", "aa"},
+                {"abc", "xabcx"},
+                {"trabalho: 1:2:3", "trabalho: 1:20:3"}};
+        for (String[] pair : cases) {
+            String delta = NoteDelta.diff(pair[0], pair[1]);
+            assertEquals(pair[1], NoteDelta.apply(pair[0], delta));
+        }
+        assertEquals("5:11:8", NoteDelta.diff("Nota 7,5 na prova", "Nota 8,5 na prova"));
+    }
+
+    @Test
+    public void edit_keepsOriginalAndEveryRevision() {
+        int noteId = insertNote(insertUser(0), "Prova de frações", "10/03/2025");
+        NoteHistory history = db.noteHistory();
+        List<String> contents = new ArrayList<>();
+        contents.add("Prova de frações");
+        for (int i = 1; i <= 20; i++) {
+            String content = "Prova de frações - revisão " + i;
+            assertTrue(history.edit(noteId, 1, subjectId(), typeId(), content, "10/03/2025"));
+            contents.add(content);
+        }
+
+        for (int revision = 1; revision <= contents.size(); revision++) {
+            assertEquals(contents.get(revision - 1), history.content(noteId, revision));
+        }
+        assertNull(history.content(noteId, contents.size() + 1));
+
+        List<NoteVersion> versions = history.history(noteId);
+        assertEquals(contents.size(), versions.size());
+        assertEquals(contents.size(), versions.get(0).revision);
+        assertEquals(contents.get(contents.size() - 1), versions.get(0).content);
+        assertEquals("Prova de frações", versions.get(versions.size() - 1).content);
+        assertEquals(contents.get(contents.size() - 1), db.noteDao().loadNote(noteId).content);
+    }
+
+    @Test
+    public void edit_snapshotEveryIntervalBoundsChain() {
+        int noteId = insertNote(insertUser(0), "Trabalho de ciências sobre o ciclo da água", "10/03/2025");
+        NoteHistory history = db.noteHistory();
+        for (int i = 1; i <= 30; i++) {
+            history.edit(noteId, 1, subjectId(), typeId(),
+                    "Trabalho de ciências sobre o ciclo da água (" + i + ")", "10/03/2025");
+        }
+
+        NoteHistoryDao dao = db.noteHistoryDao();
+        for (NoteRevision row : dao.loadRevisions(noteId)) {
+            boolean start = (row.revision - 1) % NoteHistory.SNAPSHOT_INTERVAL == 0;
+            assertEquals("versão " + row.revision, start, row.kind == NoteRevision.KIND_SNAPSHOT);
+        }
+        for (int revision = 1; revision <= 31; revision++) {
+            List<NoteRevision> chain = dao.loadChain(noteId, revision);
+            assertTrue(chain.size() <= NoteHistory.SNAPSHOT_INTERVAL);
+            assertEquals(NoteRevision.KIND_SNAPSHOT, chain.get(0).kind);
+        }
+    }
+
+    @Test
+    public void edit_unchangedNoteWritesNothing() {
+        int noteId = insertNote(insertUser(0), "Seminário", "10/03/2025");
+
+        assertFalse(db.noteHistory().edit(noteId, 1, subjectId(), typeId(), "Seminário", "10/03/2025"));
+        assertEquals(0, db.noteHistoryDao().lastRevision(noteId));
+        assertTrue(db.noteHistory().history(noteId).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void edit_missingNoteFails() {
+        db.noteHistory().edit(42, 1, subjectId(), typeId(), "x", "10/03/2025");
+    }
+
+    @Test
+    public void edit_dateMovesCalendarDayAndKeepsCounts() {
+        int student = insertUser(0);
+        int noteId = insertNote(student, "Prova", "10/03/2025");
+        int from = DateUtils.toEpochDay("10/03/2025");
+        int to = DateUtils.toEpochDay("14/04/2025");
+
+        db.noteHistory().edit(noteId, student, subjectId(), typeId(), "Prova adiada", "14/04/2025");
+
+        assertEquals(to, db.noteDao().loadNote(noteId).epochDay);
+        List<NoteDay> days = db.noteDao().loadNoteDays(student, from, to);
+        assertEquals(1, days.size());
+        assertEquals(to, days.get(0).epochDay);
+        assertEquals(1, days.get(0).count);
+        assertEquals(1, db.noteDao().loadNotesOnDay(student, to).size());
+        assertEquals(0, count("SELECT COALESCE(SUM(value), 0) FROM stat_counters "
+                + "WHERE kind = 'day' AND key = '2025-03-10'"));
+        assertEquals(1, count("SELECT COALESCE(SUM(value), 0) FROM stat_counters "
+                + "WHERE kind = 'day' AND key = '2025-04-14'"));
+        assertEquals("10/03/2025", db.noteHistory().history(noteId).get(1).date);
+    }
+
+    @Test
+    public void undoBulkDelete_restoresRevisions() {
+        int student = insertUser(0);
+        int noteId = insertNote(student, "Prova", "10/03/2025");
+        db.noteHistory().edit(noteId, student, subjectId(), typeId(), "Prova corrigida", "10/03/2025");
+        BulkUserDeleter deleter = new BulkUserDeleter(db);
+
+        BulkUserDeleter.Snapshot snapshot = deleter.delete(Arrays.asList(student), null);
+        assertEquals(2, snapshot.revisions.size());
+        assertEquals(0, db.noteHistoryDao().lastRevision(noteId));
+        deleter.undo(snapshot);
+
+        assertEquals("Prova", db.noteHistory().content(noteId, 1));
+        assertEquals("Prova corrigida", db.noteHistory().content(noteId, 2));
+    }
+
+    @Test
+    public void undoBulkDelete_restoresDrafts() {
+        int student = insertUser(0);
+        db.noteDraftDao().save(new NoteDraft(student, "Matemática", "Prova", "10/03/2025", "Rascunho"));
+        BulkUserDeleter deleter = new BulkUserDeleter(db);
+
+        BulkUserDeleter.Snapshot snapshot = deleter.delete(Arrays.asList(student), null);
+        assertEquals(1, snapshot.drafts.size());
+        assertNull(db.noteDraftDao().find(student));
+        deleter.undo(snapshot);
+
+        assertEquals("Rascunho", db.noteDraftDao().find(student).content);
+    }
+
+    @Test
+    public void benchmark_reconstructionAndStorage() throws IOException {
+        int noteId = insertNote(insertUser(0), longContent(new Random(7)), "10/03/2025");
+        NoteHistory history = db.noteHistory();
+        Random random = new Random(11);
+        String content = db.noteDao().loadNote(noteId).content;
+        for (int i = 0; i < EDITS; i++) {
+            // Edição típica: troca algumas palavras em um ponto da nota
+            int at = random.nextInt(content.length() - 20);
+            content = content.substring(0, at) + "corrigido " + i + content.substring(at + 12);
+            history.edit(noteId, 1, subjectId(), typeId(), content, "10/03/2025");
+        }
+
+        long snapshotBytes = 0;
+        long deltaBytes = 0;
+        int deltas = 0;
+        for (NoteRevision row : db.noteHistoryDao().loadRevisions(noteId)) {
+            if (row.kind == NoteRevision.KIND_DELTA) {
+                deltaBytes += row.payload.length();
+                deltas++;
+            } else {
+                snapshotBytes += row.payload.length();
+            }
+        }
+        int revisions = EDITS + 1;
+        double perRevision = (snapshotBytes + deltaBytes) / (double) revisions;
+        // Um delta guarda apenas o trecho alterado
+        assertTrue(deltaBytes / (double) deltas < content.length() / 10.0);
+
+        StringBuilder report = new StringBuilder(String.format(Locale.US,
+                "== %d versões, conteúdo de %d caracteres, snapshot a cada %d ==%n"
+                        + "delta médio: %.1f caracteres (%d deltas)%n"
+                        + "payload médio por versão: %.1f caracteres (%.1f%% do conteúdo)%n"
+                        + "%-26s %9s %10s %9s %9s %9s%n",
+                revisions, content.length(), NoteHistory.SNAPSHOT_INTERVAL,
+                deltaBytes / (double) deltas, deltas, perRevision,
+                100.0 * perRevision / content.length(),
+                "operação", "amostras", "ops/s", "p50 µs", "p95 µs", "p99 µs"));
+        report.append(DatabaseLoadBenchmarkTest.measure("content(versão)", 200, i ->
+                history.content(noteId, 1 + i % revisions)));
+        report.append(DatabaseLoadBenchmarkTest.measure("content(pior caso)", 200, i ->
+                history.content(noteId, NoteHistory.SNAPSHOT_INTERVAL)));
+        report.append(DatabaseLoadBenchmarkTest.measure("history(completo)", 50, i ->
+                history.history(noteId)));
+        System.out.print(report);
+        DatabaseLoadBenchmarkTest.writeReport("note-history.txt", report.toString());
+    }
+
+    private static String longContent(Random random) {
+        String[] words = {"prova", "exercícios", "capítulo", "revisar", "frações", "leitura",
+                "entrega", "grupo", "apresentação", "resumo", "página", "questões"};
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 2000) {
+            text.append(words[random.nextInt(words.length)]).append(' ');
+        }
+        return text.toString().trim();
+    }
+
+    private int subjectId() {
+        return db.dictionary().subjectId("História");
+    }
+
+    private int typeId() {
+        return db.dictionary().typeId("Prova");
+    }
+
+    private long count(String sql) {
+        try (Cursor cursor = db.query(sql, null)) {
+            cursor.moveToFirst();
+            return cursor.getLong(0);
+        }
+    }
+
+    private int insertNote(int userId, String content, String date) {
+        db.noteDao().insert(new Note(userId, subjectId(), typeId(), content, date));
+        List<Note> notes = db.noteDao().loadNotesByUser(userId);
+        return notes.get(notes.size() - 1).id;
+    }
+
+    private int insertUser(int index) {
+        return (int) db.userDao().insert(new User("Aluno " + index, "aluno" + index + "@escola.br",
+                "h" + index, SyntheticDataGenerator.cpfFor(index), false));
+    }
+}
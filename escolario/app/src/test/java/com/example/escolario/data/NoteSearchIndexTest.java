@@ -0,0 +1,194 @@
+package com.example.escolario.data;
+
+import android.app.Application;
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.escolario.model.Note;
+import com.example.escolario.model.NoteSearchResult;
+import com.example.escolario.model.User;
+import com.example.escolario.utils.DateUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes do índice de busca particionado por aluno (languageid): isolamento
+ * entre alunos, prefixos de uma letra, filtro de período por epochDay e o
+ * custo de uma busca independente do tamanho da escola (relatório em
+ * build/reports/benchmark/note-search.txt).
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class NoteSearchIndexTest {
+    // Escola pequena e grande com as mesmas notas por aluno
+    private static final int SMALL_SCHOOL = 10;
+    private static final int LARGE_SCHOOL = 400;
+    private static final int NOTES_PER_USER = 100;
+    private static final int SAMPLES = 200;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private AppDatabase db;
+
+    @Before
+    public void setUp() {
+        db = open("search.db");
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void search_onlySeesOwnersNotes() {
+        int ana = insertUser(0);
+        int bruno = insertUser(1);
+        insertNote(ana, "Matemática", "Prova de frações", "10/03/2025");
+        insertNote(bruno, "Matemática", "Prova de frações e decimais", "10/03/2025");
+        insertNote(bruno, "História", "Revolução Francesa", "11/03/2025");
+
+        assertEquals(1, search(ana, "fracoes", null, null).size());
+        assertEquals(1, search(bruno, "decimais", null, null).size());
+        assertTrue(search(ana, "decimais", null, null).isEmpty());
+        assertTrue(search(ana, "revolucao", null, null).isEmpty());
+    }
+
+    @Test
+    public void search_oneLetterPrefixUsesIndex() {
+        int ana = insertUser(0);
+        insertNote(ana, "Matemática", "Prova de frações", "10/03/2025");
+        insertNote(ana, "História", "Seminário sobre o Renascimento", "11/03/2025");
+
+        assertEquals(1, search(ana, "f", null, null).size());
+        assertEquals(1, search(ana, "r", null, null).size());
+        assertEquals(1, search(ana, "p", null, null).size());
+        assertEquals(1, search(ana, "s", null, null).size());
+        assertEquals(1, search(ana, "h", null, null).size());
+    }
+
+    @Test
+    public void search_filtersPeriodByEpochDay() {
+        int ana = insertUser(0);
+        insertNote(ana, "Matemática", "Prova de frações", "28/02/2025");
+        insertNote(ana, "Matemática", "Prova de frações", "01/03/2025");
+        insertNote(ana, "Matemática", "Prova de frações", "31/03/2025");
+        insertNote(ana, "Matemática", "Prova de frações", "01/04/2025");
+
+        int from = DateUtils.epochDay(2025, 3, 1);
+        int to = DateUtils.epochDay(2025, 3, 31);
+        List<NoteSearchResult> results = search(ana, "fracoes", from, to);
+        assertEquals(2, results.size());
+        for (NoteSearchResult result : results) {
+            assertTrue(Arrays.asList("01/03/2025", "31/03/2025").contains(result.date));
+        }
+        assertEquals(3, search(ana, "fracoes", from, null).size());
+        assertEquals(4, search(ana, "fracoes", null, null).size());
+    }
+
+    @Test
+    public void moveNote_reindexesUnderNewOwner() {
+        int ana = insertUser(0);
+        int bruno = insertUser(1);
+        Note note = db.noteDao().loadNote(insertNote(ana, "Matemática", "Prova de frações", "10/03/2025"));
+
+        note.userId = bruno;
+        db.noteDao().update(note);
+
+        assertTrue(search(ana, "fracoes", null, null).isEmpty());
+        assertEquals(1, search(bruno, "fracoes", null, null).size());
+    }
+
+    @Test
+    public void benchmark_costIndependentOfSchoolSize() throws IOException {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(42, 2025);
+        List<Integer> small = generator.populate(db, SMALL_SCHOOL, NOTES_PER_USER, 0).userIds;
+        AppDatabase large = open("large.db");
+        try {
+            List<Integer> big = new SyntheticDataGenerator(42, 2025)
+                    .populate(large, LARGE_SCHOOL, NOTES_PER_USER, 0).userIds;
+
+            String match = NoteSearch.buildMatchQuery("f");
+            long smallNanos = medianSearch(db, small, match);
+            long largeNanos = medianSearch(large, big, match);
+
+            String report = String.format(Locale.US,
+                    "== busca '%s', %d notas por aluno ==%n"
+                            + "%-26s %12s%n%-26s %12.1f%n%-26s %12.1f%n",
+                    match, NOTES_PER_USER, "escola", "p50 µs",
+                    SMALL_SCHOOL + " alunos", smallNanos / 1000.0,
+                    LARGE_SCHOOL + " alunos", largeNanos / 1000.0);
+            System.out.print(report);
+            DatabaseLoadBenchmarkTest.writeReport("note-search.txt", report);
+
+            // Escola 40x maior: a busca de um aluno não pode crescer junto
+            assertTrue("Busca cresce com a escola: " + smallNanos + " -> " + largeNanos + " ns",
+                    largeNanos < 4 * smallNanos + 1_000_000);
+        } finally {
+            large.close();
+        }
+    }
+
+    // Mediana do tempo de busca, alternando entre os alunos
+    private static long medianSearch(AppDatabase database, List<Integer> userIds, String match) {
+        NoteDao dao = database.noteDao();
+        for (int i = 0; i < 20; i++) {
+            dao.searchNotes(NoteSearch.searchQuery(userIds.get(i % userIds.size()), match, null, null, null));
+        }
+        long[] nanos = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            int userId = userIds.get(i % userIds.size());
+            long start = System.nanoTime();
+            List<NoteSearchResult> results = dao.searchNotes(
+                    NoteSearch.searchQuery(userId, match, null, null, null));
+            nanos[i] = System.nanoTime() - start;
+            assertFalse(results.isEmpty());
+        }
+        Arrays.sort(nanos);
+        return nanos[SAMPLES / 2];
+    }
+
+    private AppDatabase open(String name) {
+        Context context = ApplicationProvider.getApplicationContext();
+        File file = new File(folder.getRoot(), name);
+        return AppDatabase.configure(Room.databaseBuilder(context, AppDatabase.class, file.getPath()))
+                .allowMainThreadQueries()
+                .build();
+    }
+
+    private List<NoteSearchResult> search(int userId, String text, Integer fromDay, Integer toDay) {
+        return db.noteDao().searchNotes(NoteSearch.searchQuery(
+                userId, NoteSearch.buildMatchQuery(text), null, fromDay, toDay));
+    }
+
+    private int insertNote(int userId, String subject, String content, String date) {
+        NoteDictionary dictionary = db.dictionary();
+        db.noteDao().insert(new Note(userId, dictionary.subjectId(subject),
+                dictionary.typeId("Prova"), content, date));
+        List<Note> notes = db.noteDao().loadNotesByUser(userId);
+        return notes.get(notes.size() - 1).id;
+    }
+
+    private int insertUser(int index) {
+        return (int) db.userDao().insert(new User("Aluno " + index, "aluno" + index + "@escola.br",
+                "h" + index, SyntheticDataGenerator.cpfFor(index), false));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.escolario.data;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes locais da montagem da expressão MATCH e do ranking BM25.
+ */
+public class NoteSearchTest {
+
+    @Test
+    public void buildMatchQuery_prefixesEachTermAndStripsAccents() {
+        assertEquals("matematica* prova*", NoteSearch.buildMatchQuery("  Matemática, PROVA "));
+    }
+
+    @Test
+    public void buildMatchQuery_dropsFtsOperators() {
+        // Operadores viram termos comuns em minúsculas (o FTS4 só reconhece OR/AND/NOT)
+        assertEquals("a* or* b* c*", NoteSearch.buildMatchQuery("\"a\" OR-b* (c)"));
+        assertNull(NoteSearch.buildMatchQuery("\"*()-"));
+        assertNull(NoteSearch.buildMatchQuery(null));
+    }
+
+    @Test
+    public void bm25_ranksSubjectHitAboveContentHit() {
+        // 1 frase, 2 colunas, 100 linhas; média de 2 e 20 tokens por coluna
+        byte[] subjectHit = matchinfo(1, 2, 100, new int[]{2, 20}, new int[]{2, 20},
+                new int[]{1, 5, 5, 0, 8, 8});
+        byte[] contentHit = matchinfo(1, 2, 100, new int[]{2, 20}, new int[]{2, 20},
+                new int[]{0, 5, 5, 1, 8, 8});
+
+        double subjectScore = NoteSearch.bm25(subjectHit, NoteSearch.COLUMN_WEIGHTS);
+        double contentScore = NoteSearch.bm25(contentHit, NoteSearch.COLUMN_WEIGHTS);
+
+        assertTrue(contentScore > 0);
+        assertTrue(subjectScore > contentScore);
+    }
+
+    @Test
+    public void bm25_rareTermsWeighMore() {
+        byte[] rare = matchinfo(1, 2, 100, new int[]{2, 20}, new int[]{2, 20},
+                new int[]{0, 1, 1, 1, 1, 1});
+        byte[] common = matchinfo(1, 2, 100, new int[]{2, 20}, new int[]{2, 20},
+                new int[]{0, 1, 1, 1, 40, 40});
+
+        assertTrue(NoteSearch.bm25(rare, NoteSearch.COLUMN_WEIGHTS)
+                > NoteSearch.bm25(common, NoteSearch.COLUMN_WEIGHTS));
+    }
+
+    @Test
+    public void bm25_invalidBlobScoresZero() {
+        assertEquals(0, NoteSearch.bm25(null, NoteSearch.COLUMN_WEIGHTS), 0);
+        assertEquals(0, NoteSearch.bm25(new byte[4], NoteSearch.COLUMN_WEIGHTS), 0);
+    }
+
+    // Monta um blob matchinfo('pcnalx') na ordem nativa, como o SQLite
+    private static byte[] matchinfo(int p, int c, int n, int[] avg, int[] len, int[] hits) {
+        ByteBuffer buffer = ByteBuffer.allocate(4 * (3 + avg.length + len.length + hits.length))
+                .order(ByteOrder.nativeOrder());
+        buffer.putInt(p).putInt(c).putInt(n);
+        for (int v : avg) buffer.putInt(v);
+        for (int v : len) buffer.putInt(v);
+        for (int v : hits) buffer.putInt(v);
+        return buffer.array();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.escolario.data;
+
+import android.app.Application;
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.escolario.model.Note;
+import com.example.escolario.model.User;
+import com.example.escolario.model.UserNoteStats;
+import com.example.escolario.utils.DateUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes das estatísticas por aluno da lista de administração: uma
+ * consulta agregada por página, cache e descarte quando as notas mudam.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class NoteStatsCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private AppDatabase db;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        File file = new File(folder.getRoot(), "stats.db");
+        db = AppDatabase.configure(Room.databaseBuilder(context, AppDatabase.class, file.getPath()))
+                .allowMainThreadQueries()
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void load_aggregatesCountLastDayAndTypes() {
+        int student = insertUser(0);
+        int empty = insertUser(1);
+        insertNote(student, "Prova", "10/03/2025");
+        insertNote(student, "Prova", "02/04/2025");
+        insertNote(student, "Trabalho", "15/03/2025");
+        NoteStatsCache cache = db.noteStats();
+
+        Map<Integer, UserNoteStats> stats = cache.load(Arrays.asList(student, empty));
+
+        UserNoteStats first = stats.get(student);
+        assertEquals(3, first.noteCount);
+        assertEquals(DateUtils.toEpochDay("02/04/2025").intValue(), first.lastEpochDay);
+        Iterator<Map.Entry<String, Integer>> types = first.countsByType.entrySet().iterator();
+        assertEquals("Prova", types.next().getKey());
+        assertEquals(Integer.valueOf(1), types.next().getValue());
+        assertEquals(0, stats.get(empty).noteCount);
+        assertTrue(stats.get(empty).countsByType.isEmpty());
+        assertEquals(1, cache.queries());
+    }
+
+    @Test
+    public void load_onePagePerQueryRegardlessOfRoster() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            int id = insertUser(i);
+            ids.add(id);
+            insertNote(id, "Atividade", "01/03/2025");
+        }
+        NoteStatsCache cache = db.noteStats();
+
+        Map<Integer, UserNoteStats> page = cache.load(ids.subList(120, 150));
+        assertEquals(30, page.size());
+        assertEquals(1, cache.queries());
+
+        // Página já lida: nenhuma consulta
+        cache.load(ids.subList(120, 150));
+        assertEquals(1, cache.queries());
+    }
+
+    @Test
+    public void notesChanged_discardsCache() throws Exception {
+        int student = insertUser(0);
+        insertNote(student, "Prova", "10/03/2025");
+        NoteStatsCache cache = db.noteStats();
+        assertEquals(1, cache.load(Arrays.asList(student)).get(student).noteCount);
+
+        CountDownLatch invalidated = new CountDownLatch(1);
+        cache.addListener(invalidated::countDown);
+        insertNote(student, "Seminário", "20/03/2025");
+        assertTrue("Alterações não entregues", invalidated.await(5, TimeUnit.SECONDS));
+
+        UserNoteStats stats = cache.load(Arrays.asList(student)).get(student);
+        assertEquals(2, stats.noteCount);
+        assertEquals(Integer.valueOf(1), stats.countsByType.get("Seminário"));
+        assertEquals(2, cache.queries());
+    }
+
+    private void insertNote(int userId, String type, String date) {
+        db.noteDao().insert(new Note(userId, db.dictionary().subjectId("História"),
+                db.dictionary().typeId(type), type, date));
+    }
+
+    private int insertUser(int index) {
+        return (int) db.userDao().insert(new User("Aluno " + index, "aluno" + index + "@escola.br",
+                "h" + index, SyntheticDataGenerator.cpfFor(index), false));
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.escolario.data;
+
+import android.app.Application;
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * Regressão dos planos de consulta (EXPLAIN QUERY PLAN).
+ * <p>
+ * Lê todas as anotações @Query dos DAOs (no código-fonte, pois o Room não
+ * as mantém em tempo de execução) e as consultas @RawQuery de RAW_QUERIES,
+ * e obtém o plano de cada uma no esquema gerado pelo Room, com os mesmos
+ * triggers, índice de texto e migrações do aplicativo.
+ * <p>
+ * Falha se um plano varrer uma tabela (SCAN) ou criar uma B-tree
+ * temporária sem estar em ALLOWED, e se algum plano divergir do registrado
+ * em src/test/resources/query-plans.txt. Depois de revisar uma mudança
+ * intencional, o arquivo é regravado com:
+ *
+ *   ./gradlew testDebugUnitTest --tests '*QueryPlanTest' -PqueryPlans.update=true
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class QueryPlanTest {
+    private static final File DAO_DIR = new File("src/main/java/com/example/escolario/data");
+    private static final File SNAPSHOT = new File("src/test/resources/query-plans.txt");
+
+    // Uma ou mais strings concatenadas dentro de @Query(...)
+    private static final Pattern QUERY = Pattern.compile(
+            "@Query\\(\\s*((?:\"(?:[^\"\\\\]|\\\\.)*\"\\s*\\+?\\s*)+)\\)");
+    private static final Pattern STRING = Pattern.compile("\"((?:[^\"\\\\]|\\\\.)*)\"");
+    private static final Pattern RAW_QUERY = Pattern.compile("@RawQuery\\b");
+    private static final Pattern METHOD = Pattern.compile("(\\w+)\\s*\\(");
+    private static final Pattern PARAMETER = Pattern.compile(":\\w+");
+
+    /**
+     * Consultas montadas em código para os métodos @RawQuery; a chave
+     * começa com Dao.método (variações entre colchetes).
+     */
+    private static final Map<String, String> RAW_QUERIES = new LinkedHashMap<>();
+
+    static {
+        RAW_QUERIES.put("NoteDao.searchNotes",
+                NoteSearch.searchQuery(1, "mat*", null, null, null).getSql());
+        RAW_QUERIES.put("NoteDao.searchNotes[tipo+período]",
+                NoteSearch.searchQuery(1, "mat*", 1, 20148, 20178).getSql());
+    }
+
+    /**
+     * Varreduras aceitas, com o motivo: consulta -> linha do plano.
+     */
+    private static final Map<String, String> ALLOWED = new HashMap<>();
+
+    static {
+        // Dicionário inteiro, lido uma vez para o cache (poucas linhas)
+        ALLOWED.put("DictionaryDao.getSubjects", "SCAN subjects");
+        ALLOWED.put("DictionaryDao.getActivityTypes", "SCAN activity_types");
+        // Lista de turmas (poucas linhas), já na ordem do índice
+        ALLOWED.put("ClassDao.getClasses", "SCAN classes USING COVERING INDEX index_classes_year_name");
+        // Lista completa de alunos (carga inicial da lista por deltas)
+        ALLOWED.put("UserDao.getAllRegularUsers", "SCAN users");
+        ALLOWED.put("UserDao.loadRegularUsers", "SCAN users");
+        // LIKE '%texto%' não pode usar índice
+        ALLOWED.put("UserDao.searchUsers", "SCAN users");
+        ALLOWED.put("UserDao.loadUsersMatching", "SCAN users");
+        // Ordena uma linha por matéria, já agregada em stat_counters
+        ALLOWED.put("NoteDao.getNoteCountsBySubject", "USE TEMP B-TREE FOR ORDER BY");
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private AppDatabase db;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        File file = new File(folder.getRoot(), "plans.db");
+        db = AppDatabase.configure(Room.databaseBuilder(context, AppDatabase.class, file.getPath()))
+                .allowMainThreadQueries()
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void everyDaoQuery_usesIndexesAndMatchesSnapshot() throws IOException {
+        Map<String, String> queries = declaredQueries();
+        assertTrue("Nenhuma consulta encontrada em " + DAO_DIR.getAbsolutePath(),
+                queries.size() > RAW_QUERIES.size());
+
+        Map<String, String> plans = new LinkedHashMap<>();
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, String> query : queries.entrySet()) {
+            String plan = explain(query.getValue());
+            plans.put(query.getKey(), plan);
+            for (String line : plan.split("\n")) {
+                String step = line.trim();
+                if (isFullScan(step) && !step.equals(ALLOWED.get(query.getKey()))) {
+                    violations.add(query.getKey() + ": " + step + "\n    " + query.getValue());
+                }
+            }
+        }
+        assertTrue("Varreduras inesperadas:\n" + String.join("\n", violations), violations.isEmpty());
+
+        if (Boolean.getBoolean("queryPlans.update")) {
+            writeSnapshot(plans);
+            return;
+        }
+        assertTrue("Sem planos registrados; gere com -PqueryPlans.update=true", SNAPSHOT.isFile());
+
+        Map<String, String> expected = readSnapshot();
+        List<String> differences = new ArrayList<>();
+        for (Map.Entry<String, String> plan : plans.entrySet()) {
+            String previous = expected.remove(plan.getKey());
+            if (previous == null) {
+                differences.add("[" + plan.getKey() + "] sem plano registrado:\n" + plan.getValue());
+            } else if (!previous.equals(plan.getValue())) {
+                differences.add("[" + plan.getKey() + "] esperado:\n" + previous
+                        + "\n  atual:\n" + plan.getValue());
+            }
+        }
+        for (String removed : expected.keySet()) {
+            differences.add("[" + removed + "] registrado, mas a consulta não existe mais");
+        }
+        assertTrue("Planos diferentes do registrado (revise e regrave com "
+                        + "-PqueryPlans.update=true):\n" + String.join("\n", differences),
+                differences.isEmpty());
+    }
+
+    /**
+     * SCAN de tabela ou índice inteiros e B-trees temporárias. Busca pelo
+     * índice FTS (VIRTUAL TABLE INDEX) e a linha constante não contam.
+     */
+    private static boolean isFullScan(String step) {
+        if (step.startsWith("SCAN ")) {
+            return !step.contains("VIRTUAL TABLE INDEX") && !step.equals("SCAN CONSTANT ROW");
+        }
+        return step.contains("USE TEMP B-TREE");
+    }
+
+    /**
+     * Consultas de todos os DAOs (Dao.método -> SQL com "?" no lugar dos
+     * parâmetros), na ordem dos arquivos, seguidas das RAW_QUERIES.
+     */
+    private static Map<String, String> declaredQueries() throws IOException {
+        File[] files = DAO_DIR.listFiles((dir, name) -> name.endsWith("Dao.java"));
+        assertNotNull("Diretório dos DAOs não encontrado: " + DAO_DIR.getAbsolutePath(), files);
+        Arrays.sort(files);
+
+        Map<String, String> queries = new LinkedHashMap<>();
+        for (File file : files) {
+            String dao = file.getName().substring(0, file.getName().length() - ".java".length());
+            String source = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+
+            Matcher query = QUERY.matcher(source);
+            while (query.find()) {
+                StringBuilder sql = new StringBuilder();
+                Matcher literal = STRING.matcher(query.group(1));
+                while (literal.find()) {
+                    sql.append(literal.group(1).replace("\\\"", "\""));
+                }
+                String key = dao + "." + methodAfter(source, query.end());
+                assertNull("Consulta duplicada: " + key,
+                        queries.put(key, PARAMETER.matcher(sql).replaceAll("?")));
+            }
+
+            Matcher raw = RAW_QUERY.matcher(source);
+            while (raw.find()) {
+                String key = dao + "." + methodAfter(source, raw.end());
+                assertTrue("@RawQuery sem consulta em RAW_QUERIES: " + key,
+                        RAW_QUERIES.containsKey(key));
+            }
+        }
+        queries.putAll(RAW_QUERIES);
+        return queries;
+    }
+
+    // Nome do método declarado após a anotação
+    private static String methodAfter(String source, int offset) {
+        Matcher method = METHOD.matcher(source);
+        assertTrue(method.find(offset));
+        return method.group(1);
+    }
+
+    /**
+     * Plano da consulta, um passo por linha, indentado pela hierarquia.
+     * O formato antigo do SQLite ("SCAN TABLE x") é normalizado.
+     */
+    private String explain(String sql) {
+        SupportSQLiteDatabase sqlite = db.getOpenHelper().getReadableDatabase();
+        Map<Integer, Integer> depth = new HashMap<>();
+        StringBuilder plan = new StringBuilder();
+        try (Cursor cursor = sqlite.query("EXPLAIN QUERY PLAN " + sql)) {
+            while (cursor.moveToNext()) {
+                int id = cursor.getInt(0);
+                int parent = cursor.getInt(1);
+                int level = parent == 0 ? 0 : depth.getOrDefault(parent, -1) + 1;
+                depth.put(id, level);
+                String detail = cursor.getString(3)
+                        .replaceFirst("^(SCAN|SEARCH) TABLE ", "$1 ");
+                if (plan.length() > 0) plan.append('\n');
+                plan.append(repeat("  ", level)).append(detail);
+            }
+        }
+        return plan.toString();
+    }
+
+    private static String repeat(String text, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(text);
+        }
+        return builder.toString();
+    }
+
+    private static Map<String, String> readSnapshot() throws IOException {
+        Map<String, String> plans = new LinkedHashMap<>();
+        String key = null;
+        StringBuilder plan = new StringBuilder();
+        for (String line : Files.readAllLines(SNAPSHOT.toPath(), StandardCharsets.UTF_8)) {
+            if (line.startsWith("#")) {
+                continue;
+            }
+            if (line.startsWith("[") && line.endsWith("]")) {
+                if (key != null) plans.put(key, plan.toString());
+                key = line.substring(1, line.length() - 1);
+                plan.setLength(0);
+            } else if (!line.isEmpty() && key != null) {
+                if (plan.length() > 0) plan.append('\n');
+                plan.append(line);
+            }
+        }
+        if (key != null) plans.put(key, plan.toString());
+        return plans;
+    }
+
+    private static void writeSnapshot(Map<String, String> plans) throws IOException {
+        StringBuilder text = new StringBuilder()
+                .append("# Planos de consulta esperados (EXPLAIN QUERY PLAN) - ver QueryPlanTest.\n")
+                .append("# Regravar após revisar: -PqueryPlans.update=true\n");
+        for (Map.Entry<String, String> plan : plans.entrySet()) {
+            text.append('\n').append('[').append(plan.getKey()).append("]\n")
+                    .append(plan.getValue()).append('\n');
+        }
+        File dir = SNAPSHOT.getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Não foi possível criar " + dir);
+        }
+        Files.write(SNAPSHOT.toPath(), text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
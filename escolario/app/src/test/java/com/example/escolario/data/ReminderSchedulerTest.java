@@ -0,0 +1,232 @@
+package com.example.escolario.data;
+
+import android.app.AlarmManager;
+import android.app.Application;
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.escolario.model.Note;
+import com.example.escolario.model.Reminder;
+import com.example.escolario.model.UpcomingNote;
+import com.example.escolario.model.User;
+import com.example.escolario.utils.DateUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowAlarmManager;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Testes dos lembretes: agrupamento em lotes (poucos despertares),
+ * consulta por intervalo de datas e agendamento incremental.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class ReminderSchedulerTest {
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    private static final long HOUR_MS = 3_600_000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Context context;
+    private AppDatabase db;
+    private final List<List<Reminder>> shown = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        File file = new File(folder.getRoot(), "reminders.db");
+        db = AppDatabase.configure(Room.databaseBuilder(context, AppDatabase.class, file.getPath()))
+                .allowMainThreadQueries()
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void plan_groupsSameDayNotesInOneBatch() {
+        int day = 20_000;
+        long now = ReminderPlan.reminderTime(day, UTC) - 48 * HOUR_MS;
+        List<UpcomingNote> notes = Arrays.asList(
+                upcoming(1, day), upcoming(2, day), upcoming(3, day), upcoming(4, day + 2));
+
+        List<ReminderPlan.Batch> batches = ReminderPlan.plan(notes, day - 1, now, UTC);
+
+        assertEquals(2, batches.size());
+        assertEquals(3, batches.get(0).notes.size());
+        assertEquals(ReminderPlan.reminderTime(day, UTC), batches.get(0).fireAtMs);
+        assertEquals(day + 2, batches.get(1).lastDay());
+
+        // Dias já lembrados são ignorados
+        assertEquals(1, ReminderPlan.plan(notes, day, now, UTC).size());
+    }
+
+    @Test
+    public void plan_mergesPastDueDays() {
+        int day = 20_000;
+        long now = ReminderPlan.reminderTime(day + 1, UTC) + HOUR_MS;
+        List<UpcomingNote> notes = Arrays.asList(
+                upcoming(1, day), upcoming(2, day + 1), upcoming(3, day + 5));
+
+        List<ReminderPlan.Batch> batches = ReminderPlan.plan(notes, day - 1, now, UTC);
+
+        assertEquals(2, batches.size());
+        assertEquals(now, batches.get(0).fireAtMs);
+        assertEquals(2, batches.get(0).notes.size());
+    }
+
+    @Test
+    public void plan_wakeUpsBoundedByDays() {
+        int day = 20_000;
+        List<UpcomingNote> notes = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            notes.add(upcoming(i, day + i * ReminderScheduler.HORIZON_DAYS / 5_000));
+        }
+
+        List<ReminderPlan.Batch> batches = ReminderPlan.plan(notes, day - 1, 0, UTC);
+
+        assertEquals(ReminderScheduler.HORIZON_DAYS, batches.size());
+    }
+
+    @Test
+    public void reminderTime_isEveningBefore() {
+        int day = DateUtils.toEpochDay("10/03/2025");
+        TimeZone saoPaulo = TimeZone.getTimeZone("America/Sao_Paulo");
+
+        // 09/03/2025 18:00 em São Paulo (UTC-3)
+        assertEquals(ReminderPlan.reminderTime(day, UTC) + 3 * HOUR_MS,
+                ReminderPlan.reminderTime(day, saoPaulo));
+    }
+
+    @Test
+    public void loadUpcoming_filtersByRangeAndType() {
+        int userId = insertUser(0);
+        int prova = db.dictionary().typeId("Prova");
+        int atividade = db.dictionary().typeId("Atividade");
+        int subject = db.dictionary().subjectId("Matemática");
+        db.noteDao().insertAll(Arrays.asList(
+                new Note(userId, subject, prova, "P1", "10/03/2025"),
+                new Note(userId, subject, atividade, "Lista", "11/03/2025"),
+                new Note(userId, subject, prova, "P2", "30/03/2025"),
+                new Note(userId, subject, prova, "Sem data", "10-03-2025")));
+
+        int from = DateUtils.toEpochDay("01/03/2025");
+        List<UpcomingNote> found = db.noteDao().loadUpcoming(from, from + 14, Arrays.asList(prova));
+
+        assertEquals(1, found.size());
+        assertEquals(DateUtils.toEpochDay("10/03/2025").intValue(), found.get(0).epochDay);
+    }
+
+    @Test
+    public void scan_notifiesDueBatchOnceAndSchedulesNext() {
+        int today = ReminderPlan.today(System.currentTimeMillis(), UTC);
+        int userId = insertUser(0);
+        insertNote(userId, "Prova", today);
+        insertNote(userId, "Trabalho", today);
+        insertNote(userId, "Atividade", today);
+        insertNote(userId, "Prova", today + 5);
+        ReminderScheduler scheduler = newScheduler();
+
+        scheduler.scan(false);
+
+        // A prova e o trabalho de hoje, em uma única notificação
+        assertEquals(1, shown.size());
+        assertEquals(2, shown.get(0).size());
+        assertEquals("Aluno 0", shown.get(0).get(0).student);
+        // Um único alarme, na véspera da próxima prova
+        ShadowAlarmManager alarms = shadowOf((AlarmManager) context.getSystemService(Context.ALARM_SERVICE));
+        assertEquals(1, alarms.getScheduledAlarms().size());
+        assertEquals(ReminderPlan.reminderTime(today + 5, UTC),
+                alarms.getNextScheduledAlarm().getTriggerAtMs());
+
+        // O dia já lembrado não é notificado de novo
+        scheduler.scan(true);
+        assertEquals(1, shown.size());
+        assertEquals(1, scheduler.metrics().wakeUps);
+    }
+
+    @Test
+    public void notesChanged_sameDayIsIncremental_earlierDayRescans() throws Exception {
+        int today = ReminderPlan.today(System.currentTimeMillis(), UTC);
+        int userId = insertUser(0);
+        // A primeira nota é entregue pelo feed antes de o agendador ouvi-lo
+        CountDownLatch delivered = new CountDownLatch(1);
+        db.changeFeed().addListener("notes", changes -> delivered.countDown());
+        insertNote(userId, "Prova", today + 5);
+        assertTrue("Alterações não entregues", delivered.await(5, TimeUnit.SECONDS));
+        ReminderScheduler scheduler = newScheduler();
+        scheduler.scan(false);
+        ReminderScheduler.Metrics before = scheduler.metrics();
+        assertEquals(1, before.scheduledNotes);
+
+        // Mesmo dia do lote agendado: entra no lote, sem nova varredura
+        insertNote(userId, "Trabalho", today + 5);
+        ReminderScheduler.Metrics after = awaitChange(scheduler, before);
+        assertEquals(before.scans, after.scans);
+        assertEquals(2, after.scheduledNotes);
+
+        // Mais próxima que o alarme: nova varredura e alarme antecipado
+        insertNote(userId, "Prova", today + 3);
+        after = awaitChange(scheduler, after);
+        assertEquals(before.scans + 1, after.scans);
+        assertEquals(ReminderPlan.reminderTime(today + 3, UTC), after.nextFireAtMs);
+        assertTrue(shown.isEmpty());
+    }
+
+    private ReminderScheduler newScheduler() {
+        return new ReminderScheduler(context, () -> db,
+                (reminders, today) -> shown.add(reminders), UTC);
+    }
+
+    // Aguarda o ChangeFeed entregar a alteração ao agendador
+    private static ReminderScheduler.Metrics awaitChange(ReminderScheduler scheduler,
+                                                         ReminderScheduler.Metrics before)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline) {
+            ReminderScheduler.Metrics metrics = scheduler.metrics();
+            if (metrics.scans != before.scans || metrics.incrementalUpdates != before.incrementalUpdates) {
+                return metrics;
+            }
+            Thread.sleep(10);
+        }
+        fail("Alteração não entregue ao agendador");
+        return null;
+    }
+
+    private void insertNote(int userId, String type, int epochDay) {
+        db.noteDao().insert(new Note(userId, db.dictionary().subjectId("Física"),
+                db.dictionary().typeId(type), type, DateUtils.fromEpochDay(epochDay)));
+    }
+
+    private int insertUser(int index) {
+        return (int) db.userDao().insert(new User("Aluno " + index, "aluno" + index + "@escola.br",
+                "h" + index, SyntheticDataGenerator.cpfFor(index), false));
+    }
+
+    private static UpcomingNote upcoming(int id, int epochDay) {
+        return new UpcomingNote(id, 1, 1, 1, epochDay);
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.escolario.data;
+
+import android.app.Application;
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.escolario.model.Note;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Perfis de armazenamento: PRAGMAs aplicados na abertura e benchmark
+ * comparativo de cada perfil sobre um arquivo SQLite real.
+ *
+ * Para cada perfil, um banco novo é populado com o SyntheticDataGenerator
+ * e são medidas leituras (por e-mail e notas do aluno), escritas em
+ * transações individuais (o caso do aplicativo) e em lote, além do RSS
+ * do processo antes e depois da carga (VmRSS, Linux). Na JVM o RSS inclui
+ * o heap e serve apenas para comparar os perfis entre si; os números
+ * absolutos de latência dependem do disco da máquina.
+ *
+ * O volume segue a maior escala de -Pbenchmark.scales. O relatório é
+ * impresso e salvo em build/reports/benchmark/storage-profiles.txt.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class StorageProfileBenchmarkTest {
+    private static final long SEED = 2025L;
+    private static final int YEAR = 2025;
+    private static final int NOTES_PER_USER = 20;
+    private static final int SAMPLES = 300;
+    private static final int BATCH = 500;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void profiles_applyPragmasOnOpen() {
+        for (StorageProfile profile : StorageProfile.values()) {
+            AppDatabase db = open(profile);
+            try {
+                SupportSQLiteDatabase sqlite = db.getOpenHelper().getWritableDatabase();
+                boolean wal = profile.journalMode == RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING;
+                assertEquals(profile.name(), wal, "wal".equalsIgnoreCase(text(sqlite, "PRAGMA journal_mode")));
+                assertEquals(profile.name(), "FULL".equals(profile.synchronous) ? 2 : 1,
+                        number(sqlite, "PRAGMA synchronous"));
+                assertEquals(profile.name(), -profile.cacheSizeKb, number(sqlite, "PRAGMA cache_size"));
+                assertEquals(profile.name(), profile.walAutoCheckpointPages,
+                        number(sqlite, "PRAGMA wal_autocheckpoint"));
+                // Limitado por SQLITE_MAX_MMAP_SIZE da biblioteca
+                assertTrue(profile.name(), number(sqlite, "PRAGMA mmap_size") <= profile.mmapSizeBytes);
+            } finally {
+                db.close();
+            }
+        }
+    }
+
+    @Test
+    public void setProfile_reappliesPragmasToOpenDatabases() {
+        Context context = ApplicationProvider.getApplicationContext();
+        TenantDatabases tenants = new TenantDatabases(context, 2);
+        try {
+            tenants.setProfile(StorageProfile.BALANCED);
+            SupportSQLiteDatabase sqlite = tenants.currentDatabase().getOpenHelper().getWritableDatabase();
+            assertEquals(-StorageProfile.BALANCED.cacheSizeKb, number(sqlite, "PRAGMA cache_size"));
+
+            tenants.setProfile(StorageProfile.THROUGHPUT);
+            assertEquals(StorageProfile.THROUGHPUT, tenants.profile());
+            assertEquals(-StorageProfile.THROUGHPUT.cacheSizeKb, number(sqlite, "PRAGMA cache_size"));
+            assertEquals(StorageProfile.THROUGHPUT.walAutoCheckpointPages,
+                    number(sqlite, "PRAGMA wal_autocheckpoint"));
+        } finally {
+            tenants.closeAll();
+        }
+    }
+
+    @Test
+    public void storageProfileBenchmark() throws IOException {
+        int[] scales = DatabaseLoadBenchmarkTest.scales();
+        int users = scales[scales.length - 1];
+        StringBuilder report = new StringBuilder(String.format(Locale.US,
+                "%n== perfis de armazenamento, %d alunos, %d notas ==%n", users, users * NOTES_PER_USER));
+
+        for (StorageProfile profile : StorageProfile.values()) {
+            long rssBefore = rssKb();
+            AppDatabase db = open(profile);
+            try {
+                SyntheticDataGenerator generator = new SyntheticDataGenerator(SEED, YEAR);
+                SyntheticDataGenerator.Result loaded = generator.populate(db, users, NOTES_PER_USER, 0);
+                List<Integer> userIds = loaded.userIds;
+                List<String> emails = loaded.emails;
+                Random random = new Random(SEED);
+
+                report.append(String.format(Locale.US,
+                        "%n-- %s (journal %s, synchronous %s, cache %d KiB, mmap %d MiB, checkpoint %d páginas)%n"
+                                + "carga: %d ms%n%-26s %9s %10s %9s %9s %9s%n",
+                        profile, profile.journalMode, profile.synchronous, profile.cacheSizeKb,
+                        profile.mmapSizeBytes / (1024 * 1024), profile.walAutoCheckpointPages,
+                        loaded.elapsedMs, "operação", "amostras", "ops/s", "p50 µs", "p95 µs", "p99 µs"));
+
+                report.append(DatabaseLoadBenchmarkTest.measure("findByEmail", SAMPLES, i ->
+                        db.userDao().findByEmail(emails.get(random.nextInt(emails.size())))));
+                report.append(DatabaseLoadBenchmarkTest.measure("loadNotesByUser", SAMPLES, i ->
+                        db.noteDao().loadNotesByUser(userIds.get(random.nextInt(userIds.size())))));
+                report.append(DatabaseLoadBenchmarkTest.measure("insert(Note)", SAMPLES, i ->
+                        db.noteDao().insert(generator.newNote(userIds.get(random.nextInt(userIds.size()))))));
+                report.append(DatabaseLoadBenchmarkTest.measure("insert(Note) x" + BATCH, 5, i -> {
+                    List<Note> batch = new ArrayList<>(BATCH);
+                    for (int n = 0; n < BATCH; n++) {
+                        batch.add(generator.newNote(userIds.get(random.nextInt(userIds.size()))));
+                    }
+                    db.runInTransaction(() -> {
+                        for (Note note : batch) {
+                            db.noteDao().insert(note);
+                        }
+                    });
+                }));
+
+                report.append(String.format(Locale.US, "RSS: %+d KB (%d KB após a carga)%n",
+                        rssKb() - rssBefore, rssKb()));
+            } finally {
+                db.close();
+            }
+        }
+
+        System.out.print(report);
+        DatabaseLoadBenchmarkTest.writeReport("storage-profiles.txt", report.toString());
+    }
+
+    // Banco novo com o perfil, em seu próprio arquivo
+    private AppDatabase open(StorageProfile profile) {
+        Context context = ApplicationProvider.getApplicationContext();
+        File file = new File(folder.getRoot(), profile.name().toLowerCase(Locale.ROOT) + ".db");
+        return profile.apply(AppDatabase.configure(
+                        Room.databaseBuilder(context, AppDatabase.class, file.getPath())))
+                .allowMainThreadQueries()
+                .build();
+    }
+
+    private static long number(SupportSQLiteDatabase db, String sql) {
+        try (Cursor cursor = db.query(sql)) {
+            cursor.moveToFirst();
+            return cursor.getLong(0);
+        }
+    }
+
+    private static String text(SupportSQLiteDatabase db, String sql) {
+        try (Cursor cursor = db.query(sql)) {
+            cursor.moveToFirst();
+            return cursor.getString(0);
+        }
+    }
+
+    /**
+     * RSS do processo em KB (0 fora do Linux), após uma coleta de lixo.
+     */
+    private static long rssKb() {
+        System.gc();
+        File status = new File("/proc/self/status");
+        if (!status.isFile()) {
+            return 0;
+        }
+        try {
+            for (String line : Files.readAllLines(status.toPath(), StandardCharsets.UTF_8)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D+", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Sem a medição de memória
+        }
+        return 0;
+    }
+}
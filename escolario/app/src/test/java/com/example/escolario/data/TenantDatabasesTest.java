@@ -0,0 +1,241 @@
+package com.example.escolario.data;
+
+import android.app.Application;
+import android.content.Context;
+import android.os.Looper;
+
+import androidx.lifecycle.Observer;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.escolario.model.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Testes dos bancos por escola: abertura sob demanda, fora do bloqueio
+ * do pool e fora da thread principal para as telas, fila LRU de bancos abertos, escola atual persistida e consultas
+ * em várias escolas.
+ * <p>
+ * Os bancos do pool não permitem consultas na thread principal, então
+ * os testes que os acessam rodam em uma thread de trabalho.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class TenantDatabasesTest {
+
+    private Context context;
+    private TenantDatabases tenants;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor();
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        tenants = new TenantDatabases(context, 2);
+    }
+
+    @After
+    public void tearDown() {
+        tenants.closeAll();
+        worker.shutdownNow();
+    }
+
+    @Test
+    public void lru_closesLeastRecentlyUsedButNeverTheCurrent() throws Exception {
+        onWorker(() -> {
+            AppDatabase current = tenants.currentDatabase();
+            AppDatabase a = open("escola_a");
+            AppDatabase b = open("escola_b");
+
+            assertEquals(2, tenants.openCount());
+            assertFalse("Menos usado deveria ser fechado", a.isOpen());
+            assertTrue(b.isOpen());
+            assertSame(current, tenants.currentDatabase());
+
+            // Reaberto sob demanda, com os dados preservados no arquivo
+            assertEquals(1, open("escola_a").userDao().loadRegularUsers().size());
+            assertEquals("escolario_db_escola_a", AppDatabase.databaseName("escola_a"));
+        });
+    }
+
+    @Test
+    public void lease_keepsDatabaseOpenBeyondTheLimit() throws Exception {
+        onWorker(() -> {
+            tenants.currentDatabase();
+            AppDatabase held = tenants.acquire("escola_a");
+            held.userDao().loadRegularUsers();
+            open("escola_b");
+            open("escola_c");
+
+            assertTrue("Banco em uso não pode ser fechado", held.isOpen());
+
+            tenants.release("escola_a");
+            open("escola_d");
+            assertFalse(held.isOpen());
+            assertEquals(2, tenants.openCount());
+        });
+    }
+
+    @Test
+    public void slowOpen_doesNotBlockOtherTenants() throws Exception {
+        CountDownLatch opening = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        tenants.setOpenListener((tenant, db) -> {
+            if (tenant.equals("escola_a")) {
+                opening.countDown();
+                try {
+                    proceed.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            Future<AppDatabase> slow = other.submit(() -> tenants.acquire("escola_a"));
+            assertTrue(opening.await(30, TimeUnit.SECONDS));
+
+            // Abertura de escola_a em curso: as outras escolas não esperam por ela
+            onWorker(() -> {
+                assertNotNull(tenants.currentDatabase());
+                open("escola_b");
+            });
+            assertFalse(slow.isDone());
+
+            proceed.countDown();
+            assertTrue(slow.get(30, TimeUnit.SECONDS).isOpen());
+            tenants.release("escola_a");
+        } finally {
+            proceed.countDown();
+            other.shutdownNow();
+        }
+    }
+
+    @Test
+    public void observeCurrent_opensOffTheMainThread() throws Exception {
+        CountDownLatch proceed = new CountDownLatch(1);
+        AtomicReference<Thread> openedOn = new AtomicReference<>();
+        tenants.setOpenListener((tenant, db) -> {
+            openedOn.set(Thread.currentThread());
+            try {
+                proceed.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        List<AppDatabase> published = new ArrayList<>();
+        Observer<AppDatabase> observer = db -> {
+            if (db != null) {
+                published.add(db);
+            }
+        };
+
+        // Abertura presa no listener: observar não espera por ela
+        tenants.observeCurrent().observeForever(observer);
+        try {
+            shadowOf(Looper.getMainLooper()).idle();
+            assertTrue(published.isEmpty());
+
+            proceed.countDown();
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (published.isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+                shadowOf(Looper.getMainLooper()).idle();
+            }
+            assertEquals(1, published.size());
+            assertNotSame(Looper.getMainLooper().getThread(), openedOn.get());
+            onWorker(() -> assertSame(published.get(0), tenants.currentDatabase()));
+        } finally {
+            proceed.countDown();
+            tenants.observeCurrent().removeObserver(observer);
+        }
+    }
+
+    @Test
+    public void switchTo_persistsCurrentTenant() {
+        tenants.switchTo("escola_b");
+        assertEquals("escola_b", tenants.current());
+        assertEquals("escola_b", new TenantDatabases(context, 2).current());
+
+        try {
+            tenants.switchTo("Escola B");
+            fail("ID inválido aceito");
+        } catch (IllegalArgumentException expected) {
+            assertEquals("escola_b", tenants.current());
+        }
+    }
+
+    @Test
+    public void crossTenantQuery_fansOutWithinTheOpenLimit() throws Exception {
+        String[] ids = {"escola_a", "escola_b", "escola_c", "escola_d"};
+        onWorker(() -> {
+            for (int i = 0; i < ids.length; i++) {
+                AppDatabase db = tenants.acquire(ids[i]);
+                try {
+                    for (int n = 0; n <= i; n++) {
+                        db.userDao().insert(new User("Aluno " + n, "aluno" + n + "@" + ids[i] + ".br",
+                                "hash", SyntheticDataGenerator.cpfFor(n), false));
+                    }
+                } finally {
+                    tenants.release(ids[i]);
+                }
+            }
+        });
+
+        CrossTenantQuery query = new CrossTenantQuery(tenants);
+        Map<String, Integer> counts = query.run(Arrays.asList(ids),
+                db -> db.userDao().loadRegularUsers().size());
+
+        assertEquals(Arrays.asList(ids), new ArrayList<>(counts.keySet()));
+        assertEquals(Integer.valueOf(1), counts.get("escola_a"));
+        assertEquals(Integer.valueOf(4), counts.get("escola_d"));
+        assertEquals(10, query.sumAll(db -> db.userDao().loadRegularUsers().size()));
+        assertTrue(tenants.list().containsAll(Arrays.asList(ids)));
+        assertTrue(tenants.openCount() <= 2);
+    }
+
+    // Executa o trecho na thread de trabalho, repassando falhas de asserção
+    private void onWorker(Runnable task) throws Exception {
+        try {
+            worker.submit(task).get(30, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    // Abre o banco da escola com um aluno (se ainda não tiver) e o libera
+    private AppDatabase open(String tenant) {
+        AppDatabase db = tenants.acquire(tenant);
+        try {
+            if (db.userDao().findByEmail("aluno@" + tenant + ".br") == null) {
+                db.userDao().insert(new User("Aluno", "aluno@" + tenant + ".br", "hash",
+                        SyntheticDataGenerator.cpfFor(0), false));
+            }
+        } finally {
+            tenants.release(tenant);
+        }
+        return db;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.escolario.data;
+
+import android.app.Application;
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.escolario.model.User;
+import com.example.escolario.utils.BCryptKdf;
+import com.example.escolario.utils.Cpf;
+import com.example.escolario.utils.PasswordUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes do cadastro em pipeline: conflitos específicos e corrida entre
+ * cadastros simultâneos com o mesmo email.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class UserRegistrationTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private AppDatabase db;
+
+    @Before
+    public void setUp() {
+        // Custo mínimo do BCrypt para manter o teste rápido
+        PasswordUtils.setPolicy(BCryptKdf.ID, 4);
+        Context context = ApplicationProvider.getApplicationContext();
+        File file = new File(folder.getRoot(), "registration.db");
+        db = AppDatabase.configure(Room.databaseBuilder(context, AppDatabase.class, file.getPath()))
+                .allowMainThreadQueries()
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+        PasswordUtils.setPolicy(BCryptKdf.ID, 12);
+    }
+
+    @Test
+    public void register_reportsSpecificConflicts() throws Exception {
+        UserRegistration registration = new UserRegistration(db);
+        User user = registration.register("Ana Silva", "ana@escola.com.br", "529.982.247-25", "Senha123");
+
+        assertTrue(user.id > 0);
+        assertEquals(52998224725L, user.cpf);
+        assertEquals(user.id, db.userDao().findByCpf("529 982 247 25").id);
+        assertNull(db.userDao().findByCpf("529.982.247-26"));
+        assertTrue(PasswordUtils.verify("Senha123", user.password));
+
+        try {
+            registration.register("Outra Ana", "ana@escola.com.br", "11144477735", "Senha123");
+            fail("Email duplicado aceito");
+        } catch (UserRegistration.ConflictException e) {
+            assertEquals(UserRegistration.Conflict.EMAIL_TAKEN, e.conflict);
+        }
+
+        try {
+            registration.register("Ana Souza", "ana.souza@escola.com.br", "52998224725", "Senha123");
+            fail("CPF duplicado aceito");
+        } catch (UserRegistration.ConflictException e) {
+            assertEquals(UserRegistration.Conflict.CPF_TAKEN, e.conflict);
+        }
+    }
+
+    @Test
+    public void concurrentRegistrations_onlyOneWins() throws Exception {
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            String cpf = Cpf.format(SyntheticDataGenerator.cpfFor(i));
+            Callable<Boolean> task = () -> {
+                start.await();
+                try {
+                    new UserRegistration(db).register("Aluno", "mesmo@escola.com.br", cpf, "Senha123");
+                    return true;
+                } catch (UserRegistration.ConflictException e) {
+                    assertEquals(UserRegistration.Conflict.EMAIL_TAKEN, e.conflict);
+                    return false;
+                }
+            };
+            results.add(executor.submit(task));
+        }
+        start.countDown();
+
+        int winners = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) winners++;
+        }
+        executor.shutdown();
+
+        assertEquals(1, winners);
+        assertTrue(db.userDao().emailExists("mesmo@escola.com.br"));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.escolario.data;
+
+import android.app.Application;
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.escolario.model.NoteDraft;
+import com.example.escolario.model.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes do cache de usuários recentes: leituras sem banco após o
+ * aquecimento, limite LRU e invalidação pelo ChangeFeed.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class WarmUserCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private AppDatabase db;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        File file = new File(folder.getRoot(), "warm.db");
+        db = AppDatabase.configure(Room.databaseBuilder(context, AppDatabase.class, file.getPath()))
+                .allowMainThreadQueries()
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void warm_servesUserAndDraftFromMemory() {
+        int id = insertUser(0);
+        db.noteDraftDao().save(new NoteDraft(id, "Física", "Prova", "10/03/2025", "Capítulo 2"));
+        WarmUserCache cache = new WarmUserCache(db, 4);
+
+        cache.warm(id);
+        long misses = cache.stats()[1];
+        assertEquals("Aluno 0", cache.user(id).name);
+        assertEquals("Capítulo 2", cache.draft(id).content);
+        assertEquals(misses, cache.stats()[1]);
+
+        // Gravações do repositório atualizam o cache
+        cache.putDraft(id, null);
+        assertNull(cache.draft(id));
+        assertEquals(misses, cache.stats()[1]);
+    }
+
+    @Test
+    public void capacity_evictsLeastRecentlyUsed() {
+        WarmUserCache cache = new WarmUserCache(db, 2);
+        int first = insertUser(0);
+        int second = insertUser(1);
+        int third = insertUser(2);
+
+        cache.user(first);
+        cache.user(second);
+        cache.user(first);
+        cache.user(third); // Remove o segundo, o menos usado
+
+        long misses = cache.stats()[1];
+        cache.user(first);
+        cache.user(third);
+        assertEquals(misses, cache.stats()[1]);
+        cache.user(second);
+        assertEquals(misses + 1, cache.stats()[1]);
+    }
+
+    @Test
+    public void changedOrDeletedUsers_areReloaded() throws Exception {
+        int id = insertUser(0);
+        WarmUserCache cache = new WarmUserCache(db, 4);
+        assertEquals("h0", cache.user(id).password);
+
+        // Ouvinte registrado depois do cache: recebe as alterações depois dele
+        CountDownLatch delivered = new CountDownLatch(1);
+        db.changeFeed().addListener("users", changes -> delivered.countDown());
+        db.userDao().updatePasswordHash(id, "h0", "h1");
+        assertTrue("Alterações não entregues", delivered.await(5, TimeUnit.SECONDS));
+
+        assertEquals("h1", cache.user(id).password);
+    }
+
+    private int insertUser(int index) {
+        return (int) db.userDao().insert(new User("Aluno " + index, "aluno" + index + "@escola.br",
+                "h" + index, SyntheticDataGenerator.cpfFor(index), false));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.escolario.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes locais da chave numérica de CPF: conversão da entrada,
+ * dígitos verificadores e formatação com zeros à esquerda.
+ */
+public class CpfTest {
+
+    @Test
+    public void parse_acceptsFormattedAndPlainInput() {
+        assertEquals(52998224725L, Cpf.parse("529.982.247-25"));
+        assertEquals(52998224725L, Cpf.parse("52998224725"));
+        assertEquals(52998224725L, Cpf.parse(" 529 982 247 25 "));
+    }
+
+    @Test
+    public void parse_rejectsInvalidInput() {
+        assertEquals(Cpf.INVALID, Cpf.parse(null));
+        assertEquals(Cpf.INVALID, Cpf.parse(""));
+        assertEquals(Cpf.INVALID, Cpf.parse("529.982.247-26"));   // dígito verificador
+        assertEquals(Cpf.INVALID, Cpf.parse("5299822472"));       // 10 dígitos
+        assertEquals(Cpf.INVALID, Cpf.parse("529982247250"));     // 12 dígitos
+        assertEquals(Cpf.INVALID, Cpf.parse("529/982/247-25"));
+    }
+
+    @Test
+    public void parse_rejectsRepeatedDigits() {
+        // Passam nos dígitos verificadores, mas não são CPFs
+        assertEquals(Cpf.INVALID, Cpf.parse("000.000.000-00"));
+        assertEquals(Cpf.INVALID, Cpf.parse("111.111.111-11"));
+        assertEquals(Cpf.INVALID, Cpf.parse("99999999999"));
+        assertTrue(Cpf.isRepeated(55_555_555_555L));
+        assertFalse(Cpf.isRepeated(52998224725L));
+    }
+
+    @Test
+    public void adminKey_isOutsideEveryCpfRange() {
+        assertFalse(Cpf.isValid(Cpf.ADMIN));
+        assertFalse(Cpf.isPending(Cpf.ADMIN));
+        assertNotEquals(Cpf.INVALID, Cpf.ADMIN);
+        assertEquals("Administrador", Cpf.format(Cpf.ADMIN));
+    }
+
+    @Test
+    public void format_keepsLeadingZeros() {
+        long cpf = Cpf.parse("012.345.678-90");
+        assertEquals(1234567890L, cpf);
+        assertEquals("01234567890", Cpf.digits(cpf));
+        assertEquals("012.345.678-90", Cpf.format(cpf));
+        assertEquals(cpf, Cpf.parse(Cpf.format(cpf)));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.escolario.utils;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes locais dos formatos de hash e da política de rehash.
+ * Usa custos baixos para manter os testes rápidos.
+ */
+public class PasswordUtilsTest {
+
+    @After
+    public void tearDown() {
+        PasswordUtils.setPolicy(BCryptKdf.ID, 12);
+    }
+
+    @Test
+    public void pbkdf2_matchesRfcTestVector() {
+        // PBKDF2-HMAC-SHA256, P = "password", S = "salt", c = 1, dkLen = 32
+        byte[] derived = Pbkdf2Kdf.derive("password".getBytes(StandardCharsets.UTF_8),
+                "salt".getBytes(StandardCharsets.UTF_8), 1, 32);
+        assertEquals("120fb6cffcf8b32c43e7225256c4f837a86548c92ccc35480805987cb70be17b",
+                hex(derived));
+    }
+
+    @Test
+    public void oldAndNewFormatsCoexist() {
+        PasswordUtils.setPolicy(BCryptKdf.ID, 4);
+        String legacy = PasswordUtils.hash("Segredo1");
+
+        PasswordUtils.setPolicy(Pbkdf2Kdf.ID, 1_000);
+        String current = PasswordUtils.hash("Segredo1");
+
+        assertTrue(current.startsWith("$pbkdf2-sha256$1000$"));
+        assertTrue(PasswordUtils.verify("Segredo1", legacy));
+        assertTrue(PasswordUtils.verify("Segredo1", current));
+        assertFalse(PasswordUtils.verify("Segredo2", legacy));
+        assertFalse(PasswordUtils.verify("Segredo2", current));
+        assertFalse(PasswordUtils.verify("Segredo1", "$desconhecido$abc"));
+    }
+
+    @Test
+    public void bcrypt_claimsOnlySupportedRevision() {
+        PasswordUtils.setPolicy(BCryptKdf.ID, 4);
+        String hash = PasswordUtils.hash("Segredo1");
+        assertTrue(hash.startsWith("$2a$"));
+        assertTrue(new BCryptKdf().canVerify(hash));
+
+        // Revisões que o jbcrypt não lê não são reivindicadas pelo BCryptKdf
+        for (String revision : new String[]{"$2b$", "$2y$"}) {
+            String other = revision + hash.substring(4);
+            assertFalse(new BCryptKdf().canVerify(other));
+            assertFalse(PasswordUtils.verify("Segredo1", other));
+        }
+    }
+
+    @Test
+    public void needsRehash_whenAlgorithmOrCostDiffers() {
+        PasswordUtils.setPolicy(BCryptKdf.ID, 4);
+        String cost4 = PasswordUtils.hash("Segredo1");
+        assertFalse(PasswordUtils.needsRehash(cost4));
+
+        PasswordUtils.setPolicy(BCryptKdf.ID, 5);
+        assertTrue(PasswordUtils.needsRehash(cost4));
+
+        PasswordUtils.setPolicy(Pbkdf2Kdf.ID, 1_000);
+        assertTrue(PasswordUtils.needsRehash(cost4));
+        assertFalse(PasswordUtils.needsRehash(PasswordUtils.hash("Segredo1")));
+    }
+
+    @Test
+    public void calibrate_respectsSecurityFloor() {
+        // Orçamento impossível: ainda assim o mínimo de segurança é mantido
+        assertEquals(BCryptKdf.MIN_COST, new BCryptKdf().calibrate(0));
+        assertEquals(Pbkdf2Kdf.MIN_ITERATIONS, new Pbkdf2Kdf().calibrate(0));
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
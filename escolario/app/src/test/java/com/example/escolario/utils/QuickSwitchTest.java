@@ -0,0 +1,166 @@
+package com.example.escolario.utils;
+
+import android.app.Application;
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.List;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes do modo de aparelho compartilhado: lista de recentes limitada,
+ * verificação do PIN (amarrado à chave do aparelho) e bloqueio após
+ * tentativas erradas.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class QuickSwitchTest {
+    // Chaves de aparelho simuladas (o Robolectric não tem Android Keystore)
+    private static final PinKey DEVICE_KEY = pin -> hmac("aparelho-a", pin);
+    private static final PinKey OTHER_DEVICE_KEY = pin -> hmac("aparelho-b", pin);
+
+    private Context context;
+    private QuickSwitch quickSwitch;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        quickSwitch = new QuickSwitch(context, "escola_a", DEVICE_KEY);
+        quickSwitch.setEnabled(true);
+    }
+
+    @Test
+    public void remember_keepsMostRecentFirstAndBounded() {
+        for (int id = 1; id <= QuickSwitch.MAX_RECENT + 2; id++) {
+            quickSwitch.remember(id, "Aluno " + id, "aluno" + id + "@escola.br");
+        }
+        quickSwitch.remember(5, "Aluno 5", "aluno5@escola.br");
+
+        List<QuickSwitch.RecentUser> users = quickSwitch.recentUsers();
+        assertEquals(QuickSwitch.MAX_RECENT, users.size());
+        assertEquals(5, users.get(0).id);
+        assertEquals(QuickSwitch.MAX_RECENT + 2, users.get(1).id);
+        // Os dois mais antigos saíram da lista
+        for (QuickSwitch.RecentUser user : users) {
+            assertTrue(user.id > 2);
+        }
+    }
+
+    @Test
+    public void verifyPin_acceptsOnlyTheRegisteredPin() {
+        quickSwitch.remember(1, "Ana", "ana@escola.br");
+        quickSwitch.remember(2, "Bruno", "bruno@escola.br");
+        assertEquals(QuickSwitch.Result.LOCKED, quickSwitch.verifyPin(1, "1234"));
+
+        quickSwitch.setPin(1, "1234");
+        assertTrue(quickSwitch.hasPin(1));
+        assertEquals(QuickSwitch.Result.WRONG, quickSwitch.verifyPin(1, "4321"));
+        assertEquals(QuickSwitch.Result.OK, quickSwitch.verifyPin(1, "1234"));
+        // O acerto zera os erros e coloca o aluno no topo
+        assertEquals(QuickSwitch.MAX_ATTEMPTS, quickSwitch.attemptsLeft(1));
+        assertEquals(1, quickSwitch.recentUsers().get(0).id);
+    }
+
+    @Test
+    public void verifyPin_locksAfterMaxAttempts() {
+        quickSwitch.remember(1, "Ana", "ana@escola.br");
+        quickSwitch.setPin(1, "123456");
+        for (int i = 1; i < QuickSwitch.MAX_ATTEMPTS; i++) {
+            assertEquals(QuickSwitch.Result.WRONG, quickSwitch.verifyPin(1, "000000"));
+        }
+        assertEquals(QuickSwitch.Result.LOCKED, quickSwitch.verifyPin(1, "000000"));
+
+        // PIN apagado: nem o correto é aceito; o aluno continua na lista
+        assertFalse(quickSwitch.hasPin(1));
+        assertEquals(QuickSwitch.Result.LOCKED, quickSwitch.verifyPin(1, "123456"));
+        assertEquals(1, quickSwitch.recentUsers().size());
+    }
+
+    @Test
+    public void verifyPin_requiresTheDeviceKey() {
+        quickSwitch.remember(1, "Ana", "ana@escola.br");
+        quickSwitch.setPin(1, "1234");
+
+        // Mesmo arquivo de preferências, outra chave: o PIN certo não confere
+        QuickSwitch copied = new QuickSwitch(context, "escola_a", OTHER_DEVICE_KEY);
+        assertEquals(QuickSwitch.Result.WRONG, copied.verifyPin(1, "1234"));
+        assertEquals(QuickSwitch.Result.OK, quickSwitch.verifyPin(1, "1234"));
+    }
+
+    @Test
+    public void setPin_saltsEachPin() throws Exception {
+        quickSwitch.remember(1, "Ana", "ana@escola.br");
+        quickSwitch.remember(2, "Bruno", "bruno@escola.br");
+        quickSwitch.setPin(1, "1234");
+        quickSwitch.setPin(2, "1234");
+
+        // O mesmo PIN não produz o mesmo valor guardado
+        JSONArray entries = new JSONArray(context.getSharedPreferences(
+                "ESCOLARIO_SHARED_DEVICE", Context.MODE_PRIVATE).getString("recent_escola_a", null));
+        assertNotEquals(entries.getJSONObject(0).getString("pin"),
+                entries.getJSONObject(1).getString("pin"));
+        assertEquals(QuickSwitch.Result.OK, quickSwitch.verifyPin(1, "1234"));
+        assertEquals(QuickSwitch.Result.OK, quickSwitch.verifyPin(2, "1234"));
+    }
+
+    @Test
+    public void verifyPin_dropsPinsWithoutDeviceKey() throws Exception {
+        // PIN gravado por versões anteriores: só PBKDF2, sem pinVersion
+        JSONObject entry = new JSONObject()
+                .put("id", 1).put("name", "Ana").put("email", "ana@escola.br")
+                .put("pin", new Pbkdf2Kdf().hash("1234", 1_000)).put("failures", 0);
+        context.getSharedPreferences("ESCOLARIO_SHARED_DEVICE", Context.MODE_PRIVATE).edit()
+                .putString("recent_escola_a", new JSONArray().put(entry).toString()).commit();
+
+        assertFalse(quickSwitch.hasPin(1));
+        assertEquals(QuickSwitch.Result.LOCKED, quickSwitch.verifyPin(1, "1234"));
+        assertEquals(1, quickSwitch.recentUsers().size());
+        assertFalse(quickSwitch.recentUsers().get(0).hasPin);
+    }
+
+    @Test
+    public void listsAreSeparatedByTenantAndClearedWhenDisabled() {
+        quickSwitch.remember(1, "Ana", "ana@escola.br");
+        assertTrue(new QuickSwitch(context, "escola_b").recentUsers().isEmpty());
+
+        quickSwitch.setEnabled(false);
+        assertTrue(quickSwitch.recentUsers().isEmpty());
+        quickSwitch.remember(1, "Ana", "ana@escola.br");
+        assertTrue("Lembrado com o modo desligado", quickSwitch.recentUsers().isEmpty());
+    }
+
+    @Test
+    public void isValidPin_requiresFourToSixDigits() {
+        assertTrue(QuickSwitch.isValidPin("0000"));
+        assertTrue(QuickSwitch.isValidPin("123456"));
+        assertFalse(QuickSwitch.isValidPin("123"));
+        assertFalse(QuickSwitch.isValidPin("1234567"));
+        assertFalse(QuickSwitch.isValidPin("12a4"));
+        assertFalse(QuickSwitch.isValidPin(null));
+    }
+
+    private static byte[] hmac(String key, byte[] pin) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return mac.doFinal(pin);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}